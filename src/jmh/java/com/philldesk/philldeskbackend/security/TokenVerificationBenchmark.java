@@ -0,0 +1,61 @@
+package com.philldesk.philldeskbackend.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of JwtUtils.parseValidClaims for a token already in the verified-token cache
+ * against one that has to be verified: a cache of size zero keeps every call on the
+ * uncached path, lookup and signature check included.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=TokenVerification}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenVerificationBenchmark {
+
+    private static final String SECRET = "PhillDeskSecretKeyForJWTTokenGenerationAndValidation2024";
+
+    @Param({"0", "10000"})
+    private int cacheEntries;
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", (int) TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxEntries", cacheEntries);
+        jwtUtils.init();
+
+        UserPrincipal principal = UserPrincipal.fromToken(1L, "benchmark", "benchmark@example.com",
+                "ROLE_CUSTOMER", 0);
+        token = jwtUtils.generateJwtToken(principal, UUID.randomUUID().toString());
+        jwtUtils.parseValidClaims(token);
+    }
+
+    @Benchmark
+    public Claims parseValidClaims() {
+        return jwtUtils.parseValidClaims(token);
+    }
+}
@@ -0,0 +1,666 @@
+package com.philldesk.philldeskbackend.analytics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Columnar, append-only store of paid bill items used by the analytics endpoints.
+ *
+ * Every row is one bill item of a paid bill, held in parallel primitive arrays
+ * (day, bill, medicine, pharmacist, customer, payment method, quantity and amount
+ * in minor units) so scans never go through Hibernate or BigDecimal. The first row
+ * of each bill also carries the bill's total after discount and tax, which is what
+ * revenue adds up; the other rows carry zero there. Rows are appended in payment
+ * order, which keeps the day column sorted and lets range queries binary-search
+ * their bounds.
+ *
+ * Writers are serialised on a lock; readers are lock-free and see a consistent
+ * prefix of the rows through the volatile size of the columns they read. Removing
+ * a bill only sets its rows in a tombstone bitmap that every scan skips; the rows
+ * themselves are dropped by {@link #compact()}, which the snapshot cycle runs and
+ * which also restores the day order after out-of-order appends.
+ */
+public class BillFactStore {
+
+    private static final int SNAPSHOT_MAGIC = 0x50444246;
+    private static final int SNAPSHOT_VERSION = 2;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    public enum GroupKey {
+        MEDICINE,
+        PHARMACIST,
+        CUSTOMER,
+        PAYMENT_METHOD
+    }
+
+    private final Object writeLock = new Object();
+    private final BillRowIndex billRows = new BillRowIndex();
+    private volatile Columns columns = new Columns(INITIAL_CAPACITY);
+    private volatile boolean sorted = true;
+    private volatile long version;
+    // Tombstoned rows still held in the columns; guarded by writeLock
+    private int removedRows;
+
+    /**
+     * Append all items of one paid bill. Returns false when the bill is already in the store.
+     */
+    public boolean appendBill(long billId, int epochDay, long pharmacistId, long customerId, int paymentMethod,
+                              long billTotalMinor, long[] medicineIds, int[] quantities, long[] amountsMinor) {
+        int rows = medicineIds.length;
+        if (quantities.length != rows || amountsMinor.length != rows) {
+            throw new IllegalArgumentException("Bill item columns must have the same length");
+        }
+        synchronized (writeLock) {
+            if (billRows.get(billId) >= 0) {
+                return false;
+            }
+            int start = columns.size;
+            Columns target = ensureCapacity(start + rows);
+            for (int i = 0; i < rows; i++) {
+                int row = start + i;
+                target.day[row] = epochDay;
+                target.bill[row] = billId;
+                target.medicine[row] = medicineIds[i];
+                target.pharmacist[row] = pharmacistId;
+                target.customer[row] = customerId;
+                target.paymentMethod[row] = paymentMethod;
+                target.quantity[row] = quantities[i];
+                target.amount[row] = amountsMinor[i];
+                target.billTotal[row] = i == 0 ? billTotalMinor : 0L;
+            }
+            if (start > 0 && epochDay < target.day[start - 1]) {
+                sorted = false;
+            }
+            target.size = start + rows;
+            columns = target;
+            billRows.put(billId, start);
+            version++;
+            return true;
+        }
+    }
+
+    /**
+     * Drop every row of a bill, for a bill that is no longer paid. Returns the day the
+     * bill was stored under, or empty when the store does not hold it. The rows are
+     * tombstoned in place and only leave the columns on the next {@link #compact()}.
+     */
+    public OptionalInt removeBill(long billId) {
+        synchronized (writeLock) {
+            int first = billRows.get(billId);
+            if (first < 0) {
+                return OptionalInt.empty();
+            }
+            Columns current = columns;
+            int n = current.size;
+            int row = first;
+            while (row < n && current.bill[row] == billId) {
+                current.removed[row >>> 6] |= 1L << row;
+                row++;
+            }
+            removedRows += row - first;
+            billRows.put(billId, BillRowIndex.ABSENT);
+            version++;
+            // Republish so readers that start from here see the tombstones
+            columns = current;
+            return OptionalInt.of(current.day[first]);
+        }
+    }
+
+    /**
+     * Drop tombstoned rows and, if appends arrived out of day order, re-sort the bills
+     * by day so range queries can binary-search again. Row positions change, so callers
+     * that track rows by position must re-read {@link #size()} afterwards. Returns false
+     * when there was nothing to do.
+     */
+    public boolean compact() {
+        synchronized (writeLock) {
+            if (removedRows == 0 && sorted) {
+                return false;
+            }
+            Columns current = columns;
+            int n = current.size;
+            // One key per live bill: its day in the high half, its position in the low half,
+            // so sorting the keys orders bills by day and keeps append order within a day
+            long[] keys = new long[n];
+            int[] starts = new int[n + 1];
+            int bills = 0;
+            for (int i = 0; i < n; ) {
+                int first = i;
+                long billId = current.bill[i];
+                boolean removed = current.isRemoved(i);
+                // A bill paid again right after its removal continues the same id
+                while (i < n && current.bill[i] == billId && current.isRemoved(i) == removed) {
+                    i++;
+                }
+                if (!removed) {
+                    keys[bills] = ((long) current.day[first] << 32) | bills;
+                    starts[bills] = first;
+                    bills++;
+                }
+            }
+            if (!sorted) {
+                Arrays.sort(keys, 0, bills);
+            }
+
+            Columns compacted = new Columns(Math.max(INITIAL_CAPACITY, n - removedRows));
+            billRows.clear();
+            int kept = 0;
+            for (int b = 0; b < bills; b++) {
+                int first = starts[(int) keys[b]];
+                long billId = current.bill[first];
+                billRows.put(billId, kept);
+                for (int row = first; row < n && current.bill[row] == billId; row++) {
+                    current.copyRow(row, compacted, kept++);
+                }
+            }
+            compacted.size = kept;
+            columns = compacted;
+            sorted = true;
+            removedRows = 0;
+            version++;
+            return true;
+        }
+    }
+
+    public boolean containsBill(long billId) {
+        synchronized (writeLock) {
+            return billRows.get(billId) >= 0;
+        }
+    }
+
+    /**
+     * Rows held, tombstoned ones included until the next {@link #compact()}.
+     */
+    public int size() {
+        return columns.size;
+    }
+
+    /**
+     * Count of appends, removals and compactions so far, so callers can tell whether
+     * the contents changed since they last looked.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Sum of bill totals (minor units) for bills whose day falls in [fromDay, toDay].
+     */
+    public long sumBillTotals(int fromDay, int toDay) {
+        Columns c = columns;
+        int n = c.size;
+        int[] bounds = bounds(c, n, fromDay, toDay);
+        long total = 0;
+        int[] day = c.day;
+        long[] billTotal = c.billTotal;
+        for (int i = bounds[0]; i < bounds[1]; i++) {
+            int d = day[i];
+            if (d >= fromDay && d <= toDay && !c.isRemoved(i)) {
+                total += billTotal[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Number of distinct bills in [fromDay, toDay]. Items of a bill are stored
+     * contiguously, so a bill boundary is simply a change in the bill column.
+     */
+    public long countBills(int fromDay, int toDay) {
+        Columns c = columns;
+        int n = c.size;
+        int[] bounds = bounds(c, n, fromDay, toDay);
+        long count = 0;
+        long previous = Long.MIN_VALUE;
+        int[] day = c.day;
+        long[] bill = c.bill;
+        for (int i = bounds[0]; i < bounds[1]; i++) {
+            int d = day[i];
+            if (d >= fromDay && d <= toDay && bill[i] != previous && !c.isRemoved(i)) {
+                count++;
+                previous = bill[i];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Group the rows in [fromDay, toDay] by the given key column. Large ranges are
+     * split across the common fork-join pool and the partial maps merged.
+     */
+    public Map<Long, Totals> groupBy(GroupKey key, int fromDay, int toDay) {
+        Columns c = columns;
+        int n = c.size;
+        int[] bounds = bounds(c, n, fromDay, toDay);
+        GroupByTask task = new GroupByTask(c, key, fromDay, toDay, bounds[0], bounds[1]);
+        if (bounds[1] - bounds[0] <= PARALLEL_THRESHOLD) {
+            return task.compute();
+        }
+        return ForkJoinPool.commonPool().invoke(task);
+    }
+
+    /**
+     * Visit every bill whose rows lie in [fromRow, toRow), in append order.
+     * Both bounds must fall on bill boundaries, which any previously observed size does.
+     */
+    public void forEachBill(int fromRow, int toRow, BillVisitor visitor) {
+        Columns c = columns;
+        forEachBill(c, Math.max(0, fromRow), Math.min(toRow, c.size), Integer.MIN_VALUE, Integer.MAX_VALUE, visitor);
+    }
+
+    /**
+     * Visit every bill whose day falls in [fromDay, toDay], in append order.
+     */
+    public void forEachBillInDays(int fromDay, int toDay, BillVisitor visitor) {
+        Columns c = columns;
+        int[] bounds = bounds(c, c.size, fromDay, toDay);
+        forEachBill(c, bounds[0], bounds[1], fromDay, toDay, visitor);
+    }
+
+    private static void forEachBill(Columns c, int fromRow, int toRow, int fromDay, int toDay, BillVisitor visitor) {
+        int n = toRow;
+        int i = fromRow;
+        while (i < n) {
+            long billId = c.bill[i];
+            int first = i;
+            int quantity = 0;
+            boolean removed = c.isRemoved(i);
+            while (i < n && c.bill[i] == billId && c.isRemoved(i) == removed) {
+                quantity += c.quantity[i];
+                i++;
+            }
+            int day = c.day[first];
+            if (day >= fromDay && day <= toDay && !removed) {
+                visitor.visit(billId, day, c.pharmacist[first], c.customer[first], quantity, c.billTotal[first]);
+            }
+        }
+    }
+
+    /**
+     * Receives one bill at a time: its summed item quantity and the bill's own total,
+     * tax and discount included.
+     */
+    @FunctionalInterface
+    public interface BillVisitor {
+        void visit(long billId, int epochDay, long pharmacistId, long customerId, int quantity, long billTotalMinor);
+    }
+
+    /**
+     * Write the store to a gzip-compressed snapshot file. The file is written to a
+     * temporary sibling first and moved into place so readers never see a torn file.
+     */
+    public void writeSnapshot(Path path, long takenAtEpochMilli) throws IOException {
+        int n;
+        int live;
+        Columns c;
+        long[] removed;
+        boolean isSorted;
+        synchronized (writeLock) {
+            c = columns;
+            n = c.size;
+            live = n - removedRows;
+            // Tombstones are not part of the file; later removals must not change what is written
+            removed = Arrays.copyOf(c.removed, (n + 63) >>> 6);
+            isSorted = sorted;
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(tmp)), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(takenAtEpochMilli);
+            out.writeInt(live);
+            out.writeBoolean(isSorted);
+            for (int i = 0; i < n; i++) if (!isRemoved(removed, i)) out.writeInt(c.day[i]);
+            for (int i = 0; i < n; i++) if (!isRemoved(removed, i)) out.writeLong(c.bill[i]);
+            for (int i = 0; i < n; i++) if (!isRemoved(removed, i)) out.writeLong(c.medicine[i]);
+            for (int i = 0; i < n; i++) if (!isRemoved(removed, i)) out.writeLong(c.pharmacist[i]);
+            for (int i = 0; i < n; i++) if (!isRemoved(removed, i)) out.writeLong(c.customer[i]);
+            for (int i = 0; i < n; i++) if (!isRemoved(removed, i)) out.writeInt(c.paymentMethod[i]);
+            for (int i = 0; i < n; i++) if (!isRemoved(removed, i)) out.writeInt(c.quantity[i]);
+            for (int i = 0; i < n; i++) if (!isRemoved(removed, i)) out.writeLong(c.amount[i]);
+            for (int i = 0; i < n; i++) if (!isRemoved(removed, i)) out.writeLong(c.billTotal[i]);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Replace the contents of the store with a snapshot file and return the time the
+     * snapshot was taken. The store is left untouched if the file cannot be read.
+     */
+    public long loadSnapshot(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path)), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Unrecognised bill fact snapshot: " + path);
+            }
+            long takenAt = in.readLong();
+            int n = in.readInt();
+            boolean isSorted = in.readBoolean();
+            Columns c = new Columns(Math.max(INITIAL_CAPACITY, n));
+            for (int i = 0; i < n; i++) c.day[i] = in.readInt();
+            for (int i = 0; i < n; i++) c.bill[i] = in.readLong();
+            for (int i = 0; i < n; i++) c.medicine[i] = in.readLong();
+            for (int i = 0; i < n; i++) c.pharmacist[i] = in.readLong();
+            for (int i = 0; i < n; i++) c.customer[i] = in.readLong();
+            for (int i = 0; i < n; i++) c.paymentMethod[i] = in.readInt();
+            for (int i = 0; i < n; i++) c.quantity[i] = in.readInt();
+            for (int i = 0; i < n; i++) c.amount[i] = in.readLong();
+            for (int i = 0; i < n; i++) c.billTotal[i] = in.readLong();
+            c.size = n;
+
+            synchronized (writeLock) {
+                billRows.clear();
+                for (int i = n - 1; i >= 0; i--) {
+                    billRows.put(c.bill[i], i);
+                }
+                columns = c;
+                sorted = isSorted;
+                removedRows = 0;
+                version++;
+            }
+            return takenAt;
+        }
+    }
+
+    private Columns ensureCapacity(int required) {
+        Columns current = columns;
+        if (required <= current.capacity()) {
+            return current;
+        }
+        int newCapacity = Math.max(required, current.capacity() + (current.capacity() >> 1));
+        return current.copyOf(newCapacity);
+    }
+
+    /**
+     * Row range [from, to) that can contain the given days. Falls back to the whole
+     * store when out-of-order appends have broken the sort on the day column.
+     */
+    private int[] bounds(Columns c, int n, int fromDay, int toDay) {
+        if (!sorted) {
+            return new int[] {0, n};
+        }
+        return new int[] {firstRowAtOrAfter(c.day, n, fromDay), firstRowAtOrAfter(c.day, n, toDay + 1)};
+    }
+
+    private static boolean isRemoved(long[] removed, int row) {
+        return (removed[row >>> 6] & (1L << row)) != 0;
+    }
+
+    private static int firstRowAtOrAfter(int[] day, int n, int target) {
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (day[mid] < target) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Aggregated quantity, amount, item rows and distinct bills for one group.
+     */
+    public static final class Totals {
+        private long quantity;
+        private long amountMinor;
+        private long rows;
+        private long bills;
+        private long lastBill = Long.MIN_VALUE;
+
+        void add(long billId, int quantity, long amountMinor) {
+            this.quantity += quantity;
+            this.amountMinor += amountMinor;
+            this.rows++;
+            if (billId != lastBill) {
+                this.bills++;
+                this.lastBill = billId;
+            }
+        }
+
+        void merge(Totals other) {
+            this.quantity += other.quantity;
+            this.amountMinor += other.amountMinor;
+            this.rows += other.rows;
+            this.bills += other.bills;
+        }
+
+        public long getQuantity() {
+            return quantity;
+        }
+
+        public long getAmountMinor() {
+            return amountMinor;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getBills() {
+            return bills;
+        }
+    }
+
+    private static final class GroupByTask extends RecursiveTask<Map<Long, Totals>> {
+        private final Columns columns;
+        private final GroupKey key;
+        private final int fromDay;
+        private final int toDay;
+        private final int start;
+        private final int end;
+
+        GroupByTask(Columns columns, GroupKey key, int fromDay, int toDay, int start, int end) {
+            this.columns = columns;
+            this.key = key;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Map<Long, Totals> compute() {
+            if (end - start > PARALLEL_THRESHOLD) {
+                // Split on a bill boundary so no bill is counted in both halves
+                int mid = (start + end) >>> 1;
+                long[] bill = columns.bill;
+                while (mid < end && bill[mid] == bill[mid - 1]) {
+                    mid++;
+                }
+                GroupByTask left = new GroupByTask(columns, key, fromDay, toDay, start, mid);
+                GroupByTask right = new GroupByTask(columns, key, fromDay, toDay, mid, end);
+                left.fork();
+                Map<Long, Totals> result = right.compute();
+                for (Map.Entry<Long, Totals> entry : left.join().entrySet()) {
+                    result.merge(entry.getKey(), entry.getValue(), (a, b) -> {
+                        a.merge(b);
+                        return a;
+                    });
+                }
+                return result;
+            }
+
+            Map<Long, Totals> result = new HashMap<>();
+            int[] day = columns.day;
+            long[] bill = columns.bill;
+            int[] quantity = columns.quantity;
+            long[] amount = columns.amount;
+            for (int i = start; i < end; i++) {
+                int d = day[i];
+                if (d < fromDay || d > toDay || columns.isRemoved(i)) {
+                    continue;
+                }
+                result.computeIfAbsent(keyAt(i), k -> new Totals()).add(bill[i], quantity[i], amount[i]);
+            }
+            return result;
+        }
+
+        private long keyAt(int row) {
+            return switch (key) {
+                case MEDICINE -> columns.medicine[row];
+                case PHARMACIST -> columns.pharmacist[row];
+                case CUSTOMER -> columns.customer[row];
+                case PAYMENT_METHOD -> columns.paymentMethod[row];
+            };
+        }
+    }
+
+    private static final class Columns {
+        final int[] day;
+        final long[] bill;
+        final long[] medicine;
+        final long[] pharmacist;
+        final long[] customer;
+        final int[] paymentMethod;
+        final int[] quantity;
+        final long[] amount;
+        final long[] billTotal;
+        // One bit per row, set once the row's bill has been removed
+        final long[] removed;
+        // Rows in use; written last, so a reader that sees a size also sees those rows
+        volatile int size;
+
+        Columns(int capacity) {
+            this(new int[capacity], new long[capacity], new long[capacity], new long[capacity],
+                    new long[capacity], new int[capacity], new int[capacity], new long[capacity],
+                    new long[capacity], new long[(capacity + 63) >>> 6]);
+        }
+
+        private Columns(int[] day, long[] bill, long[] medicine, long[] pharmacist, long[] customer,
+                        int[] paymentMethod, int[] quantity, long[] amount, long[] billTotal, long[] removed) {
+            this.day = day;
+            this.bill = bill;
+            this.medicine = medicine;
+            this.pharmacist = pharmacist;
+            this.customer = customer;
+            this.paymentMethod = paymentMethod;
+            this.quantity = quantity;
+            this.amount = amount;
+            this.billTotal = billTotal;
+            this.removed = removed;
+        }
+
+        int capacity() {
+            return day.length;
+        }
+
+        Columns copyOf(int capacity) {
+            Columns copy = new Columns(Arrays.copyOf(day, capacity), Arrays.copyOf(bill, capacity),
+                    Arrays.copyOf(medicine, capacity), Arrays.copyOf(pharmacist, capacity),
+                    Arrays.copyOf(customer, capacity), Arrays.copyOf(paymentMethod, capacity),
+                    Arrays.copyOf(quantity, capacity), Arrays.copyOf(amount, capacity),
+                    Arrays.copyOf(billTotal, capacity), Arrays.copyOf(removed, (capacity + 63) >>> 6));
+            copy.size = size;
+            return copy;
+        }
+
+        boolean isRemoved(int row) {
+            return BillFactStore.isRemoved(removed, row);
+        }
+
+        void copyRow(int from, Columns target, int to) {
+            target.day[to] = day[from];
+            target.bill[to] = bill[from];
+            target.medicine[to] = medicine[from];
+            target.pharmacist[to] = pharmacist[from];
+            target.customer[to] = customer[from];
+            target.paymentMethod[to] = paymentMethod[from];
+            target.quantity[to] = quantity[from];
+            target.amount[to] = amount[from];
+            target.billTotal[to] = billTotal[from];
+        }
+    }
+
+    /**
+     * Minimal open-addressing map from bill id to the bill's first row, used to make
+     * appends idempotent and to find a bill's rows without boxing every id. Removed
+     * bills stay in the table as {@link #ABSENT} until the next rebuild.
+     */
+    private static final class BillRowIndex {
+        static final int ABSENT = -1;
+        private static final long EMPTY = Long.MIN_VALUE;
+        private long[] keys = newKeys(1024);
+        private int[] rows = new int[1024];
+        private int count;
+
+        int get(long billId) {
+            int index = indexOf(keys, billId);
+            return keys[index] == billId ? rows[index] : ABSENT;
+        }
+
+        void put(long billId, int row) {
+            if ((count + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int index = indexOf(keys, billId);
+            if (keys[index] != billId) {
+                keys[index] = billId;
+                count++;
+            }
+            rows[index] = row;
+        }
+
+        void clear() {
+            keys = newKeys(1024);
+            rows = new int[1024];
+            count = 0;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldRows = rows;
+            keys = newKeys(capacity);
+            rows = new int[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int index = indexOf(keys, oldKeys[i]);
+                    keys[index] = oldKeys[i];
+                    rows[index] = oldRows[i];
+                }
+            }
+        }
+
+        private static int indexOf(long[] table, long value) {
+            int mask = table.length - 1;
+            int index = (int) (mix(value) & mask);
+            while (table[index] != EMPTY && table[index] != value) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        private static long mix(long value) {
+            long h = value * 0x9E3779B97F4A7C15L;
+            return h ^ (h >>> 32);
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] table = new long[capacity];
+            Arrays.fill(table, EMPTY);
+            return table;
+        }
+    }
+}
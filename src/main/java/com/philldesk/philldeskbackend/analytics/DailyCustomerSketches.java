@@ -0,0 +1,105 @@
+package com.philldesk.philldeskbackend.analytics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One {@link HyperLogLog} of customer ids per calendar day.
+ *
+ * Range queries merge the daily sketches, so distinct counts over any window cost
+ * a few thousand byte comparisons per day regardless of how many bills it covers.
+ */
+public class DailyCustomerSketches {
+
+    private static final int SNAPSHOT_MAGIC = 0x50444843;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final Map<Integer, HyperLogLog> days = new ConcurrentHashMap<>();
+
+    public void offer(int epochDay, long customerId) {
+        days.computeIfAbsent(epochDay, d -> new HyperLogLog()).offer(customerId);
+    }
+
+    /**
+     * Sketch of every customer seen on any day in [fromDay, toDay].
+     */
+    public HyperLogLog union(int fromDay, int toDay) {
+        HyperLogLog union = new HyperLogLog();
+        if (toDay - fromDay + 1 > days.size()) {
+            for (Map.Entry<Integer, HyperLogLog> entry : days.entrySet()) {
+                int day = entry.getKey();
+                if (day >= fromDay && day <= toDay) {
+                    union.merge(entry.getValue());
+                }
+            }
+        } else {
+            for (int day = fromDay; day <= toDay; day++) {
+                HyperLogLog sketch = days.get(day);
+                if (sketch != null) {
+                    union.merge(sketch);
+                }
+            }
+        }
+        return union;
+    }
+
+    public int dayCount() {
+        return days.size();
+    }
+
+    public void writeSnapshot(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Map<Integer, HyperLogLog> copy = Map.copyOf(days);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(tmp)), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(HyperLogLog.DEFAULT_PRECISION);
+            out.writeInt(copy.size());
+            for (Map.Entry<Integer, HyperLogLog> entry : copy.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.write(entry.getValue().toRegisters());
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Merge a snapshot file into the current sketches. Merging rather than replacing
+     * keeps anything recorded between startup and the load.
+     */
+    public void loadSnapshot(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path)), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Unrecognised customer sketch snapshot: " + path);
+            }
+            int precision = in.readInt();
+            int count = in.readInt();
+            byte[] registers = new byte[1 << precision];
+            for (int i = 0; i < count; i++) {
+                int day = in.readInt();
+                in.readFully(registers);
+                HyperLogLog sketch = HyperLogLog.fromRegisters(precision, registers);
+                days.merge(day, sketch, (existing, loaded) -> {
+                    existing.merge(loaded);
+                    return existing;
+                });
+            }
+        }
+    }
+}
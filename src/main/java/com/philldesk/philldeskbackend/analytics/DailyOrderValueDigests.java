@@ -0,0 +1,170 @@
+package com.philldesk.philldeskbackend.analytics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Order-value {@link TDigest}s bucketed per day, overall and per pharmacist. An order's
+ * value is the bill total, so tax and discounts are included.
+ *
+ * The digests are a view over a prefix of the {@link BillFactStore} append log:
+ * {@link #getCoveredRows()} records how many fact rows have been folded in, so after
+ * a restart only the rows past that point need to be replayed.
+ */
+public class DailyOrderValueDigests {
+
+    private static final int SNAPSHOT_MAGIC = 0x50445444;
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private final Map<Integer, TDigest> byDay = new ConcurrentHashMap<>();
+    private final Map<Integer, Map<Long, TDigest>> byDayAndPharmacist = new ConcurrentHashMap<>();
+    private volatile int coveredRows;
+
+    public void add(int epochDay, long pharmacistId, double orderValue) {
+        byDay.computeIfAbsent(epochDay, d -> new TDigest()).add(orderValue);
+        byDayAndPharmacist.computeIfAbsent(epochDay, d -> new ConcurrentHashMap<>())
+                .computeIfAbsent(pharmacistId, p -> new TDigest()).add(orderValue);
+    }
+
+    public int getCoveredRows() {
+        return coveredRows;
+    }
+
+    public void setCoveredRows(int coveredRows) {
+        this.coveredRows = coveredRows;
+    }
+
+    /**
+     * Digest of every order in [fromDay, toDay].
+     */
+    public TDigest merged(int fromDay, int toDay) {
+        TDigest merged = new TDigest();
+        for (Map.Entry<Integer, TDigest> entry : byDay.entrySet()) {
+            int day = entry.getKey();
+            if (day >= fromDay && day <= toDay) {
+                merged.merge(entry.getValue());
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * One digest per pharmacist covering [fromDay, toDay].
+     */
+    public Map<Long, TDigest> mergedByPharmacist(int fromDay, int toDay) {
+        Map<Long, TDigest> merged = new HashMap<>();
+        for (Map.Entry<Integer, Map<Long, TDigest>> day : byDayAndPharmacist.entrySet()) {
+            if (day.getKey() < fromDay || day.getKey() > toDay) {
+                continue;
+            }
+            for (Map.Entry<Long, TDigest> pharmacist : day.getValue().entrySet()) {
+                merged.computeIfAbsent(pharmacist.getKey(), p -> new TDigest()).merge(pharmacist.getValue());
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * The stored daily digests in [fromDay, toDay], keyed by epoch day.
+     */
+    public Map<Integer, TDigest> daily(int fromDay, int toDay) {
+        Map<Integer, TDigest> daily = new HashMap<>();
+        for (Map.Entry<Integer, TDigest> entry : byDay.entrySet()) {
+            if (entry.getKey() >= fromDay && entry.getKey() <= toDay) {
+                daily.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return daily;
+    }
+
+    /**
+     * Forget one day's digests so they can be rebuilt after a bill is taken out of the fact store.
+     */
+    public void clearDay(int epochDay) {
+        byDay.remove(epochDay);
+        byDayAndPharmacist.remove(epochDay);
+    }
+
+    public void clear() {
+        byDay.clear();
+        byDayAndPharmacist.clear();
+        coveredRows = 0;
+    }
+
+    public void writeSnapshot(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(tmp)), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(coveredRows);
+            Map<Integer, TDigest> days = Map.copyOf(byDay);
+            out.writeInt(days.size());
+            for (Map.Entry<Integer, TDigest> entry : days.entrySet()) {
+                out.writeInt(entry.getKey());
+                entry.getValue().writeTo(out);
+            }
+            Map<Integer, Map<Long, TDigest>> pharmacistDays = Map.copyOf(byDayAndPharmacist);
+            out.writeInt(pharmacistDays.size());
+            for (Map.Entry<Integer, Map<Long, TDigest>> day : pharmacistDays.entrySet()) {
+                Map<Long, TDigest> pharmacists = Map.copyOf(day.getValue());
+                out.writeInt(day.getKey());
+                out.writeInt(pharmacists.size());
+                for (Map.Entry<Long, TDigest> pharmacist : pharmacists.entrySet()) {
+                    out.writeLong(pharmacist.getKey());
+                    pharmacist.getValue().writeTo(out);
+                }
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Replace the digests with the contents of a snapshot file.
+     */
+    public void loadSnapshot(Path path) throws IOException {
+        Map<Integer, TDigest> days = new ConcurrentHashMap<>();
+        Map<Integer, Map<Long, TDigest>> pharmacistDays = new ConcurrentHashMap<>();
+        int rows;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path)), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Unrecognised order value digest snapshot: " + path);
+            }
+            rows = in.readInt();
+            int dayCount = in.readInt();
+            for (int i = 0; i < dayCount; i++) {
+                days.put(in.readInt(), TDigest.readFrom(in));
+            }
+            int pharmacistDayCount = in.readInt();
+            for (int i = 0; i < pharmacistDayCount; i++) {
+                int day = in.readInt();
+                int pharmacistCount = in.readInt();
+                Map<Long, TDigest> pharmacists = new ConcurrentHashMap<>();
+                for (int j = 0; j < pharmacistCount; j++) {
+                    pharmacists.put(in.readLong(), TDigest.readFrom(in));
+                }
+                pharmacistDays.put(day, pharmacists);
+            }
+        }
+        clear();
+        byDay.putAll(days);
+        byDayAndPharmacist.putAll(pharmacistDays);
+        coveredRows = rows;
+    }
+}
@@ -0,0 +1,136 @@
+package com.philldesk.philldeskbackend.analytics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Prescription workflow counters per calendar day and pharmacist.
+ *
+ * Each cell counts transitions into every status plus reviews (transitions out of
+ * the review queue), and keeps latency histograms for review-to-ready and
+ * ready-to-pickup. Cells are only ever incremented, so range queries sum a few
+ * cells per day instead of scanning prescriptions.
+ */
+public class DailyWorkflowCounters {
+
+    /** Pharmacist key used when a transition cannot be attributed to anyone. */
+    public static final long UNATTRIBUTED = 0L;
+
+    private final int statusCount;
+    private final Map<Integer, Map<Long, Cell>> days = new ConcurrentHashMap<>();
+
+    public DailyWorkflowCounters(int statusCount) {
+        this.statusCount = statusCount;
+    }
+
+    public void recordTransition(int epochDay, long pharmacistId, int toStatus, boolean review) {
+        Cell cell = cell(epochDay, pharmacistId);
+        cell.transitionsTo.incrementAndGet(toStatus);
+        if (review) {
+            cell.reviews.incrementAndGet();
+        }
+    }
+
+    public void recordReviewToReady(int epochDay, long pharmacistId, long durationMillis) {
+        cell(epochDay, pharmacistId).reviewToReady.record(durationMillis);
+    }
+
+    public void recordReadyToPickup(int epochDay, long pharmacistId, long durationMillis) {
+        cell(epochDay, pharmacistId).readyToPickup.record(durationMillis);
+    }
+
+    /**
+     * Totals over [fromDay, toDay] across all pharmacists.
+     */
+    public Totals totals(int fromDay, int toDay) {
+        Totals totals = new Totals(statusCount);
+        for (int day = fromDay; day <= toDay; day++) {
+            Map<Long, Cell> cells = days.get(day);
+            if (cells != null) {
+                cells.values().forEach(totals::add);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Totals over [fromDay, toDay] keyed by pharmacist id.
+     */
+    public Map<Long, Totals> totalsByPharmacist(int fromDay, int toDay) {
+        Map<Long, Totals> result = new HashMap<>();
+        for (int day = fromDay; day <= toDay; day++) {
+            Map<Long, Cell> cells = days.get(day);
+            if (cells != null) {
+                cells.forEach((pharmacistId, cell) ->
+                        result.computeIfAbsent(pharmacistId, id -> new Totals(statusCount)).add(cell));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drop every day before oldestDay.
+     */
+    public void prune(int oldestDay) {
+        days.keySet().removeIf(day -> day < oldestDay);
+    }
+
+    public void clear() {
+        days.clear();
+    }
+
+    private Cell cell(int epochDay, long pharmacistId) {
+        return days.computeIfAbsent(epochDay, d -> new ConcurrentHashMap<>())
+                .computeIfAbsent(pharmacistId, id -> new Cell(statusCount));
+    }
+
+    private static final class Cell {
+        final AtomicLongArray transitionsTo;
+        final AtomicLong reviews = new AtomicLong();
+        final LatencyHistogram reviewToReady = new LatencyHistogram();
+        final LatencyHistogram readyToPickup = new LatencyHistogram();
+
+        Cell(int statusCount) {
+            this.transitionsTo = new AtomicLongArray(statusCount);
+        }
+    }
+
+    public static final class Totals {
+        private final long[] transitionsTo;
+        private long reviews;
+        private final LatencyHistogram reviewToReady = new LatencyHistogram();
+        private final LatencyHistogram readyToPickup = new LatencyHistogram();
+
+        Totals(int statusCount) {
+            this.transitionsTo = new long[statusCount];
+        }
+
+        void add(Cell cell) {
+            for (int i = 0; i < transitionsTo.length; i++) {
+                transitionsTo[i] += cell.transitionsTo.get(i);
+            }
+            reviews += cell.reviews.get();
+            reviewToReady.merge(cell.reviewToReady);
+            readyToPickup.merge(cell.readyToPickup);
+        }
+
+        public long getTransitionsTo(int status) {
+            return transitionsTo[status];
+        }
+
+        public long getReviews() {
+            return reviews;
+        }
+
+        public LatencyHistogram getReviewToReady() {
+            return reviewToReady;
+        }
+
+        public LatencyHistogram getReadyToPickup() {
+            return readyToPickup;
+        }
+    }
+}
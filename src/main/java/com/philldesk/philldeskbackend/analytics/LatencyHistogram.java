@@ -0,0 +1,99 @@
+package com.philldesk.philldeskbackend.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-bucket histogram of durations.
+ *
+ * Bucket bounds follow the rhythm of a pharmacy shift (minutes up to a week), so
+ * a handful of counters answer "how long does it usually take" without keeping
+ * individual samples. Histograms with the same bounds merge by adding counts.
+ */
+public final class LatencyHistogram {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    /** Upper bounds in minutes; the last bucket takes everything longer. */
+    private static final long[] BOUND_MINUTES = {5, 15, 30, 60, 120, 240, 480, 1440, 2880, 10080};
+
+    private final long[] counts = new long[BOUND_MINUTES.length + 1];
+    private long totalMillis;
+    private long count;
+
+    public synchronized void record(long durationMillis) {
+        if (durationMillis < 0) {
+            return;
+        }
+        long minutes = durationMillis / MINUTE_MILLIS;
+        int bucket = 0;
+        while (bucket < BOUND_MINUTES.length && minutes >= BOUND_MINUTES[bucket]) {
+            bucket++;
+        }
+        counts[bucket]++;
+        totalMillis += durationMillis;
+        count++;
+    }
+
+    public void merge(LatencyHistogram other) {
+        long[] otherCounts;
+        long otherTotal;
+        long otherCount;
+        synchronized (other) {
+            otherCounts = other.counts.clone();
+            otherTotal = other.totalMillis;
+            otherCount = other.count;
+        }
+        synchronized (this) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += otherCounts[i];
+            }
+            totalMillis += otherTotal;
+            count += otherCount;
+        }
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized double getMeanHours() {
+        return count == 0 ? 0 : totalMillis / (double) count / (60 * MINUTE_MILLIS);
+    }
+
+    /**
+     * Upper bound, in hours, of the bucket holding quantile q; the open last
+     * bucket reports its lower bound.
+     */
+    public synchronized double quantileUpperBoundHours(double q) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(q * count);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target && counts[i] > 0) {
+                long minutes = BOUND_MINUTES[Math.min(i, BOUND_MINUTES.length - 1)];
+                return minutes / 60.0;
+            }
+        }
+        return BOUND_MINUTES[BOUND_MINUTES.length - 1] / 60.0;
+    }
+
+    /**
+     * Bucket counts keyed by their upper bound in minutes, with -1 for the open bucket.
+     */
+    public synchronized long[][] buckets() {
+        long[][] result = new long[counts.length][];
+        for (int i = 0; i < counts.length; i++) {
+            long bound = i < BOUND_MINUTES.length ? BOUND_MINUTES[i] : -1;
+            result[i] = new long[] {bound, counts[i]};
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "LatencyHistogram{count=" + count + ", counts=" + Arrays.toString(counts) + "}";
+    }
+}
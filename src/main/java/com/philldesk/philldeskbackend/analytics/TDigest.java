@@ -0,0 +1,239 @@
+package com.philldesk.philldeskbackend.analytics;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Merging t-digest for streaming quantile estimates.
+ *
+ * Values are buffered and periodically folded into a sorted list of weighted
+ * centroids whose size is bounded by the scale function k(q) = delta/(2 pi) asin(2q - 1),
+ * which keeps centroids small near the tails so p90/p99 stay accurate. Digests merge
+ * by folding one digest's centroids into another, so daily digests can be combined
+ * into any date range.
+ */
+public final class TDigest {
+
+    public static final double DEFAULT_COMPRESSION = 100;
+
+    private final double compression;
+    private double[] means;
+    private double[] weights;
+    private int centroids;
+    private final double[] bufferValues;
+    private final double[] bufferWeights;
+    private int buffered;
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public TDigest(double compression) {
+        this.compression = compression;
+        int capacity = (int) Math.ceil(compression) * 2 + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.bufferValues = new double[capacity * 4];
+        this.bufferWeights = new double[capacity * 4];
+    }
+
+    public synchronized void add(double value) {
+        add(value, 1);
+    }
+
+    public synchronized void add(double value, double weight) {
+        if (Double.isNaN(value) || weight <= 0) {
+            return;
+        }
+        if (buffered == bufferValues.length) {
+            compress();
+        }
+        bufferValues[buffered] = value;
+        bufferWeights[buffered] = weight;
+        buffered++;
+        totalWeight += weight;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Fold another digest into this one.
+     */
+    public void merge(TDigest other) {
+        double[] otherMeans;
+        double[] otherWeights;
+        double otherMin;
+        double otherMax;
+        // Copy under the other digest's lock only, so two digests never lock each other
+        synchronized (other) {
+            other.compress();
+            otherMeans = Arrays.copyOf(other.means, other.centroids);
+            otherWeights = Arrays.copyOf(other.weights, other.centroids);
+            otherMin = other.min;
+            otherMax = other.max;
+        }
+        synchronized (this) {
+            for (int i = 0; i < otherMeans.length; i++) {
+                if (buffered == bufferValues.length) {
+                    compress();
+                }
+                bufferValues[buffered] = otherMeans[i];
+                bufferWeights[buffered] = otherWeights[i];
+                buffered++;
+                totalWeight += otherWeights[i];
+            }
+            min = Math.min(min, otherMin);
+            max = Math.max(max, otherMax);
+        }
+    }
+
+    /**
+     * Estimated value at quantile q in [0, 1], or NaN for an empty digest.
+     */
+    public synchronized double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        compress();
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        if (centroids == 1) {
+            return means[0];
+        }
+
+        double index = q * totalWeight;
+        if (index <= weights[0] / 2) {
+            return interpolate(index, 0, weights[0] / 2, min, means[0]);
+        }
+        double cumulative = weights[0] / 2;
+        for (int i = 0; i < centroids - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2;
+            if (index <= cumulative + step) {
+                return interpolate(index, cumulative, cumulative + step, means[i], means[i + 1]);
+            }
+            cumulative += step;
+        }
+        return interpolate(index, cumulative, totalWeight, means[centroids - 1], max);
+    }
+
+    public synchronized double getCount() {
+        return totalWeight;
+    }
+
+    public synchronized boolean isEmpty() {
+        return totalWeight == 0;
+    }
+
+    public synchronized void writeTo(DataOutputStream out) throws IOException {
+        compress();
+        out.writeDouble(compression);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeInt(centroids);
+        for (int i = 0; i < centroids; i++) {
+            out.writeDouble(means[i]);
+            out.writeDouble(weights[i]);
+        }
+    }
+
+    public static TDigest readFrom(DataInputStream in) throws IOException {
+        TDigest digest = new TDigest(in.readDouble());
+        digest.min = in.readDouble();
+        digest.max = in.readDouble();
+        int count = in.readInt();
+        digest.ensureCentroidCapacity(count);
+        for (int i = 0; i < count; i++) {
+            digest.means[i] = in.readDouble();
+            digest.weights[i] = in.readDouble();
+            digest.totalWeight += digest.weights[i];
+        }
+        digest.centroids = count;
+        return digest;
+    }
+
+    /**
+     * Merge the buffered values into the centroid list.
+     */
+    private void compress() {
+        if (buffered == 0) {
+            return;
+        }
+        int n = centroids + buffered;
+        double[] allMeans = new double[n];
+        double[] allWeights = new double[n];
+        System.arraycopy(means, 0, allMeans, 0, centroids);
+        System.arraycopy(weights, 0, allWeights, 0, centroids);
+        System.arraycopy(bufferValues, 0, allMeans, centroids, buffered);
+        System.arraycopy(bufferWeights, 0, allWeights, centroids, buffered);
+        buffered = 0;
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(allMeans[a], allMeans[b]));
+
+        double total = 0;
+        for (double w : allWeights) {
+            total += w;
+        }
+
+        ensureCentroidCapacity(n);
+        int out = 0;
+        double currentMean = allMeans[order[0]];
+        double currentWeight = allWeights[order[0]];
+        double weightSoFar = 0;
+        double limit = total * q(k(0) + 1);
+        for (int i = 1; i < n; i++) {
+            int index = order[i];
+            double w = allWeights[index];
+            if (weightSoFar + currentWeight + w <= limit) {
+                currentWeight += w;
+                currentMean += (allMeans[index] - currentMean) * w / currentWeight;
+            } else {
+                means[out] = currentMean;
+                weights[out] = currentWeight;
+                out++;
+                weightSoFar += currentWeight;
+                limit = total * q(k(weightSoFar / total) + 1);
+                currentMean = allMeans[index];
+                currentWeight = w;
+            }
+        }
+        means[out] = currentMean;
+        weights[out] = currentWeight;
+        centroids = out + 1;
+        totalWeight = total;
+    }
+
+    private void ensureCentroidCapacity(int required) {
+        if (means.length < required) {
+            means = Arrays.copyOf(means, required);
+            weights = Arrays.copyOf(weights, required);
+        }
+    }
+
+    private double k(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+
+    private double q(double k) {
+        if (k >= compression / 4) {
+            return 1;
+        }
+        return (Math.sin(k * 2 * Math.PI / compression) + 1) / 2;
+    }
+
+    private static double interpolate(double x, double x0, double x1, double y0, double y1) {
+        if (x1 <= x0) {
+            return y0;
+        }
+        return y0 + (x - x0) / (x1 - x0) * (y1 - y0);
+    }
+}
@@ -0,0 +1,29 @@
+package com.philldesk.philldeskbackend.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Collapses concurrent identical calls of a service method into one execution.
+ *
+ * While a call is running, further calls with equal arguments wait for it and receive the
+ * same result (or exception) instead of running the method again. Only use it on read
+ * methods whose result depends on nothing but their arguments, not on the current user,
+ * and is immutable: a scalar, a record or a projection, in an unmodifiable collection.
+ * Never on methods returning entities, which belong to the session that loaded them and
+ * must not be shared between threads. Calls made inside a transaction are never
+ * coalesced, since they must see that transaction's data.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+
+    /**
+     * Name the method's statistics are reported under; defaults to Class.method
+     */
+    String value() default "";
+}
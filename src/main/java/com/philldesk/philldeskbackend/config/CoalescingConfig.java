@@ -0,0 +1,34 @@
+package com.philldesk.philldeskbackend.config;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * Applies {@link Coalesced} to service beans. The advisor runs outside the transaction
+ * advisor, so callers that wait for another caller's execution never open a transaction
+ * or take a connection.
+ */
+@Configuration
+public class CoalescingConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static CoalescingInterceptor coalescingInterceptor() {
+        return new CoalescingInterceptor();
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor coalescingAdvisor(CoalescingInterceptor coalescingInterceptor) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(Coalesced.class), coalescingInterceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
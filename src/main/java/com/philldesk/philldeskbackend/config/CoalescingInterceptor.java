@@ -0,0 +1,119 @@
+package com.philldesk.philldeskbackend.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs {@link Coalesced} methods single-flight: the first caller for a (method, arguments)
+ * key executes the method, callers arriving while it runs wait on the same future. The key
+ * is released as soon as the call finishes, so nothing is cached beyond the in-flight call.
+ */
+public class CoalescingInterceptor implements MethodInterceptor {
+
+    private record CallKey(Method method, List<Object> arguments) {
+    }
+
+    private static final class Counters {
+        final LongAdder calls = new LongAdder();
+        final LongAdder executions = new LongAdder();
+        final LongAdder shared = new LongAdder();
+        final LongAdder failures = new LongAdder();
+    }
+
+    private final Map<CallKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Method, String> names = new ConcurrentHashMap<>();
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+        Counters stats = counters.computeIfAbsent(nameOf(invocation), name -> new Counters());
+        stats.calls.increment();
+
+        CallKey key = new CallKey(invocation.getMethod(), Arrays.asList(invocation.getArguments()));
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            stats.shared.increment();
+            return await(running);
+        }
+
+        stats.executions.increment();
+        try {
+            Object result = invocation.proceed();
+            call.complete(result);
+            return result;
+        } catch (Throwable e) {
+            stats.failures.increment();
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Per method: calls, executions, calls served by another caller's execution, failed
+     * executions and the share of calls that did not run the method.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight.size());
+        Map<String, Object> methods = new LinkedHashMap<>();
+        counters.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    Counters method = entry.getValue();
+                    long calls = method.calls.sum();
+                    long shared = method.shared.sum();
+                    Map<String, Object> result = new LinkedHashMap<>();
+                    result.put("calls", calls);
+                    result.put("executions", method.executions.sum());
+                    result.put("shared", shared);
+                    result.put("failures", method.failures.sum());
+                    result.put("savedRatio", calls == 0 ? 0.0 : (double) shared / calls);
+                    methods.put(entry.getKey(), result);
+                });
+        stats.put("methods", methods);
+        return stats;
+    }
+
+    private Object await(CompletableFuture<Object> running) throws Throwable {
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    private String nameOf(MethodInvocation invocation) {
+        return names.computeIfAbsent(invocation.getMethod(), method -> {
+            Class<?> targetClass = invocation.getThis() != null
+                    ? AopUtils.getTargetClass(invocation.getThis()) : method.getDeclaringClass();
+            Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+            Coalesced coalesced = AnnotationUtils.findAnnotation(specific, Coalesced.class);
+            if (coalesced != null && !coalesced.value().isEmpty()) {
+                return coalesced.value();
+            }
+            return targetClass.getSimpleName() + "." + method.getName();
+        });
+    }
+}
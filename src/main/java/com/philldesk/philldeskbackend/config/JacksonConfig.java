@@ -2,6 +2,7 @@ package com.philldesk.philldeskbackend.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
@@ -11,8 +12,14 @@ public class JacksonConfig {
 
     @Bean
     public ObjectMapper objectMapper() {
+        // Associations are LAZY; anything outside the loaded fetch profile is written as its id
+        // instead of triggering a query (or failing) during serialization
+        Hibernate6Module hibernateModule = new Hibernate6Module();
+        hibernateModule.enable(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
+
         return Jackson2ObjectMapperBuilder.json()
                 .featuresToDisable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .modulesToInstall(hibernateModule)
                 .build();
     }
 }
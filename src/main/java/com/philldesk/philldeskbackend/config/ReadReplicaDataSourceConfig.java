@@ -0,0 +1,66 @@
+package com.philldesk.philldeskbackend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Primary/replica connection pools, active when app.datasource.replica.url is set.
+ *
+ * The primary pool is configured from spring.datasource.*, the replica pool from
+ * app.datasource.replica.*; both accept the usual Hikari settings under .hikari.
+ * Flyway, JPA and JdbcTemplate all use the routing data source, which only hands out
+ * replica connections to read-only transactions.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:${spring.datasource.username}}") String username,
+                                              @Value("${app.datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 @Value("${app.datasource.read-your-writes-ms:5000}") long readYourWritesMillis) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(readYourWritesMillis);
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Route.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,168 @@
+package com.philldesk.philldeskbackend.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends connections for read-only transactions to the replica pool and everything else
+ * to the primary.
+ *
+ * A user whose transaction wrote something keeps reading from the primary for the
+ * read-your-writes window, counted from the commit, so a replica that lags behind never
+ * hides their own change. Primary connections handed out on behalf of a user watch the SQL
+ * they prepare; only a statement that is not a plain read marks the transaction, so a
+ * read-write transaction that only reads (a service method under a class-level
+ * {@code @Transactional}) leaves the user on the replica.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction's read-only flag is only
+ * known once the transaction has begun, after the JPA session asked for its connection.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private static final Set<String> READ_KEYWORDS = Set.of("select", "with", "values", "table", "show", "explain");
+    private static final Set<String> SQL_METHODS = Set.of(
+            "prepareStatement", "prepareCall", "execute", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+    // Writers seen since the last sweep, with the time their window ends
+    private final Map<String, Long> primaryUntil = new ConcurrentHashMap<>();
+    // Bound to a transaction once it has written, so its commit is registered only once
+    private final Object writeMarker = new Object();
+    private final long readYourWritesMillis;
+    private volatile long nextSweep;
+
+    public ReadWriteRoutingDataSource(long readYourWritesMillis) {
+        this.readYourWritesMillis = readYourWritesMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return watchWrites(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return watchWrites(super.getConnection(username, password));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!isReadOnlyTransaction()) {
+            return Route.PRIMARY;
+        }
+        String user = currentUser();
+        if (user != null) {
+            long now = System.currentTimeMillis();
+            sweep(now);
+            Long until = primaryUntil.get(user);
+            if (until != null && until > now) {
+                return Route.PRIMARY;
+            }
+        }
+        return Route.REPLICA;
+    }
+
+    private Connection watchWrites(Connection connection) {
+        String user = currentUser();
+        if (user == null || readYourWritesMillis <= 0 || isReadOnlyTransaction()) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    inspect(user, method, args);
+                    Object result = invoke(connection, method, args);
+                    return result instanceof Statement statement && "createStatement".equals(method.getName())
+                            ? watchWrites(user, statement)
+                            : result;
+                });
+    }
+
+    // Plain statements get their SQL only when executed
+    private Statement watchWrites(String user, Statement statement) {
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {Statement.class},
+                (proxy, method, args) -> {
+                    inspect(user, method, args);
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private void inspect(String user, Method method, Object[] args) {
+        if (args != null && args.length > 0 && args[0] instanceof String sql
+                && SQL_METHODS.contains(method.getName()) && !isRead(sql)) {
+            wrote(user);
+        }
+    }
+
+    private void wrote(String user) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Auto-commit: the statement commits as it runs
+            primaryUntil.put(user, System.currentTimeMillis() + readYourWritesMillis);
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(writeMarker)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(writeMarker, user);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                primaryUntil.put(user, System.currentTimeMillis() + readYourWritesMillis);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writeMarker);
+            }
+        });
+    }
+
+    private void sweep(long now) {
+        if (now < nextSweep) {
+            return;
+        }
+        nextSweep = now + Math.max(readYourWritesMillis, 1000L);
+        primaryUntil.values().removeIf(until -> until <= now);
+    }
+
+    private static boolean isRead(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return READ_KEYWORDS.contains(trimmed.substring(0, end).toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean isReadOnlyTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
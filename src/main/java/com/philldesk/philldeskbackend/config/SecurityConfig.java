@@ -2,11 +2,15 @@ package com.philldesk.philldeskbackend.config;
 
 import com.philldesk.philldeskbackend.security.AuthEntryPointJwt;
 import com.philldesk.philldeskbackend.security.AuthTokenFilter;
+import com.philldesk.philldeskbackend.security.BoundedPasswordEncoder;
 import com.philldesk.philldeskbackend.security.JwtUtils;
+import com.philldesk.philldeskbackend.security.SecurityStampService;
+import com.philldesk.philldeskbackend.security.TokenRevocationService;
 import com.philldesk.philldeskbackend.security.UserDetailsServiceImpl;
 
 import java.util.Arrays;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,7 +21,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -30,18 +33,37 @@ public class SecurityConfig {
     private final UserDetailsServiceImpl userDetailsService;
     private final AuthEntryPointJwt unauthorizedHandler;
     private final JwtUtils jwtUtils;
+    private final SecurityStampService securityStampService;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${security.password.hashing-threads:4}")
+    private int hashingThreads;
+
+    @Value("${security.password.hashing-queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${security.password.hashing-timeout-ms:5000}")
+    private long hashingTimeoutMs;
 
     public SecurityConfig(UserDetailsServiceImpl userDetailsService, 
                          AuthEntryPointJwt unauthorizedHandler, 
-                         JwtUtils jwtUtils) {
+                         JwtUtils jwtUtils,
+                         SecurityStampService securityStampService,
+                         TokenRevocationService tokenRevocationService) {
         this.userDetailsService = userDetailsService;
         this.unauthorizedHandler = unauthorizedHandler;
         this.jwtUtils = jwtUtils;
+        this.securityStampService = securityStampService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
-        return new AuthTokenFilter(jwtUtils, userDetailsService);
+        return new AuthTokenFilter(jwtUtils, userDetailsService, securityStampService,
+                tokenRevocationService);
     }
 
     @Bean
@@ -50,6 +72,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Rehash on sign-in when the stored hash used a lower BCrypt strength
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -59,8 +83,9 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength),
+                hashingThreads, hashingQueueCapacity, hashingTimeoutMs);
     }
 
     @Bean
@@ -71,6 +96,7 @@ public class SecurityConfig {
             corsConfig.setAllowedOrigins(Arrays.asList("http://localhost:3000", "http://127.0.0.1:3000"));
             corsConfig.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
             corsConfig.setAllowedHeaders(Arrays.asList("*"));
+            corsConfig.setExposedHeaders(Arrays.asList("X-Next-Cursor", "X-Prev-Cursor", "ETag"));
             corsConfig.setAllowCredentials(true);
             return corsConfig;
             }))
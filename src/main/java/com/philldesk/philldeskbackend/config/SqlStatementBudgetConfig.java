@@ -0,0 +1,71 @@
+package com.philldesk.philldeskbackend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements Hibernate issues while serving a request and warns when a
+ * request goes over budget, which is how a reintroduced N+1 fetch shows up in the logs.
+ */
+@Configuration
+public class SqlStatementBudgetConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementBudgetConfig.class);
+
+    private static final ThreadLocal<int[]> STATEMENT_COUNT = new ThreadLocal<>();
+
+    @Value("${jpa.sql-budget.max-statements-per-request:25}")
+    private int maxStatementsPerRequest;
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer() {
+        StatementInspector inspector = sql -> {
+            int[] count = STATEMENT_COUNT.get();
+            if (count != null) {
+                count[0]++;
+            }
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> sqlStatementBudgetFilter() {
+        OncePerRequestFilter filter = new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain filterChain) throws ServletException, IOException {
+                int[] count = new int[1];
+                STATEMENT_COUNT.set(count);
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    STATEMENT_COUNT.remove();
+                    if (count[0] > maxStatementsPerRequest) {
+                        SqlStatementBudgetConfig.logger.warn("{} {} issued {} SQL statements (budget {})",
+                                request.getMethod(), request.getRequestURI(), count[0], maxStatementsPerRequest);
+                    }
+                }
+            }
+        };
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -1,8 +1,16 @@
 package com.philldesk.philldeskbackend.controller;
 
+import com.philldesk.philldeskbackend.config.CoalescingInterceptor;
 import com.philldesk.philldeskbackend.entity.Medicine;
 import com.philldesk.philldeskbackend.entity.User;
+import com.philldesk.philldeskbackend.security.BoundedPasswordEncoder;
+import com.philldesk.philldeskbackend.service.BillDocumentService;
+import com.philldesk.philldeskbackend.service.CacheInvalidationBus;
+import com.philldesk.philldeskbackend.service.CatalogPayloadService;
+import com.philldesk.philldeskbackend.service.DataSourcePoolService;
+import com.philldesk.philldeskbackend.service.EntityCacheService;
 import com.philldesk.philldeskbackend.service.MedicineService;
+import com.philldesk.philldeskbackend.service.NotificationCounterService;
 import com.philldesk.philldeskbackend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -41,11 +49,33 @@ public class AdminController {
 
     private final MedicineService medicineService;
     private final UserService userService;
+    private final EntityCacheService entityCacheService;
+    private final DataSourcePoolService dataSourcePoolService;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final CatalogPayloadService catalogPayloadService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final NotificationCounterService notificationCounterService;
+    private final BillDocumentService billDocumentService;
+    private final CoalescingInterceptor coalescingInterceptor;
 
     @Autowired
-    public AdminController(MedicineService medicineService, UserService userService) {
+    public AdminController(MedicineService medicineService, UserService userService,
+                           EntityCacheService entityCacheService, DataSourcePoolService dataSourcePoolService,
+                           BoundedPasswordEncoder passwordEncoder, CatalogPayloadService catalogPayloadService,
+                           CacheInvalidationBus cacheInvalidationBus,
+                           NotificationCounterService notificationCounterService,
+                           BillDocumentService billDocumentService,
+                           CoalescingInterceptor coalescingInterceptor) {
         this.medicineService = medicineService;
         this.userService = userService;
+        this.entityCacheService = entityCacheService;
+        this.dataSourcePoolService = dataSourcePoolService;
+        this.passwordEncoder = passwordEncoder;
+        this.catalogPayloadService = catalogPayloadService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.notificationCounterService = notificationCounterService;
+        this.billDocumentService = billDocumentService;
+        this.coalescingInterceptor = coalescingInterceptor;
     }
 
     // ========================================
@@ -343,4 +373,106 @@ public class AdminController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * Connection pool usage, per pool (primary and replica when read/write routing is on)
+     */
+    @GetMapping("/system/datasources")
+    public ResponseEntity<Map<String, Map<String, Object>>> getDataSourceStatistics() {
+        return ResponseEntity.ok(dataSourcePoolService.getPoolStatistics());
+    }
+
+    /**
+     * Password hashing pool usage: active and queued hashes, rejections and timeouts
+     */
+    @GetMapping("/system/password-hashing")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingStatistics() {
+        return ResponseEntity.ok(passwordEncoder.getStatistics());
+    }
+
+    /**
+     * Pre-serialized catalog responses: entries, bytes held, hits and rebuilds
+     */
+    @GetMapping("/system/catalog-payloads")
+    public ResponseEntity<Map<String, Object>> getCatalogPayloadStatistics() {
+        return ResponseEntity.ok(catalogPayloadService.getStatistics());
+    }
+
+    /**
+     * Cross-instance cache invalidation: mode, messages sent, received and failed
+     */
+    @GetMapping("/system/cache-invalidation")
+    public ResponseEntity<Map<String, Object>> getCacheInvalidationStatistics() {
+        return ResponseEntity.ok(cacheInvalidationBus.getStatistics());
+    }
+
+    /**
+     * Cached unread notification counters: entries, hits and misses
+     */
+    @GetMapping("/system/notification-counters")
+    public ResponseEntity<Map<String, Object>> getNotificationCounterStatistics() {
+        return ResponseEntity.ok(notificationCounterService.getStatistics());
+    }
+
+    /**
+     * Recount unread notification counters that drifted from the notifications table
+     */
+    @PostMapping("/system/notification-counters/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileNotificationCounters() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("corrected", notificationCounterService.reconcile());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Rendered bill document cache: files, bytes on disk, hits, misses and evictions
+     */
+    @GetMapping("/system/bill-documents")
+    public ResponseEntity<Map<String, Object>> getBillDocumentStatistics() {
+        return ResponseEntity.ok(billDocumentService.getStatistics());
+    }
+
+    /**
+     * Coalesced service methods: calls, executions and calls that shared another execution
+     */
+    @GetMapping("/system/coalescing")
+    public ResponseEntity<Map<String, Object>> getCoalescingStatistics() {
+        return ResponseEntity.ok(coalescingInterceptor.getStatistics());
+    }
+
+    /**
+     * Hit/miss statistics of the second-level cache regions
+     */
+    @GetMapping("/system/cache")
+    public ResponseEntity<Map<String, Map<String, Object>>> getCacheStatistics() {
+        return ResponseEntity.ok(entityCacheService.getRegionStatistics());
+    }
+
+    /**
+     * Evict one second-level cache region, e.g. after editing rows directly in the database
+     */
+    @DeleteMapping("/system/cache/{region}")
+    public ResponseEntity<Map<String, String>> evictCacheRegion(@PathVariable String region) {
+        try {
+            entityCacheService.evictRegion(region);
+            Map<String, String> response = new HashMap<>();
+            response.put(MESSAGE_KEY, "Cache region " + region + " evicted");
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put(ERROR_KEY, e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Evict every second-level cache region
+     */
+    @DeleteMapping("/system/cache")
+    public ResponseEntity<Map<String, String>> evictAllCaches() {
+        entityCacheService.evictAll();
+        Map<String, String> response = new HashMap<>();
+        response.put(MESSAGE_KEY, "All cache regions evicted");
+        return ResponseEntity.ok(response);
+    }
 }
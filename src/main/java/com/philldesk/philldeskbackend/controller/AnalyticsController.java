@@ -8,15 +8,15 @@
 
 package com.philldesk.philldeskbackend.controller;
 
-import com.philldesk.philldeskbackend.entity.Bill;
-import com.philldesk.philldeskbackend.entity.Medicine;
-import com.philldesk.philldeskbackend.entity.Prescription;
-import com.philldesk.philldeskbackend.entity.PrescriptionItem;
+import com.philldesk.philldeskbackend.analytics.BillFactStore;
 import com.philldesk.philldeskbackend.dto.ApiResponse;
+import com.philldesk.philldeskbackend.dto.CategoryCountProjection;
+import com.philldesk.philldeskbackend.dto.InventoryTotalsProjection;
+import com.philldesk.philldeskbackend.dto.PrescriptionStatusCountProjection;
+import com.philldesk.philldeskbackend.service.BillAnalyticsService;
 import com.philldesk.philldeskbackend.service.BillService;
 import com.philldesk.philldeskbackend.service.MedicineService;
 import com.philldesk.philldeskbackend.service.PrescriptionService;
-import com.philldesk.philldeskbackend.service.PrescriptionItemService;
 import com.philldesk.philldeskbackend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -27,9 +27,7 @@ import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/analytics")
@@ -45,19 +43,19 @@ public class AnalyticsController {
     private final MedicineService medicineService;
     private final PrescriptionService prescriptionService;
     private final BillService billService;
-    private final PrescriptionItemService prescriptionItemService;
+    private final BillAnalyticsService billAnalyticsService;
 
     @Autowired
     public AnalyticsController(UserService userService, 
                              MedicineService medicineService,
                              PrescriptionService prescriptionService,
                              BillService billService,
-                             PrescriptionItemService prescriptionItemService) {
+                             BillAnalyticsService billAnalyticsService) {
         this.userService = userService;
         this.medicineService = medicineService;
         this.prescriptionService = prescriptionService;
         this.billService = billService;
-        this.prescriptionItemService = prescriptionItemService;
+        this.billAnalyticsService = billAnalyticsService;
     }
 
     /**
@@ -71,9 +69,9 @@ public class AnalyticsController {
             // Basic statistics
             overview.put("totalUsers", userService.getAllUsers().size());
             overview.put("activeUsers", userService.getActiveUsers().size());
-            overview.put("totalMedicines", medicineService.getAllMedicines().size());
-            overview.put("totalPrescriptions", prescriptionService.getAllPrescriptions().size());
-            overview.put("totalBills", billService.getAllBills().size());
+            overview.put("totalMedicines", medicineService.countMedicines());
+            overview.put("totalPrescriptions", prescriptionService.countPrescriptions());
+            overview.put("totalBills", billService.countBills());
             
             // Current month revenue
             LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
@@ -88,7 +86,7 @@ public class AnalyticsController {
     }
 
     /**
-     * Get top selling medications based on recent bills
+     * Get top selling medications based on recent paid bills
      */
     @GetMapping("/top-medications")
     public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getTopMedications(
@@ -99,57 +97,25 @@ public class AnalyticsController {
             LocalDate startDate = LocalDate.now().minusDays(days);
             LocalDate endDate = LocalDate.now();
             
-            // Get all prescription items from the specified period
-            List<PrescriptionItem> allPrescriptionItems = prescriptionItemService.getAllPrescriptionItems();
+            // Aggregate paid bill items per medicine from the in-memory fact store
+            Map<Long, BillFactStore.Totals> salesByMedicine = billAnalyticsService.getSalesByMedicine(startDate, endDate);
             
-            // Filter prescription items by date range (using prescription creation date)
-            List<PrescriptionItem> recentPrescriptionItems = allPrescriptionItems.stream()
-                .filter(item -> {
-                    if (item.getPrescription() != null && item.getPrescription().getCreatedAt() != null) {
-                        LocalDate itemDate = item.getPrescription().getCreatedAt().toLocalDate();
-                        return !itemDate.isBefore(startDate) && !itemDate.isAfter(endDate);
-                    }
-                    return false;
-                })
-                .toList();
-            
-            // Group by medicine and aggregate sales data
-            Map<Medicine, Map<String, Object>> medicineAggregation = recentPrescriptionItems.stream()
-                .collect(Collectors.groupingBy(
-                    PrescriptionItem::getMedicine,
-                    Collectors.collectingAndThen(
-                        Collectors.toList(),
-                        items -> {
-                            int totalQuantity = items.stream().mapToInt(PrescriptionItem::getQuantity).sum();
-                            BigDecimal totalRevenue = items.stream()
-                                .map(item -> item.getTotalPrice() != null ? item.getTotalPrice() : BigDecimal.ZERO)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-                            
-                            Map<String, Object> aggregation = new HashMap<>();
-                            aggregation.put(QUANTITY_KEY, totalQuantity);
-                            aggregation.put(REVENUE_KEY, totalRevenue);
-                            return aggregation;
-                        }
-                    )
-                ));
-            
-            // Convert to list of top medications and sort by quantity sold
-            List<Map<String, Object>> topMedications = medicineAggregation.entrySet().stream()
+            // Sort by quantity sold and resolve names only for the medicines that make the cut
+            List<Map<String, Object>> topMedications = salesByMedicine.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().getQuantity(), a.getValue().getQuantity()))
+                .limit(Math.max(limit, 0))
                 .map(entry -> {
-                    Medicine medicine = entry.getKey();
-                    Map<String, Object> aggregation = entry.getValue();
+                    BillFactStore.Totals totals = entry.getValue();
+                    int quantity = (int) totals.getQuantity();
+                    String name = medicineService.getMedicineById(entry.getKey())
+                        .map(medicine -> medicine.getName() + " " + (medicine.getStrength() != null ? medicine.getStrength() : ""))
+                        .orElse("Unknown medicine");
                     
                     // Calculate trend (mock for now - could be implemented with historical data)
-                    String trend = calculateTrend((Integer) aggregation.get(QUANTITY_KEY));
+                    String trend = calculateTrend(quantity);
                     
-                    return createMedicationData(
-                        medicine.getName() + " " + (medicine.getStrength() != null ? medicine.getStrength() : ""),
-                        (Integer) aggregation.get(QUANTITY_KEY),
-                        ((BigDecimal) aggregation.get(REVENUE_KEY)).doubleValue(),
-                        trend
-                    );
+                    return createMedicationData(name, quantity, totals.getAmountMinor() / 100.0, trend);
                 })
-                .sorted((a, b) -> Integer.compare((Integer) b.get(SALES_KEY), (Integer) a.get(SALES_KEY)))
                 .toList();
             
             // If no real data found, return a message indicating no sales in the period
@@ -159,8 +125,7 @@ public class AnalyticsController {
                 );
             }
             
-            return ResponseEntity.ok(ApiResponse.success("Top medications retrieved successfully", 
-                                                        topMedications.subList(0, Math.min(limit, topMedications.size()))));
+            return ResponseEntity.ok(ApiResponse.success("Top medications retrieved successfully", topMedications));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(ApiResponse.error("Failed to retrieve top medications"));
         }
@@ -177,29 +142,21 @@ public class AnalyticsController {
         Map<String, Object> salesData = new HashMap<>();
         
         try {
-            List<Bill> bills = billService.getBillsByDateRange(startDate, endDate);
-            
-            BigDecimal totalRevenue = bills.stream()
-                .map(Bill::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            Long totalOrders = (long) bills.size();
+            BigDecimal totalRevenue = billAnalyticsService.getRevenue(startDate, endDate);
+            Long totalOrders = billAnalyticsService.getOrderCount(startDate, endDate);
             
             BigDecimal avgOrderValue = totalOrders > 0 ? 
                 totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP) : 
                 BigDecimal.ZERO;
             
             // Group by payment method
-            Map<String, Long> paymentMethods = bills.stream()
-                .collect(Collectors.groupingBy(
-                    bill -> bill.getPaymentMethod().toString(),
-                    Collectors.counting()
-                ));
+            Map<String, Long> paymentMethods = billAnalyticsService.getPaymentMethodBreakdown(startDate, endDate);
             
             salesData.put("totalRevenue", totalRevenue);
             salesData.put("totalOrders", totalOrders);
             salesData.put("averageOrderValue", avgOrderValue);
             salesData.put("paymentMethodBreakdown", paymentMethods);
+            salesData.put("orderValuePercentiles", billAnalyticsService.getOrderValuePercentiles(startDate, endDate));
             salesData.put("period", Map.of("startDate", startDate, "endDate", endDate));
             
             return ResponseEntity.ok(ApiResponse.success("Sales analytics retrieved successfully", salesData));
@@ -208,6 +165,61 @@ public class AnalyticsController {
         }
     }
 
+    /**
+     * Get order value percentiles (p50/p90/p99) for a period, overall, per day and per pharmacist
+     */
+    @GetMapping("/order-values")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getOrderValueDistribution(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        
+        Map<String, Object> distribution = new HashMap<>();
+        
+        try {
+            distribution.put("overall", billAnalyticsService.getOrderValuePercentiles(startDate, endDate));
+            distribution.put("byDay", billAnalyticsService.getDailyOrderValuePercentiles(startDate, endDate));
+            distribution.put("byPharmacist", billAnalyticsService.getOrderValuePercentilesByPharmacist(startDate, endDate));
+            distribution.put("period", Map.of("startDate", startDate, "endDate", endDate));
+            
+            return ResponseEntity.ok(ApiResponse.success("Order value distribution retrieved successfully", distribution));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(ApiResponse.error("Failed to retrieve order value distribution: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Get approximate unique and returning customer counts.
+     * Returning customers are those also seen in the equally long period just before the range.
+     */
+    @GetMapping("/customers")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCustomerAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        
+        Map<String, Object> customerData = new HashMap<>();
+        
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDate rangeEnd = endDate != null ? endDate : today;
+            LocalDate rangeStart = startDate != null ? startDate : rangeEnd.withDayOfMonth(1);
+            
+            long uniqueCustomers = billAnalyticsService.estimateUniqueCustomers(rangeStart, rangeEnd);
+            long returningCustomers = billAnalyticsService.estimateReturningCustomers(rangeStart, rangeEnd);
+            
+            customerData.put("uniqueCustomers", uniqueCustomers);
+            customerData.put("returningCustomers", returningCustomers);
+            customerData.put("newCustomers", Math.max(0L, uniqueCustomers - returningCustomers));
+            customerData.put("uniqueCustomersThisWeek", billAnalyticsService.estimateUniqueCustomers(today.minusDays(6), today));
+            customerData.put("uniqueCustomersThisMonth", billAnalyticsService.estimateUniqueCustomers(today.withDayOfMonth(1), today));
+            customerData.put("approximate", true);
+            customerData.put("period", Map.of("startDate", rangeStart, "endDate", rangeEnd));
+            
+            return ResponseEntity.ok(ApiResponse.success("Customer analytics retrieved successfully", customerData));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(ApiResponse.error("Failed to retrieve customer analytics: " + e.getMessage()));
+        }
+    }
+
     /**
      * Get prescription analytics
      */
@@ -216,30 +228,22 @@ public class AnalyticsController {
         Map<String, Object> prescriptionData = new HashMap<>();
         
         try {
-            List<Prescription> allPrescriptions = prescriptionService.getAllPrescriptions();
-            
             // Status breakdown
-            Map<String, Long> statusBreakdown = allPrescriptions.stream()
-                .collect(Collectors.groupingBy(
-                    prescription -> prescription.getStatus().toString(),
-                    Collectors.counting()
-                ));
+            Map<String, Long> statusBreakdown = new HashMap<>();
+            long total = 0;
+            for (PrescriptionStatusCountProjection count : prescriptionService.getStatusCounts()) {
+                statusBreakdown.put(count.getStatus().toString(), count.getCount());
+                total += count.getCount();
+            }
             
             // Today's prescriptions
-            LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-            LocalDateTime endOfDay = LocalDate.now().atTime(23, 59, 59);
-            
-            long todaysPrescriptions = allPrescriptions.stream()
-                .filter(p -> p.getCreatedAt().isAfter(startOfDay) && p.getCreatedAt().isBefore(endOfDay))
-                .count();
+            long todaysPrescriptions = prescriptionService.countPrescriptionsCreatedSince(LocalDate.now().atStartOfDay());
             
             // This week's prescriptions
-            LocalDateTime startOfWeek = LocalDate.now().minusDays(7).atStartOfDay();
-            long weeklyPrescriptions = allPrescriptions.stream()
-                .filter(p -> p.getCreatedAt().isAfter(startOfWeek))
-                .count();
+            long weeklyPrescriptions = prescriptionService.countPrescriptionsCreatedSince(
+                LocalDate.now().minusDays(7).atStartOfDay());
             
-            prescriptionData.put("total", allPrescriptions.size());
+            prescriptionData.put("total", total);
             prescriptionData.put("statusBreakdown", statusBreakdown);
             prescriptionData.put("todaysPrescriptions", todaysPrescriptions);
             prescriptionData.put("weeklyPrescriptions", weeklyPrescriptions);
@@ -258,30 +262,19 @@ public class AnalyticsController {
         Map<String, Object> inventoryData = new HashMap<>();
         
         try {
-            List<Medicine> allMedicines = medicineService.getAllMedicines();
+            InventoryTotalsProjection totals = medicineService.getInventoryTotals();
             
-            long totalItems = allMedicines.size();
-            long inStock = allMedicines.stream()
-                .filter(m -> m.getQuantity() > m.getReorderLevel())
-                .count();
-            long lowStock = allMedicines.stream()
-                .filter(m -> m.getQuantity() <= m.getReorderLevel() && m.getQuantity() > 0)
-                .count();
-            long outOfStock = allMedicines.stream()
-                .filter(m -> m.getQuantity() == 0)
-                .count();
-            
-            BigDecimal totalValue = allMedicines.stream()
-                .map(m -> m.getUnitPrice().multiply(BigDecimal.valueOf(m.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            long totalItems = totals.getTotalItems();
+            long inStock = totals.getInStock();
+            long lowStock = totals.getLowStock();
+            long outOfStock = totals.getOutOfStock();
+            BigDecimal totalValue = totals.getTotalValue();
             
             // Category breakdown
-            Map<String, Long> categoryBreakdown = allMedicines.stream()
-                .filter(m -> m.getCategory() != null)
-                .collect(Collectors.groupingBy(
-                    Medicine::getCategory,
-                    Collectors.counting()
-                ));
+            Map<String, Long> categoryBreakdown = new HashMap<>();
+            for (CategoryCountProjection count : medicineService.getCategoryCounts()) {
+                categoryBreakdown.put(count.getCategory(), count.getCount());
+            }
             
             inventoryData.put("totalItems", totalItems);
             inventoryData.put("inStock", inStock);
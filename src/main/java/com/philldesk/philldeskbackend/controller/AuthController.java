@@ -6,12 +6,14 @@ import com.philldesk.philldeskbackend.dto.LoginRequest;
 import com.philldesk.philldeskbackend.dto.SignupRequest;
 import com.philldesk.philldeskbackend.dto.UserUpdateDTO;
 import com.philldesk.philldeskbackend.dto.PasswordChangeDTO;
+import com.philldesk.philldeskbackend.dto.RefreshTokenRequest;
 import com.philldesk.philldeskbackend.entity.Role;
 import com.philldesk.philldeskbackend.entity.User;
 import com.philldesk.philldeskbackend.repository.RoleRepository;
 import com.philldesk.philldeskbackend.repository.UserRepository;
-import com.philldesk.philldeskbackend.security.JwtUtils;
+import com.philldesk.philldeskbackend.security.LoginThrottle;
 import com.philldesk.philldeskbackend.security.UserPrincipal;
+import com.philldesk.philldeskbackend.service.RefreshTokenService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,9 +22,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -38,39 +40,55 @@ public class AuthController {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder encoder;
-    private final JwtUtils jwtUtils;
+    private final LoginThrottle loginThrottle;
+    private final RefreshTokenService refreshTokenService;
 
     public AuthController(AuthenticationManager authenticationManager,
                          UserRepository userRepository,
                          RoleRepository roleRepository,
                          PasswordEncoder encoder,
-                         JwtUtils jwtUtils) {
+                         LoginThrottle loginThrottle,
+                         RefreshTokenService refreshTokenService) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.encoder = encoder;
-        this.jwtUtils = jwtUtils;
+        this.loginThrottle = loginThrottle;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @PostMapping("/signin")
-    public ResponseEntity<JwtResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<JwtResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                                        HttpServletRequest request) {
+
+        // Rejected before the user is loaded or any password is hashed
+        loginThrottle.acquire(loginRequest.getUsername(), request.getRemoteAddr());
 
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+        loginThrottle.succeeded(loginRequest.getUsername(), request.getRemoteAddr());
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
 
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        List<String> roles = userPrincipal.getAuthorities().stream()
-                .map(item -> item.getAuthority())
-                .toList();
-
-        return ResponseEntity.ok(new JwtResponse(jwt,
-                userPrincipal.getId(),
-                userPrincipal.getUsername(),
-                userPrincipal.getEmail(),
-                roles));
+        return ResponseEntity.ok(refreshTokenService.issueTokens(userPrincipal));
+    }
+
+    /**
+     * Trade a refresh token for a new access token and refresh token
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(refreshTokenService.rotate(request.getRefreshToken()));
+    }
+
+    /**
+     * Revoke the session of a refresh token, including the access tokens issued with it
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Object>> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+        return ResponseEntity.ok(new ApiResponse<>(true, "Signed out successfully", null));
     }
 
     @PostMapping("/signup")
@@ -1,15 +1,22 @@
 package com.philldesk.philldeskbackend.controller;
 
 import com.philldesk.philldeskbackend.dto.BillResponseDTO;
+import com.philldesk.philldeskbackend.dto.KeysetCursor;
+import com.philldesk.philldeskbackend.dto.PageResponse;
 import com.philldesk.philldeskbackend.entity.Bill;
 import com.philldesk.philldeskbackend.entity.Prescription;
+import com.philldesk.philldeskbackend.service.ArchiveService;
+import com.philldesk.philldeskbackend.service.BillDocumentService;
 import com.philldesk.philldeskbackend.service.BillService;
 import com.philldesk.philldeskbackend.service.PrescriptionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,28 +35,40 @@ public class BillController {
 
     private final BillService billService;
     private final PrescriptionService prescriptionService;
+    private final ArchiveService archiveService;
+    private final BillDocumentService billDocumentService;
 
     @Autowired
-    public BillController(BillService billService, PrescriptionService prescriptionService) {
+    public BillController(BillService billService, PrescriptionService prescriptionService,
+                          ArchiveService archiveService, BillDocumentService billDocumentService) {
         this.billService = billService;
         this.prescriptionService = prescriptionService;
+        this.archiveService = archiveService;
+        this.billDocumentService = billDocumentService;
     }
 
     @GetMapping
-    public ResponseEntity<List<BillResponseDTO>> getAllBills() {
-        List<Bill> bills = billService.getAllBills();
-        List<BillResponseDTO> billDTOs = bills.stream()
-                .map(BillResponseDTO::fromEntity)
-                .toList();
-        return ResponseEntity.ok(billDTOs);
+    public ResponseEntity<List<BillResponseDTO>> getAllBills(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
+        KeysetScrollPosition position = KeysetCursor.decode(cursor);
+        Window<Bill> bills = billService.scrollBills(position, KeysetPaging.checkLimit(limit));
+        return KeysetPaging.list(bills, position, BillResponseDTO::fromEntity);
     }
 
     @GetMapping("/paged")
-    public ResponseEntity<Page<BillResponseDTO>> getAllBills(
+    public ResponseEntity<PageResponse<BillResponseDTO>> getAllBills(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor) {
+        
+        if (cursor != null) {
+            KeysetScrollPosition position = KeysetCursor.decode(cursor);
+            Window<Bill> bills = billService.scrollBills(position, KeysetPaging.checkLimit(size));
+            return ResponseEntity.ok(PageResponse.from(bills.map(BillResponseDTO::fromEntity), position));
+        }
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                    Sort.by(sortBy).descending() : 
@@ -57,13 +77,14 @@ public class BillController {
         Pageable pageable = PageRequest.of(page, size, sort);
         Page<Bill> bills = billService.getAllBills(pageable);
         Page<BillResponseDTO> billDTOs = bills.map(BillResponseDTO::fromEntity);
-        return ResponseEntity.ok(billDTOs);
+        return ResponseEntity.ok(PageResponse.from(billDTOs));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<BillResponseDTO> getBillById(@PathVariable Long id) {
-        Optional<Bill> bill = billService.getBillById(id);
-        return bill.map(b -> ResponseEntity.ok(BillResponseDTO.fromEntity(b)))
+        Optional<BillResponseDTO> bill = billService.getBillById(id).map(BillResponseDTO::fromEntity)
+                .or(() -> archiveService.getArchivedBill(id));
+        return bill.map(ResponseEntity::ok)
                   .orElse(ResponseEntity.notFound().build());
     }
 
@@ -75,15 +96,19 @@ public class BillController {
             return bill.map(b -> ResponseEntity.ok(BillResponseDTO.fromEntity(b)))
                       .orElse(ResponseEntity.notFound().build());
         }
-        return ResponseEntity.notFound().build();
+        // Archived prescriptions take their bill with them
+        return archiveService.getArchivedBillByPrescriptionId(prescriptionId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/customer/{customerId}")
     public ResponseEntity<List<BillResponseDTO>> getBillsByCustomer(@PathVariable Long customerId) {
         List<Bill> bills = billService.getBillsByCustomerId(customerId);
-        List<BillResponseDTO> billDTOs = bills.stream()
+        List<BillResponseDTO> billDTOs = new ArrayList<>(bills.stream()
                 .map(BillResponseDTO::fromEntity)
-                .toList();
+                .toList());
+        billDTOs.addAll(archiveService.getArchivedBillsByCustomerId(customerId));
         return ResponseEntity.ok(billDTOs);
     }
 
@@ -265,11 +290,11 @@ public class BillController {
      * Generate and download invoice PDF
      */
     @GetMapping("/{id}/pdf")
-    public ResponseEntity<byte[]> generateInvoicePDF(@PathVariable Long id) {
+    public ResponseEntity<Resource> generateInvoicePDF(@PathVariable Long id) {
         try {
             Optional<Bill> bill = billService.getBillById(id);
             if (bill.isPresent()) {
-                byte[] pdfData = billService.generateInvoicePDF(bill.get());
+                Resource pdfData = billDocumentService.getDocument(bill.get(), BillDocumentService.DocumentType.INVOICE);
                 return ResponseEntity.ok()
                         .header("Content-Type", "application/pdf")
                         .header("Content-Disposition", "attachment; filename=invoice-" + bill.get().getBillNumber() + ".pdf")
@@ -285,11 +310,11 @@ public class BillController {
      * Print invoice (generate PDF for printing)
      */
     @PostMapping("/{id}/print")
-    public ResponseEntity<byte[]> printInvoice(@PathVariable Long id) {
+    public ResponseEntity<Resource> printInvoice(@PathVariable Long id) {
         try {
             Optional<Bill> bill = billService.getBillById(id);
             if (bill.isPresent()) {
-                byte[] pdfData = billService.generateInvoicePDF(bill.get());
+                Resource pdfData = billDocumentService.getDocument(bill.get(), BillDocumentService.DocumentType.INVOICE);
                 return ResponseEntity.ok()
                         .header("Content-Type", "application/pdf")
                         .header("Content-Disposition", "inline; filename=invoice-" + bill.get().getBillNumber() + ".pdf")
@@ -0,0 +1,62 @@
+package com.philldesk.philldeskbackend.controller;
+
+import com.philldesk.philldeskbackend.dto.CatalogPayload;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDate;
+
+/**
+ * Conditional and pre-serialized responses for the medicine catalog endpoints.
+ *
+ * A catalog response is fully determined by the catalog version, the request URI with its
+ * query string, and today's date (the expired / expiring flags are computed against it),
+ * so the ETag is derived from those and checked before anything is loaded, and the body
+ * is written from a {@link CatalogPayload} serialized once per version.
+ */
+final class CatalogResponses {
+
+    private CatalogResponses() {
+    }
+
+    /**
+     * Sets the ETag on the response and returns true when the client's copy is current; the
+     * caller then returns null and Spring answers 304 Not Modified.
+     */
+    static boolean notModified(ServletWebRequest webRequest, long catalogVersion) {
+        String etag = "\"" + Long.toHexString(catalogVersion) + "-" + Integer.toHexString(variant(webRequest).hashCode()) + "\"";
+        return webRequest.checkNotModified(etag);
+    }
+
+    /**
+     * Cache key of the payload for this request: the URI with its query string.
+     */
+    static String payloadKey(ServletWebRequest webRequest) {
+        HttpServletRequest request = webRequest.getRequest();
+        String query = request.getQueryString();
+        return request.getRequestURI() + (query != null ? "?" + query : "");
+    }
+
+    /**
+     * The payload bytes as the response body, gzip-compressed when the client accepts it.
+     */
+    static ResponseEntity<byte[]> json(CatalogPayload payload, ServletWebRequest webRequest) {
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .headers(payload.headers())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzippedJson());
+        }
+        return response.body(payload.json());
+    }
+
+    private static String variant(ServletWebRequest webRequest) {
+        return payloadKey(webRequest) + "|" + LocalDate.now();
+    }
+}
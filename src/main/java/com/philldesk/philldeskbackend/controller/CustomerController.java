@@ -1,5 +1,6 @@
 package com.philldesk.philldeskbackend.controller;
 
+import com.philldesk.philldeskbackend.dto.KeysetCursor;
 import com.philldesk.philldeskbackend.entity.*;
 import com.philldesk.philldeskbackend.dto.PrescriptionResponseDTO;
 import com.philldesk.philldeskbackend.dto.BillResponseDTO;
@@ -10,6 +11,9 @@ import com.philldesk.philldeskbackend.service.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -44,8 +48,9 @@ public class CustomerController {
     private final UserService userService;
     private final ShippingDetailsService shippingDetailsService;
     private final MedicineService medicineService;
-    private final PdfGenerationService pdfService;
+    private final BillDocumentService billDocumentService;
     private final LocalFileService localFileService;
+    private final ArchiveService archiveService;
 
     @Autowired
     public CustomerController(PrescriptionService prescriptionService, 
@@ -53,15 +58,17 @@ public class CustomerController {
                              UserService userService,
                              ShippingDetailsService shippingDetailsService,
                               MedicineService medicineService,
-                              PdfGenerationService pdfService,
-                              LocalFileService localFileService) {
+                              BillDocumentService billDocumentService,
+                              LocalFileService localFileService,
+                              ArchiveService archiveService) {
         this.prescriptionService = prescriptionService;
         this.billService = billService;
         this.userService = userService;
         this.shippingDetailsService = shippingDetailsService;
         this.medicineService = medicineService;
-        this.pdfService = pdfService;
+        this.billDocumentService = billDocumentService;
         this.localFileService = localFileService;
+        this.archiveService = archiveService;
     }
 
     /**
@@ -214,9 +221,11 @@ public class CustomerController {
             }
 
             List<Prescription> prescriptions = prescriptionService.getPrescriptionsByCustomerId(customerId);
-            List<PrescriptionResponseDTO> prescriptionDTOs = prescriptions.stream()
+            List<PrescriptionResponseDTO> prescriptionDTOs = new ArrayList<>(prescriptions.stream()
                 .map(PrescriptionResponseDTO::fromEntity)
-                .toList();
+                .toList());
+            // Settled prescriptions past the archive horizon follow the live ones
+            prescriptionDTOs.addAll(archiveService.getArchivedPrescriptionsByCustomerId(customerId));
             return ResponseEntity.ok(prescriptionDTOs);
         } catch (Exception e) {
             logger.error("Error retrieving prescriptions for customer {}: {}", getCurrentUserId(), e.getMessage(), e);
@@ -265,7 +274,11 @@ public class CustomerController {
 
             Optional<Prescription> prescription = prescriptionService.getPrescriptionByIdWithUserDetails(id);
             if (prescription.isEmpty()) {
-                return ResponseEntity.notFound().build();
+                return archiveService.getArchivedPrescription(id)
+                    .map(archived -> customerId.equals(archived.getCustomerId())
+                        ? ResponseEntity.ok(archived)
+                        : ResponseEntity.status(HttpStatus.FORBIDDEN).<PrescriptionResponseDTO>build())
+                    .orElse(ResponseEntity.notFound().build());
             }
 
             // Check if prescription belongs to current customer
@@ -352,9 +365,10 @@ public class CustomerController {
             }
 
             List<Bill> bills = billService.getBillsByCustomerId(customerId);
-            List<BillResponseDTO> billDTOs = bills.stream()
+            List<BillResponseDTO> billDTOs = new ArrayList<>(bills.stream()
                 .map(BillResponseDTO::fromEntity)
-                .toList();
+                .toList());
+            billDTOs.addAll(archiveService.getArchivedBillsByCustomerId(customerId));
             return ResponseEntity.ok(billDTOs);
         } catch (Exception e) {
             logger.error("Error retrieving purchase history for customer {}: {}", getCurrentUserId(), e.getMessage(), e);
@@ -375,7 +389,11 @@ public class CustomerController {
 
             Optional<Bill> bill = billService.getBillByIdWithDetails(id);
             if (bill.isEmpty()) {
-                return ResponseEntity.notFound().build();
+                return archiveService.getArchivedBill(id)
+                    .map(archived -> customerId.equals(archived.getCustomerId())
+                        ? ResponseEntity.ok(archived)
+                        : ResponseEntity.status(HttpStatus.FORBIDDEN).<BillResponseDTO>build())
+                    .orElse(ResponseEntity.notFound().build());
             }
 
             // Check if bill belongs to current customer
@@ -562,19 +580,21 @@ public class CustomerController {
      * Get bills for current customer
      */
     @GetMapping("/bills")
-    public ResponseEntity<List<BillResponseDTO>> getMyBills() {
+    public ResponseEntity<List<BillResponseDTO>> getMyBills(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
         try {
             Long customerId = getCurrentUserId();
             if (customerId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
             }
 
-            List<Bill> bills = billService.getBillsByCustomerId(customerId);
-            List<BillResponseDTO> billDTOs = bills.stream()
-                .map(BillResponseDTO::fromEntity)
-                .collect(Collectors.toList());
-
-            return ResponseEntity.ok(billDTOs);
+            KeysetScrollPosition position = KeysetCursor.decode(cursor);
+            Window<Bill> bills = billService.scrollBillsByCustomerId(
+                customerId, position, KeysetPaging.checkLimit(limit));
+            return KeysetPaging.list(bills, position, BillResponseDTO::fromEntity);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving bills for customer {}: {}", getCurrentUserId(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -685,98 +705,94 @@ public class CustomerController {
      * Get customer's order history (combines prescriptions and bills for order tracking)
      */
     @GetMapping("/orders")
-    public ResponseEntity<List<Map<String, Object>>> getOrderHistory() {
+    public ResponseEntity<List<Map<String, Object>>> getOrderHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
         try {
             Long customerId = getCurrentUserId();
             if (customerId == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
             }
 
-            // Get all prescriptions for the customer
-            List<Prescription> prescriptions = prescriptionService.getPrescriptionsByCustomerId(customerId);
+            // One page of the customer's prescriptions, most recent first
+            KeysetScrollPosition position = KeysetCursor.decode(cursor);
+            Window<Prescription> prescriptions = prescriptionService.scrollPrescriptionsByCustomerId(
+                customerId, position, KeysetPaging.checkLimit(limit));
             
-            List<Map<String, Object>> orders = prescriptions.stream()
-                .map(prescription -> {
-                    Map<String, Object> order = new HashMap<>();
-                    
-                    // Basic order information
-                    order.put("orderId", "ORD-" + prescription.getId());
-                    order.put("prescriptionId", prescription.getPrescriptionNumber());
-                    order.put("doctorName", prescription.getDoctorName());
-                    order.put("date", prescription.getPrescriptionDate().toLocalDate().toString());
-                    
-                    // Order status mapping
-                    String orderStatus = mapPrescriptionStatusToOrderStatus(prescription.getStatus());
-                    order.put("status", orderStatus);
-                    
-                    // Get bill information if available
-                    Optional<Bill> billOpt = billService.getBillByPrescription(prescription);
-                    if (billOpt.isPresent()) {
-                        Bill bill = billOpt.get();
-                        order.put("billId", bill.getId());
-                        order.put("billNumber", bill.getBillNumber());
-                        order.put("total", bill.getSubtotal());
-                        order.put("shippingCost", bill.getShippingDetails() != null ? 
-                            (bill.getShippingDetails().getDeliveryFee() != null ? bill.getShippingDetails().getDeliveryFee() : 0.00) : 0.00);
-                        order.put("discount", bill.getDiscount());
-                        order.put("tax", bill.getTax());
-                        order.put("netTotal", bill.getTotalAmount());
-                        order.put("paymentMethod", bill.getPaymentMethod() != null ? bill.getPaymentMethod().toString() : null);
-                        order.put("paymentStatus", bill.getPaymentStatus().toString());
-                        
-                        // Shipping and tracking information
-                        if (bill.getShippingDetails() != null) {
-                            ShippingDetails shipping = bill.getShippingDetails();
-                            order.put("trackingNumber", shipping.getTrackingNumber());
-                            order.put("shippingAddress", buildShippingAddress(shipping));
-                            order.put("estimatedDelivery", shipping.getEstimatedDeliveryDate());
-                            order.put("actualDelivery", shipping.getDeliveredAt());
-                            order.put("courier", "PhillDesk Delivery"); // Default courier name
-                            order.put("shippingStatus", shipping.getShippingStatus().toString());
-                        }
-                    } else {
-                        // No bill yet, set defaults
-                        order.put("total", 0.00);
-                        order.put("shippingCost", 0.00);
-                        order.put("discount", 0.00);
-                        order.put("tax", 0.00);
-                        order.put("netTotal", 0.00);
-                    }
+            return KeysetPaging.list(prescriptions, position, prescription -> {
+                Map<String, Object> order = new HashMap<>();
+                
+                // Basic order information
+                order.put("orderId", "ORD-" + prescription.getId());
+                order.put("prescriptionId", prescription.getPrescriptionNumber());
+                order.put("doctorName", prescription.getDoctorName());
+                order.put("date", prescription.getPrescriptionDate().toLocalDate().toString());
+                
+                // Order status mapping
+                String orderStatus = mapPrescriptionStatusToOrderStatus(prescription.getStatus());
+                order.put("status", orderStatus);
+                
+                // Get bill information if available
+                Optional<Bill> billOpt = billService.getBillByPrescription(prescription);
+                if (billOpt.isPresent()) {
+                    Bill bill = billOpt.get();
+                    order.put("billId", bill.getId());
+                    order.put("billNumber", bill.getBillNumber());
+                    order.put("total", bill.getSubtotal());
+                    order.put("shippingCost", bill.getShippingDetails() != null ? 
+                        (bill.getShippingDetails().getDeliveryFee() != null ? bill.getShippingDetails().getDeliveryFee() : 0.00) : 0.00);
+                    order.put("discount", bill.getDiscount());
+                    order.put("tax", bill.getTax());
+                    order.put("netTotal", bill.getTotalAmount());
+                    order.put("paymentMethod", bill.getPaymentMethod() != null ? bill.getPaymentMethod().toString() : null);
+                    order.put("paymentStatus", bill.getPaymentStatus().toString());
                     
-                    // Get prescription items
-                    List<Map<String, Object>> items = new ArrayList<>();
-                    if (prescription.getPrescriptionItems() != null) {
-                        items = prescription.getPrescriptionItems().stream()
-                            .map(item -> {
-                                Map<String, Object> itemMap = new HashMap<>();
-                                itemMap.put("name", item.getMedicine().getName());
-                                itemMap.put("quantity", item.getQuantity());
-                                itemMap.put("price", item.getUnitPrice());
-                                itemMap.put("manufacturer", item.getMedicine().getManufacturer());
-                                itemMap.put("instructions", item.getInstructions());
-                                itemMap.put("dosage", item.getDosage());
-                                itemMap.put("frequency", item.getFrequency());
-                                return itemMap;
-                            })
-                            .collect(Collectors.toList());
+                    // Shipping and tracking information
+                    if (bill.getShippingDetails() != null) {
+                        ShippingDetails shipping = bill.getShippingDetails();
+                        order.put("trackingNumber", shipping.getTrackingNumber());
+                        order.put("shippingAddress", buildShippingAddress(shipping));
+                        order.put("estimatedDelivery", shipping.getEstimatedDeliveryDate());
+                        order.put("actualDelivery", shipping.getDeliveredAt());
+                        order.put("courier", "PhillDesk Delivery"); // Default courier name
+                        order.put("shippingStatus", shipping.getShippingStatus().toString());
                     }
-                    order.put("items", items);
-                    
-                    // Additional order properties
-                    order.put("canReorder", prescription.getStatus() == Prescription.PrescriptionStatus.COMPLETED);
-                    order.put("orderNotes", prescription.getNotes());
-                    
-                    return order;
-                })
-                .sorted((a, b) -> {
-                    // Sort by date descending (most recent first)
-                    String dateA = (String) a.get("date");
-                    String dateB = (String) b.get("date");
-                    return dateB.compareTo(dateA);
-                })
-                .collect(Collectors.toList());
-
-            return ResponseEntity.ok(orders);
+                } else {
+                    // No bill yet, set defaults
+                    order.put("total", 0.00);
+                    order.put("shippingCost", 0.00);
+                    order.put("discount", 0.00);
+                    order.put("tax", 0.00);
+                    order.put("netTotal", 0.00);
+                }
+                
+                // Get prescription items
+                List<Map<String, Object>> items = new ArrayList<>();
+                if (prescription.getPrescriptionItems() != null) {
+                    items = prescription.getPrescriptionItems().stream()
+                        .map(item -> {
+                            Map<String, Object> itemMap = new HashMap<>();
+                            itemMap.put("name", item.getMedicine().getName());
+                            itemMap.put("quantity", item.getQuantity());
+                            itemMap.put("price", item.getUnitPrice());
+                            itemMap.put("manufacturer", item.getMedicine().getManufacturer());
+                            itemMap.put("instructions", item.getInstructions());
+                            itemMap.put("dosage", item.getDosage());
+                            itemMap.put("frequency", item.getFrequency());
+                            return itemMap;
+                        })
+                        .collect(Collectors.toList());
+                }
+                order.put("items", items);
+                
+                // Additional order properties
+                order.put("canReorder", prescription.getStatus() == Prescription.PrescriptionStatus.COMPLETED);
+                order.put("orderNotes", prescription.getNotes());
+                
+                return order;
+            });
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving order history for customer {}: {}", getCurrentUserId(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -1006,7 +1022,7 @@ public class CustomerController {
      * GET /api/customer/bills/{billId}/download
      */
     @GetMapping("/bills/{billId}/download")
-    public ResponseEntity<byte[]> downloadBill(@PathVariable Long billId) {
+    public ResponseEntity<Resource> downloadBill(@PathVariable Long billId) {
         try {
             Long customerId = getCurrentUserId();
             if (customerId == null) {
@@ -1025,7 +1041,7 @@ public class CustomerController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             
-            byte[] pdfBytes = pdfService.generateBillPdf(bill);
+            Resource pdfFile = billDocumentService.getDocument(bill, BillDocumentService.DocumentType.BILL_PDF);
             
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
@@ -1037,7 +1053,7 @@ public class CustomerController {
             
             return ResponseEntity.ok()
                 .headers(headers)
-                .body(pdfBytes);
+                .body(pdfFile);
             
         } catch (Exception e) {
             logger.error("Error downloading bill PDF: {}", e.getMessage());
@@ -1,6 +1,9 @@
 package com.philldesk.philldeskbackend.controller;
 
 import com.philldesk.philldeskbackend.dto.ApiResponse;
+import com.philldesk.philldeskbackend.dto.BillProjection;
+import com.philldesk.philldeskbackend.dto.MedicineSummaryProjection;
+import com.philldesk.philldeskbackend.dto.PendingPrescriptionProjection;
 import com.philldesk.philldeskbackend.entity.Medicine;
 import com.philldesk.philldeskbackend.entity.Prescription;
 import com.philldesk.philldeskbackend.entity.Bill;
@@ -100,15 +103,15 @@ public class DashboardController {
         Map<String, Object> alerts = new HashMap<>();
         
         // Low stock alerts
-        List<Medicine> lowStockMedicines = medicineService.getLowStockMedicines(10);
+        List<MedicineSummaryProjection> lowStockMedicines = medicineService.getLowStockMedicineSummaries(10);
         alerts.put("lowStockMedicines", lowStockMedicines);
         
         // Pending prescriptions that need attention
-        List<Prescription> pendingPrescriptions = prescriptionService.getPendingPrescriptions();
+        List<PendingPrescriptionProjection> pendingPrescriptions = prescriptionService.getPendingPrescriptionSummaries();
         alerts.put("pendingPrescriptions", pendingPrescriptions);
         
         // Unpaid bills
-        List<Bill> pendingBills = billService.getPendingBills();
+        List<BillProjection> pendingBills = billService.getPendingBillSummaries();
         alerts.put("pendingBills", pendingBills);
         
         return ResponseEntity.ok(ApiResponse.success("System alerts retrieved successfully", alerts));
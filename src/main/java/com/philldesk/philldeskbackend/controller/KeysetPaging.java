@@ -0,0 +1,55 @@
+package com.philldesk.philldeskbackend.controller;
+
+import com.philldesk.philldeskbackend.dto.KeysetCursor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cursor pagination contract shared by the list endpoints.
+ *
+ * Every list takes an optional {@code cursor} and a bounded {@code limit} and walks a
+ * fixed keyset order, (createdAt, id) or (name, id). List endpoints keep their JSON
+ * array body and return the cursors in the X-Next-Cursor / X-Prev-Cursor headers;
+ * {@code /paged} endpoints switch from OFFSET to the same cursors when a {@code cursor}
+ * parameter is present (empty for the first page) and return them in PageResponse.
+ */
+final class KeysetPaging {
+
+    static final String DEFAULT_LIMIT = "50";
+    static final int MAX_LIMIT = 200;
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String PREV_CURSOR_HEADER = "X-Prev-Cursor";
+
+    private KeysetPaging() {
+    }
+
+    static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    static <T, R> ResponseEntity<List<R>> list(Window<T> window, KeysetScrollPosition requested,
+                                               Function<? super T, ? extends R> mapper) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        String next = KeysetCursor.next(window, requested);
+        if (next != null) {
+            response.header(NEXT_CURSOR_HEADER, next);
+        }
+        String previous = KeysetCursor.previous(window, requested);
+        if (previous != null) {
+            response.header(PREV_CURSOR_HEADER, previous);
+        }
+        List<R> body = window.getContent().stream().<R>map(mapper).toList();
+        return response.body(body);
+    }
+
+    static <T> ResponseEntity<List<T>> list(Window<T> window, KeysetScrollPosition requested) {
+        return list(window, requested, Function.identity());
+    }
+}
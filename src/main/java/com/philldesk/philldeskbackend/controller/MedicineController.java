@@ -1,15 +1,24 @@
 package com.philldesk.philldeskbackend.controller;
 
+import com.philldesk.philldeskbackend.dto.CatalogPayload;
+import com.philldesk.philldeskbackend.dto.KeysetCursor;
+import com.philldesk.philldeskbackend.dto.MedicineSummaryProjection;
+import com.philldesk.philldeskbackend.dto.PageResponse;
 import com.philldesk.philldeskbackend.entity.Medicine;
+import com.philldesk.philldeskbackend.service.CatalogPayloadService;
+import com.philldesk.philldeskbackend.service.MedicineCatalogService;
 import com.philldesk.philldeskbackend.service.MedicineService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -21,32 +30,83 @@ import java.util.Optional;
 public class MedicineController {
 
     private final MedicineService medicineService;
+    private final MedicineCatalogService medicineCatalogService;
+    private final CatalogPayloadService catalogPayloadService;
 
     @Autowired
-    public MedicineController(MedicineService medicineService) {
+    public MedicineController(MedicineService medicineService, MedicineCatalogService medicineCatalogService,
+                              CatalogPayloadService catalogPayloadService) {
         this.medicineService = medicineService;
+        this.medicineCatalogService = medicineCatalogService;
+        this.catalogPayloadService = catalogPayloadService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Medicine>> getAllMedicines() {
-        List<Medicine> medicines = medicineService.getAllMedicines();
-        return ResponseEntity.ok(medicines);
+    public ResponseEntity<byte[]> getAllMedicines(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit,
+            ServletWebRequest webRequest) {
+        long catalogVersion = medicineCatalogService.getCatalogVersion();
+        if (CatalogResponses.notModified(webRequest, catalogVersion)) {
+            return null;
+        }
+        KeysetScrollPosition position = KeysetCursor.decode(cursor);
+        int checkedLimit = KeysetPaging.checkLimit(limit);
+        CatalogPayload payload = catalogPayloadService.getPayload(CatalogResponses.payloadKey(webRequest), catalogVersion,
+                () -> KeysetPaging.list(medicineService.scrollMedicines(position, checkedLimit), position));
+        return CatalogResponses.json(payload, webRequest);
     }
 
     @GetMapping("/paged")
-    public ResponseEntity<Page<Medicine>> getAllMedicines(
+    public ResponseEntity<byte[]> getAllMedicines(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            ServletWebRequest webRequest) {
+        
+        long catalogVersion = medicineCatalogService.getCatalogVersion();
+        if (CatalogResponses.notModified(webRequest, catalogVersion)) {
+            return null;
+        }
+        
+        CatalogPayload payload = catalogPayloadService.getPayload(CatalogResponses.payloadKey(webRequest), catalogVersion,
+                () -> getMedicinePage(page, size, sortBy, sortDir, cursor));
+        return CatalogResponses.json(payload, webRequest);
+    }
+
+    private ResponseEntity<PageResponse<MedicineSummaryProjection>> getMedicinePage(int page, int size, String sortBy,
+                                                                                   String sortDir, String cursor) {
+        if (cursor != null) {
+            KeysetScrollPosition position = KeysetCursor.decode(cursor);
+            Window<MedicineSummaryProjection> medicines = medicineService.scrollMedicines(position, KeysetPaging.checkLimit(size));
+            return ResponseEntity.ok(PageResponse.from(medicines, position));
+        }
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                    Sort.by(sortBy).descending() : 
                    Sort.by(sortBy).ascending();
         
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Medicine> medicines = medicineService.getAllMedicines(pageable);
-        return ResponseEntity.ok(medicines);
+        Page<MedicineSummaryProjection> medicines = medicineService.getMedicineSummaries(pageable);
+        return ResponseEntity.ok(PageResponse.from(medicines));
+    }
+
+    /**
+     * Medicines changed and deleted since a catalog version; {@code since=0} returns the whole catalog
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<byte[]> getCatalogChanges(
+            @RequestParam(defaultValue = "0") long since,
+            ServletWebRequest webRequest) {
+        long catalogVersion = medicineCatalogService.getCatalogVersion();
+        if (CatalogResponses.notModified(webRequest, catalogVersion)) {
+            return null;
+        }
+        CatalogPayload payload = catalogPayloadService.getPayload(CatalogResponses.payloadKey(webRequest), catalogVersion,
+                () -> ResponseEntity.ok(medicineCatalogService.getChangesSince(since)));
+        return CatalogResponses.json(payload, webRequest);
     }
 
     @GetMapping("/{id}")
@@ -57,61 +117,54 @@ public class MedicineController {
     }
 
     @GetMapping("/search/{name}")
-    public ResponseEntity<List<Medicine>> getMedicinesByName(@PathVariable String name) {
-        List<Medicine> medicines = medicineService.getMedicinesByName(name);
+    public ResponseEntity<List<MedicineSummaryProjection>> getMedicinesByName(@PathVariable String name) {
+        List<MedicineSummaryProjection> medicines = medicineService.searchMedicineSummaries(name);
         return ResponseEntity.ok(medicines);
     }
 
     @GetMapping("/manufacturer/{manufacturer}")
-    public ResponseEntity<List<Medicine>> getMedicinesByManufacturer(@PathVariable String manufacturer) {
-        List<Medicine> medicines = medicineService.getMedicinesByManufacturer(manufacturer);
+    public ResponseEntity<List<MedicineSummaryProjection>> getMedicinesByManufacturer(@PathVariable String manufacturer) {
+        List<MedicineSummaryProjection> medicines = medicineService.getMedicineSummariesByManufacturer(manufacturer);
         return ResponseEntity.ok(medicines);
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Medicine>> getMedicinesByCategory(@PathVariable String category) {
-        List<Medicine> medicines = medicineService.getMedicinesByCategory(category);
+    public ResponseEntity<List<MedicineSummaryProjection>> getMedicinesByCategory(@PathVariable String category) {
+        List<MedicineSummaryProjection> medicines = medicineService.getMedicineSummariesByCategory(category);
         return ResponseEntity.ok(medicines);
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<Medicine>> getAvailableMedicines() {
-        List<Medicine> medicines = medicineService.getAvailableMedicines();
+    public ResponseEntity<List<MedicineSummaryProjection>> getAvailableMedicines() {
+        List<MedicineSummaryProjection> medicines = medicineService.getAvailableMedicineSummaries();
         return ResponseEntity.ok(medicines);
     }
 
     @GetMapping("/low-stock")
-    public ResponseEntity<List<Medicine>> getLowStockMedicines(
+    public ResponseEntity<List<MedicineSummaryProjection>> getLowStockMedicines(
             @RequestParam(defaultValue = "10") Integer threshold) {
-        List<Medicine> medicines = medicineService.getLowStockMedicines(threshold);
+        List<MedicineSummaryProjection> medicines = medicineService.getLowStockMedicineSummaries(threshold);
         return ResponseEntity.ok(medicines);
     }
 
     @GetMapping("/price-range")
-    public ResponseEntity<List<Medicine>> getMedicinesByPriceRange(
+    public ResponseEntity<List<MedicineSummaryProjection>> getMedicinesByPriceRange(
             @RequestParam BigDecimal minPrice,
             @RequestParam BigDecimal maxPrice) {
-        List<Medicine> medicines = medicineService.getMedicinesByPriceRange(minPrice, maxPrice);
+        List<MedicineSummaryProjection> medicines = medicineService.getMedicineSummariesByPriceRange(minPrice, maxPrice);
         return ResponseEntity.ok(medicines);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Medicine>> searchMedicines(@RequestParam String searchTerm) {
-        List<Medicine> medicines = medicineService.searchMedicines(searchTerm);
+    public ResponseEntity<List<MedicineSummaryProjection>> searchMedicines(@RequestParam String searchTerm) {
+        List<MedicineSummaryProjection> medicines = medicineService.searchMedicineSummaries(searchTerm);
         return ResponseEntity.ok(medicines);
     }
 
     @GetMapping("/search/suggestions")
-    public ResponseEntity<List<Medicine>> getMedicineSuggestions(@RequestParam String query) {
-        // Enhanced search for auto-suggestions
-        List<Medicine> medicines = medicineService.searchMedicines(query);
-        
-        // Limit to top 10 results for performance
-        List<Medicine> suggestions = medicines.stream()
-            .filter(medicine -> medicine.getIsActive() && !medicine.isExpired() && medicine.getQuantity() > 0)
-            .limit(10)
-            .toList();
-            
+    public ResponseEntity<List<MedicineSummaryProjection>> getMedicineSuggestions(@RequestParam String query) {
+        // Top 10 sellable matches; the stock, expiry and limit filters run in the query
+        List<MedicineSummaryProjection> suggestions = medicineService.getMedicineSuggestions(query, 10);
         return ResponseEntity.ok(suggestions);
     }
 
@@ -1,14 +1,19 @@
 package com.philldesk.philldeskbackend.controller;
 
+import com.philldesk.philldeskbackend.dto.KeysetCursor;
+import com.philldesk.philldeskbackend.dto.NotificationSummaryProjection;
+import com.philldesk.philldeskbackend.dto.PageResponse;
 import com.philldesk.philldeskbackend.entity.Notification;
 import com.philldesk.philldeskbackend.entity.User;
 import com.philldesk.philldeskbackend.service.NotificationService;
 import com.philldesk.philldeskbackend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -31,25 +36,35 @@ public class NotificationController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Notification>> getAllNotifications() {
-        List<Notification> notifications = notificationService.getAllNotifications();
-        return ResponseEntity.ok(notifications);
+    public ResponseEntity<List<NotificationSummaryProjection>> getAllNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
+        KeysetScrollPosition position = KeysetCursor.decode(cursor);
+        Window<NotificationSummaryProjection> notifications = notificationService.scrollNotifications(position, KeysetPaging.checkLimit(limit));
+        return KeysetPaging.list(notifications, position);
     }
 
     @GetMapping("/paged")
-    public ResponseEntity<Page<Notification>> getAllNotifications(
+    public ResponseEntity<PageResponse<NotificationSummaryProjection>> getAllNotifications(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor) {
+        
+        if (cursor != null) {
+            KeysetScrollPosition position = KeysetCursor.decode(cursor);
+            Window<NotificationSummaryProjection> notifications = notificationService.scrollNotifications(position, KeysetPaging.checkLimit(size));
+            return ResponseEntity.ok(PageResponse.from(notifications, position));
+        }
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                    Sort.by(sortBy).descending() : 
                    Sort.by(sortBy).ascending();
         
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Notification> notifications = notificationService.getAllNotifications(pageable);
-        return ResponseEntity.ok(notifications);
+        Page<NotificationSummaryProjection> notifications = notificationService.getAllNotifications(pageable);
+        return ResponseEntity.ok(PageResponse.from(notifications));
     }
 
     @GetMapping("/{id}")
@@ -60,22 +75,22 @@ public class NotificationController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Notification>> getNotificationsByUser(@PathVariable Long userId) {
-        List<Notification> notifications = notificationService.getNotificationsByUserId(userId);
+    public ResponseEntity<List<NotificationSummaryProjection>> getNotificationsByUser(@PathVariable Long userId) {
+        List<NotificationSummaryProjection> notifications = notificationService.getNotificationsByUserId(userId);
         return ResponseEntity.ok(notifications);
     }
 
     @GetMapping("/user/{userId}/unread")
-    public ResponseEntity<List<Notification>> getUnreadNotificationsByUser(@PathVariable Long userId) {
-        List<Notification> notifications = notificationService.getUnreadNotificationsByUserId(userId);
+    public ResponseEntity<List<NotificationSummaryProjection>> getUnreadNotificationsByUser(@PathVariable Long userId) {
+        List<NotificationSummaryProjection> notifications = notificationService.getUnreadNotificationsByUserId(userId);
         return ResponseEntity.ok(notifications);
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<Notification>> getNotificationsByType(@PathVariable String type) {
+    public ResponseEntity<List<NotificationSummaryProjection>> getNotificationsByType(@PathVariable String type) {
         try {
             Notification.NotificationType notificationType = Notification.NotificationType.valueOf(type.toUpperCase());
-            List<Notification> notifications = notificationService.getNotificationsByType(notificationType);
+            List<NotificationSummaryProjection> notifications = notificationService.getNotificationsByType(notificationType);
             return ResponseEntity.ok(notifications);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
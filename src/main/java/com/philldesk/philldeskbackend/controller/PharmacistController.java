@@ -1,19 +1,30 @@
 package com.philldesk.philldeskbackend.controller;
 
+import com.philldesk.philldeskbackend.dto.BillTotalsProjection;
+import com.philldesk.philldeskbackend.dto.CatalogPayload;
+import com.philldesk.philldeskbackend.dto.KeysetCursor;
+import com.philldesk.philldeskbackend.dto.PendingPrescriptionProjection;
 import com.philldesk.philldeskbackend.dto.ReadyForPickupPrescriptionDTO;
 import com.philldesk.philldeskbackend.entity.*;
 import com.philldesk.philldeskbackend.security.UserPrincipal;
 import com.philldesk.philldeskbackend.service.PrescriptionService;
+import com.philldesk.philldeskbackend.service.CatalogPayloadService;
+import com.philldesk.philldeskbackend.service.MedicineCatalogService;
 import com.philldesk.philldeskbackend.service.MedicineService;
 import com.philldesk.philldeskbackend.service.UserService;
 import com.philldesk.philldeskbackend.service.BillService;
 import com.philldesk.philldeskbackend.service.RoleService;
+import com.philldesk.philldeskbackend.service.PrescriptionWorkflowService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +44,8 @@ import java.util.Set;
 public class PharmacistController {
 
     private static final String MESSAGE_KEY = "message";
+    // Bill numbers of manually created bills start with this
+    private static final String MANUAL_BILL_PREFIX = "MAN-";
     private static final Logger logger = LoggerFactory.getLogger(PharmacistController.class);
 
     private final PrescriptionService prescriptionService;
@@ -40,18 +53,27 @@ public class PharmacistController {
     private final UserService userService;
     private final BillService billService;
     private final RoleService roleService;
+    private final PrescriptionWorkflowService prescriptionWorkflowService;
+    private final MedicineCatalogService medicineCatalogService;
+    private final CatalogPayloadService catalogPayloadService;
 
     @Autowired
     public PharmacistController(PrescriptionService prescriptionService, 
                                MedicineService medicineService,
                                UserService userService,
                                BillService billService,
-                               RoleService roleService) {
+                               RoleService roleService,
+                               PrescriptionWorkflowService prescriptionWorkflowService,
+                               MedicineCatalogService medicineCatalogService,
+                               CatalogPayloadService catalogPayloadService) {
         this.prescriptionService = prescriptionService;
         this.medicineService = medicineService;
         this.userService = userService;
         this.billService = billService;
         this.roleService = roleService;
+        this.prescriptionWorkflowService = prescriptionWorkflowService;
+        this.medicineCatalogService = medicineCatalogService;
+        this.catalogPayloadService = catalogPayloadService;
     }
 
     /**
@@ -63,33 +85,19 @@ public class PharmacistController {
             Map<String, Object> stats = new HashMap<>();
             
             // Prescription statistics
-            List<Prescription> allPrescriptions = prescriptionService.getAllPrescriptions();
-            stats.put("total", allPrescriptions.size());
-            stats.put("pending", prescriptionService.getPendingPrescriptions().size());
-            stats.put("underReview", allPrescriptions.stream()
-                .filter(p -> p.getStatus() == Prescription.PrescriptionStatus.APPROVED)
-                .count());
-            stats.put("readyForPickup", allPrescriptions.stream()
-                .filter(p -> p.getStatus() == Prescription.PrescriptionStatus.READY_FOR_PICKUP)
-                .count());
-            stats.put("completed", prescriptionService.getCompletedPrescriptions().size());
+            stats.put("total", prescriptionService.countPrescriptions());
+            stats.put("pending", prescriptionService.countPrescriptionsByStatus(Prescription.PrescriptionStatus.PENDING));
+            stats.put("underReview", prescriptionService.countPrescriptionsByStatus(Prescription.PrescriptionStatus.APPROVED));
+            stats.put("readyForPickup", prescriptionService.countPrescriptionsByStatus(Prescription.PrescriptionStatus.READY_FOR_PICKUP));
+            stats.put("completed", prescriptionService.countPrescriptionsByStatus(Prescription.PrescriptionStatus.COMPLETED));
             
-            // Today's statistics
+            // Today's statistics, from the status event counters
             LocalDate today = LocalDate.now();
-            
-            List<Prescription> todayPrescriptions = prescriptionService.getPrescriptionsByDateRange(today, today);
-            stats.put("approvedToday", todayPrescriptions.stream()
-                .filter(p -> p.getStatus() == Prescription.PrescriptionStatus.APPROVED ||
-                           p.getStatus() == Prescription.PrescriptionStatus.DISPENSED ||
-                           p.getStatus() == Prescription.PrescriptionStatus.COMPLETED)
-                .count());
+            stats.put("approvedToday", prescriptionWorkflowService.countTransitions(
+                    Prescription.PrescriptionStatus.APPROVED, today, today));
             
             // Emergency prescriptions
-            stats.put("emergency", allPrescriptions.stream()
-                .filter(p -> p.getNotes() != null && 
-                           (p.getNotes().toLowerCase().contains("emergency") ||
-                            p.getNotes().toLowerCase().contains("urgent")))
-                .count());
+            stats.put("emergency", prescriptionService.countUrgentPrescriptions());
             
             // Inventory statistics
             List<Medicine> allMedicines = medicineService.getAllMedicines();
@@ -115,28 +123,35 @@ public class PharmacistController {
      * Get pending prescriptions for review
      */
     @GetMapping("/prescriptions/pending")
-    public ResponseEntity<List<Prescription>> getPendingPrescriptions() {
+    public ResponseEntity<List<PendingPrescriptionProjection>> getPendingPrescriptions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
         try {
-            List<Prescription> prescriptions = prescriptionService.getPendingPrescriptions();
-            return ResponseEntity.ok(prescriptions);
+            KeysetScrollPosition position = KeysetCursor.decode(cursor);
+            Window<PendingPrescriptionProjection> prescriptions = prescriptionService.scrollPendingPrescriptionSummaries(
+                position, KeysetPaging.checkLimit(limit));
+            return KeysetPaging.list(prescriptions, position);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     /**
-     * Get all prescriptions with pagination support
+     * Get all prescriptions, newest first, one cursor page at a time
      */
     @GetMapping("/prescriptions")
     public ResponseEntity<List<Prescription>> getAllPrescriptions(
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "100") int size,
-            @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
         try {
-            List<Prescription> prescriptions = prescriptionService.getAllPrescriptions();
-            // For now, return all prescriptions. Later can add pagination with Page<Prescription>
-            return ResponseEntity.ok(prescriptions);
+            KeysetScrollPosition position = KeysetCursor.decode(cursor);
+            Window<Prescription> prescriptions = prescriptionService.scrollPrescriptions(
+                position, KeysetPaging.checkLimit(limit));
+            return KeysetPaging.list(prescriptions, position);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -146,14 +161,16 @@ public class PharmacistController {
      * Get prescriptions that require clarification
      */
     @GetMapping("/prescriptions/requires-clarification")
-    public ResponseEntity<List<Prescription>> getRequiresClarificationPrescriptions() {
+    public ResponseEntity<List<Prescription>> getRequiresClarificationPrescriptions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
         try {
-            List<Prescription> allPrescriptions = prescriptionService.getAllPrescriptions();
-            List<Prescription> requiresClarification = allPrescriptions.stream()
-                .filter(p -> p.getRejectionReason() != null && 
-                           p.getStatus() == Prescription.PrescriptionStatus.REJECTED)
-                .toList();
-            return ResponseEntity.ok(requiresClarification);
+            KeysetScrollPosition position = KeysetCursor.decode(cursor);
+            Window<Prescription> requiresClarification = prescriptionService
+                .scrollPrescriptionsRequiringClarification(position, KeysetPaging.checkLimit(limit));
+            return KeysetPaging.list(requiresClarification, position);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -284,10 +301,17 @@ public class PharmacistController {
      * Get prescriptions assigned to a specific pharmacist
      */
     @GetMapping("/prescriptions/assigned/{pharmacistId}")
-    public ResponseEntity<List<Prescription>> getAssignedPrescriptions(@PathVariable Long pharmacistId) {
+    public ResponseEntity<List<Prescription>> getAssignedPrescriptions(
+            @PathVariable Long pharmacistId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
         try {
-            List<Prescription> prescriptions = prescriptionService.getPrescriptionsByPharmacistId(pharmacistId);
-            return ResponseEntity.ok(prescriptions);
+            KeysetScrollPosition position = KeysetCursor.decode(cursor);
+            Window<Prescription> prescriptions = prescriptionService.scrollPrescriptionsByPharmacistId(
+                pharmacistId, position, KeysetPaging.checkLimit(limit));
+            return KeysetPaging.list(prescriptions, position);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -431,18 +455,18 @@ public class PharmacistController {
      * Get prescriptions ready for pickup (awaiting payment collection)
      */
     @GetMapping("/prescriptions/ready-for-pickup")
-    public ResponseEntity<List<ReadyForPickupPrescriptionDTO>> getPrescriptionsReadyForPickup() {
+    public ResponseEntity<List<ReadyForPickupPrescriptionDTO>> getPrescriptionsReadyForPickup(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
         try {
-            List<Prescription> readyPrescriptions = prescriptionService.getPrescriptionsByStatus(
-                Prescription.PrescriptionStatus.READY_FOR_PICKUP
-            );
+            KeysetScrollPosition position = KeysetCursor.decode(cursor);
+            Window<Prescription> readyPrescriptions = prescriptionService.scrollPrescriptionsByStatus(
+                Prescription.PrescriptionStatus.READY_FOR_PICKUP, position, KeysetPaging.checkLimit(limit));
             
             // Convert to DTOs to avoid nested serialization issues
-            List<ReadyForPickupPrescriptionDTO> dtos = readyPrescriptions.stream()
-                .map(ReadyForPickupPrescriptionDTO::fromPrescription)
-                .toList();
-                
-            return ResponseEntity.ok(dtos);
+            return KeysetPaging.list(readyPrescriptions, position, ReadyForPickupPrescriptionDTO::fromPrescription);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error fetching prescriptions ready for pickup: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -547,21 +571,18 @@ public class PharmacistController {
         try {
             Map<String, Object> stats = new HashMap<>();
             
-            // Today's workflow
+            // Today's workflow, from the status event counters
             LocalDate today = LocalDate.now();
-            List<Prescription> todayPrescriptions = prescriptionService.getPrescriptionsByDateRange(today, today);
+            Map<String, Object> todayStats = prescriptionWorkflowService.getWorkflowStats(today, today);
             
-            stats.put("submittedToday", todayPrescriptions.size());
-            stats.put("reviewedToday", todayPrescriptions.stream()
-                .filter(p -> p.getStatus() != Prescription.PrescriptionStatus.PENDING)
-                .count());
-            stats.put("completedToday", todayPrescriptions.stream()
-                .filter(p -> p.getStatus() == Prescription.PrescriptionStatus.COMPLETED)
-                .count());
+            stats.put("submittedToday", todayStats.get("submitted"));
+            stats.put("reviewedToday", todayStats.get("reviewed"));
+            stats.put("completedToday", todayStats.get("completed"));
             
-            // Average processing time (simplified - could be enhanced with actual timing data)
-            stats.put("averageProcessingTimeHours", 2.5);
-            stats.put("averagePickupTimeHours", 4.0);
+            // Average turnaround over the last 30 days
+            Map<String, Object> recentStats = prescriptionWorkflowService.getWorkflowStats(today.minusDays(29), today);
+            stats.put("averageProcessingTimeHours", ((Map<?, ?>) recentStats.get("reviewToReady")).get("averageHours"));
+            stats.put("averagePickupTimeHours", ((Map<?, ?>) recentStats.get("readyToPickup")).get("averageHours"));
             
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
@@ -569,6 +590,22 @@ public class PharmacistController {
         }
     }
 
+    /**
+     * Get per-pharmacist workflow counters and turnaround times
+     */
+    @GetMapping("/workflow/pharmacists")
+    public ResponseEntity<Map<Long, Map<String, Object>>> getPharmacistProductivity(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            LocalDate end = endDate != null ? endDate : LocalDate.now();
+            LocalDate start = startDate != null ? startDate : end.minusDays(29);
+            return ResponseEntity.ok(prescriptionWorkflowService.getPharmacistProductivity(start, end));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Get all pharmacists for assignment
      */
@@ -742,20 +779,29 @@ public class PharmacistController {
      * Get all medicines for manual billing
      */
     @GetMapping("/manual-billing/medicines")
-    public ResponseEntity<Map<String, Object>> getAllMedicinesForBilling() {
+    public ResponseEntity<?> getAllMedicinesForBilling(ServletWebRequest webRequest) {
         try {
-            List<Medicine> medicines = medicineService.getAllMedicines();
-            
-            // Filter out medicines with zero stock for manual billing
-            List<Medicine> availableMedicines = medicines.stream()
-                .filter(medicine -> medicine.getQuantity() > 0)
-                .toList();
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("medicines", availableMedicines);
-            response.put("total", availableMedicines.size());
+            long catalogVersion = medicineCatalogService.getCatalogVersion();
+            if (CatalogResponses.notModified(webRequest, catalogVersion)) {
+                return null;
+            }
             
-            return ResponseEntity.ok(response);
+            CatalogPayload payload = catalogPayloadService.getPayload(CatalogResponses.payloadKey(webRequest),
+                    catalogVersion, () -> {
+                List<Medicine> medicines = medicineService.getAllMedicines();
+                
+                // Filter out medicines with zero stock for manual billing
+                List<Medicine> availableMedicines = medicines.stream()
+                    .filter(medicine -> medicine.getQuantity() > 0)
+                    .toList();
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("medicines", availableMedicines);
+                response.put("total", availableMedicines.size());
+                
+                return ResponseEntity.ok(response);
+            });
+            return CatalogResponses.json(payload, webRequest);
         } catch (Exception e) {
             logger.error("Error fetching medicines for manual billing: {}", e.getMessage(), e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -1031,32 +1077,20 @@ public class PharmacistController {
     public ResponseEntity<Map<String, Object>> getManualBillingStats() {
         try {
             // Get today's manual bills
-            LocalDate today = LocalDate.now();
-            List<Bill> allBills = billService.getAllBills();
-            
-            List<Bill> todayManualBills = allBills.stream()
-                .filter(bill -> bill.getBillNumber() != null && bill.getBillNumber().startsWith("MAN-"))
-                .filter(bill -> bill.getCreatedAt().toLocalDate().equals(today))
-                .toList();
+            BillTotalsProjection today = billService.getBillTotalsByNumberPrefix(
+                    MANUAL_BILL_PREFIX, LocalDate.now().atStartOfDay());
+            BillTotalsProjection all = billService.getBillTotalsByNumberPrefix(
+                    MANUAL_BILL_PREFIX, LocalDate.EPOCH.atStartOfDay());
 
-            List<Bill> allManualBills = allBills.stream()
-                .filter(bill -> bill.getBillNumber() != null && bill.getBillNumber().startsWith("MAN-"))
-                .toList();
-
-            double todayRevenue = todayManualBills.stream()
-                .mapToDouble(bill -> bill.getTotalAmount().doubleValue())
-                .sum();
-
-            double totalRevenue = allManualBills.stream()
-                .mapToDouble(bill -> bill.getTotalAmount().doubleValue())
-                .sum();
+            double todayRevenue = today.getTotalAmount().doubleValue();
+            double totalRevenue = all.getTotalAmount().doubleValue();
 
             Map<String, Object> stats = new HashMap<>();
-            stats.put("todayBills", todayManualBills.size());
+            stats.put("todayBills", today.getBillCount());
             stats.put("todayRevenue", todayRevenue);
-            stats.put("totalBills", allManualBills.size());
+            stats.put("totalBills", all.getBillCount());
             stats.put("totalRevenue", totalRevenue);
-            stats.put("averageBillAmount", allManualBills.isEmpty() ? 0 : totalRevenue / allManualBills.size());
+            stats.put("averageBillAmount", all.getBillCount() == 0 ? 0 : totalRevenue / all.getBillCount());
 
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
@@ -1074,13 +1108,8 @@ public class PharmacistController {
     public ResponseEntity<List<Map<String, Object>>> getRecentManualBills(
             @RequestParam(defaultValue = "10") int limit) {
         try {
-            List<Bill> allBills = billService.getAllBills();
-            
-            List<Bill> manualBills = allBills.stream()
-                .filter(bill -> bill.getBillNumber() != null && bill.getBillNumber().startsWith("MAN-"))
-                .sorted((b1, b2) -> b2.getCreatedAt().compareTo(b1.getCreatedAt())) // Most recent first
-                .limit(limit)
-                .toList();
+            // Most recent first
+            List<Bill> manualBills = billService.getRecentBillsByNumberPrefix(MANUAL_BILL_PREFIX, limit);
 
             List<Map<String, Object>> billSummaries = manualBills.stream()
                 .map(bill -> {
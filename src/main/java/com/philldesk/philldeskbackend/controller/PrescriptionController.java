@@ -3,14 +3,18 @@ package com.philldesk.philldeskbackend.controller;
 import com.philldesk.philldeskbackend.entity.Prescription;
 import com.philldesk.philldeskbackend.entity.User;
 import com.philldesk.philldeskbackend.dto.PrescriptionResponseDTO;
+import com.philldesk.philldeskbackend.dto.KeysetCursor;
 import com.philldesk.philldeskbackend.dto.PageResponse;
 import com.philldesk.philldeskbackend.service.PrescriptionService;
 import com.philldesk.philldeskbackend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -35,12 +40,13 @@ public class PrescriptionController {
     }
 
     @GetMapping
-    public ResponseEntity<List<PrescriptionResponseDTO>> getAllPrescriptions() {
-        List<Prescription> prescriptions = prescriptionService.getAllPrescriptions();
-        List<PrescriptionResponseDTO> prescriptionDTOs = prescriptions.stream()
-            .map(PrescriptionResponseDTO::fromEntity)
-            .toList();
-        return ResponseEntity.ok(prescriptionDTOs);
+    public ResponseEntity<List<PrescriptionResponseDTO>> getAllPrescriptions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
+        KeysetScrollPosition position = KeysetCursor.decode(cursor);
+        Window<Prescription> prescriptions = prescriptionService.scrollPrescriptions(
+                position, KeysetPaging.checkLimit(limit));
+        return KeysetPaging.list(prescriptions, position, PrescriptionResponseDTO::fromEntity);
     }
 
     @GetMapping("/paged")
@@ -48,7 +54,17 @@ public class PrescriptionController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor) {
+        
+        KeysetPaging.checkLimit(size);
+        
+        // Deep pages: seek past the cursor row instead of counting and skipping with OFFSET
+        if (cursor != null) {
+            KeysetScrollPosition position = KeysetCursor.decode(cursor);
+            Window<Prescription> prescriptions = prescriptionService.scrollPrescriptions(position, size);
+            return ResponseEntity.ok(PageResponse.from(prescriptions.map(PrescriptionResponseDTO::fromEntity), position));
+        }
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                    Sort.by(sortBy).descending() : 
@@ -60,7 +76,15 @@ public class PrescriptionController {
         // Create a new Page with DTOs
         Page<PrescriptionResponseDTO> prescriptionDTOPage = prescriptions.map(PrescriptionResponseDTO::fromEntity);
         
-        return ResponseEntity.ok(PageResponse.from(prescriptionDTOPage));
+        PageResponse<PrescriptionResponseDTO> response = PageResponse.from(prescriptionDTOPage);
+        // Offer a continuation token when the ordering matches the keyset (newest first)
+        if ("createdAt".equals(sortBy) && sortDir.equalsIgnoreCase("desc")
+                && prescriptions.hasNext() && prescriptions.hasContent()) {
+            Prescription last = prescriptions.getContent().get(prescriptions.getNumberOfElements() - 1);
+            response.setNextCursor(KeysetCursor.encode(
+                    ScrollPosition.forward(Map.of("createdAt", last.getCreatedAt(), "id", last.getId()))));
+        }
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
@@ -1,5 +1,6 @@
 package com.philldesk.philldeskbackend.controller;
 
+import com.philldesk.philldeskbackend.dto.KeysetCursor;
 import com.philldesk.philldeskbackend.entity.PrescriptionItem;
 import com.philldesk.philldeskbackend.entity.Prescription;
 import com.philldesk.philldeskbackend.entity.Medicine;
@@ -10,6 +11,8 @@ import com.philldesk.philldeskbackend.dto.PrescriptionItemDTO;
 import com.philldesk.philldeskbackend.dto.PrescriptionItemResponseDTO;
 import com.philldesk.philldeskbackend.dto.PrescriptionItemBulkUpdateDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -37,9 +40,13 @@ public class PrescriptionItemController {
     }
 
     @GetMapping
-    public ResponseEntity<List<PrescriptionItem>> getAllPrescriptionItems() {
-        List<PrescriptionItem> items = prescriptionItemService.getAllPrescriptionItems();
-        return ResponseEntity.ok(items);
+    public ResponseEntity<List<PrescriptionItem>> getAllPrescriptionItems(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
+        KeysetScrollPosition position = KeysetCursor.decode(cursor);
+        Window<PrescriptionItem> items = prescriptionItemService.scrollPrescriptionItems(
+                position, KeysetPaging.checkLimit(limit));
+        return KeysetPaging.list(items, position);
     }
 
     @GetMapping("/{id}")
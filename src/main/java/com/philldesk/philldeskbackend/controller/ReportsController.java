@@ -1,7 +1,10 @@
 package com.philldesk.philldeskbackend.controller;
 
 import com.philldesk.philldeskbackend.service.PdfGenerationService;
+import com.philldesk.philldeskbackend.service.ReportService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -11,6 +14,8 @@ import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
@@ -33,10 +38,63 @@ public class ReportsController {
     private static final String ATTACHMENT_HEADER = "attachment";
 
     private final PdfGenerationService pdfGenerationService;
+    private final ReportService reportService;
 
     @Autowired
-    public ReportsController(PdfGenerationService pdfGenerationService) {
+    public ReportsController(PdfGenerationService pdfGenerationService, ReportService reportService) {
         this.pdfGenerationService = pdfGenerationService;
+        this.reportService = reportService;
+    }
+
+    /**
+     * Generate a report on the server and stream the PDF to the client
+     * 
+     * The dataset is computed from the analytics rollups and repositories, so the
+     * client only chooses the report type and period.
+     * 
+     * @param reportType One of sales, inventory or user-activity
+     * @param startDate Start date for the report
+     * @param endDate End date for the report
+     * @param response Response the PDF is written to
+     */
+    @GetMapping("/{reportType}/pdf")
+    public void downloadGeneratedReportPdf(
+            @PathVariable String reportType,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            HttpServletResponse response) throws IOException {
+        ReportService.ReportType type;
+        try {
+            type = ReportService.ReportType.fromPath(reportType);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), e.getMessage());
+            return;
+        }
+        if (endDate.isBefore(startDate)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "End date must not be before start date");
+            return;
+        }
+
+        try {
+            logger.info("Generating {} report PDF for period: {} to {}", type.getPath(), startDate, endDate);
+
+            String timestamp = LocalDateTime.now().format(FILENAME_DATE_FORMAT);
+            String filename = "PhillDesk_" + type.name() + "_Report_" + timestamp + ".pdf";
+
+            // Headers go out before the body; the PDF is written as rows are read
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ATTACHMENT_HEADER + "; filename=\"" + filename + "\"");
+
+            reportService.writeReportPdf(type, startDate, endDate, response.getOutputStream());
+            response.flushBuffer();
+
+        } catch (Exception e) {
+            logger.error("Error generating {} report PDF: {}", type.getPath(), e.getMessage(), e);
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
+        }
     }
 
     /**
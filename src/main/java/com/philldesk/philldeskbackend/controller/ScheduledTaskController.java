@@ -1,5 +1,6 @@
 package com.philldesk.philldeskbackend.controller;
 
+import com.philldesk.philldeskbackend.service.ArchiveService;
 import com.philldesk.philldeskbackend.service.ScheduledTaskService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +11,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/admin/scheduled-tasks")
 @RequiredArgsConstructor
@@ -18,6 +21,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class ScheduledTaskController {
 
     private final ScheduledTaskService scheduledTaskService;
+    private final ArchiveService archiveService;
 
     /**
      * Manually trigger the expired pay-on-pickup bills processing
@@ -113,6 +117,21 @@ public class ScheduledTaskController {
         }
     }
 
+    /**
+     * Manually trigger archiving of settled prescriptions and bills past the archive horizon
+     */
+    @PostMapping("/archive-settled-records")
+    public ResponseEntity<Map<String, Integer>> archiveSettledRecordsManually() {
+        log.info("Manual trigger for archiving settled records requested");
+        
+        try {
+            return ResponseEntity.ok(archiveService.archiveSettledRecords());
+        } catch (Exception e) {
+            log.error("Error archiving settled records: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * Health check endpoint for scheduled tasks
      */
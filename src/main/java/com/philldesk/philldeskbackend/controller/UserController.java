@@ -1,15 +1,20 @@
 package com.philldesk.philldeskbackend.controller;
 
+import com.philldesk.philldeskbackend.dto.KeysetCursor;
+import com.philldesk.philldeskbackend.dto.PageResponse;
+import com.philldesk.philldeskbackend.dto.UserSummaryProjection;
 import com.philldesk.philldeskbackend.entity.User;
 import com.philldesk.philldeskbackend.entity.Role;
 import com.philldesk.philldeskbackend.dto.UserUpdateDTO;
 import com.philldesk.philldeskbackend.service.UserService;
 import com.philldesk.philldeskbackend.service.RoleService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -32,25 +37,35 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserSummaryProjection>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
+        KeysetScrollPosition position = KeysetCursor.decode(cursor);
+        Window<UserSummaryProjection> users = userService.scrollUsers(position, KeysetPaging.checkLimit(limit));
+        return KeysetPaging.list(users, position);
     }
 
     @GetMapping("/paged")
-    public ResponseEntity<Page<User>> getAllUsers(
+    public ResponseEntity<PageResponse<UserSummaryProjection>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String cursor) {
+        
+        if (cursor != null) {
+            KeysetScrollPosition position = KeysetCursor.decode(cursor);
+            Window<UserSummaryProjection> users = userService.scrollUsers(position, KeysetPaging.checkLimit(size));
+            return ResponseEntity.ok(PageResponse.from(users, position));
+        }
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                    Sort.by(sortBy).descending() : 
                    Sort.by(sortBy).ascending();
         
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<User> users = userService.getAllUsers(pageable);
-        return ResponseEntity.ok(users);
+        Page<UserSummaryProjection> users = userService.getUserSummaries(pageable);
+        return ResponseEntity.ok(PageResponse.from(users));
     }
 
     @GetMapping("/{id}")
@@ -75,10 +90,10 @@ public class UserController {
     }
 
     @GetMapping("/role/{roleName}")
-    public ResponseEntity<List<User>> getUsersByRole(@PathVariable String roleName) {
+    public ResponseEntity<List<UserSummaryProjection>> getUsersByRole(@PathVariable String roleName) {
         try {
             Role.RoleName role = Role.RoleName.valueOf(roleName.toUpperCase());
-            List<User> users = userService.getUsersByRole(role);
+            List<UserSummaryProjection> users = userService.getUserSummariesByRole(role);
             return ResponseEntity.ok(users);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -86,8 +101,8 @@ public class UserController {
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<User>> getActiveUsers() {
-        List<User> users = userService.getActiveUsers();
+    public ResponseEntity<List<UserSummaryProjection>> getActiveUsers() {
+        List<UserSummaryProjection> users = userService.getActiveUserSummaries();
         return ResponseEntity.ok(users);
     }
 
@@ -0,0 +1,18 @@
+package com.philldesk.philldeskbackend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface BillItemFactProjection {
+    Long getBillId();
+    LocalDateTime getPaidAt();
+    LocalDateTime getUpdatedAt();
+    LocalDateTime getCreatedAt();
+    Long getMedicineId();
+    Long getPharmacistId();
+    Long getCustomerId();
+    String getPaymentMethod();
+    BigDecimal getBillTotal();
+    Integer getQuantity();
+    BigDecimal getTotalPrice();
+}
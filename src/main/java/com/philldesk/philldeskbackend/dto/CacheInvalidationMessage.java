@@ -0,0 +1,16 @@
+package com.philldesk.philldeskbackend.dto;
+
+/**
+ * An invalidation sent to the other nodes: drop {@code key} from the cache named
+ * {@code region}. Entity regions (see CacheRegions) arrive on the other nodes as remote
+ * CachedEntityChangedEvents, any other region as this message published as an
+ * application event.
+ */
+public record CacheInvalidationMessage(String region, String key) {
+
+    // Revoked refresh-token families, see TokenRevocationService
+    public static final String SESSIONS = "sessions";
+
+    // Unread notification counters keyed by user id, see NotificationCounterServiceImpl
+    public static final String NOTIFICATION_COUNTERS = "notification_counters";
+}
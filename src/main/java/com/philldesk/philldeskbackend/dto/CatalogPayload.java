@@ -0,0 +1,11 @@
+package com.philldesk.philldeskbackend.dto;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A catalog response serialized once for one catalog version: its headers (e.g. the
+ * keyset cursors) and its body as plain and gzip-compressed JSON, either of which is
+ * written to the response as is.
+ */
+public record CatalogPayload(long catalogVersion, String day, HttpHeaders headers, byte[] json, byte[] gzippedJson) {
+}
@@ -0,0 +1,6 @@
+package com.philldesk.philldeskbackend.dto;
+
+public interface CategoryCountProjection {
+    String getCategory();
+    Long getCount();
+}
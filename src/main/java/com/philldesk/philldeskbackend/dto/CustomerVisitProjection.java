@@ -0,0 +1,8 @@
+package com.philldesk.philldeskbackend.dto;
+
+import java.time.LocalDateTime;
+
+public interface CustomerVisitProjection {
+    Long getCustomerId();
+    LocalDateTime getCreatedAt();
+}
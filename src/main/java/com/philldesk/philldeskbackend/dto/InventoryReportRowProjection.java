@@ -0,0 +1,14 @@
+package com.philldesk.philldeskbackend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface InventoryReportRowProjection {
+    String getName();
+    String getStrength();
+    String getCategory();
+    Integer getQuantity();
+    Integer getReorderLevel();
+    BigDecimal getUnitPrice();
+    LocalDate getExpiryDate();
+}
@@ -0,0 +1,11 @@
+package com.philldesk.philldeskbackend.dto;
+
+import java.math.BigDecimal;
+
+public interface InventoryTotalsProjection {
+    Long getTotalItems();
+    Long getInStock();
+    Long getLowStock();
+    Long getOutOfStock();
+    BigDecimal getTotalValue();
+}
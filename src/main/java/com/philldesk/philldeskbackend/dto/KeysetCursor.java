@@ -0,0 +1,118 @@
+package com.philldesk.philldeskbackend.dto;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque page cursor for keyset (seek) pagination.
+ *
+ * A cursor is the sort key of a boundary row, e.g. (createdAt, id) or (name, id), plus
+ * the scroll direction. The next page seeks past that row instead of skipping an OFFSET,
+ * so deep pages cost the same as the first one. Tokens are URL-safe base64 and carry a
+ * type tag per key so they decode back to the entity attribute types.
+ */
+public final class KeysetCursor {
+
+    private static final char FORWARD = 'F';
+    private static final char BACKWARD = 'B';
+    private static final String FIELD_SEPARATOR = ";";
+    private static final String VALUE_SEPARATOR = "=";
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(KeysetScrollPosition position) {
+        StringBuilder raw = new StringBuilder();
+        raw.append(position.scrollsForward() ? FORWARD : BACKWARD);
+        for (Map.Entry<String, Object> key : position.getKeys().entrySet()) {
+            raw.append(FIELD_SEPARATOR).append(key.getKey()).append(VALUE_SEPARATOR).append(encodeValue(key.getValue()));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a client token; a missing token is the start of the list.
+     */
+    public static KeysetScrollPosition decode(String token) {
+        if (token == null || token.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] fields = raw.split(FIELD_SEPARATOR, -1);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = 1; i < fields.length; i++) {
+                int split = fields[i].indexOf(VALUE_SEPARATOR);
+                keys.put(fields[i].substring(0, split), decodeValue(fields[i].substring(split + 1)));
+            }
+            if (keys.isEmpty()) {
+                throw new IllegalArgumentException("Empty cursor");
+            }
+            return switch (fields[0].charAt(0)) {
+                case FORWARD -> ScrollPosition.forward(keys);
+                case BACKWARD -> ScrollPosition.backward(keys);
+                default -> throw new IllegalArgumentException("Unknown cursor direction");
+            };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+
+    /**
+     * Cursor for the page after this window, or null when the window is the last page.
+     */
+    public static String next(Window<?> window, KeysetScrollPosition requested) {
+        if (window.isEmpty()) {
+            return null;
+        }
+        // A backward window always has rows after it: the page it was requested from
+        boolean more = requested.scrollsBackward() || window.hasNext();
+        return more ? encode(ScrollPosition.forward(keysAt(window, window.size() - 1))) : null;
+    }
+
+    /**
+     * Cursor for the page before this window, or null when the window is the first page.
+     */
+    public static String previous(Window<?> window, KeysetScrollPosition requested) {
+        if (window.isEmpty()) {
+            return null;
+        }
+        boolean more = requested.scrollsBackward() ? window.hasNext() : !requested.isInitial();
+        return more ? encode(ScrollPosition.backward(keysAt(window, 0))) : null;
+    }
+
+    private static Map<String, ?> keysAt(Window<?> window, int index) {
+        return ((KeysetScrollPosition) window.positionAt(index)).getKeys();
+    }
+
+    private static String encodeValue(Object value) {
+        if (value instanceof LocalDateTime dateTime) {
+            return "t" + dateTime;
+        }
+        if (value instanceof Long number) {
+            return "l" + number;
+        }
+        if (value instanceof String text) {
+            // Names may contain the separators, so nest them as base64
+            return "s" + Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+        }
+        throw new IllegalArgumentException("Unsupported keyset value type: " + value);
+    }
+
+    private static Object decodeValue(String value) {
+        String body = value.substring(1);
+        return switch (value.charAt(0)) {
+            case 't' -> LocalDateTime.parse(body);
+            case 'l' -> Long.valueOf(body);
+            case 's' -> new String(Base64.getUrlDecoder().decode(body), StandardCharsets.UTF_8);
+            default -> throw new IllegalArgumentException("Unknown cursor value type");
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.philldesk.philldeskbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Catalog delta for /api/medicines/changes. Clients upsert {@code changed} by id, drop
+ * {@code deletedIds} and pass {@code version} as the next {@code since}. When
+ * {@code fullResync} is set, {@code changed} is the whole catalog and anything the client
+ * holds that is not in it should be dropped.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MedicineChangesResponse {
+    private long version;
+    private boolean fullResync;
+    private List<MedicineSummaryProjection> changed;
+    private List<Long> deletedIds;
+}
@@ -0,0 +1,35 @@
+package com.philldesk.philldeskbackend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public interface MedicineSummaryProjection {
+    Long getId();
+    String getName();
+    String getGenericName();
+    String getManufacturer();
+    String getCategory();
+    String getDosageForm();
+    String getStrength();
+    Integer getQuantity();
+    BigDecimal getUnitPrice();
+    BigDecimal getCostPrice();
+    LocalDate getExpiryDate();
+    String getBatchNumber();
+    Integer getReorderLevel();
+    String getDescription();
+    Boolean getIsPrescriptionRequired();
+    Boolean getIsActive();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    
+    // Same derived flags the Medicine entity serializes
+    default boolean isLowStock() {
+        return getQuantity() <= getReorderLevel();
+    }
+    
+    default boolean isExpired() {
+        return getExpiryDate() != null && getExpiryDate().isBefore(LocalDate.now());
+    }
+}
@@ -0,0 +1,26 @@
+package com.philldesk.philldeskbackend.dto;
+
+import com.philldesk.philldeskbackend.entity.Notification;
+
+import java.time.LocalDateTime;
+
+public interface NotificationSummaryProjection {
+    Long getId();
+    String getTitle();
+    String getMessage();
+    Notification.NotificationType getNotificationType();
+    Notification.Priority getPriority();
+    Boolean getIsRead();
+    Long getReferenceId();
+    String getReferenceType();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getReadAt();
+    Recipient getUser();
+    
+    interface Recipient {
+        Long getId();
+        String getUsername();
+        String getFirstName();
+        String getLastName();
+    }
+}
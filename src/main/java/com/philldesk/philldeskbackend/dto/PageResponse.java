@@ -2,6 +2,8 @@ package com.philldesk.philldeskbackend.dto;
 
 import lombok.Data;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 
@@ -15,6 +17,9 @@ public class PageResponse<T> {
     private boolean first;
     private boolean last;
     private boolean empty;
+    // Keyset cursors (see KeysetCursor); null when there is no page in that direction
+    private String nextCursor;
+    private String prevCursor;
 
     public static <T> PageResponse<T> from(Page<T> page) {
         PageResponse<T> response = new PageResponse<>();
@@ -28,4 +33,22 @@ public class PageResponse<T> {
         response.setEmpty(page.isEmpty());
         return response;
     }
+
+    /**
+     * Cursor-paged response. No count query runs, so page, totalElements and totalPages are -1.
+     */
+    public static <T> PageResponse<T> from(Window<T> window, KeysetScrollPosition requested) {
+        PageResponse<T> response = new PageResponse<>();
+        response.setContent(window.getContent());
+        response.setPage(-1);
+        response.setSize(window.size());
+        response.setTotalElements(-1);
+        response.setTotalPages(-1);
+        response.setNextCursor(KeysetCursor.next(window, requested));
+        response.setPrevCursor(KeysetCursor.previous(window, requested));
+        response.setFirst(response.getPrevCursor() == null);
+        response.setLast(response.getNextCursor() == null);
+        response.setEmpty(window.isEmpty());
+        return response;
+    }
 }
@@ -0,0 +1,29 @@
+package com.philldesk.philldeskbackend.dto;
+
+import com.philldesk.philldeskbackend.entity.Prescription;
+
+import java.time.LocalDateTime;
+
+public interface PendingPrescriptionProjection {
+    Long getId();
+    String getPrescriptionNumber();
+    String getDoctorName();
+    String getDoctorLicense();
+    LocalDateTime getPrescriptionDate();
+    String getFileUrl();
+    String getFileName();
+    String getFileType();
+    Prescription.PrescriptionStatus getStatus();
+    String getNotes();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    Customer getCustomer();
+    
+    interface Customer {
+        Long getId();
+        String getFirstName();
+        String getLastName();
+        String getEmail();
+        String getPhone();
+    }
+}
@@ -0,0 +1,8 @@
+package com.philldesk.philldeskbackend.dto;
+
+import com.philldesk.philldeskbackend.entity.Prescription;
+
+public interface PrescriptionStatusCountProjection {
+    Prescription.PrescriptionStatus getStatus();
+    Long getCount();
+}
@@ -0,0 +1,15 @@
+package com.philldesk.philldeskbackend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface SalesReportRowProjection {
+    String getBillNumber();
+    LocalDateTime getPaidAt();
+    LocalDateTime getCreatedAt();
+    String getCustomerFirstName();
+    String getCustomerLastName();
+    String getPaymentMethod();
+    Long getItemCount();
+    BigDecimal getTotalAmount();
+}
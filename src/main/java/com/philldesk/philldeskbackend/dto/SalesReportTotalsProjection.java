@@ -0,0 +1,8 @@
+package com.philldesk.philldeskbackend.dto;
+
+import java.math.BigDecimal;
+
+public interface SalesReportTotalsProjection {
+    Long getBillCount();
+    BigDecimal getTotalAmount();
+}
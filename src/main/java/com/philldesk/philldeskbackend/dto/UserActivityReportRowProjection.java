@@ -0,0 +1,14 @@
+package com.philldesk.philldeskbackend.dto;
+
+import java.time.LocalDateTime;
+
+public interface UserActivityReportRowProjection {
+    String getUsername();
+    String getFirstName();
+    String getLastName();
+    String getRoleName();
+    Boolean getIsActive();
+    LocalDateTime getCreatedAt();
+    Long getPrescriptionsHandled();
+    Long getBillsProcessed();
+}
@@ -0,0 +1,25 @@
+package com.philldesk.philldeskbackend.dto;
+
+import com.philldesk.philldeskbackend.entity.Role;
+
+import java.time.LocalDateTime;
+
+public interface UserSummaryProjection {
+    Long getId();
+    String getUsername();
+    String getEmail();
+    String getFirstName();
+    String getLastName();
+    String getPhone();
+    String getAddress();
+    Boolean getIsActive();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    RoleSummary getRole();
+    
+    interface RoleSummary {
+        Long getId();
+        Role.RoleName getName();
+        String getDescription();
+    }
+}
@@ -0,0 +1,48 @@
+package com.philldesk.philldeskbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * A settled bill moved out of the hot tables by the archive job. The id is the original
+ * bill id; the payload is its BillResponseDTO as gzip-compressed JSON, items and shipping
+ * details included.
+ */
+@Entity
+@Table(name = "archived_bills")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = {"payload"})
+public class ArchivedBill {
+
+    @Id
+    private Long id;
+
+    @Column(name = "bill_number", nullable = false, length = 50)
+    private String billNumber;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "prescription_id")
+    private Long prescriptionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", nullable = false, length = 20)
+    private Bill.PaymentStatus paymentStatus;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(nullable = false)
+    private byte[] payload;
+}
@@ -0,0 +1,45 @@
+package com.philldesk.philldeskbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * A settled prescription moved out of the hot tables by the archive job. The id is the
+ * original prescription id; the payload is its PrescriptionResponseDTO as gzip-compressed
+ * JSON, items included.
+ */
+@Entity
+@Table(name = "archived_prescriptions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = {"payload"})
+public class ArchivedPrescription {
+
+    @Id
+    private Long id;
+
+    @Column(name = "prescription_number", nullable = false, length = 50)
+    private String prescriptionNumber;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Prescription.PrescriptionStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(nullable = false)
+    private byte[] payload;
+}
@@ -17,7 +17,39 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
-@Table(name = "bills")
+@Table(name = "bills", indexes = {
+        @Index(name = "idx_bills_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_bills_customer_created_at_id", columnList = "customer_id, created_at, id")
+})
+@NamedEntityGraph(name = FetchProfiles.BILL_SUMMARY,
+        attributeNodes = {
+                @NamedAttributeNode("prescription"),
+                @NamedAttributeNode(value = "customer", subgraph = "user"),
+                @NamedAttributeNode(value = "pharmacist", subgraph = "user"),
+                @NamedAttributeNode("shippingDetails")
+        },
+        subgraphs = @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("role")))
+@NamedEntityGraph(name = FetchProfiles.BILL_DETAIL,
+        attributeNodes = {
+                @NamedAttributeNode("prescription"),
+                @NamedAttributeNode(value = "customer", subgraph = "user"),
+                @NamedAttributeNode(value = "pharmacist", subgraph = "user"),
+                @NamedAttributeNode(value = "billItems", subgraph = "items"),
+                @NamedAttributeNode("shippingDetails")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("role")),
+                @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("medicine"))
+        })
+@NamedEntityGraph(name = FetchProfiles.BILL_BILLING,
+        attributeNodes = {
+                @NamedAttributeNode("prescription"),
+                @NamedAttributeNode("customer"),
+                @NamedAttributeNode(value = "billItems", subgraph = "items")
+        },
+        subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("medicine")))
+@NamedEntityGraph(name = FetchProfiles.BILL_ANALYTICS,
+        attributeNodes = @NamedAttributeNode("billItems"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,32 +58,34 @@ import java.util.Set;
 public class Bill {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bills_id_seq")
+    @SequenceGenerator(name = "bills_id_seq", sequenceName = "bills_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "bill_number", unique = true, nullable = false, length = 50)
     private String billNumber;
     
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "prescription_id")
     @JsonBackReference
     private Prescription prescription;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     @JsonIgnoreProperties({"prescriptions", "handledPrescriptions", "notifications", "password"})
     private User customer;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pharmacist_id", nullable = false)
     @JsonIgnoreProperties({"prescriptions", "handledPrescriptions", "notifications", "password"})
     private User pharmacist;
     
-    @OneToMany(mappedBy = "bill", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "bill", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private Set<BillItem> billItems;
     
-    @OneToOne(mappedBy = "bill", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    // Inverse one-to-one: Hibernate still resolves it with the owner unless it is in the fetch graph
+    @OneToOne(mappedBy = "bill", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private ShippingDetails shippingDetails;
     
@@ -8,11 +8,14 @@ import lombok.ToString;
 import lombok.EqualsAndHashCode;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "bill_items")
+@NamedEntityGraph(name = FetchProfiles.BILL_ITEM_DETAIL, attributeNodes = @NamedAttributeNode("medicine"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,15 +24,16 @@ import java.math.BigDecimal;
 public class BillItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bill_items_id_seq")
+    @SequenceGenerator(name = "bill_items_id_seq", sequenceName = "bill_items_id_seq", allocationSize = 50)
     private Long id;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "bill_id", nullable = false)
     @JsonBackReference
     private Bill bill;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "medicine_id", nullable = false)
     @JsonIgnoreProperties({"prescriptionItems", "billItems"})
     private Medicine medicine;
@@ -49,6 +53,11 @@ public class BillItem {
     @Column(length = 200)
     private String notes;
     
+    // Partition key of bill_items on PostgreSQL; items are created with their bill
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
     // Calculate total price before saving
     @PrePersist
     @PreUpdate
@@ -0,0 +1,8 @@
+package com.philldesk.philldeskbackend.entity;
+
+/**
+ * Published by BillServiceImpl when a bill is saved in the PAID state. A paid bill no
+ * longer changes, so listeners can prepare derived data for it once the transaction commits.
+ */
+public record BillPaidEvent(Long billId) {
+}
@@ -0,0 +1,22 @@
+package com.philldesk.philldeskbackend.entity;
+
+/**
+ * Names of the Hibernate second-level cache regions.
+ *
+ * Each region is declared with its size bound and expiry in hibernate-l2-cache.conf;
+ * Hibernate refuses to start if an entity or query names a region that is not declared.
+ * Only read-mostly entities are cached: the medicine catalogue, roles and user accounts.
+ */
+public final class CacheRegions {
+
+    public static final String MEDICINES = "medicines";
+    public static final String ROLES = "roles";
+    public static final String USERS = "users";
+
+    // Cached query results and the per-table modification times that invalidate them
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private CacheRegions() {
+    }
+}
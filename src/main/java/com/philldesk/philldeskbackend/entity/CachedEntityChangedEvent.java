@@ -0,0 +1,17 @@
+package com.philldesk.philldeskbackend.entity;
+
+/**
+ * Published when a second-level cached entity is inserted, updated or deleted. Hibernate
+ * keeps its own cache region consistent; this lets other caches derived from the same rows
+ * follow. A local change is raised inside the writing transaction, so listeners that must
+ * not act on a rolled-back change should use {@code @TransactionalEventListener}.
+ *
+ * {@code remote} events come from another node through the CacheInvalidationBus, after
+ * that node committed; they are not forwarded again.
+ */
+public record CachedEntityChangedEvent(String region, Class<?> entityType, Object id, boolean remote) {
+
+    public CachedEntityChangedEvent(String region, Class<?> entityType, Object id) {
+        this(region, entityType, id, false);
+    }
+}
@@ -0,0 +1,42 @@
+package com.philldesk.philldeskbackend.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.annotations.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Invalidation hook for the cached entities: turns JPA lifecycle callbacks into
+ * {@link CachedEntityChangedEvent}s. Spring supplies the publisher through Hibernate's
+ * bean container.
+ */
+public class CachedEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public CachedEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void entityChanged(Object entity) {
+        Cache cache = entity.getClass().getAnnotation(Cache.class);
+        if (cache == null) {
+            return;
+        }
+        Object id = null;
+        if (entity instanceof Medicine medicine) {
+            id = medicine.getId();
+        } else if (entity instanceof Role role) {
+            id = role.getId();
+        } else if (entity instanceof User user) {
+            id = user.getId();
+        }
+        eventPublisher.publishEvent(new CachedEntityChangedEvent(cache.region(), entity.getClass(), id));
+    }
+}
@@ -0,0 +1,32 @@
+package com.philldesk.philldeskbackend.entity;
+
+/**
+ * Names of the entity graphs declared on the entities.
+ *
+ * Every association is LAZY, so each repository method names the profile it loads:
+ * summary for list rows, detail for full API responses, billing for creating and
+ * settling bills, and analytics for aggregations that only walk the items.
+ */
+public final class FetchProfiles {
+
+    public static final String BILL_SUMMARY = "Bill.summary";
+    public static final String BILL_DETAIL = "Bill.detail";
+    public static final String BILL_BILLING = "Bill.billing";
+    public static final String BILL_ANALYTICS = "Bill.analytics";
+
+    public static final String PRESCRIPTION_SUMMARY = "Prescription.summary";
+    public static final String PRESCRIPTION_DETAIL = "Prescription.detail";
+    public static final String PRESCRIPTION_BILLING = "Prescription.billing";
+    public static final String PRESCRIPTION_ANALYTICS = "Prescription.analytics";
+
+    public static final String BILL_ITEM_DETAIL = "BillItem.detail";
+    public static final String PRESCRIPTION_ITEM_DETAIL = "PrescriptionItem.detail";
+
+    public static final String NOTIFICATION_SUMMARY = "Notification.summary";
+    public static final String NOTIFICATION_DETAIL = "Notification.detail";
+
+    public static final String USER_SUMMARY = "User.summary";
+
+    private FetchProfiles() {
+    }
+}
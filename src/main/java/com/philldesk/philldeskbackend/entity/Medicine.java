@@ -7,6 +7,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -16,8 +18,13 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.MEDICINES)
+@EntityListeners(CachedEntityListener.class)
 @Table(name = "medicines", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"name", "strength", "dosage_form", "manufacturer"})
+}, indexes = {
+    @Index(name = "idx_medicines_name_id", columnList = "name, id")
 })
 @Data
 @NoArgsConstructor
@@ -27,7 +34,8 @@ import java.util.Set;
 public class Medicine {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "medicines_id_seq")
+    @SequenceGenerator(name = "medicines_id_seq", sequenceName = "medicines_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 200)
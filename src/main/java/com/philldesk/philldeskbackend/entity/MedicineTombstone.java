@@ -0,0 +1,27 @@
+package com.philldesk.philldeskbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records that a medicine was deleted, so the catalog changes feed can tell clients to drop
+ * it. Rows older than the tombstone retention are purged.
+ */
+@Entity
+@Table(name = "medicine_tombstones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MedicineTombstone {
+
+    @Id
+    @Column(name = "medicine_id")
+    private Long medicineId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -11,7 +11,13 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_created_at_id", columnList = "created_at, id")
+})
+@NamedEntityGraph(name = FetchProfiles.NOTIFICATION_SUMMARY)
+@NamedEntityGraph(name = FetchProfiles.NOTIFICATION_DETAIL,
+        attributeNodes = @NamedAttributeNode(value = "user", subgraph = "user"),
+        subgraphs = @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("role")))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,10 +26,11 @@ import java.time.LocalDateTime;
 public class Notification {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_id_seq")
+    @SequenceGenerator(name = "notifications_id_seq", sequenceName = "notifications_id_seq", allocationSize = 50)
     private Long id;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonBackReference;
@@ -16,28 +17,74 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
-@Table(name = "prescriptions")
+@Table(name = "prescriptions", indexes = {
+        @Index(name = "idx_prescriptions_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_prescriptions_customer_created_at_id", columnList = "customer_id, created_at, id"),
+        @Index(name = "idx_prescriptions_pharmacist_created_at_id", columnList = "pharmacist_id, created_at, id"),
+        @Index(name = "idx_prescriptions_status_created_at_id", columnList = "status, created_at, id")
+})
+@NamedEntityGraph(name = FetchProfiles.PRESCRIPTION_SUMMARY,
+        attributeNodes = {
+                @NamedAttributeNode(value = "customer", subgraph = "user"),
+                @NamedAttributeNode(value = "pharmacist", subgraph = "user"),
+                @NamedAttributeNode(value = "bill", subgraph = "bill")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("role")),
+                // The bill's shipping details are an inverse one-to-one, loaded per row unless joined
+                @NamedSubgraph(name = "bill", attributeNodes = @NamedAttributeNode("shippingDetails"))
+        })
+@NamedEntityGraph(name = FetchProfiles.PRESCRIPTION_DETAIL,
+        attributeNodes = {
+                @NamedAttributeNode(value = "customer", subgraph = "user"),
+                @NamedAttributeNode(value = "pharmacist", subgraph = "user"),
+                @NamedAttributeNode(value = "prescriptionItems", subgraph = "items"),
+                @NamedAttributeNode(value = "bill", subgraph = "bill")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("role")),
+                @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("medicine")),
+                @NamedSubgraph(name = "bill", attributeNodes = {
+                        @NamedAttributeNode(value = "customer", subgraph = "user"),
+                        @NamedAttributeNode(value = "pharmacist", subgraph = "user"),
+                        @NamedAttributeNode(value = "billItems", subgraph = "items"),
+                        @NamedAttributeNode("shippingDetails")
+                })
+        })
+@NamedEntityGraph(name = FetchProfiles.PRESCRIPTION_BILLING,
+        attributeNodes = {
+                @NamedAttributeNode(value = "customer", subgraph = "user"),
+                @NamedAttributeNode(value = "pharmacist", subgraph = "user"),
+                @NamedAttributeNode(value = "prescriptionItems", subgraph = "items")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("role")),
+                @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("medicine"))
+        })
+@NamedEntityGraph(name = FetchProfiles.PRESCRIPTION_ANALYTICS,
+        attributeNodes = @NamedAttributeNode("prescriptionItems"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@ToString(exclude = {"customer", "pharmacist", "prescriptionItems", "bill"})
-@EqualsAndHashCode(exclude = {"prescriptionItems", "bill"})
+@ToString(exclude = {"customer", "pharmacist", "prescriptionItems", "bill", "statusAtLoad"})
+@EqualsAndHashCode(exclude = {"prescriptionItems", "bill", "statusAtLoad"})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Prescription {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "prescriptions_id_seq")
+    @SequenceGenerator(name = "prescriptions_id_seq", sequenceName = "prescriptions_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "prescription_number", unique = true, nullable = false, length = 50)
     private String prescriptionNumber;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     @JsonIgnoreProperties({"prescriptions", "handledPrescriptions", "notifications", "password"})
     private User customer;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pharmacist_id")
     @JsonIgnoreProperties({"prescriptions", "handledPrescriptions", "notifications", "password"})
     private User pharmacist;
@@ -70,11 +117,12 @@ public class Prescription {
     @Column(name = "rejection_reason", length = 500)
     private String rejectionReason;
     
-    @OneToMany(mappedBy = "prescription", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "prescription", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private Set<PrescriptionItem> prescriptionItems;
     
-    @OneToOne(mappedBy = "prescription", cascade = CascadeType.ALL)
+    // Inverse one-to-one: Hibernate still resolves it with the owner unless it is in the fetch graph
+    @OneToOne(mappedBy = "prescription", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnoreProperties({"prescription"})
     private Bill bill;
     
@@ -89,6 +137,16 @@ public class Prescription {
     @Column(name = "approved_at")
     private LocalDateTime approvedAt;
     
+    // Status as last read from or written to the database, used to detect transitions
+    @Transient
+    @JsonIgnore
+    private PrescriptionStatus statusAtLoad;
+    
+    @PostLoad
+    void rememberLoadedStatus() {
+        this.statusAtLoad = this.status;
+    }
+    
     public enum PrescriptionStatus {
         PENDING,
         APPROVED,
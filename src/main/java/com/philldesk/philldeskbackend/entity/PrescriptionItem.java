@@ -13,6 +13,7 @@ import java.math.BigDecimal;
 
 @Entity
 @Table(name = "prescription_items")
+@NamedEntityGraph(name = FetchProfiles.PRESCRIPTION_ITEM_DETAIL, attributeNodes = @NamedAttributeNode("medicine"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,15 +22,16 @@ import java.math.BigDecimal;
 public class PrescriptionItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "prescription_items_id_seq")
+    @SequenceGenerator(name = "prescription_items_id_seq", sequenceName = "prescription_items_id_seq", allocationSize = 50)
     private Long id;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "prescription_id", nullable = false)
     @JsonBackReference
     private Prescription prescription;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "medicine_id", nullable = false)
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Medicine medicine;
@@ -0,0 +1,46 @@
+package com.philldesk.philldeskbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One prescription status transition. Ids are stored as plain columns rather than
+ * associations so the log stays append-only and cheap to replay.
+ */
+@Entity
+@Table(name = "prescription_status_events", indexes = {
+        @Index(name = "idx_prescription_status_events_occurred_at", columnList = "occurred_at"),
+        @Index(name = "idx_prescription_status_events_prescription", columnList = "prescription_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrescriptionStatusEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "prescription_status_events_id_seq")
+    @SequenceGenerator(name = "prescription_status_events_id_seq", sequenceName = "prescription_status_events_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "prescription_id", nullable = false)
+    private Long prescriptionId;
+
+    // Null for the submission event
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 20)
+    private Prescription.PrescriptionStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, length = 20)
+    private Prescription.PrescriptionStatus toStatus;
+
+    @Column(name = "pharmacist_id")
+    private Long pharmacistId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
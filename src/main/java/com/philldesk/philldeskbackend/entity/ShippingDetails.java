@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 public class ShippingDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipping_details_id_seq")
+    @SequenceGenerator(name = "shipping_details_id_seq", sequenceName = "shipping_details_id_seq", allocationSize = 50)
     private Long id;
     
     @OneToOne(fetch = FetchType.LAZY)
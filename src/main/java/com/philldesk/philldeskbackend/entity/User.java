@@ -3,6 +3,8 @@ package com.philldesk.philldeskbackend.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -10,18 +12,23 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USERS)
+@EntityListeners(CachedEntityListener.class)
 @Table(name = "users")
+@NamedEntityGraph(name = FetchProfiles.USER_SUMMARY, attributeNodes = @NamedAttributeNode("role"))
 @Data
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@ToString(exclude = {"prescriptions", "handledPrescriptions", "notifications"})
-@EqualsAndHashCode(exclude = {"prescriptions", "handledPrescriptions", "notifications"})
+@ToString(exclude = {"prescriptions", "handledPrescriptions", "notifications", "loadedCredentials"})
+@EqualsAndHashCode(exclude = {"prescriptions", "handledPrescriptions", "notifications", "loadedCredentials"})
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false, length = 100)
@@ -48,7 +55,7 @@ public class User {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "role_id", nullable = false)
     private Role role;
     
@@ -71,4 +78,33 @@ public class User {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+    
+    // Issued tokens carry this value; a token with an older stamp is rejected
+    @Column(name = "security_stamp", nullable = false)
+    @JsonIgnore
+    private Integer securityStamp = 0;
+    
+    // Password, active flag and role as loaded, to detect changes that must revoke tokens
+    @Transient
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String loadedCredentials;
+    
+    @PostLoad
+    private void rememberCredentials() {
+        loadedCredentials = credentials();
+    }
+    
+    @PreUpdate
+    private void bumpSecurityStampOnCredentialChange() {
+        if (loadedCredentials != null && !loadedCredentials.equals(credentials())) {
+            securityStamp = (securityStamp == null ? 0 : securityStamp) + 1;
+            loadedCredentials = credentials();
+        }
+    }
+    
+    private String credentials() {
+        return password + "|" + isActive + "|" + (role != null ? role.getId() : null);
+    }
 }
@@ -0,0 +1,30 @@
+package com.philldesk.philldeskbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of unread notifications of a user, kept in step with the notifications table by
+ * NotificationServiceImpl. Rows are changed with atomic UPDATE statements only.
+ */
+@Entity
+@Table(name = "user_notification_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserNotificationCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "unread_count", nullable = false)
+    private Long unreadCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,6 +1,7 @@
 package com.philldesk.philldeskbackend.exception;
 
 import com.philldesk.philldeskbackend.dto.ApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -44,4 +45,29 @@ public class GlobalExceptionHandler {
         ApiResponse<String> response = ApiResponse.error(ex.getMessage());
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<ApiResponse<String>> handleInvalidRefreshTokenException(
+            InvalidRefreshTokenException ex, WebRequest request) {
+        ApiResponse<String> response = ApiResponse.error(ex.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler(TooManyLoginAttemptsException.class)
+    public ResponseEntity<ApiResponse<String>> handleTooManyLoginAttemptsException(
+            TooManyLoginAttemptsException ex, WebRequest request) {
+        ApiResponse<String> response = ApiResponse.error(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ApiResponse<String>> handlePasswordHashingBusyException(
+            PasswordHashingBusyException ex, WebRequest request) {
+        ApiResponse<String> response = ApiResponse.error("Server is busy, please try again");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
 }
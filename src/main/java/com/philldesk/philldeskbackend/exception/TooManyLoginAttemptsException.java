@@ -0,0 +1,14 @@
+package com.philldesk.philldeskbackend.exception;
+
+public class TooManyLoginAttemptsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyLoginAttemptsException(long retryAfterSeconds) {
+        super("Too many login attempts. Try again in " + retryAfterSeconds + " seconds");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,16 @@
+package com.philldesk.philldeskbackend.repository;
+
+import com.philldesk.philldeskbackend.entity.ArchivedBill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedBillRepository extends JpaRepository<ArchivedBill, Long> {
+
+    List<ArchivedBill> findByCustomerIdOrderByCreatedAtDesc(Long customerId);
+
+    Optional<ArchivedBill> findByPrescriptionId(Long prescriptionId);
+}
@@ -0,0 +1,13 @@
+package com.philldesk.philldeskbackend.repository;
+
+import com.philldesk.philldeskbackend.entity.ArchivedPrescription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedPrescriptionRepository extends JpaRepository<ArchivedPrescription, Long> {
+
+    List<ArchivedPrescription> findByCustomerIdOrderByCreatedAtDesc(Long customerId);
+}
@@ -1,52 +1,98 @@
 package com.philldesk.philldeskbackend.repository;
 
+import com.philldesk.philldeskbackend.dto.BillItemFactProjection;
 import com.philldesk.philldeskbackend.dto.BillProjection;
+import com.philldesk.philldeskbackend.dto.BillTotalsProjection;
+import com.philldesk.philldeskbackend.dto.CustomerVisitProjection;
+import com.philldesk.philldeskbackend.dto.SalesReportRowProjection;
+import com.philldesk.philldeskbackend.dto.SalesReportTotalsProjection;
 import com.philldesk.philldeskbackend.entity.Bill;
+import com.philldesk.philldeskbackend.entity.FetchProfiles;
 import com.philldesk.philldeskbackend.entity.User;
 import com.philldesk.philldeskbackend.entity.Prescription;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BillRepository extends JpaRepository<Bill, Long> {
 
+       // The bills a sales report covers; the summary and the rows must agree on it
+       String SALES_REPORT_CONDITION = "b.paymentStatus = 'PAID' " +
+                     "AND COALESCE(b.paidAt, b.createdAt) >= :startDate " +
+                     "AND COALESCE(b.paidAt, b.createdAt) < :endDate ";
+
+       // Lists load the summary profile and leave items to batch loading; the detail
+       // profile's item join is kept for single-bill reads
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
+       List<Bill> findAll();
+
+       @EntityGraph(FetchProfiles.BILL_DETAIL)
+       Optional<Bill> findById(Long id);
+
+       // Collection fetches cannot be paged in SQL; items are batch-loaded by the service
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
+       Page<Bill> findAll(Pageable pageable);
+
+       @EntityGraph(FetchProfiles.BILL_DETAIL)
        Optional<Bill> findByBillNumber(String billNumber);
 
+       @EntityGraph(FetchProfiles.BILL_DETAIL)
        Optional<Bill> findByPrescription(Prescription prescription);
 
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
        List<Bill> findByCustomer(User customer);
 
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
        List<Bill> findByPharmacist(User pharmacist);
 
-       @Query("SELECT b FROM Bill b LEFT JOIN FETCH b.billItems WHERE b.paymentStatus = :status")
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
+       @Query("SELECT b FROM Bill b WHERE b.paymentStatus = :status")
        List<Bill> findByPaymentStatus(@Param("status") Bill.PaymentStatus paymentStatus);
 
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
        @Query("SELECT b FROM Bill b WHERE b.paymentMethod = :method")
        List<Bill> findByPaymentMethod(@Param("method") Bill.PaymentMethod paymentMethod);
 
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
        @Query("SELECT b FROM Bill b WHERE b.customer.id = :customerId ORDER BY b.createdAt DESC")
        List<Bill> findByCustomerIdOrderByCreatedAtDesc(@Param("customerId") Long customerId);
 
-       @Query("SELECT b FROM Bill b JOIN FETCH b.customer LEFT JOIN FETCH b.pharmacist LEFT JOIN FETCH b.prescription LEFT JOIN FETCH b.shippingDetails WHERE b.id = :id")
+       @EntityGraph(FetchProfiles.BILL_DETAIL)
+       @Query("SELECT b FROM Bill b WHERE b.id = :id")
        Optional<Bill> findByIdWithDetails(@Param("id") Long id);
 
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
        @Query("SELECT b FROM Bill b WHERE b.pharmacist.id = :pharmacistId ORDER BY b.createdAt DESC")
        List<Bill> findByPharmacistIdOrderByCreatedAtDesc(@Param("pharmacistId") Long pharmacistId);
 
-       @Query("SELECT b FROM Bill b LEFT JOIN FETCH b.shippingDetails WHERE b.pharmacist.id = :pharmacistId AND b.paymentType = 'ONLINE' AND b.paymentStatus = 'PAID' ORDER BY b.createdAt DESC")
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
+       @Query("SELECT b FROM Bill b WHERE b.pharmacist.id = :pharmacistId AND b.paymentType = 'ONLINE' AND b.paymentStatus = 'PAID' ORDER BY b.createdAt DESC")
        List<Bill> findOnlinePaidBillsByPharmacistWithShipping(@Param("pharmacistId") Long pharmacistId);
 
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
        @Query("SELECT b FROM Bill b WHERE b.createdAt BETWEEN :startDate AND :endDate")
        List<Bill> findByCreatedAtBetween(@Param("startDate") LocalDateTime startDate,
                      @Param("endDate") LocalDateTime endDate);
 
+       @EntityGraph(FetchProfiles.BILL_ANALYTICS)
        @Query("SELECT b FROM Bill b WHERE b.createdAt BETWEEN :startDate AND :endDate AND b.paymentStatus = 'PAID'")
        List<Bill> findPaidBillsBetween(@Param("startDate") LocalDateTime startDate,
                      @Param("endDate") LocalDateTime endDate);
@@ -58,6 +104,16 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
        @Query("SELECT COUNT(b) FROM Bill b WHERE b.paymentStatus = :status")
        Long countByPaymentStatus(@Param("status") Bill.PaymentStatus status);
 
+       // Count and total of the bills whose number starts with the prefix, created since the given time
+       @Query("SELECT COUNT(b) as billCount, COALESCE(SUM(b.totalAmount), 0) as totalAmount FROM Bill b " +
+                     "WHERE b.billNumber LIKE CONCAT(:prefix, '%') AND b.createdAt >= :since")
+       BillTotalsProjection sumByBillNumberPrefixCreatedSince(@Param("prefix") String prefix,
+                     @Param("since") LocalDateTime since);
+
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
+       List<Bill> findByBillNumberStartingWithOrderByCreatedAtDesc(String prefix, Limit limit);
+
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
        @Query("SELECT b FROM Bill b WHERE b.totalAmount >= :minAmount AND b.totalAmount <= :maxAmount")
        List<Bill> findByTotalAmountBetween(@Param("minAmount") BigDecimal minAmount,
                      @Param("maxAmount") BigDecimal maxAmount);
@@ -66,6 +122,7 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
        Double calculateAverageOrderValue(@Param("startDate") LocalDateTime startDate,
                      @Param("endDate") LocalDateTime endDate);
 
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
        @Query("SELECT b FROM Bill b WHERE " +
                      "(LOWER(b.billNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
                      "LOWER(b.customer.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -82,6 +139,7 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
                      @Param("endDate") LocalDateTime endDate);
 
        // Simple queries without deep joins to avoid circular references
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
        @Query("SELECT b FROM Bill b WHERE b.paymentStatus = :status ORDER BY b.createdAt DESC")
        List<Bill> findByPaymentStatusSimple(@Param("status") Bill.PaymentStatus status);
 
@@ -98,8 +156,8 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
        List<BillProjection> findBillProjectionsByPaymentStatus(@Param("status") Bill.PaymentStatus status);
 
        // Scheduled task queries for pay-on-pickup bills
-       @Query("SELECT b FROM Bill b LEFT JOIN FETCH b.billItems bi LEFT JOIN FETCH bi.medicine " +
-                     "LEFT JOIN FETCH b.prescription " +
+       @EntityGraph(FetchProfiles.BILL_BILLING)
+       @Query("SELECT b FROM Bill b " +
                      "WHERE b.paymentType = 'PAY_ON_PICKUP' " +
                      "AND b.paymentStatus = 'PENDING' " +
                      "AND b.createdAt < :cutoffDate " +
@@ -111,4 +169,73 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
                      "AND b.paymentStatus = 'PENDING' " +
                      "AND b.createdAt < :cutoffDate")
        Long countExpiredPayOnPickupBills(@Param("cutoffDate") LocalDateTime cutoffDate);
+
+       // Flat bill item facts for the in-memory analytics store, streamed in payment order.
+       // A paid bill without a payment time is placed at its last update.
+       @Query("SELECT b.id as billId, b.paidAt as paidAt, b.updatedAt as updatedAt, b.createdAt as createdAt, " +
+                     "bi.medicine.id as medicineId, b.pharmacist.id as pharmacistId, b.customer.id as customerId, " +
+                     "b.paymentMethod as paymentMethod, b.totalAmount as billTotal, " +
+                     "bi.quantity as quantity, bi.totalPrice as totalPrice " +
+                     "FROM BillItem bi JOIN bi.bill b " +
+                     "WHERE b.paymentStatus = 'PAID' " +
+                     "ORDER BY COALESCE(b.paidAt, b.updatedAt, b.createdAt) ASC, b.id ASC")
+       @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+       Stream<BillItemFactProjection> streamPaidBillItemFacts();
+
+       @Query("SELECT b.id as billId, b.paidAt as paidAt, b.updatedAt as updatedAt, b.createdAt as createdAt, " +
+                     "bi.medicine.id as medicineId, b.pharmacist.id as pharmacistId, b.customer.id as customerId, " +
+                     "b.paymentMethod as paymentMethod, b.totalAmount as billTotal, " +
+                     "bi.quantity as quantity, bi.totalPrice as totalPrice " +
+                     "FROM BillItem bi JOIN bi.bill b " +
+                     "WHERE b.paymentStatus = 'PAID' AND COALESCE(b.paidAt, b.updatedAt) >= :since " +
+                     "ORDER BY COALESCE(b.paidAt, b.updatedAt, b.createdAt) ASC, b.id ASC")
+       @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+       Stream<BillItemFactProjection> streamPaidBillItemFactsSince(@Param("since") LocalDateTime since);
+
+       // Bills that may have left PAID since the analytics snapshot was taken
+       @Query("SELECT b.id FROM Bill b WHERE b.paymentStatus IN :statuses AND b.updatedAt >= :since")
+       List<Long> findIdsByStatusUpdatedSince(@Param("statuses") Collection<Bill.PaymentStatus> statuses,
+                                              @Param("since") LocalDateTime since);
+
+       // Customer id and bill date only, for rebuilding the distinct-customer sketches
+       @Query("SELECT b.customer.id as customerId, b.createdAt as createdAt FROM Bill b WHERE b.createdAt >= :since")
+       @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+       Stream<CustomerVisitProjection> streamCustomerVisitsSince(@Param("since") LocalDateTime since);
+
+       // Paid bills in a report period, one row per bill, read through a cursor by the report writer
+       @Query("SELECT b.billNumber as billNumber, b.paidAt as paidAt, b.createdAt as createdAt, " +
+                     "c.firstName as customerFirstName, c.lastName as customerLastName, " +
+                     "b.paymentMethod as paymentMethod, " +
+                     "(SELECT COUNT(bi) FROM BillItem bi WHERE bi.bill = b) as itemCount, " +
+                     "b.totalAmount as totalAmount " +
+                     "FROM Bill b LEFT JOIN b.customer c " +
+                     "WHERE " + SALES_REPORT_CONDITION +
+                     "ORDER BY COALESCE(b.paidAt, b.createdAt), b.id")
+       @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+       Stream<SalesReportRowProjection> streamSalesReportRows(@Param("startDate") LocalDateTime startDate,
+                     @Param("endDate") LocalDateTime endDate);
+
+       // Bill count and revenue over exactly the rows streamSalesReportRows returns
+       @Query("SELECT COUNT(b) as billCount, COALESCE(SUM(b.totalAmount), 0) as totalAmount " +
+                     "FROM Bill b WHERE " + SALES_REPORT_CONDITION)
+       SalesReportTotalsProjection sumSalesReportTotals(@Param("startDate") LocalDateTime startDate,
+                     @Param("endDate") LocalDateTime endDate);
+
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
+       Window<Bill> findWindowBy(ScrollPosition position, Sort sort, Limit limit);
+
+       @EntityGraph(FetchProfiles.BILL_SUMMARY)
+       Window<Bill> findWindowByCustomerId(Long customerId, ScrollPosition position, Sort sort, Limit limit);
+
+       // Settled bills without a prescription the archive job may move, oldest first;
+       // prescription bills are archived together with their prescription
+       @Query("SELECT b.id FROM Bill b " +
+                     "WHERE b.prescription IS NULL AND b.paymentStatus IN :statuses AND b.createdAt < :cutoff " +
+                     "ORDER BY b.createdAt, b.id")
+       List<Long> findArchivableIds(@Param("statuses") Collection<Bill.PaymentStatus> statuses,
+                     @Param("cutoff") LocalDateTime cutoff,
+                     Limit limit);
+
+       @EntityGraph(FetchProfiles.BILL_DETAIL)
+       List<Bill> findByIdIn(Collection<Long> ids);
 }
@@ -1,18 +1,46 @@
 package com.philldesk.philldeskbackend.repository;
 
+import com.philldesk.philldeskbackend.dto.CategoryCountProjection;
+import com.philldesk.philldeskbackend.dto.InventoryReportRowProjection;
+import com.philldesk.philldeskbackend.dto.InventoryTotalsProjection;
+import com.philldesk.philldeskbackend.dto.MedicineSummaryProjection;
 import com.philldesk.philldeskbackend.entity.Medicine;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MedicineRepository extends JpaRepository<Medicine, Long> {
     
+    String SUMMARY_SELECT = "SELECT m.id as id, m.name as name, m.genericName as genericName, " +
+           "m.manufacturer as manufacturer, m.category as category, m.dosageForm as dosageForm, " +
+           "m.strength as strength, m.quantity as quantity, m.unitPrice as unitPrice, m.costPrice as costPrice, " +
+           "m.expiryDate as expiryDate, m.batchNumber as batchNumber, m.reorderLevel as reorderLevel, " +
+           "m.description as description, m.isPrescriptionRequired as isPrescriptionRequired, " +
+           "m.isActive as isActive, m.createdAt as createdAt, m.updatedAt as updatedAt " +
+           "FROM Medicine m ";
+    
+    String SEARCH_CONDITION = "(LOWER(m.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(m.genericName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(m.manufacturer) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(m.category) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) ";
+    
     List<Medicine> findByIsActiveTrue();
     
     List<Medicine> findByCategory(String category);
@@ -65,4 +93,73 @@ public interface MedicineRepository extends JpaRepository<Medicine, Long> {
     
     @Query("SELECT DISTINCT m.manufacturer FROM Medicine m WHERE m.isActive = true ORDER BY m.manufacturer")
     List<String> findAllManufacturers();
+    
+    @Query("SELECT COUNT(m) FROM Medicine m WHERE m.isActive = true")
+    long countActiveMedicines();
+    
+    @Query("SELECT COUNT(m) FROM Medicine m WHERE m.quantity <= m.reorderLevel AND m.isActive = true")
+    long countLowStockMedicines();
+    
+    @Query("SELECT COUNT(m) FROM Medicine m WHERE m.expiryDate <= :date AND m.isActive = true")
+    long countExpiringMedicines(@Param("date") LocalDate date);
+    
+    @Query("SELECT COALESCE(SUM(m.unitPrice * m.quantity), 0) FROM Medicine m WHERE m.isActive = true")
+    BigDecimal calculateStockValue();
+
+    // Stock levels across the whole catalog, inactive medicines included, for the inventory analytics
+    @Query("SELECT COUNT(m) as totalItems, " +
+           "COALESCE(SUM(CASE WHEN m.quantity > m.reorderLevel THEN 1 ELSE 0 END), 0) as inStock, " +
+           "COALESCE(SUM(CASE WHEN m.quantity <= m.reorderLevel AND m.quantity > 0 THEN 1 ELSE 0 END), 0) as lowStock, " +
+           "COALESCE(SUM(CASE WHEN m.quantity = 0 THEN 1 ELSE 0 END), 0) as outOfStock, " +
+           "COALESCE(SUM(m.unitPrice * m.quantity), 0) as totalValue " +
+           "FROM Medicine m")
+    InventoryTotalsProjection sumInventoryTotals();
+
+    @Query("SELECT m.category as category, COUNT(m) as count FROM Medicine m " +
+           "WHERE m.category IS NOT NULL GROUP BY m.category ORDER BY m.category")
+    List<CategoryCountProjection> countByCategory();
+    
+    // Active stock for the inventory report, read through a cursor by the report writer
+    @Query("SELECT m.name as name, m.strength as strength, m.category as category, m.quantity as quantity, " +
+           "m.reorderLevel as reorderLevel, m.unitPrice as unitPrice, m.expiryDate as expiryDate " +
+           "FROM Medicine m WHERE m.isActive = true ORDER BY m.category, m.name, m.id")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    Stream<InventoryReportRowProjection> streamInventoryReportRows();
+
+    // Projection queries for the read endpoints: plain rows, no managed entities to snapshot
+    Window<MedicineSummaryProjection> findSummaryWindowBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Catalog version and changes feed (see MedicineCatalogService)
+    @Query("SELECT MAX(m.updatedAt) FROM Medicine m")
+    Optional<LocalDateTime> findLatestUpdatedAt();
+
+    @Query(SUMMARY_SELECT + "WHERE m.updatedAt > :since ORDER BY m.updatedAt, m.id")
+    List<MedicineSummaryProjection> findSummariesUpdatedAfter(@Param("since") LocalDateTime since);
+
+    @Query(SUMMARY_SELECT + "ORDER BY m.updatedAt, m.id")
+    List<MedicineSummaryProjection> findAllSummariesByUpdatedAt();
+    
+    Page<MedicineSummaryProjection> findSummaryPageBy(Pageable pageable);
+    
+    List<MedicineSummaryProjection> findSummariesByIsActiveTrue();
+    
+    List<MedicineSummaryProjection> findSummariesByCategory(String category);
+    
+    List<MedicineSummaryProjection> findSummariesByManufacturer(String manufacturer);
+    
+    List<MedicineSummaryProjection> findSummariesByIsActiveTrueAndUnitPriceBetween(BigDecimal minPrice,
+                                                                                  BigDecimal maxPrice);
+    
+    @Query(SUMMARY_SELECT + "WHERE m.quantity <= m.reorderLevel AND m.isActive = true")
+    List<MedicineSummaryProjection> findLowStockSummaries();
+    
+    @Query(SUMMARY_SELECT + "WHERE " + SEARCH_CONDITION + "AND m.isActive = true")
+    List<MedicineSummaryProjection> searchMedicineSummaries(@Param("searchTerm") String searchTerm);
+    
+    // Sellable matches only: in stock and not past expiry
+    @Query(SUMMARY_SELECT + "WHERE " + SEARCH_CONDITION + "AND m.isActive = true AND m.quantity > 0 " +
+           "AND (m.expiryDate IS NULL OR m.expiryDate >= :today) ORDER BY m.name, m.id")
+    List<MedicineSummaryProjection> findSuggestionSummaries(@Param("searchTerm") String searchTerm,
+                                                            @Param("today") LocalDate today,
+                                                            Limit limit);
 }
@@ -0,0 +1,26 @@
+package com.philldesk.philldeskbackend.repository;
+
+import com.philldesk.philldeskbackend.entity.MedicineTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MedicineTombstoneRepository extends JpaRepository<MedicineTombstone, Long> {
+
+    @Query("SELECT MAX(t.deletedAt) FROM MedicineTombstone t")
+    Optional<LocalDateTime> findLatestDeletedAt();
+
+    @Query("SELECT t.medicineId FROM MedicineTombstone t WHERE t.deletedAt > :since ORDER BY t.deletedAt")
+    List<Long> findMedicineIdsDeletedAfter(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM MedicineTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,45 +1,94 @@
 package com.philldesk.philldeskbackend.repository;
 
+import com.philldesk.philldeskbackend.dto.NotificationSummaryProjection;
+import com.philldesk.philldeskbackend.entity.FetchProfiles;
 import com.philldesk.philldeskbackend.entity.Notification;
 import com.philldesk.philldeskbackend.entity.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     
+    @EntityGraph(FetchProfiles.NOTIFICATION_DETAIL)
+    List<Notification> findAll();
+    
+    @EntityGraph(FetchProfiles.NOTIFICATION_DETAIL)
+    Optional<Notification> findById(Long id);
+    
+    @EntityGraph(FetchProfiles.NOTIFICATION_DETAIL)
+    Page<Notification> findAll(Pageable pageable);
+    
+    @EntityGraph(FetchProfiles.NOTIFICATION_DETAIL)
     List<Notification> findByUser(User user);
     
+    @EntityGraph(FetchProfiles.NOTIFICATION_DETAIL)
     List<Notification> findByUserAndIsReadFalse(User user);
     
+    @EntityGraph(FetchProfiles.NOTIFICATION_DETAIL)
     List<Notification> findByNotificationType(Notification.NotificationType notificationType);
     
+    @EntityGraph(FetchProfiles.NOTIFICATION_DETAIL)
     @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC")
     List<Notification> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
     
+    @EntityGraph(FetchProfiles.NOTIFICATION_DETAIL)
     @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.isRead = false ORDER BY n.createdAt DESC")
     List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(@Param("userId") Long userId);
     
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
     Long countByUserIdAndIsReadFalse(@Param("userId") Long userId);
     
+    @EntityGraph(FetchProfiles.NOTIFICATION_SUMMARY)
     @Query("SELECT n FROM Notification n WHERE n.notificationType = :type AND n.createdAt BETWEEN :startDate AND :endDate")
     List<Notification> findByTypeAndDateRange(@Param("type") Notification.NotificationType type,
                                             @Param("startDate") LocalDateTime startDate,
                                             @Param("endDate") LocalDateTime endDate);
     
+    @EntityGraph(FetchProfiles.NOTIFICATION_DETAIL)
     @Query("SELECT n FROM Notification n WHERE n.priority = :priority AND n.isRead = false ORDER BY n.createdAt DESC")
     List<Notification> findUnreadByPriority(@Param("priority") Notification.Priority priority);
     
+    @EntityGraph(FetchProfiles.NOTIFICATION_SUMMARY)
     @Query("SELECT n FROM Notification n WHERE n.referenceId = :referenceId AND n.referenceType = :referenceType")
     List<Notification> findByReference(@Param("referenceId") Long referenceId, 
                                      @Param("referenceType") String referenceType);
     
+    // Conditional updates, so the number of rows changed is the drop in the unread count
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.id = :id AND n.isRead = false")
+    int markAsReadIfUnread(@Param("id") Long id, @Param("readAt") LocalDateTime readAt);
+    
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsReadForUser(@Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
+    
+    @Modifying
     @Query("DELETE FROM Notification n WHERE n.createdAt < :cutoffDate AND n.isRead = true")
     void deleteOldReadNotifications(@Param("cutoffDate") LocalDateTime cutoffDate);
+
+    // Projection queries for the read endpoints; the recipient is reduced to a few columns
+    Window<NotificationSummaryProjection> findSummaryWindowBy(ScrollPosition position, Sort sort, Limit limit);
+    
+    Page<NotificationSummaryProjection> findSummaryPageBy(Pageable pageable);
+    
+    List<NotificationSummaryProjection> findSummariesByUserIdOrderByCreatedAtDesc(Long userId);
+    
+    List<NotificationSummaryProjection> findSummariesByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
+    
+    List<NotificationSummaryProjection> findSummariesByNotificationType(Notification.NotificationType notificationType);
 }
@@ -1,8 +1,14 @@
 package com.philldesk.philldeskbackend.repository;
 
+import com.philldesk.philldeskbackend.entity.FetchProfiles;
 import com.philldesk.philldeskbackend.entity.PrescriptionItem;
 import com.philldesk.philldeskbackend.entity.Prescription;
 import com.philldesk.philldeskbackend.entity.Medicine;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,24 +16,38 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PrescriptionItemRepository extends JpaRepository<PrescriptionItem, Long> {
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_ITEM_DETAIL)
+    List<PrescriptionItem> findAll();
+    
+    @EntityGraph(FetchProfiles.PRESCRIPTION_ITEM_DETAIL)
+    Optional<PrescriptionItem> findById(Long id);
+    
+    @EntityGraph(FetchProfiles.PRESCRIPTION_ITEM_DETAIL)
     List<PrescriptionItem> findByPrescription(Prescription prescription);
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_ITEM_DETAIL)
     List<PrescriptionItem> findByMedicine(Medicine medicine);
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_ITEM_DETAIL)
     List<PrescriptionItem> findByPrescriptionId(Long prescriptionId);
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_ITEM_DETAIL)
     List<PrescriptionItem> findByMedicineId(Long medicineId);
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_ITEM_DETAIL)
     @Query("SELECT pi FROM PrescriptionItem pi WHERE pi.prescription.id = :prescriptionId")
     List<PrescriptionItem> findItemsByPrescriptionId(@Param("prescriptionId") Long prescriptionId);
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_ITEM_DETAIL)
     @Query("SELECT pi FROM PrescriptionItem pi WHERE pi.isDispensed = :dispensed")
     List<PrescriptionItem> findByDispensedStatus(@Param("dispensed") boolean dispensed);
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_ITEM_DETAIL)
     @Query("SELECT pi FROM PrescriptionItem pi WHERE pi.prescription.id = :prescriptionId AND pi.isDispensed = false")
     List<PrescriptionItem> findUndispensedItemsByPrescription(@Param("prescriptionId") Long prescriptionId);
     
@@ -37,4 +57,7 @@ public interface PrescriptionItemRepository extends JpaRepository<PrescriptionIt
     @Modifying
     @Query("DELETE FROM PrescriptionItem pi WHERE pi.prescription.id = :prescriptionId")
     void deleteByPrescriptionId(@Param("prescriptionId") Long prescriptionId);
+
+    @EntityGraph(FetchProfiles.PRESCRIPTION_ITEM_DETAIL)
+    Window<PrescriptionItem> findWindowBy(ScrollPosition position, Sort sort, Limit limit);
 }
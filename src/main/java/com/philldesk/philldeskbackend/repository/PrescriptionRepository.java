@@ -1,53 +1,92 @@
 package com.philldesk.philldeskbackend.repository;
 
+import com.philldesk.philldeskbackend.dto.PendingPrescriptionProjection;
+import com.philldesk.philldeskbackend.dto.PrescriptionStatusCountProjection;
+import com.philldesk.philldeskbackend.entity.Bill;
+import com.philldesk.philldeskbackend.entity.FetchProfiles;
 import com.philldesk.philldeskbackend.entity.Prescription;
 import com.philldesk.philldeskbackend.entity.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PrescriptionRepository extends JpaRepository<Prescription, Long> {
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
+    List<Prescription> findAll();
+    
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
+    Optional<Prescription> findById(Long id);
+    
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
     List<Prescription> findByCustomer(User customer);
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
     List<Prescription> findByPharmacist(User pharmacist);
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
     List<Prescription> findByStatus(Prescription.PrescriptionStatus status);
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
     List<Prescription> findByCustomerAndStatus(User customer, Prescription.PrescriptionStatus status);
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
     Optional<Prescription> findByPrescriptionNumber(String prescriptionNumber);
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_SUMMARY)
     @Query("SELECT p FROM Prescription p WHERE p.status = :status ORDER BY p.createdAt ASC")
     List<Prescription> findByStatusOrderByCreatedAt(@Param("status") Prescription.PrescriptionStatus status);
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
     @Query("SELECT p FROM Prescription p WHERE p.customer.id = :customerId ORDER BY p.createdAt DESC")
     List<Prescription> findByCustomerIdOrderByCreatedAtDesc(@Param("customerId") Long customerId);
     
-    @Query("SELECT p FROM Prescription p JOIN FETCH p.customer LEFT JOIN FETCH p.pharmacist LEFT JOIN FETCH p.prescriptionItems pi LEFT JOIN FETCH pi.medicine WHERE p.customer.id = :customerId ORDER BY p.createdAt DESC")
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
+    @Query("SELECT p FROM Prescription p WHERE p.customer.id = :customerId ORDER BY p.createdAt DESC")
     List<Prescription> findByCustomerIdWithUserDetailsOrderByCreatedAtDesc(@Param("customerId") Long customerId);
     
-    @Query("SELECT p FROM Prescription p JOIN FETCH p.customer LEFT JOIN FETCH p.pharmacist LEFT JOIN FETCH p.prescriptionItems pi LEFT JOIN FETCH pi.medicine WHERE p.id = :id")
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
+    @Query("SELECT p FROM Prescription p WHERE p.id = :id")
     Optional<Prescription> findByIdWithUserDetails(@Param("id") Long id);
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
     @Query("SELECT p FROM Prescription p WHERE p.pharmacist.id = :pharmacistId ORDER BY p.createdAt DESC")
     List<Prescription> findByPharmacistIdOrderByCreatedAtDesc(@Param("pharmacistId") Long pharmacistId);
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
     @Query("SELECT p FROM Prescription p WHERE p.createdAt BETWEEN :startDate AND :endDate")
     List<Prescription> findByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, 
                                             @Param("endDate") LocalDateTime endDate);
     
+    @EntityGraph(FetchProfiles.PRESCRIPTION_SUMMARY)
     @Query("SELECT p FROM Prescription p WHERE p.status = 'PENDING' AND p.createdAt < :cutoffTime")
     List<Prescription> findPendingPrescriptionsOlderThan(@Param("cutoffTime") LocalDateTime cutoffTime);
     
     @Query("SELECT COUNT(p) FROM Prescription p WHERE p.status = :status")
     Long countByStatus(@Param("status") Prescription.PrescriptionStatus status);
+
+    @Query("SELECT p.status as status, COUNT(p) as count FROM Prescription p GROUP BY p.status")
+    List<PrescriptionStatusCountProjection> countGroupedByStatus();
+
+    @Query("SELECT COUNT(p) FROM Prescription p WHERE p.createdAt >= :since")
+    long countCreatedSince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT COUNT(p) FROM Prescription p WHERE LOWER(p.notes) LIKE '%emergency%' OR LOWER(p.notes) LIKE '%urgent%'")
+    Long countUrgent();
     
     @Query("SELECT COUNT(p) FROM Prescription p WHERE p.customer.id = :customerId")
     Long countByCustomerId(@Param("customerId") Long customerId);
@@ -55,14 +94,21 @@ public interface PrescriptionRepository extends JpaRepository<Prescription, Long
     @Query("SELECT COUNT(p) FROM Prescription p WHERE p.pharmacist.id = :pharmacistId")
     Long countByPharmacistId(@Param("pharmacistId") Long pharmacistId);
     
-    @Query("SELECT p FROM Prescription p JOIN FETCH p.customer LEFT JOIN FETCH p.pharmacist LEFT JOIN FETCH p.prescriptionItems pi LEFT JOIN FETCH pi.medicine ORDER BY p.createdAt DESC")
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
+    @Query("SELECT p FROM Prescription p ORDER BY p.createdAt DESC")
     List<Prescription> findAllWithUserDetailsOrderByCreatedAtDesc();
     
+    // Two-phase paging: page the ids first so LIMIT/OFFSET apply to prescriptions, not joined item rows
+    @Query(value = "SELECT p.id FROM Prescription p",
+           countQuery = "SELECT COUNT(p) FROM Prescription p")
+    Page<Long> findPageIds(Pageable pageable);
+    
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
+    @Query("SELECT p FROM Prescription p WHERE p.id IN :ids")
+    List<Prescription> findAllByIdIn(@Param("ids") List<Long> ids);
+    
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
     @Query("SELECT p FROM Prescription p " +
-           "JOIN FETCH p.customer " +
-           "LEFT JOIN FETCH p.pharmacist " +
-           "LEFT JOIN FETCH p.prescriptionItems pi " +
-           "LEFT JOIN FETCH pi.medicine " +
            "WHERE " +
            "(LOWER(p.prescriptionNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(p.customer.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -70,4 +116,47 @@ public interface PrescriptionRepository extends JpaRepository<Prescription, Long
            "LOWER(p.doctorName) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
            "ORDER BY p.createdAt DESC")
     List<Prescription> searchPrescriptions(@Param("searchTerm") String searchTerm);
+
+    // Keyset scrolling (see KeysetCursor). These load the summary profile only, since
+    // fetching the item collections would force Hibernate to apply the limit in memory;
+    // callers initialize items in batches. The sort must end in a unique key such as id.
+    @EntityGraph(FetchProfiles.PRESCRIPTION_SUMMARY)
+    Window<Prescription> findWindowBy(ScrollPosition position, Sort sort, Limit limit);
+    
+    @EntityGraph(FetchProfiles.PRESCRIPTION_SUMMARY)
+    Window<Prescription> findWindowByCustomerId(Long customerId, ScrollPosition position, Sort sort, Limit limit);
+    
+    @EntityGraph(FetchProfiles.PRESCRIPTION_SUMMARY)
+    Window<Prescription> findWindowByPharmacistId(Long pharmacistId, ScrollPosition position, Sort sort, Limit limit);
+    
+    @EntityGraph(FetchProfiles.PRESCRIPTION_SUMMARY)
+    Window<Prescription> findWindowByStatus(Prescription.PrescriptionStatus status, ScrollPosition position,
+                                            Sort sort, Limit limit);
+    
+    @EntityGraph(FetchProfiles.PRESCRIPTION_SUMMARY)
+    Window<Prescription> findWindowByStatusAndRejectionReasonIsNotNull(Prescription.PrescriptionStatus status,
+                                                                      ScrollPosition position,
+                                                                      Sort sort, Limit limit);
+    
+    // Review queue projections: the uploaded file and its customer, without items or bill
+    Window<PendingPrescriptionProjection> findReviewWindowByStatus(Prescription.PrescriptionStatus status,
+                                                                  ScrollPosition position,
+                                                                  Sort sort, Limit limit);
+    
+    List<PendingPrescriptionProjection> findReviewSummariesByStatusOrderByCreatedAtAscIdAsc(
+            Prescription.PrescriptionStatus status);
+
+    // Settled prescriptions the archive job may move, oldest first; a prescription waits
+    // until its bill, if any, is settled too
+    @Query("SELECT p.id FROM Prescription p LEFT JOIN p.bill b " +
+           "WHERE p.status IN :statuses AND p.createdAt < :cutoff " +
+           "AND (b IS NULL OR b.paymentStatus IN :billStatuses) " +
+           "ORDER BY p.createdAt, p.id")
+    List<Long> findArchivableIds(@Param("statuses") Collection<Prescription.PrescriptionStatus> statuses,
+                                 @Param("billStatuses") Collection<Bill.PaymentStatus> billStatuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 Limit limit);
+
+    @EntityGraph(FetchProfiles.PRESCRIPTION_DETAIL)
+    List<Prescription> findByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,20 @@
+package com.philldesk.philldeskbackend.repository;
+
+import com.philldesk.philldeskbackend.entity.PrescriptionStatusEvent;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+@Repository
+public interface PrescriptionStatusEventRepository extends JpaRepository<PrescriptionStatusEvent, Long> {
+
+    @Query("SELECT e FROM PrescriptionStatusEvent e WHERE e.occurredAt >= :since ORDER BY e.occurredAt, e.id")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    Stream<PrescriptionStatusEvent> streamSince(@Param("since") LocalDateTime since);
+}
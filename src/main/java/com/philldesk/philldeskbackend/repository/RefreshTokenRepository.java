@@ -0,0 +1,40 @@
+package com.philldesk.philldeskbackend.repository;
+
+import com.philldesk.philldeskbackend.entity.RefreshToken;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @EntityGraph(attributePaths = {"user", "user.role"})
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Claims a token for rotation; 0 means another request already rotated or revoked it
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.rotatedAt = :now " +
+           "WHERE r.id = :id AND r.rotatedAt IS NULL AND r.revokedAt IS NULL")
+    int markRotated(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revokedAt = :now WHERE r.familyId = :familyId AND r.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    boolean existsByFamilyIdAndRevokedAtIsNotNull(String familyId);
+
+    // Families revoked recently enough that access tokens issued for them may still be live
+    @Query("SELECT DISTINCT r.familyId FROM RefreshToken r WHERE r.revokedAt >= :since")
+    List<String> findFamilyIdsRevokedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,7 +1,9 @@
 package com.philldesk.philldeskbackend.repository;
 
 import com.philldesk.philldeskbackend.entity.Role;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,7 +11,10 @@ import java.util.Optional;
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
     
+    // Roles never change at runtime, so both lookups are served from the query cache
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Role> findByName(Role.RoleName name);
     
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     boolean existsByName(Role.RoleName name);
 }
@@ -0,0 +1,37 @@
+package com.philldesk.philldeskbackend.repository;
+
+import com.philldesk.philldeskbackend.entity.UserNotificationCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserNotificationCounterRepository extends JpaRepository<UserNotificationCounter, Long> {
+
+    @Query("SELECT c.unreadCount FROM UserNotificationCounter c WHERE c.userId = :userId")
+    Optional<Long> findUnreadCountByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "UPDATE user_notification_counters SET unread_count = unread_count + :delta, " +
+            "updated_at = CURRENT_TIMESTAMP WHERE user_id = :userId", nativeQuery = true)
+    int addToUnreadCount(@Param("userId") Long userId, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_notification_counters (user_id, unread_count, updated_at) " +
+            "VALUES (:userId, 0, CURRENT_TIMESTAMP) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int createIfMissing(@Param("userId") Long userId);
+
+    // Recount every counter that disagrees with the notifications table
+    @Modifying
+    @Query(value = "UPDATE user_notification_counters c SET unread_count = " +
+            "(SELECT COUNT(*) FROM notifications n WHERE n.user_id = c.user_id AND n.is_read = false), " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHERE c.unread_count <> " +
+            "(SELECT COUNT(*) FROM notifications n WHERE n.user_id = c.user_id AND n.is_read = false)",
+            nativeQuery = true)
+    int reconcileAll();
+}
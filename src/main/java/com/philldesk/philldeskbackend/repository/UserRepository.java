@@ -1,35 +1,78 @@
 package com.philldesk.philldeskbackend.repository;
 
+import com.philldesk.philldeskbackend.dto.UserActivityReportRowProjection;
+import com.philldesk.philldeskbackend.dto.UserSummaryProjection;
+import com.philldesk.philldeskbackend.entity.FetchProfiles;
 import com.philldesk.philldeskbackend.entity.User;
 import com.philldesk.philldeskbackend.entity.Role;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    @EntityGraph(FetchProfiles.USER_SUMMARY)
+    List<User> findAll();
+    
+    @EntityGraph(FetchProfiles.USER_SUMMARY)
+    Optional<User> findById(Long id);
+    
+    @EntityGraph(FetchProfiles.USER_SUMMARY)
+    Page<User> findAll(Pageable pageable);
+    
+    // Resolved on every authenticated request; the query cache maps the name to an id
+    // and the user and role rows come from their entity regions
+    @EntityGraph(FetchProfiles.USER_SUMMARY)
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<User> findByUsername(String username);
     
+    @EntityGraph(FetchProfiles.USER_SUMMARY)
     Optional<User> findByEmail(String email);
     
+    // Replaces the hash of an unchanged password (rehash on sign-in); leaves the security stamp alone
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePasswordHash(@Param("id") Long id, @Param("password") String password);
+
+    // Security stamp of an active user, compared with the stamp a token was issued with
+    @Query("SELECT u.securityStamp FROM User u WHERE u.id = :id AND u.isActive = true")
+    Optional<Integer> findActiveSecurityStampById(@Param("id") Long id);
+    
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
     
+    @EntityGraph(FetchProfiles.USER_SUMMARY)
     List<User> findByRole(Role role);
     
+    @EntityGraph(FetchProfiles.USER_SUMMARY)
     List<User> findByRoleName(Role.RoleName roleName);
     
+    @EntityGraph(FetchProfiles.USER_SUMMARY)
     List<User> findByIsActiveTrue();
     
+    @EntityGraph(FetchProfiles.USER_SUMMARY)
     @Query("SELECT u FROM User u WHERE u.role.name = :roleName AND u.isActive = true")
     List<User> findActiveUsersByRole(@Param("roleName") Role.RoleName roleName);
     
+    @EntityGraph(FetchProfiles.USER_SUMMARY)
     @Query("SELECT u FROM User u WHERE " +
            "(LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -37,4 +80,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
            "AND u.isActive = true")
     List<User> searchActiveUsers(@Param("searchTerm") String searchTerm);
+    
+    long countByIsActiveTrue();
+    
+    // Per-user workload in a report period, read through a cursor by the report writer
+    @Query("SELECT u.username as username, u.firstName as firstName, u.lastName as lastName, " +
+           "r.name as roleName, u.isActive as isActive, u.createdAt as createdAt, " +
+           "(SELECT COUNT(p) FROM Prescription p WHERE p.pharmacist = u " +
+           "AND p.updatedAt >= :startDate AND p.updatedAt < :endDate) as prescriptionsHandled, " +
+           "(SELECT COUNT(b) FROM Bill b WHERE b.pharmacist = u " +
+           "AND b.createdAt >= :startDate AND b.createdAt < :endDate) as billsProcessed " +
+           "FROM User u JOIN u.role r ORDER BY r.name, u.username")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    Stream<UserActivityReportRowProjection> streamUserActivityReportRows(@Param("startDate") LocalDateTime startDate,
+                                                                        @Param("endDate") LocalDateTime endDate);
+
+    // Projection queries for the read endpoints; the role comes back through a join,
+    // and the password hash is never selected
+    Window<UserSummaryProjection> findSummaryWindowBy(ScrollPosition position, Sort sort, Limit limit);
+    
+    Page<UserSummaryProjection> findSummaryPageBy(Pageable pageable);
+    
+    List<UserSummaryProjection> findSummariesByRoleName(Role.RoleName roleName);
+    
+    List<UserSummaryProjection> findSummariesByIsActiveTrue();
 }
@@ -1,5 +1,6 @@
 package com.philldesk.philldeskbackend.security;
 
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -19,11 +20,17 @@ import java.io.IOException;
 public class AuthTokenFilter extends OncePerRequestFilter {
     private final JwtUtils jwtUtils;
     private final UserDetailsService userDetailsService;
+    private final SecurityStampService securityStampService;
+    private final TokenRevocationService tokenRevocationService;
     private static final Logger log = LoggerFactory.getLogger(AuthTokenFilter.class);
 
-    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService) {
+    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService,
+                           SecurityStampService securityStampService,
+                           TokenRevocationService tokenRevocationService) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.securityStampService = securityStampService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
@@ -31,10 +38,21 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                                   FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            Claims claims = jwt != null ? jwtUtils.parseValidClaims(jwt) : null;
+            if (claims != null && tokenRevocationService.isRevoked(jwtUtils.getSessionId(claims))) {
+                log.debug("Rejected token of a revoked session");
+            } else if (claims != null) {
+                UserDetails userDetails = jwtUtils.getPrincipalFromClaims(claims);
+                if (userDetails == null) {
+                    // Token issued before the principal claims existed
+                    userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                } else if (!securityStampService.isCurrent(((UserPrincipal) userDetails).getId(),
+                        ((UserPrincipal) userDetails).getSecurityStamp())) {
+                    log.debug("Rejected token with a stale security stamp for {}", userDetails.getUsername());
+                    filterChain.doFilter(request, response);
+                    return;
+                }
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
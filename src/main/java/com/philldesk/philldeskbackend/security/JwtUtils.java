@@ -1,8 +1,12 @@
 package com.philldesk.philldeskbackend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,42 +14,111 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    // Claims that let the filter rebuild the principal without loading the user
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String EMAIL_CLAIM = "email";
+    private static final String ROLE_CLAIM = "role";
+    private static final String STAMP_CLAIM = "stamp";
+    // Refresh token family the access token was issued with, checked for revocation
+    private static final String SESSION_CLAIM = "sid";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
 
+    @Value("${jwt.verified-cache.max-entries:10000}")
+    private int verifiedCacheMaxEntries;
+
+    // Built once; both are immutable and safe to share between request threads
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Claims of recently verified tokens keyed by the token's SHA-256, each kept until the
+    // token expires; the least recently used go first once the cache is full
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(Math.max(verifiedCacheMaxEntries, 0))
+                .expireAfter(Expiry.creating((String tokenHash, Claims claims) ->
+                        Duration.ofMillis(Math.max(claims.getExpiration().getTime() - System.currentTimeMillis(), 0))))
+                // Evict on the calling thread so the bound holds without a background pool
+                .executor(Runnable::run)
+                .build();
+    }
+
     public String generateJwtToken(Authentication authentication) {
-        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return generateJwtToken((UserPrincipal) authentication.getPrincipal(), null);
+    }
+
+    public String generateJwtToken(UserPrincipal userPrincipal, String sessionId) {
+        String authority = userPrincipal.getAuthorities().iterator().next().getAuthority();
 
         return Jwts.builder()
                 .subject(userPrincipal.getUsername())
+                .claim(USER_ID_CLAIM, userPrincipal.getId())
+                .claim(EMAIL_CLAIM, userPrincipal.getEmail())
+                .claim(ROLE_CLAIM, authority)
+                .claim(STAMP_CLAIM, userPrincipal.getSecurityStamp())
+                .claim(SESSION_CLAIM, sessionId)
                 .issuedAt(new Date())
                 .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key())
+                .signWith(signingKey)
                 .compact();
     }
 
-    private SecretKey key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    public String getUserNameFromJwtToken(String token) {
+        return verify(token).getSubject();
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser().verifyWith(key()).build()
-                .parseSignedClaims(token).getPayload().getSubject();
+    /**
+     * Principal described by the token's claims, or null for a token issued before the
+     * claims were added.
+     */
+    public UserPrincipal getPrincipalFromJwtToken(String token) {
+        return getPrincipalFromClaims(verify(token));
+    }
+
+    public UserPrincipal getPrincipalFromClaims(Claims claims) {
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        Integer stamp = claims.get(STAMP_CLAIM, Integer.class);
+        if (userId == null || stamp == null) {
+            return null;
+        }
+        return UserPrincipal.fromToken(userId, claims.getSubject(), claims.get(EMAIL_CLAIM, String.class),
+                claims.get(ROLE_CLAIM, String.class), stamp);
+    }
+
+    public String getSessionId(Claims claims) {
+        return claims.get(SESSION_CLAIM, String.class);
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseValidClaims(authToken) != null;
+    }
+
+    /**
+     * Verify the token and return its claims in one pass, or null when it is not valid.
+     */
+    public Claims parseValidClaims(String authToken) {
         try {
-            Jwts.parser().verifyWith(key()).build().parseSignedClaims(authToken);
-            return true;
+            return verify(authToken);
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -56,6 +129,29 @@ public class JwtUtils {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    private Claims verify(String token) {
+        String tokenHash = sha256(token);
+        Claims cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(tokenHash, claims);
+        }
+        return claims;
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
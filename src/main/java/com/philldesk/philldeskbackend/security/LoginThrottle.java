@@ -0,0 +1,135 @@
+package com.philldesk.philldeskbackend.security;
+
+import com.philldesk.philldeskbackend.exception.TooManyLoginAttemptsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token buckets per username and per client IP for sign-in attempts.
+ *
+ * Every attempt takes a token from both buckets before any password is hashed, and a
+ * successful sign-in gives them back. Users who type their password right are never
+ * throttled, while repeated failures against one account or from one address run the
+ * bucket dry and are rejected until it refills.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final String USER_PREFIX = "user:";
+    private static final String IP_PREFIX = "ip:";
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Value("${security.login-throttle.user.capacity:5}")
+    private int userCapacity;
+
+    @Value("${security.login-throttle.user.refill-per-minute:5}")
+    private int userRefillPerMinute;
+
+    @Value("${security.login-throttle.ip.capacity:30}")
+    private int ipCapacity;
+
+    @Value("${security.login-throttle.ip.refill-per-minute:30}")
+    private int ipRefillPerMinute;
+
+    @Value("${security.login-throttle.max-entries:50000}")
+    private int maxEntries;
+
+    /**
+     * Take one attempt from the IP and user buckets, or throw when either is empty.
+     */
+    public void acquire(String username, String clientIp) {
+        long now = System.nanoTime();
+        TokenBucket ipBucket = bucket(IP_PREFIX + clientIp, ipCapacity, ipRefillPerMinute, now);
+        long ipWait = ipBucket.tryConsume(now);
+        if (ipWait > 0) {
+            throw new TooManyLoginAttemptsException(toSeconds(ipWait));
+        }
+        TokenBucket userBucket = bucket(userKey(username), userCapacity, userRefillPerMinute, now);
+        long userWait = userBucket.tryConsume(now);
+        if (userWait > 0) {
+            throw new TooManyLoginAttemptsException(toSeconds(userWait));
+        }
+    }
+
+    /**
+     * Return the tokens taken for an attempt that signed in successfully.
+     */
+    public void succeeded(String username, String clientIp) {
+        TokenBucket ipBucket = buckets.get(IP_PREFIX + clientIp);
+        if (ipBucket != null) {
+            ipBucket.refund();
+        }
+        TokenBucket userBucket = buckets.get(userKey(username));
+        if (userBucket != null) {
+            userBucket.refund();
+        }
+    }
+
+    private TokenBucket bucket(String key, int capacity, int refillPerMinute, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxEntries) {
+            // Full buckets carry no state worth keeping
+            buckets.values().removeIf(candidate -> candidate.isFull(now));
+            if (buckets.size() >= maxEntries) {
+                buckets.clear();
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerMinute, now));
+    }
+
+    private static String userKey(String username) {
+        return USER_PREFIX + (username == null ? "" : username.toLowerCase(Locale.ROOT));
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private static final class TokenBucket {
+        private final int capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(int capacity, int refillPerMinute, long now) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / 60_000_000_000d;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        /**
+         * Take a token; returns 0 on success or the nanos until the next token is available.
+         */
+        private synchronized long tryConsume(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        private synchronized void refund() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        private synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
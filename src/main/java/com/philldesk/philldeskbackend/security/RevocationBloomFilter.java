@@ -0,0 +1,70 @@
+package com.philldesk.philldeskbackend.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter of revoked session ids.
+ *
+ * {@link #mightContain} never misses an id that was added and is wrong for roughly the
+ * configured fraction of other ids, so a negative answer settles the common case without a
+ * lookup and only positives need confirming. Adds are lock-free and safe alongside reads.
+ */
+public class RevocationBloomFilter {
+
+    private final AtomicLongArray words;
+    private final int bitCount;
+    private final int hashCount;
+
+    public RevocationBloomFilter(int expectedEntries, double falsePositiveRate) {
+        int entries = Math.max(1, expectedEntries);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bitCount = (int) Math.min(Math.max(bits, 64), Integer.MAX_VALUE - 64L);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * ln2));
+        this.words = new AtomicLongArray((bitCount + 63) / 64);
+    }
+
+    public void add(String id) {
+        long hash = hash(id);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (int) Math.floorMod(h1 + i * h2, (long) bitCount);
+            long mask = 1L << bit;
+            words.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+        }
+    }
+
+    public boolean mightContain(String id) {
+        long hash = hash(id);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (int) Math.floorMod(h1 + i * h2, (long) bitCount);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units
+    private static long hash(String id) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // MurmurHash3 finalizer, spreads the FNV bits over the whole word
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
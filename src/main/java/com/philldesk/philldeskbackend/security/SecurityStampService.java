@@ -0,0 +1,66 @@
+package com.philldesk.philldeskbackend.security;
+
+import com.philldesk.philldeskbackend.entity.CachedEntityChangedEvent;
+import com.philldesk.philldeskbackend.entity.User;
+import com.philldesk.philldeskbackend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks the security stamp carried by a token against the user's current stamp.
+ *
+ * Stamps are cached per user for a short time, so an authenticated request normally costs
+ * no query. A user change on this instance drops the cached stamp as soon as it commits;
+ * changes made on another instance are picked up when the entry expires.
+ */
+@Component
+public class SecurityStampService {
+
+    // Marks a deactivated or deleted user; no token stamp matches it
+    private static final int INACTIVE = -1;
+
+    private record CachedStamp(int stamp, long expiresAt) {
+    }
+
+    private final UserRepository userRepository;
+    private final Map<Long, CachedStamp> stamps = new ConcurrentHashMap<>();
+
+    @Value("${security.stamp-cache.ttl-ms:60000}")
+    private long ttlMillis;
+
+    @Value("${security.stamp-cache.max-entries:10000}")
+    private int maxEntries;
+
+    public SecurityStampService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public boolean isCurrent(Long userId, int tokenStamp) {
+        long now = System.currentTimeMillis();
+        CachedStamp cached = stamps.get(userId);
+        if (cached == null || cached.expiresAt() <= now) {
+            int stamp = userRepository.findActiveSecurityStampById(userId).orElse(INACTIVE);
+            if (stamps.size() >= maxEntries) {
+                stamps.clear();
+            }
+            cached = new CachedStamp(stamp, now + ttlMillis);
+            stamps.put(userId, cached);
+        }
+        return cached.stamp() == tokenStamp;
+    }
+
+    public void evict(Long userId) {
+        stamps.remove(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(CachedEntityChangedEvent event) {
+        if (User.class.equals(event.entityType()) && event.id() instanceof Long userId) {
+            evict(userId);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.philldesk.philldeskbackend.security;
+
+import com.philldesk.philldeskbackend.dto.CacheInvalidationMessage;
+import com.philldesk.philldeskbackend.repository.RefreshTokenRepository;
+import com.philldesk.philldeskbackend.service.CacheInvalidationBus;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers whether the session an access token belongs to has been revoked.
+ *
+ * Revoked session ids live in a Bloom filter rebuilt from refresh_tokens on a fixed delay,
+ * covering only families revoked within the access-token lifetime since older access
+ * tokens have expired anyway. A token whose session is not in the filter, the common case,
+ * is accepted without a query; a filter hit is confirmed against the table. Revocations
+ * made on this instance take effect immediately and are broadcast to the other instances
+ * over the CacheInvalidationBus; the rebuild covers any broadcast that was missed.
+ */
+@Component
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    // Sessions known to be revoked, kept until access tokens issued for them have expired
+    private final Map<String, Long> confirmedRevoked = new ConcurrentHashMap<>();
+
+    private volatile RevocationBloomFilter filter;
+
+    @Value("${jwt.expiration}")
+    private long accessTokenLifetimeMs;
+
+    @Value("${jwt.revocation-filter.expected-entries:10000}")
+    private int expectedEntries;
+
+    @Value("${jwt.revocation-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    public TokenRevocationService(RefreshTokenRepository refreshTokenRepository,
+                                  CacheInvalidationBus cacheInvalidationBus) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    @PostConstruct
+    void init() {
+        filter = new RevocationBloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    public boolean isRevoked(String sessionId) {
+        if (sessionId == null) {
+            return false;
+        }
+        if (confirmedRevoked.containsKey(sessionId)) {
+            return true;
+        }
+        if (!filter.mightContain(sessionId)) {
+            return false;
+        }
+        boolean revoked = refreshTokenRepository.existsByFamilyIdAndRevokedAtIsNotNull(sessionId);
+        if (revoked) {
+            confirmedRevoked.put(sessionId, System.currentTimeMillis());
+        }
+        return revoked;
+    }
+
+    public void revoked(String sessionId) {
+        markRevoked(sessionId);
+        cacheInvalidationBus.publish(new CacheInvalidationMessage(CacheInvalidationMessage.SESSIONS, sessionId));
+    }
+
+    @EventListener
+    public void onSessionRevoked(CacheInvalidationMessage message) {
+        if (CacheInvalidationMessage.SESSIONS.equals(message.region())) {
+            markRevoked(message.key());
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${jwt.revocation-filter.rebuild-ms:30000}")
+    public void rebuild() {
+        try {
+            LocalDateTime since = LocalDateTime.now().minusNanos(accessTokenLifetimeMs * 1_000_000);
+            List<String> familyIds = refreshTokenRepository.findFamilyIdsRevokedSince(since);
+
+            long expiredBefore = System.currentTimeMillis() - accessTokenLifetimeMs;
+            confirmedRevoked.values().removeIf(revokedAt -> revokedAt < expiredBefore);
+
+            RevocationBloomFilter rebuilt = new RevocationBloomFilter(
+                    Math.max(expectedEntries, familyIds.size() * 2), falsePositiveRate);
+            familyIds.forEach(rebuilt::add);
+            // Revocations committed after the query above are still in the local map
+            confirmedRevoked.keySet().forEach(rebuilt::add);
+            filter = rebuilt;
+        } catch (Exception e) {
+            // Keep serving the previous filter; local revocations were added to it directly
+            logger.error("Failed to rebuild the token revocation filter: {}", e.getMessage());
+        }
+    }
+
+    private void markRevoked(String sessionId) {
+        confirmedRevoked.put(sessionId, System.currentTimeMillis());
+        filter.add(sessionId);
+    }
+}
@@ -3,13 +3,14 @@ package com.philldesk.philldeskbackend.security;
 import com.philldesk.philldeskbackend.entity.User;
 import com.philldesk.philldeskbackend.repository.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
 
     public UserDetailsServiceImpl(UserRepository userRepository) {
@@ -17,11 +18,24 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
 
         return UserPrincipal.create(user);
     }
+
+    /**
+     * Store a stronger hash of the same password after a successful sign-in. The bulk
+     * update skips the entity callbacks, so the security stamp and issued tokens stay valid.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserPrincipal principal = (UserPrincipal) user;
+        userRepository.updatePasswordHash(principal.getId(), newPassword);
+        return new UserPrincipal(principal.getId(), principal.getUsername(), principal.getEmail(), newPassword,
+                principal.getAuthorities(), principal.getSecurityStamp());
+    }
 }
@@ -15,14 +15,16 @@ public class UserPrincipal implements UserDetails {
     private String email;
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    private int securityStamp;
 
     public UserPrincipal(Long id, String username, String email, String password, 
-                        Collection<? extends GrantedAuthority> authorities) {
+                        Collection<? extends GrantedAuthority> authorities, int securityStamp) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
+        this.securityStamp = securityStamp;
     }
 
     public static UserPrincipal create(User user) {
@@ -35,10 +37,20 @@ public class UserPrincipal implements UserDetails {
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
-                authorities
+                authorities,
+                user.getSecurityStamp() != null ? user.getSecurityStamp() : 0
         );
     }
 
+    /**
+     * Principal rebuilt from the claims of a verified token; it carries no password.
+     */
+    public static UserPrincipal fromToken(Long id, String username, String email, String authority,
+                                          int securityStamp) {
+        return new UserPrincipal(id, username, email, null,
+                Collections.singletonList(new SimpleGrantedAuthority(authority)), securityStamp);
+    }
+
     public Long getId() {
         return id;
     }
@@ -47,6 +59,10 @@ public class UserPrincipal implements UserDetails {
         return email;
     }
 
+    public int getSecurityStamp() {
+        return securityStamp;
+    }
+
     @Override
     public String getUsername() {
         return username;
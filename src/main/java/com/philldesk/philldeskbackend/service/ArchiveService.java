@@ -0,0 +1,17 @@
+package com.philldesk.philldeskbackend.service;
+
+import com.philldesk.philldeskbackend.dto.BillResponseDTO;
+import com.philldesk.philldeskbackend.dto.PrescriptionResponseDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface ArchiveService {
+    Map<String, Integer> archiveSettledRecords();
+    List<PrescriptionResponseDTO> getArchivedPrescriptionsByCustomerId(Long customerId);
+    Optional<PrescriptionResponseDTO> getArchivedPrescription(Long id);
+    List<BillResponseDTO> getArchivedBillsByCustomerId(Long customerId);
+    Optional<BillResponseDTO> getArchivedBill(Long id);
+    Optional<BillResponseDTO> getArchivedBillByPrescriptionId(Long prescriptionId);
+}
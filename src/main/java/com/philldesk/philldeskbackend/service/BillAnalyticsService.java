@@ -0,0 +1,24 @@
+package com.philldesk.philldeskbackend.service;
+
+import com.philldesk.philldeskbackend.analytics.BillFactStore;
+import com.philldesk.philldeskbackend.entity.Bill;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface BillAnalyticsService {
+    void recordPaidBill(Bill bill);
+    void recordUnpaidBill(Long billId);
+    void recordBillCreated(Bill bill);
+    BigDecimal getRevenue(LocalDate startDate, LocalDate endDate);
+    long getOrderCount(LocalDate startDate, LocalDate endDate);
+    Map<String, Long> getPaymentMethodBreakdown(LocalDate startDate, LocalDate endDate);
+    Map<Long, BillFactStore.Totals> getSalesByMedicine(LocalDate startDate, LocalDate endDate);
+    Map<Long, BillFactStore.Totals> getSalesByPharmacist(LocalDate startDate, LocalDate endDate);
+    long estimateUniqueCustomers(LocalDate startDate, LocalDate endDate);
+    long estimateReturningCustomers(LocalDate startDate, LocalDate endDate);
+    Map<String, Object> getOrderValuePercentiles(LocalDate startDate, LocalDate endDate);
+    Map<Long, Map<String, Object>> getOrderValuePercentilesByPharmacist(LocalDate startDate, LocalDate endDate);
+    Map<LocalDate, Map<String, Object>> getDailyOrderValuePercentiles(LocalDate startDate, LocalDate endDate);
+}
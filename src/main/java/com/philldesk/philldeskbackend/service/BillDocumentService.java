@@ -0,0 +1,30 @@
+package com.philldesk.philldeskbackend.service;
+
+import com.philldesk.philldeskbackend.entity.Bill;
+import org.springframework.core.io.Resource;
+
+import java.util.Map;
+
+/**
+ * Rendered bill documents, cached on local disk
+ */
+public interface BillDocumentService {
+
+    enum DocumentType {
+        // iText bill PDF (PdfGenerationService.generateBillPdf)
+        BILL_PDF,
+        // Invoice rendered by BillService.generateInvoicePDF
+        INVOICE
+    }
+
+    /**
+     * Get the rendered document for a bill, rendering and caching it on a miss
+     * @param bill The bill, loaded with its items, customer and prescription
+     * @param type Which document to render
+     * @return The document, normally a file in the cache directory
+     * @throws Exception if rendering fails
+     */
+    Resource getDocument(Bill bill, DocumentType type) throws Exception;
+
+    Map<String, Object> getStatistics();
+}
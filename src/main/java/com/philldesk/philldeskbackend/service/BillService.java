@@ -1,28 +1,39 @@
 package com.philldesk.philldeskbackend.service;
 
+import com.philldesk.philldeskbackend.dto.BillProjection;
+import com.philldesk.philldeskbackend.dto.BillTotalsProjection;
 import com.philldesk.philldeskbackend.entity.Bill;
 import com.philldesk.philldeskbackend.entity.Prescription;
 import com.philldesk.philldeskbackend.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface BillService {
     List<Bill> getAllBills();
     Page<Bill> getAllBills(Pageable pageable);
+    Window<Bill> scrollBills(ScrollPosition position, int limit);
+    long countBills();
+    BillTotalsProjection getBillTotalsByNumberPrefix(String prefix, LocalDateTime since);
+    List<Bill> getRecentBillsByNumberPrefix(String prefix, int limit);
     Optional<Bill> getBillById(Long id);
     Optional<Bill> getBillByIdWithDetails(Long id);
     Optional<Bill> getBillByPrescription(Prescription prescription);
     List<Bill> getBillsByCustomer(User customer);
     List<Bill> getBillsByCustomerId(Long customerId);
+    Window<Bill> scrollBillsByCustomerId(Long customerId, ScrollPosition position, int limit);
     List<Bill> getBillsByStatus(Bill.PaymentStatus status);
     List<Bill> getBillsByPaymentMethod(Bill.PaymentMethod paymentMethod);
     List<Bill> getBillsByDateRange(LocalDate startDate, LocalDate endDate);
     List<Bill> getPendingBills();
+    List<BillProjection> getPendingBillSummaries();
     List<Bill> getPaidBills();
     Bill generateBillFromPrescription(Prescription prescription);
     Bill saveBill(Bill bill);
@@ -0,0 +1,10 @@
+package com.philldesk.philldeskbackend.service;
+
+import com.philldesk.philldeskbackend.dto.CacheInvalidationMessage;
+
+import java.util.Map;
+
+public interface CacheInvalidationBus {
+    void publish(CacheInvalidationMessage message);
+    Map<String, Object> getStatistics();
+}
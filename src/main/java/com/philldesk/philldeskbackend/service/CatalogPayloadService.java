@@ -0,0 +1,12 @@
+package com.philldesk.philldeskbackend.service;
+
+import com.philldesk.philldeskbackend.dto.CatalogPayload;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+public interface CatalogPayloadService {
+    CatalogPayload getPayload(String key, long catalogVersion, Supplier<? extends ResponseEntity<?>> response);
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,7 @@
+package com.philldesk.philldeskbackend.service;
+
+import java.util.Map;
+
+public interface DataSourcePoolService {
+    Map<String, Map<String, Object>> getPoolStatistics();
+}
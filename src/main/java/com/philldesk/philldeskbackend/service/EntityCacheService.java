@@ -0,0 +1,9 @@
+package com.philldesk.philldeskbackend.service;
+
+import java.util.Map;
+
+public interface EntityCacheService {
+    Map<String, Map<String, Object>> getRegionStatistics();
+    void evictRegion(String region);
+    void evictAll();
+}
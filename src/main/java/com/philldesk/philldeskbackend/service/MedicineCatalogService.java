@@ -0,0 +1,9 @@
+package com.philldesk.philldeskbackend.service;
+
+import com.philldesk.philldeskbackend.dto.MedicineChangesResponse;
+
+public interface MedicineCatalogService {
+    long getCatalogVersion();
+    MedicineChangesResponse getChangesSince(long since);
+    int purgeExpiredTombstones();
+}
@@ -1,8 +1,13 @@
 package com.philldesk.philldeskbackend.service;
 
+import com.philldesk.philldeskbackend.dto.CategoryCountProjection;
+import com.philldesk.philldeskbackend.dto.InventoryTotalsProjection;
+import com.philldesk.philldeskbackend.dto.MedicineSummaryProjection;
 import com.philldesk.philldeskbackend.entity.Medicine;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -11,14 +16,26 @@ import java.util.Optional;
 public interface MedicineService {
     List<Medicine> getAllMedicines();
     Page<Medicine> getAllMedicines(Pageable pageable);
+    Window<MedicineSummaryProjection> scrollMedicines(ScrollPosition position, int limit);
+    Page<MedicineSummaryProjection> getMedicineSummaries(Pageable pageable);
     Optional<Medicine> getMedicineById(Long id);
     List<Medicine> getMedicinesByName(String name);
     List<Medicine> getMedicinesByManufacturer(String manufacturer);
     List<Medicine> getMedicinesByCategory(String category);
     List<Medicine> getAvailableMedicines();
     List<Medicine> getLowStockMedicines(Integer threshold);
+    long countMedicines();
+    InventoryTotalsProjection getInventoryTotals();
+    List<CategoryCountProjection> getCategoryCounts();
     List<Medicine> getMedicinesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
     List<Medicine> searchMedicines(String searchTerm);
+    List<MedicineSummaryProjection> getMedicineSummariesByManufacturer(String manufacturer);
+    List<MedicineSummaryProjection> getMedicineSummariesByCategory(String category);
+    List<MedicineSummaryProjection> getAvailableMedicineSummaries();
+    List<MedicineSummaryProjection> getLowStockMedicineSummaries(Integer threshold);
+    List<MedicineSummaryProjection> getMedicineSummariesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
+    List<MedicineSummaryProjection> searchMedicineSummaries(String searchTerm);
+    List<MedicineSummaryProjection> getMedicineSuggestions(String query, int limit);
     Medicine saveMedicine(Medicine medicine);
     Medicine updateMedicine(Medicine medicine);
     void deleteMedicine(Long id);
@@ -0,0 +1,10 @@
+package com.philldesk.philldeskbackend.service;
+
+import java.util.Map;
+
+public interface NotificationCounterService {
+    long getUnreadCount(Long userId);
+    void adjustUnreadCount(Long userId, long delta);
+    int reconcile();
+    Map<String, Object> getStatistics();
+}
@@ -1,22 +1,26 @@
 package com.philldesk.philldeskbackend.service;
 
+import com.philldesk.philldeskbackend.dto.NotificationSummaryProjection;
 import com.philldesk.philldeskbackend.entity.Notification;
 import com.philldesk.philldeskbackend.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface NotificationService {
     List<Notification> getAllNotifications();
-    Page<Notification> getAllNotifications(Pageable pageable);
+    Page<NotificationSummaryProjection> getAllNotifications(Pageable pageable);
+    Window<NotificationSummaryProjection> scrollNotifications(ScrollPosition position, int limit);
     Optional<Notification> getNotificationById(Long id);
     List<Notification> getNotificationsByUser(User user);
-    List<Notification> getNotificationsByUserId(Long userId);
+    List<NotificationSummaryProjection> getNotificationsByUserId(Long userId);
     List<Notification> getUnreadNotificationsByUser(User user);
-    List<Notification> getUnreadNotificationsByUserId(Long userId);
-    List<Notification> getNotificationsByType(Notification.NotificationType type);
+    List<NotificationSummaryProjection> getUnreadNotificationsByUserId(Long userId);
+    List<NotificationSummaryProjection> getNotificationsByType(Notification.NotificationType type);
     Notification saveNotification(Notification notification);
     Notification updateNotification(Notification notification);
     void deleteNotification(Long id);
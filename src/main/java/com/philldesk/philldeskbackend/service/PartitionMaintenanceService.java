@@ -0,0 +1,8 @@
+package com.philldesk.philldeskbackend.service;
+
+import java.util.List;
+
+public interface PartitionMaintenanceService {
+    List<String> createUpcomingPartitions();
+    List<String> archiveExpiredPartitions();
+}
@@ -1,7 +1,14 @@
 package com.philldesk.philldeskbackend.service;
 
+import com.philldesk.philldeskbackend.dto.InventoryReportRowProjection;
+import com.philldesk.philldeskbackend.dto.SalesReportRowProjection;
+import com.philldesk.philldeskbackend.dto.UserActivityReportRowProjection;
 import com.philldesk.philldeskbackend.entity.Bill;
 
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.stream.Stream;
+
 /**
  * Interface for PDF generation services
  */
@@ -32,4 +39,37 @@ public interface PdfGenerationService {
      * @throws Exception if PDF generation fails
      */
     byte[] generateReportPdf(String reportTitle, Object reportData, String dateRange) throws Exception;
+    
+    /**
+     * Write a sales report straight to an output stream, one table row per paid bill
+     * @param dateRange The date range shown in the report header
+     * @param summaryStats Precomputed summary figures
+     * @param rows Paid bills in the period, consumed once
+     * @param out Destination for the PDF
+     * @throws Exception if PDF generation fails
+     */
+    void writeSalesReportPdf(String dateRange, Map<String, Object> summaryStats,
+                             Stream<SalesReportRowProjection> rows, OutputStream out) throws Exception;
+    
+    /**
+     * Write an inventory report straight to an output stream, one table row per medicine
+     * @param dateRange The date range shown in the report header
+     * @param summaryStats Precomputed summary figures
+     * @param rows Active medicines, consumed once
+     * @param out Destination for the PDF
+     * @throws Exception if PDF generation fails
+     */
+    void writeInventoryReportPdf(String dateRange, Map<String, Object> summaryStats,
+                                 Stream<InventoryReportRowProjection> rows, OutputStream out) throws Exception;
+    
+    /**
+     * Write a user activity report straight to an output stream, one table row per user
+     * @param dateRange The date range shown in the report header
+     * @param summaryStats Precomputed summary figures
+     * @param rows Users with their workload in the period, consumed once
+     * @param out Destination for the PDF
+     * @throws Exception if PDF generation fails
+     */
+    void writeUserActivityReportPdf(String dateRange, Map<String, Object> summaryStats,
+                                    Stream<UserActivityReportRowProjection> rows, OutputStream out) throws Exception;
 }
@@ -3,12 +3,15 @@ package com.philldesk.philldeskbackend.service;
 import com.philldesk.philldeskbackend.entity.PrescriptionItem;
 import com.philldesk.philldeskbackend.entity.Prescription;
 import com.philldesk.philldeskbackend.entity.Medicine;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface PrescriptionItemService {
     List<PrescriptionItem> getAllPrescriptionItems();
+    Window<PrescriptionItem> scrollPrescriptionItems(ScrollPosition position, int limit);
     Optional<PrescriptionItem> getPrescriptionItemById(Long id);
     List<PrescriptionItem> getPrescriptionItemsByPrescription(Prescription prescription);
     List<PrescriptionItem> getPrescriptionItemsByPrescriptionId(Long prescriptionId);
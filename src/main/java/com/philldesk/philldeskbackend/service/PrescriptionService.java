@@ -1,11 +1,16 @@
 package com.philldesk.philldeskbackend.service;
 
+import com.philldesk.philldeskbackend.dto.PendingPrescriptionProjection;
+import com.philldesk.philldeskbackend.dto.PrescriptionStatusCountProjection;
 import com.philldesk.philldeskbackend.entity.Prescription;
 import com.philldesk.philldeskbackend.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -13,18 +18,31 @@ import java.util.Optional;
 public interface PrescriptionService {
     List<Prescription> getAllPrescriptions();
     Page<Prescription> getAllPrescriptions(Pageable pageable);
+    Window<Prescription> scrollPrescriptions(ScrollPosition position, int limit);
     Optional<Prescription> getPrescriptionById(Long id);
     Optional<Prescription> findById(Long id);
     Optional<Prescription> getPrescriptionByIdWithUserDetails(Long id);
     List<Prescription> getPrescriptionsByCustomer(User customer);
     List<Prescription> getPrescriptionsByCustomerId(Long customerId);
+    Window<Prescription> scrollPrescriptionsByCustomerId(Long customerId, ScrollPosition position, int limit);
     List<Prescription> getPrescriptionsByPharmacist(User pharmacist);
     List<Prescription> getPrescriptionsByPharmacistId(Long pharmacistId);
+    Window<Prescription> scrollPrescriptionsByPharmacistId(Long pharmacistId, ScrollPosition position, int limit);
     List<Prescription> getPrescriptionsByStatus(Prescription.PrescriptionStatus status);
+    Window<Prescription> scrollPrescriptionsByStatus(Prescription.PrescriptionStatus status,
+                                                     ScrollPosition position, int limit);
+    Window<Prescription> scrollPrescriptionsRequiringClarification(ScrollPosition position, int limit);
     List<Prescription> getPrescriptionsByDateRange(LocalDate startDate, LocalDate endDate);
     List<Prescription> getPendingPrescriptions();
+    List<PendingPrescriptionProjection> getPendingPrescriptionSummaries();
+    Window<PendingPrescriptionProjection> scrollPendingPrescriptionSummaries(ScrollPosition position, int limit);
     List<Prescription> getProcessingPrescriptions();
     List<Prescription> getCompletedPrescriptions();
+    long countPrescriptions();
+    long countPrescriptionsByStatus(Prescription.PrescriptionStatus status);
+    List<PrescriptionStatusCountProjection> getStatusCounts();
+    long countPrescriptionsCreatedSince(LocalDateTime since);
+    long countUrgentPrescriptions();
     Prescription savePrescription(Prescription prescription);
     Prescription updatePrescription(Prescription prescription);
     void deletePrescription(Long id);
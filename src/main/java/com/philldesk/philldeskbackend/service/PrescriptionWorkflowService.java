@@ -0,0 +1,13 @@
+package com.philldesk.philldeskbackend.service;
+
+import com.philldesk.philldeskbackend.entity.Prescription;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface PrescriptionWorkflowService {
+    void recordTransition(Prescription prescription, Prescription.PrescriptionStatus fromStatus);
+    long countTransitions(Prescription.PrescriptionStatus toStatus, LocalDate startDate, LocalDate endDate);
+    Map<String, Object> getWorkflowStats(LocalDate startDate, LocalDate endDate);
+    Map<Long, Map<String, Object>> getPharmacistProductivity(LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,11 @@
+package com.philldesk.philldeskbackend.service;
+
+import com.philldesk.philldeskbackend.dto.JwtResponse;
+import com.philldesk.philldeskbackend.security.UserPrincipal;
+
+public interface RefreshTokenService {
+    JwtResponse issueTokens(UserPrincipal principal);
+    JwtResponse rotate(String refreshToken);
+    void revoke(String refreshToken);
+    int purgeExpiredTokens();
+}
@@ -0,0 +1,34 @@
+package com.philldesk.philldeskbackend.service;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface ReportService {
+
+    enum ReportType {
+        SALES("sales"),
+        INVENTORY("inventory"),
+        USER_ACTIVITY("user-activity");
+
+        private final String path;
+
+        ReportType(String path) {
+            this.path = path;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public static ReportType fromPath(String path) {
+            for (ReportType type : values()) {
+                if (type.path.equalsIgnoreCase(path)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown report type: " + path);
+        }
+    }
+
+    void writeReportPdf(ReportType reportType, LocalDate startDate, LocalDate endDate, OutputStream out) throws Exception;
+}
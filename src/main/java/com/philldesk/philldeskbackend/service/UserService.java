@@ -1,9 +1,12 @@
 package com.philldesk.philldeskbackend.service;
 
+import com.philldesk.philldeskbackend.dto.UserSummaryProjection;
 import com.philldesk.philldeskbackend.entity.User;
 import com.philldesk.philldeskbackend.entity.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,11 +14,15 @@ import java.util.Optional;
 public interface UserService {
     List<User> getAllUsers();
     Page<User> getAllUsers(Pageable pageable);
+    Window<UserSummaryProjection> scrollUsers(ScrollPosition position, int limit);
+    Page<UserSummaryProjection> getUserSummaries(Pageable pageable);
     Optional<User> getUserById(Long id);
     Optional<User> getUserByUsername(String username);
     Optional<User> getUserByEmail(String email);
     List<User> getUsersByRole(Role.RoleName roleName);
     List<User> getActiveUsers();
+    List<UserSummaryProjection> getUserSummariesByRole(Role.RoleName roleName);
+    List<UserSummaryProjection> getActiveUserSummaries();
     User saveUser(User user);
     User updateUser(User user);
     void deleteUser(Long id);
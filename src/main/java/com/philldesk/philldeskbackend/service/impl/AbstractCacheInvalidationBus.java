@@ -0,0 +1,145 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.dto.CacheInvalidationMessage;
+import com.philldesk.philldeskbackend.entity.CacheRegions;
+import com.philldesk.philldeskbackend.entity.CachedEntityChangedEvent;
+import com.philldesk.philldeskbackend.entity.Medicine;
+import com.philldesk.philldeskbackend.entity.Role;
+import com.philldesk.philldeskbackend.entity.User;
+import com.philldesk.philldeskbackend.service.CacheInvalidationBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared half of the cache invalidation bus: what gets sent and what a received message
+ * turns into.
+ *
+ * Committed changes of cached entities, and messages passed to {@link #publish}, are sent
+ * once the current transaction commits, from a single sender thread so the database
+ * round trip never runs on the request and never inside the finished transaction's
+ * connection. A received message from another node becomes a remote
+ * {@link CachedEntityChangedEvent} for entity regions, which the existing listeners (and
+ * the second-level cache eviction in EntityCacheServiceImpl) act on, or is published as
+ * is for other regions. A node ignores its own messages.
+ */
+public abstract class AbstractCacheInvalidationBus implements CacheInvalidationBus, DisposableBean {
+
+    private static final Map<String, Class<?>> ENTITY_TYPES = Map.of(
+            CacheRegions.MEDICINES, Medicine.class,
+            CacheRegions.ROLES, Role.class,
+            CacheRegions.USERS, User.class);
+
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
+    protected final String nodeId = UUID.randomUUID().toString();
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolExecutor sender;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    protected AbstractCacheInvalidationBus(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        this.sender = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(10_000),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cache-invalidation-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    protected abstract String mode();
+
+    protected abstract void send(String origin, CacheInvalidationMessage message) throws Exception;
+
+    @Override
+    public void publish(CacheInvalidationMessage message) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(message);
+                }
+            });
+        } else {
+            enqueue(message);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(CachedEntityChangedEvent event) {
+        if (!event.remote() && event.id() != null) {
+            enqueue(new CacheInvalidationMessage(event.region(), event.id().toString()));
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", mode());
+        stats.put("nodeId", nodeId);
+        stats.put("sent", sent.get());
+        stats.put("received", received.get());
+        stats.put("failed", failed.get());
+        stats.put("dropped", dropped.get());
+        stats.put("queued", sender.getQueue().size());
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        sender.shutdown();
+    }
+
+    /**
+     * Hand a message received from the bus to this node's caches.
+     */
+    protected void dispatch(String origin, String region, String key) {
+        if (nodeId.equals(origin)) {
+            return;
+        }
+        received.incrementAndGet();
+        try {
+            Class<?> entityType = ENTITY_TYPES.get(region);
+            if (entityType != null) {
+                eventPublisher.publishEvent(new CachedEntityChangedEvent(region, entityType, Long.valueOf(key), true));
+            } else {
+                eventPublisher.publishEvent(new CacheInvalidationMessage(region, key));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to apply cache invalidation {}/{}: {}", region, key, e.getMessage());
+        }
+    }
+
+    private void enqueue(CacheInvalidationMessage message) {
+        try {
+            sender.execute(() -> {
+                try {
+                    send(nodeId, message);
+                    sent.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    logger.warn("Failed to send cache invalidation {}/{}: {}", message.region(), message.key(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Other nodes fall back to the cache expiry for this entry
+            dropped.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.philldesk.philldeskbackend.dto.BillResponseDTO;
+import com.philldesk.philldeskbackend.dto.PrescriptionResponseDTO;
+import com.philldesk.philldeskbackend.entity.ArchivedBill;
+import com.philldesk.philldeskbackend.entity.ArchivedPrescription;
+import com.philldesk.philldeskbackend.entity.Bill;
+import com.philldesk.philldeskbackend.entity.Prescription;
+import com.philldesk.philldeskbackend.repository.ArchivedBillRepository;
+import com.philldesk.philldeskbackend.repository.ArchivedPrescriptionRepository;
+import com.philldesk.philldeskbackend.repository.BillRepository;
+import com.philldesk.philldeskbackend.repository.PrescriptionRepository;
+import com.philldesk.philldeskbackend.service.ArchiveService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves settled prescriptions and bills older than the archive horizon out of the hot
+ * tables into archived_prescriptions / archived_bills, and reads them back for the
+ * customer history and bill endpoints.
+ *
+ * Each batch runs in its own transaction: the records are rendered to the response DTOs
+ * the endpoints return, stored gzip-compressed, and the hot rows (items, shipping details
+ * and the bill of a prescription included) are deleted. A failed batch rolls back on its
+ * own and is retried on the next run.
+ */
+@Service
+public class ArchiveServiceImpl implements ArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveServiceImpl.class);
+
+    private static final Set<Prescription.PrescriptionStatus> SETTLED_PRESCRIPTIONS =
+            EnumSet.of(Prescription.PrescriptionStatus.COMPLETED, Prescription.PrescriptionStatus.REJECTED);
+    private static final Set<Bill.PaymentStatus> SETTLED_BILLS =
+            EnumSet.of(Bill.PaymentStatus.PAID, Bill.PaymentStatus.CANCELLED);
+
+    private final PrescriptionRepository prescriptionRepository;
+    private final BillRepository billRepository;
+    private final ArchivedPrescriptionRepository archivedPrescriptionRepository;
+    private final ArchivedBillRepository archivedBillRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${archive.horizon-months:24}")
+    private int horizonMonths;
+
+    @Value("${archive.batch-size:200}")
+    private int batchSize;
+
+    @Autowired
+    public ArchiveServiceImpl(PrescriptionRepository prescriptionRepository,
+                              BillRepository billRepository,
+                              ArchivedPrescriptionRepository archivedPrescriptionRepository,
+                              ArchivedBillRepository archivedBillRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.prescriptionRepository = prescriptionRepository;
+        this.billRepository = billRepository;
+        this.archivedPrescriptionRepository = archivedPrescriptionRepository;
+        this.archivedBillRepository = archivedBillRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${archive.cron:0 30 2 * * *}")
+    public void scheduledArchive() {
+        try {
+            archiveSettledRecords();
+        } catch (RuntimeException e) {
+            logger.error("Archiving settled records failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<String, Integer> archiveSettledRecords() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMonths(horizonMonths);
+        int prescriptions = 0;
+        int bills = 0;
+
+        int archived;
+        do {
+            archived = transactionTemplate.execute(status -> archivePrescriptionBatch(cutoff));
+            prescriptions += archived;
+        } while (archived == batchSize);
+
+        do {
+            archived = transactionTemplate.execute(status -> archiveBillBatch(cutoff));
+            bills += archived;
+        } while (archived == batchSize);
+
+        if (prescriptions > 0 || bills > 0) {
+            logger.info("Archived {} prescriptions and {} standalone bills created before {}",
+                    prescriptions, bills, cutoff);
+        }
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put("prescriptions", prescriptions);
+        result.put("bills", bills);
+        return result;
+    }
+
+    private int archivePrescriptionBatch(LocalDateTime cutoff) {
+        List<Long> ids = prescriptionRepository.findArchivableIds(
+                SETTLED_PRESCRIPTIONS, SETTLED_BILLS, cutoff, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Prescription> prescriptions = prescriptionRepository.findByIdIn(ids);
+        LocalDateTime now = LocalDateTime.now();
+        List<ArchivedPrescription> archivedPrescriptions = new ArrayList<>(prescriptions.size());
+        List<ArchivedBill> archivedBills = new ArrayList<>();
+        for (Prescription prescription : prescriptions) {
+            archivedPrescriptions.add(new ArchivedPrescription(
+                    prescription.getId(),
+                    prescription.getPrescriptionNumber(),
+                    prescription.getCustomer().getId(),
+                    prescription.getStatus(),
+                    prescription.getCreatedAt(),
+                    now,
+                    compress(PrescriptionResponseDTO.fromEntity(prescription))));
+            if (prescription.getBill() != null) {
+                archivedBills.add(toArchivedBill(prescription.getBill(), now));
+            }
+        }
+        archivedPrescriptionRepository.saveAll(archivedPrescriptions);
+        archivedBillRepository.saveAll(archivedBills);
+        // Cascades to the prescription items and to the bill with its items and shipping details
+        prescriptionRepository.deleteAll(prescriptions);
+        return prescriptions.size();
+    }
+
+    private int archiveBillBatch(LocalDateTime cutoff) {
+        List<Long> ids = billRepository.findArchivableIds(SETTLED_BILLS, cutoff, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Bill> bills = billRepository.findByIdIn(ids);
+        LocalDateTime now = LocalDateTime.now();
+        archivedBillRepository.saveAll(bills.stream().map(bill -> toArchivedBill(bill, now)).toList());
+        billRepository.deleteAll(bills);
+        return bills.size();
+    }
+
+    private ArchivedBill toArchivedBill(Bill bill, LocalDateTime archivedAt) {
+        return new ArchivedBill(
+                bill.getId(),
+                bill.getBillNumber(),
+                bill.getCustomer().getId(),
+                bill.getPrescription() != null ? bill.getPrescription().getId() : null,
+                bill.getPaymentStatus(),
+                bill.getCreatedAt(),
+                archivedAt,
+                compress(BillResponseDTO.fromEntity(bill)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PrescriptionResponseDTO> getArchivedPrescriptionsByCustomerId(Long customerId) {
+        return archivedPrescriptionRepository.findByCustomerIdOrderByCreatedAtDesc(customerId).stream()
+                .map(archived -> decompress(archived.getPayload(), PrescriptionResponseDTO.class))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<PrescriptionResponseDTO> getArchivedPrescription(Long id) {
+        return archivedPrescriptionRepository.findById(id)
+                .map(archived -> decompress(archived.getPayload(), PrescriptionResponseDTO.class));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BillResponseDTO> getArchivedBillsByCustomerId(Long customerId) {
+        return archivedBillRepository.findByCustomerIdOrderByCreatedAtDesc(customerId).stream()
+                .map(archived -> decompress(archived.getPayload(), BillResponseDTO.class))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<BillResponseDTO> getArchivedBill(Long id) {
+        return archivedBillRepository.findById(id)
+                .map(archived -> decompress(archived.getPayload(), BillResponseDTO.class));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<BillResponseDTO> getArchivedBillByPrescriptionId(Long prescriptionId) {
+        return archivedBillRepository.findByPrescriptionId(prescriptionId)
+                .map(archived -> decompress(archived.getPayload(), BillResponseDTO.class));
+    }
+
+    private byte[] compress(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize archived record", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private <T> T decompress(byte[] payload, Class<T> type) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(in, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archived record", e);
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.analytics.BillFactStore;
+import com.philldesk.philldeskbackend.analytics.DailyCustomerSketches;
+import com.philldesk.philldeskbackend.analytics.DailyOrderValueDigests;
+import com.philldesk.philldeskbackend.analytics.HyperLogLog;
+import com.philldesk.philldeskbackend.analytics.TDigest;
+import com.philldesk.philldeskbackend.dto.BillItemFactProjection;
+import com.philldesk.philldeskbackend.dto.CustomerVisitProjection;
+import com.philldesk.philldeskbackend.entity.Bill;
+import com.philldesk.philldeskbackend.entity.BillItem;
+import com.philldesk.philldeskbackend.repository.BillRepository;
+import com.philldesk.philldeskbackend.service.BillAnalyticsService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Serves sales analytics from the in-memory {@link BillFactStore} instead of
+ * re-reading bills through Hibernate. The store is restored from a snapshot file
+ * at startup, topped up from the database, appended to whenever a bill is paid,
+ * trimmed when a paid bill is cancelled or reopened, and periodically written
+ * back to disk.
+ *
+ * Distinct and returning customer counts come from per-day HyperLogLog sketches
+ * that are fed on bill creation and persisted the same way. Order-value percentiles
+ * come from per-day t-digests that are fed alongside the fact store.
+ */
+@Service
+public class BillAnalyticsServiceImpl implements BillAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BillAnalyticsServiceImpl.class);
+    private static final int NO_PAYMENT_METHOD = -1;
+    private static final Set<Bill.PaymentStatus> UNPAID_STATUSES =
+            EnumSet.complementOf(EnumSet.of(Bill.PaymentStatus.PAID));
+
+    private final BillRepository billRepository;
+    private final BillFactStore factStore = new BillFactStore();
+    private final DailyCustomerSketches customerSketches = new DailyCustomerSketches();
+    private final DailyOrderValueDigests orderValueDigests = new DailyOrderValueDigests();
+    // Keeps fact store appends and digest updates in step so digest snapshots match a fact prefix
+    private final Object appendLock = new Object();
+    private final Path snapshotPath;
+    private final Path customerSketchPath;
+    private final Path orderValueDigestPath;
+    // Fact store versions the last fact and digest snapshots were written at
+    private volatile long snapshotVersion = -1;
+    private volatile long digestSnapshotVersion = -1;
+    private volatile boolean customerSketchesDirty;
+
+    @Autowired
+    public BillAnalyticsServiceImpl(BillRepository billRepository,
+                                    @Value("${analytics.fact-store.snapshot-path:data/bill-facts.bin}") String snapshotPath,
+                                    @Value("${analytics.customer-sketches.snapshot-path:data/customer-sketches.bin}") String customerSketchPath,
+                                    @Value("${analytics.order-value-digests.snapshot-path:data/order-value-digests.bin}") String orderValueDigestPath) {
+        this.billRepository = billRepository;
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.customerSketchPath = Paths.get(customerSketchPath);
+        this.orderValueDigestPath = Paths.get(orderValueDigestPath);
+    }
+
+    /**
+     * Restore the fact store on startup: load the last snapshot if there is one and
+     * then stream in bills paid since it was taken, or rebuild entirely from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadFactStore() {
+        long startedAt = System.currentTimeMillis();
+        LocalDateTime since = null;
+
+        if (Files.exists(snapshotPath)) {
+            try {
+                long takenAt = factStore.loadSnapshot(snapshotPath);
+                snapshotVersion = factStore.version();
+                // Re-read a little before the snapshot time; duplicates are ignored by the store
+                since = LocalDateTime.ofInstant(Instant.ofEpochMilli(takenAt), ZoneId.systemDefault()).minusMinutes(5);
+                logger.info("Loaded {} bill facts from snapshot {}", factStore.size(), snapshotPath);
+            } catch (IOException e) {
+                logger.warn("Could not read bill fact snapshot {}, rebuilding from database: {}", snapshotPath, e.getMessage());
+            }
+        }
+
+        restoreOrderValueDigests();
+
+        try (Stream<BillItemFactProjection> rows = since != null
+                ? billRepository.streamPaidBillItemFactsSince(since)
+                : billRepository.streamPaidBillItemFacts()) {
+            ingest(rows.iterator());
+        }
+        if (since != null) {
+            // The snapshot may still hold bills that were cancelled or reopened after it was taken
+            billRepository.findIdsByStatusUpdatedSince(UNPAID_STATUSES, since).forEach(this::removeBill);
+        }
+
+        logger.info("Bill fact store ready with {} rows in {} ms", factStore.size(), System.currentTimeMillis() - startedAt);
+
+        loadCustomerSketches();
+    }
+
+    /**
+     * Load the digest snapshot and replay any fact rows it does not cover yet.
+     * A snapshot that is ahead of the fact store cannot be trusted and is rebuilt.
+     */
+    private void restoreOrderValueDigests() {
+        synchronized (appendLock) {
+            if (Files.exists(orderValueDigestPath)) {
+                try {
+                    orderValueDigests.loadSnapshot(orderValueDigestPath);
+                    if (orderValueDigests.getCoveredRows() == factStore.size()) {
+                        digestSnapshotVersion = factStore.version();
+                    }
+                } catch (IOException e) {
+                    logger.warn("Could not read order value digest snapshot {}: {}", orderValueDigestPath, e.getMessage());
+                    orderValueDigests.clear();
+                }
+            }
+            if (orderValueDigests.getCoveredRows() > factStore.size()) {
+                orderValueDigests.clear();
+            }
+            int size = factStore.size();
+            factStore.forEachBill(orderValueDigests.getCoveredRows(), size,
+                    (billId, day, pharmacistId, customerId, quantity, billTotalMinor) ->
+                            orderValueDigests.add(day, pharmacistId, billTotalMinor / 100.0));
+            orderValueDigests.setCoveredRows(size);
+        }
+    }
+
+    private void loadCustomerSketches() {
+        LocalDateTime since = LocalDate.EPOCH.atStartOfDay();
+        if (Files.exists(customerSketchPath)) {
+            try {
+                long modifiedAt = Files.getLastModifiedTime(customerSketchPath).toMillis();
+                customerSketches.loadSnapshot(customerSketchPath);
+                // Sketch merges are idempotent, so overlapping the snapshot window is harmless
+                since = LocalDateTime.ofInstant(Instant.ofEpochMilli(modifiedAt), ZoneId.systemDefault()).minusMinutes(5);
+            } catch (IOException e) {
+                logger.warn("Could not read customer sketch snapshot {}, rebuilding from database: {}", customerSketchPath, e.getMessage());
+            }
+        }
+
+        try (Stream<CustomerVisitProjection> visits = billRepository.streamCustomerVisitsSince(since)) {
+            visits.forEach(visit -> {
+                if (visit.getCustomerId() != null && visit.getCreatedAt() != null) {
+                    customerSketches.offer((int) visit.getCreatedAt().toLocalDate().toEpochDay(), visit.getCustomerId());
+                }
+            });
+        }
+        customerSketchesDirty = true;
+        logger.info("Customer sketches ready for {} days", customerSketches.dayCount());
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.fact-store.snapshot-interval-ms:900000}",
+               initialDelayString = "${analytics.fact-store.snapshot-interval-ms:900000}")
+    public void writeSnapshot() {
+        synchronized (appendLock) {
+            // Drops removed bills and restores day order; the digests already cover every live row
+            if (factStore.compact()) {
+                orderValueDigests.setCoveredRows(factStore.size());
+            }
+        }
+
+        long currentVersion = factStore.version();
+        if (currentVersion != snapshotVersion) {
+            try {
+                factStore.writeSnapshot(snapshotPath, System.currentTimeMillis());
+                snapshotVersion = currentVersion;
+                logger.info("Wrote bill fact snapshot with {} rows to {}", factStore.size(), snapshotPath);
+            } catch (IOException e) {
+                logger.error("Failed to write bill fact snapshot {}: {}", snapshotPath, e.getMessage(), e);
+            }
+        }
+
+        if (factStore.version() != digestSnapshotVersion) {
+            try {
+                synchronized (appendLock) {
+                    long digestVersion = factStore.version();
+                    orderValueDigests.writeSnapshot(orderValueDigestPath);
+                    digestSnapshotVersion = digestVersion;
+                }
+            } catch (IOException e) {
+                logger.error("Failed to write order value digest snapshot {}: {}", orderValueDigestPath, e.getMessage(), e);
+            }
+        }
+
+        if (customerSketchesDirty) {
+            customerSketchesDirty = false;
+            try {
+                customerSketches.writeSnapshot(customerSketchPath);
+            } catch (IOException e) {
+                customerSketchesDirty = true;
+                logger.error("Failed to write customer sketch snapshot {}: {}", customerSketchPath, e.getMessage(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void writeSnapshotOnShutdown() {
+        writeSnapshot();
+    }
+
+    @Override
+    public void recordPaidBill(Bill bill) {
+        if (bill == null || bill.getId() == null || bill.getPaymentStatus() != Bill.PaymentStatus.PAID) {
+            return;
+        }
+        if (factStore.containsBill(bill.getId())) {
+            return;
+        }
+        Set<BillItem> items = bill.getBillItems();
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+
+        // Copy everything out of the entity while the session is still open
+        int count = items.size();
+        long[] medicineIds = new long[count];
+        int[] quantities = new int[count];
+        long[] amounts = new long[count];
+        int i = 0;
+        for (BillItem item : items) {
+            medicineIds[i] = item.getMedicine() != null ? item.getMedicine().getId() : 0L;
+            quantities[i] = item.getQuantity() != null ? item.getQuantity() : 0;
+            amounts[i] = toMinorUnits(item.getTotalPrice());
+            i++;
+        }
+        long billId = bill.getId();
+        long billTotal = toMinorUnits(bill.getTotalAmount());
+        int day = toEpochDay(bill.getPaidAt(), bill.getUpdatedAt(), bill.getCreatedAt());
+        long pharmacistId = bill.getPharmacist() != null ? bill.getPharmacist().getId() : 0L;
+        long customerId = bill.getCustomer() != null ? bill.getCustomer().getId() : 0L;
+        int paymentMethod = bill.getPaymentMethod() != null ? bill.getPaymentMethod().ordinal() : NO_PAYMENT_METHOD;
+
+        // Only publish the payment once it has actually been committed
+        runAfterCommit(() -> appendBill(billId, day, pharmacistId, customerId, paymentMethod, billTotal,
+                medicineIds, quantities, amounts));
+    }
+
+    @Override
+    public void recordUnpaidBill(Long billId) {
+        if (billId == null || !factStore.containsBill(billId)) {
+            return;
+        }
+        runAfterCommit(() -> removeBill(billId));
+    }
+
+    @Override
+    public void recordBillCreated(Bill bill) {
+        if (bill == null || bill.getCustomer() == null || bill.getCustomer().getId() == null) {
+            return;
+        }
+        long customerId = bill.getCustomer().getId();
+        LocalDate day = bill.getCreatedAt() != null ? bill.getCreatedAt().toLocalDate() : LocalDate.now();
+        runAfterCommit(() -> {
+            customerSketches.offer((int) day.toEpochDay(), customerId);
+            customerSketchesDirty = true;
+        });
+    }
+
+    @Override
+    public BigDecimal getRevenue(LocalDate startDate, LocalDate endDate) {
+        long minor = factStore.sumBillTotals((int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+        return BigDecimal.valueOf(minor, 2);
+    }
+
+    @Override
+    public long getOrderCount(LocalDate startDate, LocalDate endDate) {
+        return factStore.countBills((int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+    }
+
+    @Override
+    public Map<String, Long> getPaymentMethodBreakdown(LocalDate startDate, LocalDate endDate) {
+        Map<Long, BillFactStore.Totals> grouped = factStore.groupBy(BillFactStore.GroupKey.PAYMENT_METHOD,
+                (int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+        Bill.PaymentMethod[] methods = Bill.PaymentMethod.values();
+        Map<String, Long> breakdown = new HashMap<>();
+        for (Map.Entry<Long, BillFactStore.Totals> entry : grouped.entrySet()) {
+            int ordinal = entry.getKey().intValue();
+            String name = ordinal >= 0 && ordinal < methods.length ? methods[ordinal].name() : "UNKNOWN";
+            breakdown.merge(name, entry.getValue().getBills(), Long::sum);
+        }
+        return breakdown;
+    }
+
+    @Override
+    public Map<Long, BillFactStore.Totals> getSalesByMedicine(LocalDate startDate, LocalDate endDate) {
+        return factStore.groupBy(BillFactStore.GroupKey.MEDICINE,
+                (int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+    }
+
+    @Override
+    public Map<Long, BillFactStore.Totals> getSalesByPharmacist(LocalDate startDate, LocalDate endDate) {
+        return factStore.groupBy(BillFactStore.GroupKey.PHARMACIST,
+                (int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+    }
+
+    @Override
+    public long estimateUniqueCustomers(LocalDate startDate, LocalDate endDate) {
+        return customerSketches.union((int) startDate.toEpochDay(), (int) endDate.toEpochDay()).estimate();
+    }
+
+    /**
+     * Customers seen in the range who were also seen in the window of the same
+     * length immediately before it.
+     */
+    @Override
+    public long estimateReturningCustomers(LocalDate startDate, LocalDate endDate) {
+        int fromDay = (int) startDate.toEpochDay();
+        int toDay = (int) endDate.toEpochDay();
+        int length = toDay - fromDay + 1;
+        HyperLogLog current = customerSketches.union(fromDay, toDay);
+        HyperLogLog previous = customerSketches.union(fromDay - length, fromDay - 1);
+        return Math.min(HyperLogLog.estimateIntersection(current, previous), current.estimate());
+    }
+
+    @Override
+    public Map<String, Object> getOrderValuePercentiles(LocalDate startDate, LocalDate endDate) {
+        return summarise(orderValueDigests.merged((int) startDate.toEpochDay(), (int) endDate.toEpochDay()));
+    }
+
+    @Override
+    public Map<Long, Map<String, Object>> getOrderValuePercentilesByPharmacist(LocalDate startDate, LocalDate endDate) {
+        Map<Long, Map<String, Object>> result = new TreeMap<>();
+        orderValueDigests.mergedByPharmacist((int) startDate.toEpochDay(), (int) endDate.toEpochDay())
+                .forEach((pharmacistId, digest) -> result.put(pharmacistId, summarise(digest)));
+        return result;
+    }
+
+    @Override
+    public Map<LocalDate, Map<String, Object>> getDailyOrderValuePercentiles(LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, Map<String, Object>> result = new TreeMap<>();
+        orderValueDigests.daily((int) startDate.toEpochDay(), (int) endDate.toEpochDay())
+                .forEach((day, digest) -> result.put(LocalDate.ofEpochDay(day), summarise(digest)));
+        return result;
+    }
+
+    private void appendBill(long billId, int day, long pharmacistId, long customerId, int paymentMethod,
+                            long billTotal, long[] medicineIds, int[] quantities, long[] amounts) {
+        synchronized (appendLock) {
+            if (factStore.appendBill(billId, day, pharmacistId, customerId, paymentMethod, billTotal,
+                    medicineIds, quantities, amounts)) {
+                orderValueDigests.add(day, pharmacistId, billTotal / 100.0);
+                orderValueDigests.setCoveredRows(factStore.size());
+            }
+        }
+    }
+
+    /**
+     * Take a bill out of the fact store and rebuild the order-value digests of its day,
+     * since a t-digest cannot forget a single value.
+     */
+    private void removeBill(long billId) {
+        synchronized (appendLock) {
+            OptionalInt removed = factStore.removeBill(billId);
+            if (removed.isEmpty()) {
+                return;
+            }
+            int day = removed.getAsInt();
+            orderValueDigests.clearDay(day);
+            factStore.forEachBillInDays(day, day, (id, epochDay, pharmacistId, customerId, quantity, billTotalMinor) ->
+                    orderValueDigests.add(epochDay, pharmacistId, billTotalMinor / 100.0));
+            orderValueDigests.setCoveredRows(factStore.size());
+        }
+        logger.info("Removed bill {} from the analytics fact store", billId);
+    }
+
+    private static Map<String, Object> summarise(TDigest digest) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", (long) digest.getCount());
+        summary.put("p50", roundQuantile(digest, 0.50));
+        summary.put("p90", roundQuantile(digest, 0.90));
+        summary.put("p99", roundQuantile(digest, 0.99));
+        return summary;
+    }
+
+    private static BigDecimal roundQuantile(TDigest digest, double q) {
+        double value = digest.quantile(q);
+        return Double.isNaN(value) ? BigDecimal.ZERO : BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Append streamed item rows to the store, one bill at a time. Rows of a bill
+     * arrive together because the query orders by payment time and bill id.
+     */
+    private void ingest(Iterator<BillItemFactProjection> rows) {
+        List<BillItemFactProjection> current = new ArrayList<>();
+        while (rows.hasNext()) {
+            BillItemFactProjection row = rows.next();
+            if (!current.isEmpty() && !current.get(0).getBillId().equals(row.getBillId())) {
+                appendRows(current);
+                current.clear();
+            }
+            current.add(row);
+        }
+        if (!current.isEmpty()) {
+            appendRows(current);
+        }
+    }
+
+    private void appendRows(List<BillItemFactProjection> rows) {
+        BillItemFactProjection first = rows.get(0);
+        int count = rows.size();
+        long[] medicineIds = new long[count];
+        int[] quantities = new int[count];
+        long[] amounts = new long[count];
+        for (int i = 0; i < count; i++) {
+            BillItemFactProjection row = rows.get(i);
+            medicineIds[i] = row.getMedicineId() != null ? row.getMedicineId() : 0L;
+            quantities[i] = row.getQuantity() != null ? row.getQuantity() : 0;
+            amounts[i] = toMinorUnits(row.getTotalPrice());
+        }
+        int paymentMethod = first.getPaymentMethod() != null
+                ? Bill.PaymentMethod.valueOf(first.getPaymentMethod()).ordinal()
+                : NO_PAYMENT_METHOD;
+        appendBill(first.getBillId(), toEpochDay(first.getPaidAt(), first.getUpdatedAt(), first.getCreatedAt()),
+                first.getPharmacistId() != null ? first.getPharmacistId() : 0L,
+                first.getCustomerId() != null ? first.getCustomerId() : 0L,
+                paymentMethod, toMinorUnits(first.getBillTotal()), medicineIds, quantities, amounts);
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    // Bills marked paid without a payment time count on the day they were last updated
+    private static int toEpochDay(LocalDateTime paidAt, LocalDateTime updatedAt, LocalDateTime createdAt) {
+        LocalDateTime when = paidAt != null ? paidAt : updatedAt != null ? updatedAt : createdAt;
+        return when != null ? (int) when.toLocalDate().toEpochDay() : (int) LocalDate.now().toEpochDay();
+    }
+}
@@ -0,0 +1,295 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.entity.Bill;
+import com.philldesk.philldeskbackend.entity.BillPaidEvent;
+import com.philldesk.philldeskbackend.service.BillDocumentService;
+import com.philldesk.philldeskbackend.service.BillService;
+import com.philldesk.philldeskbackend.service.PdfGenerationService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Disk cache of rendered bill documents.
+ *
+ * A document is stored under the SHA-256 of its type, the bill id, the bill's updatedAt and
+ * the template version, so any change to the bill or a new template version simply misses
+ * and the stale file ages out. Files are written to a temporary name and moved into place,
+ * and served straight from disk: a hit opens the file under the index lock, so eviction by
+ * another request cannot delete it before it is streamed, and an indexed file that has gone
+ * missing is rendered again. The directory is bounded by total size with least recently
+ * used eviction; the index is rebuilt from the files (oldest first) on startup.
+ *
+ * Bills that become paid are rendered ahead of the first download on a background thread.
+ */
+@Service
+public class BillDocumentServiceImpl implements BillDocumentService, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BillDocumentServiceImpl.class);
+
+    private static final String EXTENSION = ".pdf";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final PdfGenerationService pdfGenerationService;
+    private final BillService billService;
+    private final ThreadPoolExecutor prerenderer;
+
+    // Cache key -> file size, in access order
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong prerendered = new AtomicLong();
+
+    private Path directory;
+
+    @Value("${bill-documents.cache-dir:data/bill-documents}")
+    private String cacheDir;
+
+    @Value("${bill-documents.cache-max-bytes:268435456}")
+    private long maxBytes;
+
+    @Value("${bill-documents.template-version:1}")
+    private String templateVersion;
+
+    @Autowired
+    public BillDocumentServiceImpl(PdfGenerationService pdfGenerationService, BillService billService) {
+        this.pdfGenerationService = pdfGenerationService;
+        this.billService = billService;
+        this.prerenderer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1000),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bill-document-prerender");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        directory = Paths.get(cacheDir).toAbsolutePath().normalize();
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.forEach(files::add);
+        }
+        files.sort((a, b) -> Long.compare(a.toFile().lastModified(), b.toFile().lastModified()));
+        synchronized (index) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    // Left over from a write interrupted by a shutdown
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(EXTENSION)) {
+                    long size = Files.size(file);
+                    index.put(name.substring(0, name.length() - EXTENSION.length()), size);
+                    totalBytes += size;
+                }
+            }
+            evictOverLimit(null);
+        }
+        logger.info("Bill document cache at {} holds {} files ({} bytes)", directory, index.size(), totalBytes);
+    }
+
+    @Override
+    public Resource getDocument(Bill bill, DocumentType type) throws Exception {
+        String key = cacheKey(bill, type);
+        Path file = directory.resolve(key + EXTENSION);
+        Resource cached = openCached(key, file);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        byte[] content = render(bill, type);
+        storeQuietly(key, file, content, bill, type);
+        // Served from memory; the file may already be evicted again by the time it would be read
+        return new ByteArrayResource(content);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBillPaid(BillPaidEvent event) {
+        try {
+            prerenderer.execute(() -> prerender(event.billId()));
+        } catch (RejectedExecutionException e) {
+            // Rendered on first download instead
+            logger.debug("Pre-render queue full, skipping bill {}", event.billId());
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (index) {
+            stats.put("files", index.size());
+            stats.put("bytes", totalBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("prerendered", prerendered.get());
+        stats.put("prerenderQueued", prerenderer.getQueue().size());
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        prerenderer.shutdownNow();
+    }
+
+    private void prerender(Long billId) {
+        try {
+            Bill bill = billService.getBillById(billId).orElse(null);
+            if (bill == null || bill.getPaymentStatus() != Bill.PaymentStatus.PAID) {
+                return;
+            }
+            for (DocumentType type : DocumentType.values()) {
+                String key = cacheKey(bill, type);
+                Path file = directory.resolve(key + EXTENSION);
+                if (!isCached(key, file)) {
+                    storeQuietly(key, file, render(bill, type), bill, type);
+                }
+            }
+            prerendered.incrementAndGet();
+        } catch (Exception e) {
+            logger.warn("Failed to pre-render documents of bill {}: {}", billId, e.getMessage());
+        }
+    }
+
+    private byte[] render(Bill bill, DocumentType type) throws Exception {
+        if (type == DocumentType.INVOICE) {
+            return billService.generateInvoicePDF(bill);
+        }
+        return pdfGenerationService.generateBillPdf(bill);
+    }
+
+    /**
+     * Open a cached document while holding the index lock. An open file survives its
+     * eviction, so the stream stays readable until the response has been written.
+     */
+    private Resource openCached(String key, Path file) {
+        synchronized (index) {
+            Long size = index.get(key);
+            if (size == null) {
+                return null;
+            }
+            try {
+                return new CachedDocument(Files.newInputStream(file), size, key);
+            } catch (IOException e) {
+                // Removed behind the cache's back; forget it so it is rendered again
+                logger.debug("Cached bill document {} is unreadable: {}", key, e.getMessage());
+                index.remove(key);
+                totalBytes -= size;
+                return null;
+            }
+        }
+    }
+
+    private boolean isCached(String key, Path file) {
+        synchronized (index) {
+            return index.containsKey(key) && Files.exists(file);
+        }
+    }
+
+    private void storeQuietly(String key, Path file, byte[] content, Bill bill, DocumentType type) {
+        try {
+            store(key, file, content);
+        } catch (IOException e) {
+            logger.warn("Failed to cache {} of bill {}: {}", type, bill.getId(), e.getMessage());
+        }
+    }
+
+    private void store(String key, Path file, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+        try {
+            Files.write(temp, content);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        synchronized (index) {
+            Long previous = index.put(key, (long) content.length);
+            totalBytes += content.length - (previous != null ? previous : 0L);
+            evictOverLimit(key);
+        }
+    }
+
+    // Caller holds the index lock; the entry just written is never evicted
+    private void evictOverLimit(String keep) {
+        Iterator<Map.Entry<String, Long>> eldest = index.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(directory.resolve(entry.getKey() + EXTENSION));
+            } catch (IOException e) {
+                logger.warn("Failed to evict cached bill document {}: {}", entry.getKey(), e.getMessage());
+                continue;
+            }
+            totalBytes -= entry.getValue();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    // A cached file opened for one read; the length lets the response carry a Content-Length
+    private static final class CachedDocument extends InputStreamResource {
+        private final long length;
+
+        CachedDocument(InputStream stream, long length, String key) {
+            super(stream, "cached bill document " + key);
+            this.length = length;
+        }
+
+        @Override
+        public long contentLength() {
+            return length;
+        }
+    }
+
+    private String cacheKey(Bill bill, DocumentType type) {
+        LocalDateTime version = bill.getUpdatedAt() != null ? bill.getUpdatedAt() : bill.getCreatedAt();
+        String source = type + ":" + bill.getId() + ":" + version + ":" + templateVersion;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
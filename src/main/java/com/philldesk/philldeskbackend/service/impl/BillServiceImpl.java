@@ -1,15 +1,26 @@
 package com.philldesk.philldeskbackend.service.impl;
 
+import com.philldesk.philldeskbackend.dto.BillProjection;
+import com.philldesk.philldeskbackend.dto.BillTotalsProjection;
 import com.philldesk.philldeskbackend.entity.*;
 import com.philldesk.philldeskbackend.repository.BillRepository;
 import com.philldesk.philldeskbackend.repository.UserRepository;
 import com.philldesk.philldeskbackend.security.UserPrincipal;
+import com.philldesk.philldeskbackend.service.BillAnalyticsService;
+import com.philldesk.philldeskbackend.service.BillDocumentService;
 import com.philldesk.philldeskbackend.service.BillService;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -30,25 +41,68 @@ import java.util.Set;
 public class BillServiceImpl implements BillService {
 
     private static final Logger logger = LoggerFactory.getLogger(BillServiceImpl.class);
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
     private final BillRepository billRepository;
     private final UserRepository userRepository;
+    private final BillAnalyticsService billAnalyticsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BillDocumentService billDocumentService;
 
+    // The document service is lazy because it renders invoices through this service
     @Autowired
-    public BillServiceImpl(BillRepository billRepository, UserRepository userRepository) {
+    public BillServiceImpl(BillRepository billRepository, UserRepository userRepository,
+                           BillAnalyticsService billAnalyticsService, ApplicationEventPublisher eventPublisher,
+                           @Lazy BillDocumentService billDocumentService) {
         this.billRepository = billRepository;
         this.userRepository = userRepository;
+        this.billAnalyticsService = billAnalyticsService;
+        this.eventPublisher = eventPublisher;
+        this.billDocumentService = billDocumentService;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Bill> getAllBills() {
-        return billRepository.findAll();
+        return initializeItems(billRepository.findAll());
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<Bill> getAllBills(Pageable pageable) {
-        return billRepository.findAll(pageable);
+        return initializeItems(billRepository.findAll(pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<Bill> scrollBills(ScrollPosition position, int limit) {
+        return initializeItems(billRepository.findWindowBy(position, NEWEST_FIRST, Limit.of(limit)));
+    }
+
+    // List queries only fetch the summary profile; load items and their medicines in batches
+    // rather than joining them into every row
+    private <T extends Iterable<Bill>> T initializeItems(T bills) {
+        for (Bill bill : bills) {
+            bill.getBillItems().forEach(item -> Hibernate.initialize(item.getMedicine()));
+        }
+        return bills;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countBills() {
+        return billRepository.count();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BillTotalsProjection getBillTotalsByNumberPrefix(String prefix, LocalDateTime since) {
+        return billRepository.sumByBillNumberPrefixCreatedSince(prefix, since);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Bill> getRecentBillsByNumberPrefix(String prefix, int limit) {
+        return initializeItems(billRepository.findByBillNumberStartingWithOrderByCreatedAtDesc(prefix, Limit.of(limit)));
     }
 
     @Override
@@ -72,25 +126,31 @@ public class BillServiceImpl implements BillService {
     @Override
     @Transactional(readOnly = true)
     public List<Bill> getBillsByCustomer(User customer) {
-        return billRepository.findByCustomer(customer);
+        return initializeItems(billRepository.findByCustomer(customer));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Bill> getBillsByCustomerId(Long customerId) {
-        return billRepository.findByCustomerIdOrderByCreatedAtDesc(customerId);
+        return initializeItems(billRepository.findByCustomerIdOrderByCreatedAtDesc(customerId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<Bill> scrollBillsByCustomerId(Long customerId, ScrollPosition position, int limit) {
+        return initializeItems(billRepository.findWindowByCustomerId(customerId, position, NEWEST_FIRST, Limit.of(limit)));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Bill> getBillsByStatus(Bill.PaymentStatus status) {
-        return billRepository.findByPaymentStatus(status);
+        return initializeItems(billRepository.findByPaymentStatus(status));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Bill> getBillsByPaymentMethod(Bill.PaymentMethod paymentMethod) {
-        return billRepository.findByPaymentMethod(paymentMethod);
+        return initializeItems(billRepository.findByPaymentMethod(paymentMethod));
     }
 
     @Override
@@ -98,19 +158,25 @@ public class BillServiceImpl implements BillService {
     public List<Bill> getBillsByDateRange(LocalDate startDate, LocalDate endDate) {
         LocalDateTime startDateTime = startDate.atStartOfDay();
         LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
-        return billRepository.findByCreatedAtBetween(startDateTime, endDateTime);
+        return initializeItems(billRepository.findByCreatedAtBetween(startDateTime, endDateTime));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Bill> getPendingBills() {
-        return billRepository.findByPaymentStatus(Bill.PaymentStatus.PENDING);
+        return initializeItems(billRepository.findByPaymentStatus(Bill.PaymentStatus.PENDING));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BillProjection> getPendingBillSummaries() {
+        return billRepository.findBillProjectionsByPaymentStatus(Bill.PaymentStatus.PENDING);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Bill> getPaidBills() {
-        return billRepository.findByPaymentStatus(Bill.PaymentStatus.PAID);
+        return initializeItems(billRepository.findByPaymentStatus(Bill.PaymentStatus.PAID));
     }
 
     @Override
@@ -233,6 +299,7 @@ public class BillServiceImpl implements BillService {
         bill.setCreatedAt(LocalDateTime.now());
         bill.setUpdatedAt(LocalDateTime.now());
         Bill savedBill = billRepository.save(bill);
+        billAnalyticsService.recordBillCreated(savedBill);
         
         // Log bill creation for customer notification purposes
         logger.info("Bill created successfully - ID: {}, Number: {}, Customer: {}, Amount: Rs.{}, Prescription: {}", 
@@ -282,12 +349,31 @@ public class BillServiceImpl implements BillService {
             bill.setCreatedAt(existingBill.get().getCreatedAt());
         }
         bill.setUpdatedAt(LocalDateTime.now());
-        return billRepository.save(bill);
+        Bill savedBill = billRepository.save(bill);
+        recordPaymentStatus(savedBill);
+        return savedBill;
+    }
+
+    // Keeps the analytics fact store in step with the bill: paid bills are added, and a
+    // bill that is no longer paid is taken out again
+    private void recordPaymentStatus(Bill bill) {
+        if (bill.getPaymentStatus() == Bill.PaymentStatus.PAID) {
+            billAnalyticsService.recordPaidBill(bill);
+            publishPaid(bill);
+        } else {
+            billAnalyticsService.recordUnpaidBill(bill.getId());
+        }
+    }
+
+    // Lets BillDocumentServiceImpl render the documents of a paid bill ahead of the first download
+    private void publishPaid(Bill bill) {
+        eventPublisher.publishEvent(new BillPaidEvent(bill.getId()));
     }
 
     @Override
     public void deleteBill(Long id) {
         billRepository.deleteById(id);
+        billAnalyticsService.recordUnpaidBill(id);
     }
 
     @Override
@@ -301,6 +387,7 @@ public class BillServiceImpl implements BillService {
                 existingBill.setPaidAt(LocalDateTime.now());
             }
             billRepository.save(existingBill);
+            recordPaymentStatus(existingBill);
         }
     }
 
@@ -314,6 +401,7 @@ public class BillServiceImpl implements BillService {
             existingBill.setPaidAt(LocalDateTime.now());
             existingBill.setUpdatedAt(LocalDateTime.now());
             billRepository.save(existingBill);
+            recordPaymentStatus(existingBill);
         }
     }
 
@@ -350,7 +438,7 @@ public class BillServiceImpl implements BillService {
     @Override
     @Transactional(readOnly = true)
     public List<Bill> searchBills(String searchTerm) {
-        return billRepository.searchBills(searchTerm);
+        return initializeItems(billRepository.searchBills(searchTerm));
     }
 
     @Override
@@ -509,8 +597,9 @@ public class BillServiceImpl implements BillService {
                 throw new RuntimeException("No email address available");
             }
             
-            // Generate PDF content
-            byte[] pdfData = generateInvoicePDF(bill);
+            // Same cached invoice the download endpoints serve
+            byte[] pdfData = billDocumentService.getDocument(bill, BillDocumentService.DocumentType.INVOICE)
+                    .getContentAsByteArray();
             
             // Create email content
             String subject = "Invoice from PhillDesk Pharmacy - " + bill.getBillNumber();
@@ -613,6 +702,6 @@ public class BillServiceImpl implements BillService {
     @Override
     @Transactional(readOnly = true)
     public List<Bill> getOnlinePaidBillsByPharmacistWithShipping(Long pharmacistId) {
-        return billRepository.findOnlinePaidBillsByPharmacistWithShipping(pharmacistId);
+        return initializeItems(billRepository.findOnlinePaidBillsByPharmacistWithShipping(pharmacistId));
     }
 }
@@ -0,0 +1,145 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.philldesk.philldeskbackend.dto.CatalogPayload;
+import com.philldesk.philldeskbackend.service.CatalogPayloadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized catalog responses, one per endpoint variant, rebuilt when the catalog version
+ * or the day changes (the expiry flags in the body depend on the date).
+ *
+ * Concurrent requests for a stale key wait on the one build in flight for it instead of
+ * each running their own. The build (catalog query, JSON serialization and gzip) runs on
+ * the requesting thread outside any map lock, so it never holds up other keys, and its
+ * result is installed once done. Callers read the catalog version before the body, so a
+ * payload is never older than the version it is stored under.
+ */
+@Service
+public class CatalogPayloadServiceImpl implements CatalogPayloadService {
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, CatalogPayload> payloads = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<CatalogPayload>> building = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong builds = new AtomicLong();
+
+    @Value("${catalog.payload-cache.max-entries:256}")
+    private int maxEntries;
+
+    @Autowired
+    public CatalogPayloadServiceImpl(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public CatalogPayload getPayload(String key, long catalogVersion, Supplier<? extends ResponseEntity<?>> response) {
+        String today = LocalDate.now().toString();
+        while (true) {
+            CatalogPayload cached = payloads.get(key);
+            if (isCurrent(cached, catalogVersion, today)) {
+                hits.incrementAndGet();
+                return cached;
+            }
+
+            CompletableFuture<CatalogPayload> build = new CompletableFuture<>();
+            CompletableFuture<CatalogPayload> running = building.putIfAbsent(key, build);
+            if (running != null) {
+                CatalogPayload built = await(running);
+                if (isCurrent(built, catalogVersion, today)) {
+                    hits.incrementAndGet();
+                    return built;
+                }
+                // Built for an older version; look again and build a newer one if needed
+                continue;
+            }
+
+            try {
+                builds.incrementAndGet();
+                CatalogPayload payload = serialize(catalogVersion, today, response.get());
+                install(key, payload);
+                build.complete(payload);
+                return payload;
+            } catch (RuntimeException e) {
+                build.completeExceptionally(e);
+                throw e;
+            } finally {
+                building.remove(key, build);
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", payloads.size());
+        stats.put("hits", hits.get());
+        stats.put("builds", builds.get());
+        stats.put("bytes", payloads.values().stream()
+                .mapToLong(payload -> payload.json().length + (long) payload.gzippedJson().length)
+                .sum());
+        return stats;
+    }
+
+    private void install(String key, CatalogPayload payload) {
+        if (payloads.size() >= maxEntries && !payloads.containsKey(key)) {
+            payloads.clear();
+        }
+        // Keep a payload stored meanwhile for a later version
+        payloads.merge(key, payload, (existing, built) ->
+                isCurrent(existing, built.catalogVersion(), built.day()) ? existing : built);
+    }
+
+    private static CatalogPayload await(CompletableFuture<CatalogPayload> build) {
+        try {
+            return build.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isCurrent(CatalogPayload payload, long catalogVersion, String today) {
+        // A newer payload (built by a request that saw a later version) is still valid
+        return payload != null && payload.catalogVersion() >= catalogVersion && payload.day().equals(today);
+    }
+
+    private CatalogPayload serialize(long catalogVersion, String today, ResponseEntity<?> response) {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("Catalog payload response is " + response.getStatusCode());
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response.getBody());
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            HttpHeaders headers = HttpHeaders.readOnlyHttpHeaders(response.getHeaders());
+            return new CatalogPayload(catalogVersion, today, headers, json, compressed.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize catalog payload", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
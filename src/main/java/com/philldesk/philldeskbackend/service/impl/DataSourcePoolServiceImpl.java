@@ -0,0 +1,45 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.service.DataSourcePoolService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Connection pool figures per Hikari pool: just the one pool normally, primary and
+ * replica when read/write routing is configured.
+ */
+@Service
+public class DataSourcePoolServiceImpl implements DataSourcePoolService {
+
+    private final List<HikariDataSource> pools;
+
+    @Autowired
+    public DataSourcePoolServiceImpl(List<HikariDataSource> pools) {
+        this.pools = pools;
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getPoolStatistics() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (HikariDataSource pool : pools) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("maximumPoolSize", pool.getMaximumPoolSize());
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            // Null until the pool hands out its first connection
+            if (bean != null) {
+                stats.put("activeConnections", bean.getActiveConnections());
+                stats.put("idleConnections", bean.getIdleConnections());
+                stats.put("totalConnections", bean.getTotalConnections());
+                stats.put("threadsAwaitingConnection", bean.getThreadsAwaitingConnection());
+            }
+            result.put(pool.getPoolName(), stats);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.entity.CacheRegions;
+import com.philldesk.philldeskbackend.entity.CachedEntityChangedEvent;
+import com.philldesk.philldeskbackend.service.EntityCacheService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hit/miss statistics and manual eviction for the Hibernate second-level cache regions.
+ * Writes through Hibernate keep the regions consistent on their own; eviction is for rows
+ * changed behind Hibernate's back (SQL consoles, other application instances). Changes
+ * made on other instances arrive through the CacheInvalidationBus and evict the entry.
+ */
+@Service
+public class EntityCacheServiceImpl implements EntityCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityCacheServiceImpl.class);
+
+    private static final List<String> ENTITY_REGIONS = List.of(
+            CacheRegions.MEDICINES, CacheRegions.ROLES, CacheRegions.USERS);
+
+    private final SessionFactory sessionFactory;
+
+    @Autowired
+    public EntityCacheServiceImpl(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getRegionStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Map<String, Object>> regions = new LinkedHashMap<>();
+        for (String region : ENTITY_REGIONS) {
+            regions.put(region, describe(statistics.getDomainDataRegionStatistics(region)));
+        }
+        regions.put(CacheRegions.QUERY_RESULTS, describe(statistics.getQueryRegionStatistics(CacheRegions.QUERY_RESULTS)));
+
+        Map<String, Object> timestamps = new LinkedHashMap<>();
+        timestamps.put("hits", statistics.getUpdateTimestampsCacheHitCount());
+        timestamps.put("misses", statistics.getUpdateTimestampsCacheMissCount());
+        timestamps.put("puts", statistics.getUpdateTimestampsCachePutCount());
+        regions.put(CacheRegions.UPDATE_TIMESTAMPS, timestamps);
+        return regions;
+    }
+
+    @Override
+    public void evictRegion(String region) {
+        if (CacheRegions.QUERY_RESULTS.equals(region)) {
+            sessionFactory.getCache().evictQueryRegions();
+        } else if (ENTITY_REGIONS.contains(region)) {
+            sessionFactory.getCache().evictRegion(region);
+        } else {
+            throw new IllegalArgumentException("Unknown cache region: " + region);
+        }
+        logger.info("Evicted second-level cache region {}", region);
+    }
+
+    @Override
+    public void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+        logger.info("Evicted all second-level cache regions");
+    }
+
+    @EventListener
+    public void onRemoteEntityChanged(CachedEntityChangedEvent event) {
+        if (!event.remote()) {
+            return;
+        }
+        sessionFactory.getCache().evictEntityData(event.entityType(), event.id());
+        // Cached queries may have returned the old row
+        sessionFactory.getCache().evictDefaultQueryRegion();
+    }
+
+    private Map<String, Object> describe(CacheRegionStatistics region) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (region == null) {
+            return result;
+        }
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+        result.put("hits", hits);
+        result.put("misses", misses);
+        result.put("puts", region.getPutCount());
+        result.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        long size = region.getElementCountInMemory();
+        if (size != CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN) {
+            result.put("entries", size);
+        }
+        return result;
+    }
+}
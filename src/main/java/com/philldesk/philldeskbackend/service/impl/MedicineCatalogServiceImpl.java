@@ -0,0 +1,119 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.dto.MedicineChangesResponse;
+import com.philldesk.philldeskbackend.entity.CacheRegions;
+import com.philldesk.philldeskbackend.entity.CachedEntityChangedEvent;
+import com.philldesk.philldeskbackend.repository.MedicineRepository;
+import com.philldesk.philldeskbackend.repository.MedicineTombstoneRepository;
+import com.philldesk.philldeskbackend.service.MedicineCatalogService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Version and changes feed of the medicine catalog.
+ *
+ * The version is the latest medicine update or deletion time in epoch milliseconds, so
+ * it only moves forward and every medicine write moves it. It is cached in memory and
+ * dropped when a medicine change commits on this instance; changes made on another
+ * instance show up when the cached value expires. The changes feed looks back a short
+ * overlap before {@code since} to pick up rows whose transaction committed after a later
+ * timestamp was already visible; clients upsert by id, so repeats are harmless.
+ */
+@Service
+public class MedicineCatalogServiceImpl implements MedicineCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicineCatalogServiceImpl.class);
+
+    private record CachedVersion(long version, long expiresAt) {
+    }
+
+    private final MedicineRepository medicineRepository;
+    private final MedicineTombstoneRepository medicineTombstoneRepository;
+
+    private volatile CachedVersion cachedVersion;
+
+    @Value("${catalog.version-cache.ttl-ms:5000}")
+    private long versionCacheTtlMs;
+
+    @Value("${catalog.changes.overlap-ms:5000}")
+    private long changesOverlapMs;
+
+    @Value("${catalog.tombstone-retention-days:90}")
+    private int tombstoneRetentionDays;
+
+    @Autowired
+    public MedicineCatalogServiceImpl(MedicineRepository medicineRepository,
+                                      MedicineTombstoneRepository medicineTombstoneRepository) {
+        this.medicineRepository = medicineRepository;
+        this.medicineTombstoneRepository = medicineTombstoneRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getCatalogVersion() {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = cachedVersion;
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.version();
+        }
+        long version = Math.max(
+                medicineRepository.findLatestUpdatedAt().map(MedicineCatalogServiceImpl::toVersion).orElse(0L),
+                medicineTombstoneRepository.findLatestDeletedAt().map(MedicineCatalogServiceImpl::toVersion).orElse(0L));
+        cachedVersion = new CachedVersion(version, now + versionCacheTtlMs);
+        return version;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MedicineChangesResponse getChangesSince(long since) {
+        // Read the version first: anything committed while the feed is read is sent again next time
+        long version = getCatalogVersion();
+        LocalDateTime tombstoneHorizon = LocalDateTime.now().minusDays(tombstoneRetentionDays);
+        LocalDateTime from = toDateTime(since - changesOverlapMs);
+
+        if (since <= 0 || from.isBefore(tombstoneHorizon)) {
+            return new MedicineChangesResponse(version, true, medicineRepository.findAllSummariesByUpdatedAt(), List.of());
+        }
+        return new MedicineChangesResponse(version, false,
+                medicineRepository.findSummariesUpdatedAfter(from),
+                medicineTombstoneRepository.findMedicineIdsDeletedAfter(from));
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${catalog.tombstone-cleanup.cron:0 45 3 * * ?}")
+    public int purgeExpiredTombstones() {
+        int deleted = medicineTombstoneRepository.deleteDeletedBefore(
+                LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        if (deleted > 0) {
+            logger.info("Deleted {} expired medicine tombstones", deleted);
+        }
+        return deleted;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMedicineChanged(CachedEntityChangedEvent event) {
+        if (CacheRegions.MEDICINES.equals(event.region())) {
+            cachedVersion = null;
+        }
+    }
+
+    private static long toVersion(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long version) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(Math.max(version, 0)), ZoneId.systemDefault());
+    }
+}
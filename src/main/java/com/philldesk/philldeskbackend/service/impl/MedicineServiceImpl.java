@@ -1,15 +1,26 @@
 package com.philldesk.philldeskbackend.service.impl;
 
+import com.philldesk.philldeskbackend.config.Coalesced;
+import com.philldesk.philldeskbackend.dto.CategoryCountProjection;
+import com.philldesk.philldeskbackend.dto.InventoryTotalsProjection;
+import com.philldesk.philldeskbackend.dto.MedicineSummaryProjection;
 import com.philldesk.philldeskbackend.entity.Medicine;
+import com.philldesk.philldeskbackend.entity.MedicineTombstone;
 import com.philldesk.philldeskbackend.repository.MedicineRepository;
+import com.philldesk.philldeskbackend.repository.MedicineTombstoneRepository;
 import com.philldesk.philldeskbackend.service.MedicineService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -19,10 +30,13 @@ import java.util.Optional;
 public class MedicineServiceImpl implements MedicineService {
 
     private final MedicineRepository medicineRepository;
+    private final MedicineTombstoneRepository medicineTombstoneRepository;
 
     @Autowired
-    public MedicineServiceImpl(MedicineRepository medicineRepository) {
+    public MedicineServiceImpl(MedicineRepository medicineRepository,
+                               MedicineTombstoneRepository medicineTombstoneRepository) {
         this.medicineRepository = medicineRepository;
+        this.medicineTombstoneRepository = medicineTombstoneRepository;
     }
 
     @Override
@@ -37,6 +51,18 @@ public class MedicineServiceImpl implements MedicineService {
         return medicineRepository.findAll(pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Window<MedicineSummaryProjection> scrollMedicines(ScrollPosition position, int limit) {
+        return medicineRepository.findSummaryWindowBy(position, Sort.by("name", "id"), Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MedicineSummaryProjection> getMedicineSummaries(Pageable pageable) {
+        return medicineRepository.findSummaryPageBy(pageable);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<Medicine> getMedicineById(Long id) {
@@ -73,6 +99,26 @@ public class MedicineServiceImpl implements MedicineService {
         return medicineRepository.findLowStockMedicines();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public long countMedicines() {
+        return medicineRepository.count();
+    }
+
+    @Override
+    @Coalesced
+    @Transactional(readOnly = true)
+    public InventoryTotalsProjection getInventoryTotals() {
+        return medicineRepository.sumInventoryTotals();
+    }
+
+    @Override
+    @Coalesced
+    @Transactional(readOnly = true)
+    public List<CategoryCountProjection> getCategoryCounts() {
+        return List.copyOf(medicineRepository.countByCategory());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Medicine> getMedicinesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
@@ -88,6 +134,48 @@ public class MedicineServiceImpl implements MedicineService {
         return medicineRepository.searchMedicines(searchTerm);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<MedicineSummaryProjection> getMedicineSummariesByManufacturer(String manufacturer) {
+        return medicineRepository.findSummariesByManufacturer(manufacturer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MedicineSummaryProjection> getMedicineSummariesByCategory(String category) {
+        return medicineRepository.findSummariesByCategory(category);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MedicineSummaryProjection> getAvailableMedicineSummaries() {
+        return medicineRepository.findSummariesByIsActiveTrue();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MedicineSummaryProjection> getLowStockMedicineSummaries(Integer threshold) {
+        return medicineRepository.findLowStockSummaries();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MedicineSummaryProjection> getMedicineSummariesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        return medicineRepository.findSummariesByIsActiveTrueAndUnitPriceBetween(minPrice, maxPrice);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MedicineSummaryProjection> searchMedicineSummaries(String searchTerm) {
+        return medicineRepository.searchMedicineSummaries(searchTerm);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MedicineSummaryProjection> getMedicineSuggestions(String query, int limit) {
+        return medicineRepository.findSuggestionSummaries(query, LocalDate.now(), Limit.of(limit));
+    }
+
     @Override
     public Medicine saveMedicine(Medicine medicine) {
         medicine.setCreatedAt(LocalDateTime.now());
@@ -108,6 +196,8 @@ public class MedicineServiceImpl implements MedicineService {
     @Override
     public void deleteMedicine(Long id) {
         medicineRepository.deleteById(id);
+        // Lets synced clients drop the medicine (see MedicineCatalogService)
+        medicineTombstoneRepository.save(new MedicineTombstone(id, LocalDateTime.now()));
     }
 
     @Override
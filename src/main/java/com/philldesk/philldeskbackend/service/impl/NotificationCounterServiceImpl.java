@@ -0,0 +1,158 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.dto.CacheInvalidationMessage;
+import com.philldesk.philldeskbackend.repository.UserNotificationCounterRepository;
+import com.philldesk.philldeskbackend.service.CacheInvalidationBus;
+import com.philldesk.philldeskbackend.service.NotificationCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unread notification counts per user.
+ *
+ * The count lives in user_notification_counters and is changed with an atomic
+ * {@code unread_count + delta} UPDATE in the caller's transaction, so it commits or rolls
+ * back together with the notifications it counts. Reads are served from an in-memory map
+ * loaded from that row on a miss. Once a change commits the cached value is dropped, here
+ * and on the other instances, and the next read loads the committed row; applying the delta
+ * to the cached value instead would count it twice after a read that missed between the
+ * commit and the callback. Loads and evictions for a user take the same lock stripe, so a
+ * load that read the row before a commit cannot put its value back after the eviction.
+ */
+@Service
+public class NotificationCounterServiceImpl implements NotificationCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationCounterServiceImpl.class);
+
+    private static final int STRIPES = 64;
+
+    private final UserNotificationCounterRepository counterRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final Map<Long, Long> counts = new ConcurrentHashMap<>();
+    private final Object[] stripes = new Object[STRIPES];
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Value("${notifications.counter-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Autowired
+    public NotificationCounterServiceImpl(UserNotificationCounterRepository counterRepository,
+                                          CacheInvalidationBus cacheInvalidationBus) {
+        this.counterRepository = counterRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    @Override
+    public long getUnreadCount(Long userId) {
+        Long cached = counts.get(userId);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        synchronized (stripeFor(userId)) {
+            cached = counts.get(userId);
+            if (cached == null) {
+                // No row yet means the user never had a notification
+                cached = counterRepository.findUnreadCountByUserId(userId).orElse(0L);
+                if (counts.size() >= maxEntries) {
+                    evictAnother(userId);
+                }
+                counts.put(userId, cached);
+            }
+            return cached;
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjustUnreadCount(Long userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (counterRepository.addToUnreadCount(userId, delta) == 0) {
+            counterRepository.createIfMissing(userId);
+            counterRepository.addToUnreadCount(userId, delta);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(userId);
+            }
+        });
+        cacheInvalidationBus.publish(new CacheInvalidationMessage(
+                CacheInvalidationMessage.NOTIFICATION_COUNTERS, userId.toString()));
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${notifications.counter-reconcile.cron:0 45 3 * * ?}")
+    public int reconcile() {
+        int corrected = counterRepository.reconcileAll();
+        if (corrected > 0) {
+            logger.warn("Corrected {} unread notification counters", corrected);
+        }
+        // Every instance runs the reconcile, so each drops its own cached counts
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counts.clear();
+            }
+        });
+        return corrected;
+    }
+
+    @EventListener
+    public void onCounterInvalidated(CacheInvalidationMessage message) {
+        if (CacheInvalidationMessage.NOTIFICATION_COUNTERS.equals(message.region())) {
+            evict(Long.valueOf(message.key()));
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", counts.size());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        return stats;
+    }
+
+    private void evict(Long userId) {
+        synchronized (stripeFor(userId)) {
+            counts.remove(userId);
+        }
+    }
+
+    // Makes room by dropping one other user's count rather than every cached count
+    private void evictAnother(Long userId) {
+        for (Long cachedUserId : counts.keySet()) {
+            if (!cachedUserId.equals(userId)) {
+                counts.remove(cachedUserId);
+                return;
+            }
+        }
+    }
+
+    private Object stripeFor(Long userId) {
+        return stripes[Long.hashCode(userId) & (STRIPES - 1)];
+    }
+}
@@ -1,21 +1,30 @@
 package com.philldesk.philldeskbackend.service.impl;
 
+import com.philldesk.philldeskbackend.dto.NotificationSummaryProjection;
 import com.philldesk.philldeskbackend.entity.Notification;
 import com.philldesk.philldeskbackend.entity.User;
 import com.philldesk.philldeskbackend.entity.Medicine;
 import com.philldesk.philldeskbackend.entity.Prescription;
+import com.philldesk.philldeskbackend.entity.Role;
 import com.philldesk.philldeskbackend.repository.NotificationRepository;
 import com.philldesk.philldeskbackend.repository.UserRepository;
 import com.philldesk.philldeskbackend.repository.MedicineRepository;
 import com.philldesk.philldeskbackend.repository.PrescriptionRepository;
+import com.philldesk.philldeskbackend.service.NotificationCounterService;
 import com.philldesk.philldeskbackend.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,16 +38,19 @@ public class NotificationServiceImpl implements NotificationService {
     private final UserRepository userRepository;
     private final MedicineRepository medicineRepository;
     private final PrescriptionRepository prescriptionRepository;
+    private final NotificationCounterService notificationCounterService;
 
     @Autowired
     public NotificationServiceImpl(NotificationRepository notificationRepository,
                                  UserRepository userRepository,
                                  MedicineRepository medicineRepository,
-                                 PrescriptionRepository prescriptionRepository) {
+                                 PrescriptionRepository prescriptionRepository,
+                                 NotificationCounterService notificationCounterService) {
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
         this.medicineRepository = medicineRepository;
         this.prescriptionRepository = prescriptionRepository;
+        this.notificationCounterService = notificationCounterService;
     }
 
     @Override
@@ -49,8 +61,15 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Notification> getAllNotifications(Pageable pageable) {
-        return notificationRepository.findAll(pageable);
+    public Page<NotificationSummaryProjection> getAllNotifications(Pageable pageable) {
+        return notificationRepository.findSummaryPageBy(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<NotificationSummaryProjection> scrollNotifications(ScrollPosition position, int limit) {
+        return notificationRepository.findSummaryWindowBy(position, Sort.by(Sort.Direction.DESC, "createdAt", "id"),
+                Limit.of(limit));
     }
 
     @Override
@@ -67,8 +86,8 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Notification> getNotificationsByUserId(Long userId) {
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    public List<NotificationSummaryProjection> getNotificationsByUserId(Long userId) {
+        return notificationRepository.findSummariesByUserIdOrderByCreatedAtDesc(userId);
     }
 
     @Override
@@ -79,20 +98,25 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Notification> getUnreadNotificationsByUserId(Long userId) {
-        return notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
+    public List<NotificationSummaryProjection> getUnreadNotificationsByUserId(Long userId) {
+        return notificationRepository.findSummariesByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Notification> getNotificationsByType(Notification.NotificationType type) {
-        return notificationRepository.findByNotificationType(type);
+    public List<NotificationSummaryProjection> getNotificationsByType(Notification.NotificationType type) {
+        return notificationRepository.findSummariesByNotificationType(type);
     }
 
     @Override
     public Notification saveNotification(Notification notification) {
+        if (notification.getId() != null) {
+            return updateNotification(notification);
+        }
         notification.setCreatedAt(LocalDateTime.now());
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        countIfUnread(saved);
+        return saved;
     }
 
     @Override
@@ -100,32 +124,45 @@ public class NotificationServiceImpl implements NotificationService {
         Optional<Notification> existingNotification = notificationRepository.findById(notification.getId());
         if (existingNotification.isPresent()) {
             notification.setCreatedAt(existingNotification.get().getCreatedAt());
+            uncountIfUnread(existingNotification.get());
         }
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        countIfUnread(saved);
+        return saved;
     }
 
     @Override
     public void deleteNotification(Long id) {
+        notificationRepository.findById(id).ifPresent(this::uncountIfUnread);
         notificationRepository.deleteById(id);
     }
 
     @Override
     public void markAsRead(Long notificationId) {
         Optional<Notification> notification = notificationRepository.findById(notificationId);
-        if (notification.isPresent()) {
-            Notification existingNotification = notification.get();
-            existingNotification.markAsRead();
-            notificationRepository.save(existingNotification);
+        if (notification.isPresent()
+                && notificationRepository.markAsReadIfUnread(notificationId, LocalDateTime.now()) > 0) {
+            notificationCounterService.adjustUnreadCount(notification.get().getUser().getId(), -1);
         }
     }
 
     @Override
     public void markAllAsReadForUser(Long userId) {
-        List<Notification> unreadNotifications = notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
-        for (Notification notification : unreadNotifications) {
-            notification.markAsRead();
+        int marked = notificationRepository.markAllAsReadForUser(userId, LocalDateTime.now());
+        notificationCounterService.adjustUnreadCount(userId, -marked);
+    }
+
+    // Keep user_notification_counters in step with notifications written through this service
+    private void countIfUnread(Notification notification) {
+        if (!Boolean.TRUE.equals(notification.getIsRead())) {
+            notificationCounterService.adjustUnreadCount(notification.getUser().getId(), 1);
+        }
+    }
+
+    private void uncountIfUnread(Notification notification) {
+        if (!Boolean.TRUE.equals(notification.getIsRead())) {
+            notificationCounterService.adjustUnreadCount(notification.getUser().getId(), -1);
         }
-        notificationRepository.saveAll(unreadNotifications);
     }
 
     @Override
@@ -151,33 +188,7 @@ public class NotificationServiceImpl implements NotificationService {
             String message = String.format("Medicine '%s' is running low. Current stock: %d, Reorder level: %d", 
                     med.getName(), med.getQuantity(), med.getReorderLevel());
             
-            // Notify all pharmacists and admins
-            List<User> pharmacists = userRepository.findByRoleName(com.philldesk.philldeskbackend.entity.Role.RoleName.PHARMACIST);
-            List<User> admins = userRepository.findByRoleName(com.philldesk.philldeskbackend.entity.Role.RoleName.ADMIN);
-            
-            for (User pharmacist : pharmacists) {
-                Notification notification = new Notification();
-                notification.setUser(pharmacist);
-                notification.setTitle(title);
-                notification.setMessage(message);
-                notification.setNotificationType(Notification.NotificationType.LOW_STOCK);
-                notification.setPriority(Notification.Priority.HIGH);
-                notification.setReferenceId(medicineId);
-                notification.setReferenceType(MEDICINE_REFERENCE_TYPE);
-                saveNotification(notification);
-            }
-            
-            for (User admin : admins) {
-                Notification notification = new Notification();
-                notification.setUser(admin);
-                notification.setTitle(title);
-                notification.setMessage(message);
-                notification.setNotificationType(Notification.NotificationType.LOW_STOCK);
-                notification.setPriority(Notification.Priority.HIGH);
-                notification.setReferenceId(medicineId);
-                notification.setReferenceType(MEDICINE_REFERENCE_TYPE);
-                saveNotification(notification);
-            }
+            notifyStaff(title, message, Notification.NotificationType.LOW_STOCK, medicineId);
         }
     }
 
@@ -192,33 +203,31 @@ public class NotificationServiceImpl implements NotificationService {
                     med.getBatchNumber() != null ? med.getBatchNumber() : "N/A", 
                     med.getExpiryDate());
             
-            // Notify all pharmacists and admins
-            List<User> pharmacists = userRepository.findByRoleName(com.philldesk.philldeskbackend.entity.Role.RoleName.PHARMACIST);
-            List<User> admins = userRepository.findByRoleName(com.philldesk.philldeskbackend.entity.Role.RoleName.ADMIN);
-            
-            for (User pharmacist : pharmacists) {
-                Notification notification = new Notification();
-                notification.setUser(pharmacist);
-                notification.setTitle(title);
-                notification.setMessage(message);
-                notification.setNotificationType(Notification.NotificationType.EXPIRY_ALERT);
-                notification.setPriority(Notification.Priority.HIGH);
-                notification.setReferenceId(medicineId);
-                notification.setReferenceType(MEDICINE_REFERENCE_TYPE);
-                saveNotification(notification);
-            }
-            
-            for (User admin : admins) {
-                Notification notification = new Notification();
-                notification.setUser(admin);
-                notification.setTitle(title);
-                notification.setMessage(message);
-                notification.setNotificationType(Notification.NotificationType.EXPIRY_ALERT);
-                notification.setPriority(Notification.Priority.HIGH);
-                notification.setReferenceId(medicineId);
-                notification.setReferenceType(MEDICINE_REFERENCE_TYPE);
-                saveNotification(notification);
-            }
+            notifyStaff(title, message, Notification.NotificationType.EXPIRY_ALERT, medicineId);
+        }
+    }
+
+    // Fan a medicine alert out to all pharmacists and admins. The rows are saved together
+    // so Hibernate sends them as one JDBC insert batch.
+    private void notifyStaff(String title, String message, Notification.NotificationType type, Long medicineId) {
+        List<User> recipients = new ArrayList<>(userRepository.findByRoleName(Role.RoleName.PHARMACIST));
+        recipients.addAll(userRepository.findByRoleName(Role.RoleName.ADMIN));
+        
+        List<Notification> notifications = new ArrayList<>(recipients.size());
+        for (User recipient : recipients) {
+            Notification notification = new Notification();
+            notification.setUser(recipient);
+            notification.setTitle(title);
+            notification.setMessage(message);
+            notification.setNotificationType(type);
+            notification.setPriority(Notification.Priority.HIGH);
+            notification.setReferenceId(medicineId);
+            notification.setReferenceType(MEDICINE_REFERENCE_TYPE);
+            notifications.add(notification);
+        }
+        notificationRepository.saveAll(notifications);
+        for (User recipient : recipients) {
+            notificationCounterService.adjustUnreadCount(recipient.getId(), 1);
         }
     }
 
@@ -242,9 +251,9 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Long getUnreadCountForUser(Long userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        return notificationCounterService.getUnreadCount(userId);
     }
 
     private Notification.Priority getPriorityForType(Notification.NotificationType type) {
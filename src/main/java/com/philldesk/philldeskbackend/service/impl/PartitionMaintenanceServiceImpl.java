@@ -0,0 +1,105 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.service.PartitionMaintenanceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the monthly range partitions of bills, bill_items and notifications (PostgreSQL
+ * only, see db/migration/postgresql/V6) ahead of the calendar and moves notification
+ * months that fall out of retention into the archive schema.
+ *
+ * Bill partitions are never detached: bills leave the hot tables through ArchiveService,
+ * which keeps settled bills readable from archived_bills and leaves unsettled ones where
+ * the bill endpoints find them. Detaching a bill month as well would take exactly those
+ * unsettled bills out of sight.
+ */
+@Service
+@ConditionalOnProperty(name = "partitioning.enabled", havingValue = "true")
+public class PartitionMaintenanceServiceImpl implements PartitionMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceServiceImpl.class);
+
+    private static final List<String> BILL_TABLES = List.of("bills", "bill_items");
+    private static final String NOTIFICATION_TABLE = "notifications";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${partitioning.notifications.retention-months:12}")
+    private int notificationRetentionMonths;
+
+    @Autowired
+    public PartitionMaintenanceServiceImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        createUpcomingPartitions();
+    }
+
+    @Scheduled(cron = "${partitioning.cron:0 15 1 * * *}")
+    public void maintain() {
+        try {
+            createUpcomingPartitions();
+            archiveExpiredPartitions();
+        } catch (RuntimeException e) {
+            logger.error("Partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> createUpcomingPartitions() {
+        List<String> created = new ArrayList<>();
+        Date thisMonth = Date.valueOf(LocalDate.now().withDayOfMonth(1));
+        for (String table : partitionedTables()) {
+            created.addAll(jdbcTemplate.queryForList(
+                    "SELECT ensure_monthly_partitions(?, ?, ?)", String.class, table, thisMonth, monthsAhead));
+        }
+        if (!created.isEmpty()) {
+            logger.info("Created partitions {}", created);
+        }
+        return created;
+    }
+
+    @Override
+    public List<String> archiveExpiredPartitions() {
+        List<String> archived = archive(NOTIFICATION_TABLE, notificationRetentionMonths);
+        if (!archived.isEmpty()) {
+            logger.info("Moved partitions {} to the archive schema", archived);
+        }
+        return archived;
+    }
+
+    private List<String> archive(String table, int retentionMonths) {
+        // Zero or less keeps every month
+        if (retentionMonths <= 0) {
+            return List.of();
+        }
+        Date cutoff = Date.valueOf(LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths));
+        return jdbcTemplate.queryForList(
+                "SELECT archive_monthly_partitions(?, ?)", String.class, table, cutoff);
+    }
+
+    private List<String> partitionedTables() {
+        List<String> tables = new ArrayList<>(BILL_TABLES);
+        tables.add(NOTIFICATION_TABLE);
+        return tables;
+    }
+}
@@ -6,16 +6,24 @@ import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.element.Cell;
+import com.philldesk.philldeskbackend.dto.InventoryReportRowProjection;
+import com.philldesk.philldeskbackend.dto.SalesReportRowProjection;
+import com.philldesk.philldeskbackend.dto.UserActivityReportRowProjection;
 import com.philldesk.philldeskbackend.entity.Bill;
 import com.philldesk.philldeskbackend.entity.BillItem;
 import com.philldesk.philldeskbackend.service.PdfGenerationService;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 @Service
 public class PdfGenerationServiceImpl implements PdfGenerationService {
@@ -23,6 +31,8 @@ public class PdfGenerationServiceImpl implements PdfGenerationService {
     private static final NumberFormat CURRENCY_FORMAT = NumberFormat.getCurrencyInstance(Locale.US);
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy");
     private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+    // Rows are handed to the writer in batches so large reports never sit in memory as a whole
+    private static final int TABLE_FLUSH_ROWS = 100;
 
     @Override
     public byte[] generateBillPdf(Bill bill) throws Exception {
@@ -215,6 +225,112 @@ public class PdfGenerationServiceImpl implements PdfGenerationService {
         return baos.toByteArray();
     }
 
+    @Override
+    public void writeSalesReportPdf(String dateRange, Map<String, Object> summaryStats,
+                                    Stream<SalesReportRowProjection> rows, OutputStream out) throws Exception {
+        Document document = new Document(new PdfDocument(new PdfWriter(out)));
+
+        addReportHeader(document, "Sales Report", dateRange);
+        addSummaryStats(document, summaryStats);
+        addStreamedTable(document, "Paid Bills",
+                new String[] {"Paid On", "Bill Number", "Customer", "Payment Method", "Items", "Amount"},
+                rows.iterator(), (table, row) -> {
+                    java.time.LocalDateTime paidAt = row.getPaidAt() != null ? row.getPaidAt() : row.getCreatedAt();
+                    String customer = row.getCustomerFirstName() != null
+                            ? row.getCustomerFirstName() + " " + row.getCustomerLastName()
+                            : "Walk-in";
+                    table.addCell(new Cell().add(new Paragraph(paidAt != null ? DATETIME_FORMAT.format(paidAt) : "")));
+                    table.addCell(new Cell().add(new Paragraph(row.getBillNumber())));
+                    table.addCell(new Cell().add(new Paragraph(customer)));
+                    table.addCell(new Cell().add(new Paragraph(row.getPaymentMethod() != null ? row.getPaymentMethod() : "")));
+                    table.addCell(new Cell().add(new Paragraph(String.valueOf(row.getItemCount()))));
+                    table.addCell(new Cell().add(new Paragraph(CURRENCY_FORMAT.format(row.getTotalAmount()))));
+                });
+        addReportFooter(document);
+
+        document.close();
+    }
+
+    @Override
+    public void writeInventoryReportPdf(String dateRange, Map<String, Object> summaryStats,
+                                        Stream<InventoryReportRowProjection> rows, OutputStream out) throws Exception {
+        Document document = new Document(new PdfDocument(new PdfWriter(out)));
+
+        addReportHeader(document, "Inventory Report", dateRange);
+        addSummaryStats(document, summaryStats);
+        addStreamedTable(document, "Stock Levels",
+                new String[] {"Category", "Medicine", "In Stock", "Reorder Level", "Unit Price", "Expiry Date"},
+                rows.iterator(), (table, row) -> {
+                    String name = row.getStrength() != null ? row.getName() + " " + row.getStrength() : row.getName();
+                    table.addCell(new Cell().add(new Paragraph(row.getCategory() != null ? row.getCategory() : "")));
+                    table.addCell(new Cell().add(new Paragraph(name)));
+                    table.addCell(new Cell().add(new Paragraph(String.valueOf(row.getQuantity()))));
+                    table.addCell(new Cell().add(new Paragraph(String.valueOf(row.getReorderLevel()))));
+                    table.addCell(new Cell().add(new Paragraph(row.getUnitPrice() != null ? CURRENCY_FORMAT.format(row.getUnitPrice()) : "")));
+                    table.addCell(new Cell().add(new Paragraph(row.getExpiryDate() != null ? DATE_FORMAT.format(row.getExpiryDate()) : "")));
+                });
+        addReportFooter(document);
+
+        document.close();
+    }
+
+    @Override
+    public void writeUserActivityReportPdf(String dateRange, Map<String, Object> summaryStats,
+                                           Stream<UserActivityReportRowProjection> rows, OutputStream out) throws Exception {
+        Document document = new Document(new PdfDocument(new PdfWriter(out)));
+
+        addReportHeader(document, "User Activity Report", dateRange);
+        addSummaryStats(document, summaryStats);
+        addStreamedTable(document, "Users",
+                new String[] {"Role", "User", "Status", "Member Since", "Prescriptions", "Bills"},
+                rows.iterator(), (table, row) -> {
+                    table.addCell(new Cell().add(new Paragraph(row.getRoleName())));
+                    table.addCell(new Cell().add(new Paragraph(row.getFirstName() + " " + row.getLastName() + " (" + row.getUsername() + ")")));
+                    table.addCell(new Cell().add(new Paragraph(Boolean.TRUE.equals(row.getIsActive()) ? "Active" : "Inactive")));
+                    table.addCell(new Cell().add(new Paragraph(row.getCreatedAt() != null ? DATE_FORMAT.format(row.getCreatedAt()) : "")));
+                    table.addCell(new Cell().add(new Paragraph(String.valueOf(row.getPrescriptionsHandled()))));
+                    table.addCell(new Cell().add(new Paragraph(String.valueOf(row.getBillsProcessed()))));
+                });
+        addReportFooter(document);
+
+        document.close();
+    }
+
+    /**
+     * Add a large table whose rows are pulled from the iterator and flushed to the
+     * writer every few rows, so only the current batch is held in memory.
+     */
+    private <T> void addStreamedTable(Document document, String title, String[] headers,
+                                      Iterator<T> rows, BiConsumer<Table, T> rowWriter) {
+        Paragraph tableTitle = new Paragraph(title)
+                .setFontSize(12)
+                .setBold()
+                .setMarginTop(20)
+                .setMarginBottom(10);
+        document.add(tableTitle);
+
+        if (!rows.hasNext()) {
+            document.add(new Paragraph("No records for this period.").setFontSize(10));
+            return;
+        }
+
+        Table table = new Table(com.itextpdf.layout.properties.UnitValue.createPercentArray(headers.length), true);
+        table.setWidth(com.itextpdf.layout.properties.UnitValue.createPercentValue(100));
+        for (String header : headers) {
+            table.addHeaderCell(new Cell().add(new Paragraph(header)).setBold());
+        }
+        document.add(table);
+
+        int written = 0;
+        while (rows.hasNext()) {
+            rowWriter.accept(table, rows.next());
+            if (++written % TABLE_FLUSH_ROWS == 0) {
+                table.flush();
+            }
+        }
+        table.complete();
+    }
+
     private void addReportHeader(Document document, String title, String dateRange) {
         // Company header
         Paragraph header = new Paragraph()
@@ -296,6 +412,38 @@ public class PdfGenerationServiceImpl implements PdfGenerationService {
             summaryTable.addCell(new Cell().add(new Paragraph("Active Users")));
             summaryTable.addCell(new Cell().add(new Paragraph(summaryStats.get("activeUsers").toString())));
         }
+        if (summaryStats.containsKey("medianOrderValue")) {
+            summaryTable.addCell(new Cell().add(new Paragraph("Median Order Value")));
+            summaryTable.addCell(new Cell().add(new Paragraph(CURRENCY_FORMAT.format(summaryStats.get("medianOrderValue")))));
+        }
+        if (summaryStats.containsKey("p90OrderValue")) {
+            summaryTable.addCell(new Cell().add(new Paragraph("90th Percentile Order Value")));
+            summaryTable.addCell(new Cell().add(new Paragraph(CURRENCY_FORMAT.format(summaryStats.get("p90OrderValue")))));
+        }
+        if (summaryStats.containsKey("uniqueCustomers")) {
+            summaryTable.addCell(new Cell().add(new Paragraph("Unique Customers (approx.)")));
+            summaryTable.addCell(new Cell().add(new Paragraph(summaryStats.get("uniqueCustomers").toString())));
+        }
+        if (summaryStats.containsKey("totalItems")) {
+            summaryTable.addCell(new Cell().add(new Paragraph("Active Medicines")));
+            summaryTable.addCell(new Cell().add(new Paragraph(summaryStats.get("totalItems").toString())));
+        }
+        if (summaryStats.containsKey("stockValue")) {
+            summaryTable.addCell(new Cell().add(new Paragraph("Stock Value")));
+            summaryTable.addCell(new Cell().add(new Paragraph(CURRENCY_FORMAT.format(summaryStats.get("stockValue")))));
+        }
+        if (summaryStats.containsKey("lowStockItems")) {
+            summaryTable.addCell(new Cell().add(new Paragraph("Low Stock Items")));
+            summaryTable.addCell(new Cell().add(new Paragraph(summaryStats.get("lowStockItems").toString())));
+        }
+        if (summaryStats.containsKey("expiringItems")) {
+            summaryTable.addCell(new Cell().add(new Paragraph("Expiring Within 30 Days")));
+            summaryTable.addCell(new Cell().add(new Paragraph(summaryStats.get("expiringItems").toString())));
+        }
+        if (summaryStats.containsKey("totalUsers")) {
+            summaryTable.addCell(new Cell().add(new Paragraph("Total Users")));
+            summaryTable.addCell(new Cell().add(new Paragraph(summaryStats.get("totalUsers").toString())));
+        }
 
         document.add(summaryTable);
     }
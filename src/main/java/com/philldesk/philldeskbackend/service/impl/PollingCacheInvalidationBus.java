@@ -0,0 +1,76 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.dto.CacheInvalidationMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Cache invalidation bus over the cache_invalidations table, for databases without
+ * LISTEN/NOTIFY (H2). Every node appends its messages and polls for rows past the last id
+ * it has seen; rows older than the retention are deleted.
+ */
+@Service
+@ConditionalOnProperty(name = "cache.invalidation.mode", havingValue = "polling", matchIfMissing = true)
+public class PollingCacheInvalidationBus extends AbstractCacheInvalidationBus {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // -1 until the first poll, which starts from the rows already in the table
+    private volatile long lastSeenId = -1;
+
+    @Value("${cache.invalidation.retention-ms:600000}")
+    private long retentionMs;
+
+    @Autowired
+    public PollingCacheInvalidationBus(ApplicationEventPublisher eventPublisher, JdbcTemplate jdbcTemplate) {
+        super(eventPublisher);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    protected String mode() {
+        return "polling";
+    }
+
+    @Override
+    protected void send(String origin, CacheInvalidationMessage message) {
+        jdbcTemplate.update("INSERT INTO cache_invalidations (region, cache_key, origin, created_at) VALUES (?, ?, ?, ?)",
+                message.region(), message.key(), origin, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${cache.invalidation.poll-ms:1000}")
+    public void poll() {
+        try {
+            if (lastSeenId < 0) {
+                Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM cache_invalidations", Long.class);
+                lastSeenId = maxId != null ? maxId : 0;
+                return;
+            }
+            jdbcTemplate.query("SELECT id, region, cache_key, origin FROM cache_invalidations WHERE id > ? ORDER BY id",
+                    rs -> {
+                        dispatch(rs.getString("origin"), rs.getString("region"), rs.getString("cache_key"));
+                        lastSeenId = rs.getLong("id");
+                    }, lastSeenId);
+        } catch (Exception e) {
+            logger.warn("Failed to poll cache invalidations: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache.invalidation.purge-ms:60000}")
+    public void purge() {
+        try {
+            jdbcTemplate.update("DELETE FROM cache_invalidations WHERE created_at < ?",
+                    Timestamp.valueOf(LocalDateTime.now().minusNanos(retentionMs * 1_000_000)));
+        } catch (Exception e) {
+            logger.warn("Failed to purge cache invalidations: {}", e.getMessage());
+        }
+    }
+}
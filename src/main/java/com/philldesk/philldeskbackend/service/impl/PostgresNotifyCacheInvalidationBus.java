@@ -0,0 +1,125 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.dto.CacheInvalidationMessage;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Cache invalidation bus over PostgreSQL NOTIFY / LISTEN.
+ *
+ * Messages go out with pg_notify on a pooled connection. Each node listens on its own
+ * connection opened outside the pool, so the listener neither holds a pool slot nor gets
+ * recycled by Hikari. If that connection drops it is reopened after a pause; messages sent
+ * in between are missed and those entries refresh when their cache expiry runs out.
+ */
+@Service
+@ConditionalOnProperty(name = "cache.invalidation.mode", havingValue = "notify")
+public class PostgresNotifyCacheInvalidationBus extends AbstractCacheInvalidationBus {
+
+    private static final String CHANNEL = "cache_invalidation";
+    private static final String SEPARATOR = "|";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+
+    private volatile boolean running = true;
+    private Thread listener;
+
+    @Value("${cache.invalidation.listen-timeout-ms:5000}")
+    private int listenTimeoutMs;
+
+    @Value("${cache.invalidation.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    @Autowired
+    public PostgresNotifyCacheInvalidationBus(ApplicationEventPublisher eventPublisher,
+                                              JdbcTemplate jdbcTemplate,
+                                              DataSourceProperties dataSourceProperties) {
+        super(eventPublisher);
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @Override
+    protected String mode() {
+        return "notify";
+    }
+
+    @Override
+    protected void send(String origin, CacheInvalidationMessage message) {
+        String payload = origin + SEPARATOR + message.region() + SEPARATOR + message.key();
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListening() {
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+        super.destroy();
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                logger.info("Listening for cache invalidations on channel {}", CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(listenTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            received(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    logger.warn("Cache invalidation listener lost its connection: {}", e.getMessage());
+                    pause();
+                }
+            }
+        }
+    }
+
+    private void received(String payload) {
+        String[] parts = payload.split("\\" + SEPARATOR, 3);
+        if (parts.length == 3) {
+            dispatch(parts[0], parts[1], parts[2]);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(reconnectDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
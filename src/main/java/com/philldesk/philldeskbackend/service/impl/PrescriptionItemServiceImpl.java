@@ -7,6 +7,10 @@ import com.philldesk.philldeskbackend.repository.PrescriptionItemRepository;
 import com.philldesk.philldeskbackend.service.PrescriptionItemService;
 import com.philldesk.philldeskbackend.service.MedicineService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
@@ -38,6 +42,12 @@ public class PrescriptionItemServiceImpl implements PrescriptionItemService {
         return prescriptionItemRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Window<PrescriptionItem> scrollPrescriptionItems(ScrollPosition position, int limit) {
+        return prescriptionItemRepository.findWindowBy(position, Sort.by("id"), Limit.of(limit));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<PrescriptionItem> getPrescriptionItemById(Long id) {
@@ -1,5 +1,8 @@
 package com.philldesk.philldeskbackend.service.impl;
 
+import com.philldesk.philldeskbackend.config.Coalesced;
+import com.philldesk.philldeskbackend.dto.PendingPrescriptionProjection;
+import com.philldesk.philldeskbackend.dto.PrescriptionStatusCountProjection;
 import com.philldesk.philldeskbackend.entity.Prescription;
 import com.philldesk.philldeskbackend.entity.PrescriptionItem;
 import com.philldesk.philldeskbackend.entity.User;
@@ -7,10 +10,17 @@ import com.philldesk.philldeskbackend.repository.PrescriptionRepository;
 import com.philldesk.philldeskbackend.repository.UserRepository;
 import com.philldesk.philldeskbackend.service.PrescriptionService;
 import com.philldesk.philldeskbackend.service.MedicineService;
+import com.philldesk.philldeskbackend.service.PrescriptionWorkflowService;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,17 +36,23 @@ import java.util.Optional;
 @Transactional
 public class PrescriptionServiceImpl implements PrescriptionService {
 
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    private static final Sort OLDEST_FIRST = Sort.by(Sort.Direction.ASC, "createdAt", "id");
+
     private final PrescriptionRepository prescriptionRepository;
     private final UserRepository userRepository;
     private final MedicineService medicineService;
+    private final PrescriptionWorkflowService prescriptionWorkflowService;
 
     @Autowired
     public PrescriptionServiceImpl(PrescriptionRepository prescriptionRepository, 
                                  UserRepository userRepository,
-                                 MedicineService medicineService) {
+                                 MedicineService medicineService,
+                                 PrescriptionWorkflowService prescriptionWorkflowService) {
         this.prescriptionRepository = prescriptionRepository;
         this.userRepository = userRepository;
         this.medicineService = medicineService;
+        this.prescriptionWorkflowService = prescriptionWorkflowService;
     }
 
     @Override
@@ -49,24 +65,45 @@ public class PrescriptionServiceImpl implements PrescriptionService {
     @Override
     @Transactional(readOnly = true)
     public Page<Prescription> getAllPrescriptions(Pageable pageable) {
-        // For paginated results, we need to get all data with JOIN FETCH first
-        // then apply pagination manually to avoid lazy loading issues
-        List<Prescription> allPrescriptions = prescriptionRepository.findAllWithUserDetailsOrderByCreatedAtDesc();
-        
-        // Apply pagination manually
-        int pageSize = pageable.getPageSize();
-        int currentPage = pageable.getPageNumber();
-        int startItem = currentPage * pageSize;
-        
-        List<Prescription> pageContent;
-        if (allPrescriptions.size() < startItem) {
-            pageContent = new ArrayList<>();
-        } else {
-            int toIndex = Math.min(startItem + pageSize, allPrescriptions.size());
-            pageContent = allPrescriptions.subList(startItem, toIndex);
+        // Page the ids (with the count query), then load the full graph for just that page
+        Sort sort = pageable.getSort().getOrderFor("id") == null
+                ? pageable.getSort().and(Sort.by(Sort.Direction.DESC, "id"))
+                : pageable.getSort();
+        Page<Long> idPage = prescriptionRepository.findPageIds(
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort));
+        return new PageImpl<>(loadInOrder(idPage.getContent()), pageable, idPage.getTotalElements());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<Prescription> scrollPrescriptions(ScrollPosition position, int limit) {
+        return initializeItems(prescriptionRepository.findWindowBy(position, NEWEST_FIRST, Limit.of(limit)));
+    }
+
+    private List<Prescription> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
         }
-        
-        return new PageImpl<>(pageContent, pageable, allPrescriptions.size());
+        Map<Long, Prescription> byId = new HashMap<>();
+        for (Prescription prescription : prescriptionRepository.findAllByIdIn(ids)) {
+            byId.put(prescription.getId(), prescription);
+        }
+        List<Prescription> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Prescription prescription = byId.get(id);
+            if (prescription != null) {
+                ordered.add(prescription);
+            }
+        }
+        return ordered;
+    }
+
+    // Window queries only fetch the summary profile; load items and their medicines in batches
+    private Window<Prescription> initializeItems(Window<Prescription> prescriptions) {
+        for (Prescription prescription : prescriptions) {
+            prescription.getPrescriptionItems().forEach(item -> Hibernate.initialize(item.getMedicine()));
+        }
+        return prescriptions;
     }
 
     @Override
@@ -94,6 +131,13 @@ public class PrescriptionServiceImpl implements PrescriptionService {
         return prescriptionRepository.findByCustomerIdWithUserDetailsOrderByCreatedAtDesc(customerId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Window<Prescription> scrollPrescriptionsByCustomerId(Long customerId, ScrollPosition position, int limit) {
+        return initializeItems(prescriptionRepository.findWindowByCustomerId(
+                customerId, position, NEWEST_FIRST, Limit.of(limit)));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Prescription> getPrescriptionsByPharmacist(User pharmacist) {
@@ -106,12 +150,35 @@ public class PrescriptionServiceImpl implements PrescriptionService {
         return prescriptionRepository.findByPharmacistIdOrderByCreatedAtDesc(pharmacistId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Window<Prescription> scrollPrescriptionsByPharmacistId(Long pharmacistId, ScrollPosition position, int limit) {
+        return initializeItems(prescriptionRepository.findWindowByPharmacistId(
+                pharmacistId, position, NEWEST_FIRST, Limit.of(limit)));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Prescription> getPrescriptionsByStatus(Prescription.PrescriptionStatus status) {
         return prescriptionRepository.findByStatus(status);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Window<Prescription> scrollPrescriptionsByStatus(Prescription.PrescriptionStatus status,
+                                                            ScrollPosition position, int limit) {
+        // Status lists are work queues, so the oldest prescription comes first
+        return initializeItems(prescriptionRepository.findWindowByStatus(
+                status, position, OLDEST_FIRST, Limit.of(limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<Prescription> scrollPrescriptionsRequiringClarification(ScrollPosition position, int limit) {
+        return initializeItems(prescriptionRepository.findWindowByStatusAndRejectionReasonIsNotNull(
+                Prescription.PrescriptionStatus.REJECTED, position, NEWEST_FIRST, Limit.of(limit)));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Prescription> getPrescriptionsByDateRange(LocalDate startDate, LocalDate endDate) {
@@ -126,6 +193,21 @@ public class PrescriptionServiceImpl implements PrescriptionService {
         return prescriptionRepository.findByStatus(Prescription.PrescriptionStatus.PENDING);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<PendingPrescriptionProjection> getPendingPrescriptionSummaries() {
+        return prescriptionRepository.findReviewSummariesByStatusOrderByCreatedAtAscIdAsc(
+                Prescription.PrescriptionStatus.PENDING);
+    }
+
+    @Override
+    @Coalesced
+    @Transactional(readOnly = true)
+    public Window<PendingPrescriptionProjection> scrollPendingPrescriptionSummaries(ScrollPosition position, int limit) {
+        return prescriptionRepository.findReviewWindowByStatus(
+                Prescription.PrescriptionStatus.PENDING, position, OLDEST_FIRST, Limit.of(limit));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Prescription> getProcessingPrescriptions() {
@@ -138,24 +220,68 @@ public class PrescriptionServiceImpl implements PrescriptionService {
         return prescriptionRepository.findByStatus(Prescription.PrescriptionStatus.COMPLETED);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public long countPrescriptions() {
+        return prescriptionRepository.count();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countPrescriptionsByStatus(Prescription.PrescriptionStatus status) {
+        return prescriptionRepository.countByStatus(status);
+    }
+
+    @Override
+    @Coalesced
+    @Transactional(readOnly = true)
+    public List<PrescriptionStatusCountProjection> getStatusCounts() {
+        return List.copyOf(prescriptionRepository.countGroupedByStatus());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countPrescriptionsCreatedSince(LocalDateTime since) {
+        return prescriptionRepository.countCreatedSince(since);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countUrgentPrescriptions() {
+        return prescriptionRepository.countUrgent();
+    }
+
     @Override
     public Prescription savePrescription(Prescription prescription) {
+        // Existing prescriptions are also saved through here, e.g. by the expiry job
+        Prescription.PrescriptionStatus previousStatus = prescription.getId() != null
+                ? prescription.getStatusAtLoad()
+                : null;
         prescription.setCreatedAt(LocalDateTime.now());
         prescription.setUpdatedAt(LocalDateTime.now());
         if (prescription.getStatus() == null) {
             prescription.setStatus(Prescription.PrescriptionStatus.PENDING);
         }
-        return prescriptionRepository.save(prescription);
+        Prescription saved = prescriptionRepository.save(prescription);
+        prescriptionWorkflowService.recordTransition(saved, previousStatus);
+        return saved;
     }
 
     @Override
     public Prescription updatePrescription(Prescription prescription) {
+        Prescription.PrescriptionStatus previousStatus = prescription.getStatusAtLoad();
         Optional<Prescription> existingPrescription = prescriptionRepository.findById(prescription.getId());
         if (existingPrescription.isPresent()) {
             prescription.setCreatedAt(existingPrescription.get().getCreatedAt());
+            if (previousStatus == null) {
+                // Detached copy from a request body; compare against the stored row
+                previousStatus = existingPrescription.get().getStatusAtLoad();
+            }
         }
         prescription.setUpdatedAt(LocalDateTime.now());
-        return prescriptionRepository.save(prescription);
+        Prescription saved = prescriptionRepository.save(prescription);
+        prescriptionWorkflowService.recordTransition(saved, previousStatus);
+        return saved;
     }
 
     @Override
@@ -168,9 +294,11 @@ public class PrescriptionServiceImpl implements PrescriptionService {
         Optional<Prescription> prescription = prescriptionRepository.findById(prescriptionId);
         if (prescription.isPresent()) {
             Prescription existingPrescription = prescription.get();
+            Prescription.PrescriptionStatus previousStatus = existingPrescription.getStatusAtLoad();
             existingPrescription.setStatus(status);
             existingPrescription.setUpdatedAt(LocalDateTime.now());
             prescriptionRepository.save(existingPrescription);
+            prescriptionWorkflowService.recordTransition(existingPrescription, previousStatus);
         }
     }
 
@@ -0,0 +1,263 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.analytics.DailyWorkflowCounters;
+import com.philldesk.philldeskbackend.analytics.LatencyHistogram;
+import com.philldesk.philldeskbackend.entity.Prescription;
+import com.philldesk.philldeskbackend.entity.PrescriptionStatusEvent;
+import com.philldesk.philldeskbackend.repository.PrescriptionStatusEventRepository;
+import com.philldesk.philldeskbackend.security.UserPrincipal;
+import com.philldesk.philldeskbackend.service.PrescriptionWorkflowService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Records prescription status transitions in an append-only event log and keeps
+ * per-day, per-pharmacist counters and latency histograms up to date from it.
+ * Events are written in the same transaction as the status change. Every instance folds
+ * the log into its counters, its own events and those of the other instances alike: the
+ * whole retained log on startup, then whatever was added since, on a schedule and before
+ * each read, so every instance answers the same.
+ *
+ * Ids come from a pooled sequence and an event may commit after a later one, so the log
+ * is read by occurred_at from a little before the newest event seen (the overlap), and
+ * ids already folded in within that overlap are skipped.
+ *
+ * Review-to-ready latency runs from the moment a prescription enters the review
+ * queue (PENDING) to READY_FOR_PICKUP; ready-to-pickup runs from there to
+ * DISPENSED or COMPLETED.
+ */
+@Service
+@Transactional
+public class PrescriptionWorkflowServiceImpl implements PrescriptionWorkflowService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrescriptionWorkflowServiceImpl.class);
+    private static final Set<String> STAFF_AUTHORITIES = Set.of("ROLE_PHARMACIST", "ROLE_ADMIN");
+
+    private final PrescriptionStatusEventRepository eventRepository;
+    private final int retentionDays;
+    private final Duration overlap;
+    private final DailyWorkflowCounters counters =
+            new DailyWorkflowCounters(Prescription.PrescriptionStatus.values().length);
+    // Open intervals per prescription id, as epoch millis
+    private final Map<Long, Long> enteredReviewAt = new HashMap<>();
+    private final Map<Long, Long> readyAt = new HashMap<>();
+    // Newest occurred_at folded in, and the ids folded in within the overlap before it
+    private LocalDateTime watermark;
+    private final Map<Long, LocalDateTime> recentlyApplied = new HashMap<>();
+
+    @Autowired
+    public PrescriptionWorkflowServiceImpl(PrescriptionStatusEventRepository eventRepository,
+                                           @Value("${analytics.workflow.retention-days:90}") int retentionDays,
+                                           @Value("${analytics.workflow.event-overlap-ms:300000}") long overlapMs) {
+        this.eventRepository = eventRepository;
+        this.retentionDays = retentionDays;
+        this.overlap = Duration.ofMillis(overlapMs);
+        this.watermark = retentionStart().atStartOfDay().plus(overlap);
+    }
+
+    /**
+     * Build the counters from the retained part of the event log.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadEvents() {
+        long startedAt = System.currentTimeMillis();
+        long replayed = catchUp();
+        logger.info("Replayed {} prescription status events in {} ms", replayed, System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Fold in the events recorded since the last look, by this instance or another one.
+     */
+    @Scheduled(fixedDelayString = "${analytics.workflow.poll-ms:5000}")
+    @Transactional(readOnly = true)
+    public void pollEvents() {
+        catchUp();
+    }
+
+    @Override
+    public void recordTransition(Prescription prescription, Prescription.PrescriptionStatus fromStatus) {
+        Prescription.PrescriptionStatus toStatus = prescription.getStatus();
+        if (prescription.getId() == null || toStatus == null || toStatus == fromStatus) {
+            return;
+        }
+
+        PrescriptionStatusEvent event = new PrescriptionStatusEvent();
+        event.setPrescriptionId(prescription.getId());
+        event.setFromStatus(fromStatus);
+        event.setToStatus(toStatus);
+        event.setPharmacistId(resolvePharmacistId(prescription));
+        event.setOccurredAt(LocalDateTime.now());
+        eventRepository.save(event);
+
+        // The next save of this instance compares against the status just recorded;
+        // the counters pick the event up from the log like any other instance's
+        prescription.setStatusAtLoad(toStatus);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countTransitions(Prescription.PrescriptionStatus toStatus, LocalDate startDate, LocalDate endDate) {
+        catchUp();
+        return counters.totals((int) startDate.toEpochDay(), (int) endDate.toEpochDay())
+                .getTransitionsTo(toStatus.ordinal());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getWorkflowStats(LocalDate startDate, LocalDate endDate) {
+        catchUp();
+        return summarise(counters.totals((int) startDate.toEpochDay(), (int) endDate.toEpochDay()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Map<String, Object>> getPharmacistProductivity(LocalDate startDate, LocalDate endDate) {
+        catchUp();
+        Map<Long, Map<String, Object>> result = new TreeMap<>();
+        counters.totalsByPharmacist((int) startDate.toEpochDay(), (int) endDate.toEpochDay())
+                .forEach((pharmacistId, totals) -> {
+                    if (pharmacistId != DailyWorkflowCounters.UNATTRIBUTED) {
+                        result.put(pharmacistId, summarise(totals));
+                    }
+                });
+        return result;
+    }
+
+    /**
+     * Drop counters and open intervals that have fallen out of the retention window.
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    public synchronized void pruneExpired() {
+        LocalDate oldest = retentionStart();
+        counters.prune((int) oldest.toEpochDay());
+        long cutoff = oldest.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        enteredReviewAt.values().removeIf(at -> at < cutoff);
+        readyAt.values().removeIf(at -> at < cutoff);
+    }
+
+    private synchronized long catchUp() {
+        long applied = 0;
+        try (Stream<PrescriptionStatusEvent> events = eventRepository.streamSince(watermark.minus(overlap))) {
+            for (PrescriptionStatusEvent event : (Iterable<PrescriptionStatusEvent>) events::iterator) {
+                if (recentlyApplied.putIfAbsent(event.getId(), event.getOccurredAt()) == null) {
+                    apply(event);
+                    applied++;
+                    if (event.getOccurredAt().isAfter(watermark)) {
+                        watermark = event.getOccurredAt();
+                    }
+                }
+            }
+        }
+        // The next look starts at the new watermark less the overlap and cannot return these
+        LocalDateTime nextSince = watermark.minus(overlap);
+        recentlyApplied.values().removeIf(at -> at.isBefore(nextSince));
+        return applied;
+    }
+
+    private void apply(PrescriptionStatusEvent event) {
+        Long prescriptionId = event.getPrescriptionId();
+        int day = (int) event.getOccurredAt().toLocalDate().toEpochDay();
+        long at = event.getOccurredAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long pharmacistId = event.getPharmacistId() != null ? event.getPharmacistId() : DailyWorkflowCounters.UNATTRIBUTED;
+        boolean review = event.getFromStatus() == Prescription.PrescriptionStatus.PENDING;
+
+        counters.recordTransition(day, pharmacistId, event.getToStatus().ordinal(), review);
+
+        switch (event.getToStatus()) {
+            case PENDING -> enteredReviewAt.put(prescriptionId, at);
+            case READY_FOR_PICKUP -> {
+                Long started = enteredReviewAt.remove(prescriptionId);
+                if (started != null) {
+                    counters.recordReviewToReady(day, pharmacistId, at - started);
+                }
+                readyAt.put(prescriptionId, at);
+            }
+            case DISPENSED, COMPLETED -> {
+                Long ready = readyAt.remove(prescriptionId);
+                if (ready != null) {
+                    counters.recordReadyToPickup(day, pharmacistId, at - ready);
+                }
+                enteredReviewAt.remove(prescriptionId);
+            }
+            case REJECTED -> {
+                enteredReviewAt.remove(prescriptionId);
+                readyAt.remove(prescriptionId);
+            }
+            default -> {
+                // APPROVED keeps the review interval open until the prescription is ready
+            }
+        }
+    }
+
+    private Map<String, Object> summarise(DailyWorkflowCounters.Totals totals) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("submitted", totals.getTransitionsTo(Prescription.PrescriptionStatus.PENDING.ordinal()));
+        stats.put("reviewed", totals.getReviews());
+        stats.put("approved", totals.getTransitionsTo(Prescription.PrescriptionStatus.APPROVED.ordinal()));
+        stats.put("rejected", totals.getTransitionsTo(Prescription.PrescriptionStatus.REJECTED.ordinal()));
+        stats.put("readyForPickup", totals.getTransitionsTo(Prescription.PrescriptionStatus.READY_FOR_PICKUP.ordinal()));
+        stats.put("dispensed", totals.getTransitionsTo(Prescription.PrescriptionStatus.DISPENSED.ordinal()));
+        stats.put("completed", totals.getTransitionsTo(Prescription.PrescriptionStatus.COMPLETED.ordinal()));
+        stats.put("reviewToReady", summarise(totals.getReviewToReady()));
+        stats.put("readyToPickup", summarise(totals.getReadyToPickup()));
+        return stats;
+    }
+
+    private Map<String, Object> summarise(LatencyHistogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getCount());
+        summary.put("averageHours", hours(histogram.getMeanHours()));
+        summary.put("p50Hours", hours(histogram.quantileUpperBoundHours(0.5)));
+        summary.put("p90Hours", hours(histogram.quantileUpperBoundHours(0.9)));
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (long[] bucket : histogram.buckets()) {
+            buckets.put(bucket[0] < 0 ? "longer" : "<" + bucket[0] + "m", bucket[1]);
+        }
+        summary.put("buckets", buckets);
+        return summary;
+    }
+
+    private static BigDecimal hours(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * The acting pharmacist or admin if there is one, otherwise the pharmacist
+     * assigned to the prescription.
+     */
+    private Long resolvePharmacistId(Prescription prescription) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                && principal.getAuthorities().stream().anyMatch(a -> STAFF_AUTHORITIES.contains(a.getAuthority()))) {
+            return principal.getId();
+        }
+        return prescription.getPharmacist() != null ? prescription.getPharmacist().getId() : null;
+    }
+
+    private LocalDate retentionStart() {
+        return LocalDate.now().minusDays(retentionDays);
+    }
+}
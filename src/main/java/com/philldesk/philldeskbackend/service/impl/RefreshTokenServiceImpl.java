@@ -0,0 +1,160 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.dto.JwtResponse;
+import com.philldesk.philldeskbackend.entity.RefreshToken;
+import com.philldesk.philldeskbackend.entity.User;
+import com.philldesk.philldeskbackend.exception.InvalidRefreshTokenException;
+import com.philldesk.philldeskbackend.repository.RefreshTokenRepository;
+import com.philldesk.philldeskbackend.repository.UserRepository;
+import com.philldesk.philldeskbackend.security.JwtUtils;
+import com.philldesk.philldeskbackend.security.TokenRevocationService;
+import com.philldesk.philldeskbackend.security.UserPrincipal;
+import com.philldesk.philldeskbackend.service.RefreshTokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens.
+ *
+ * A refresh token is 256 random bits handed to the client once; the table keeps its
+ * SHA-256. Each use swaps it for a new pair in the same family. A token that was already
+ * rotated, or a family issued before the user's security stamp changed, revokes the whole
+ * family, which also cuts off the access tokens issued for it.
+ */
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenServiceImpl.class);
+
+    private static final String INVALID_TOKEN = "Refresh token is invalid or expired";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtUtils jwtUtils;
+    private final TokenRevocationService tokenRevocationService;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpirationMs;
+
+    @Autowired
+    public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                                   UserRepository userRepository,
+                                   JwtUtils jwtUtils,
+                                   TokenRevocationService tokenRevocationService) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtUtils = jwtUtils;
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    @Override
+    @Transactional
+    public JwtResponse issueTokens(UserPrincipal principal) {
+        String familyId = UUID.randomUUID().toString();
+        String refreshToken = store(userRepository.getReferenceById(principal.getId()), familyId,
+                principal.getSecurityStamp());
+        return response(principal, familyId, refreshToken);
+    }
+
+    @Override
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public JwtResponse rotate(String refreshToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(sha256(refreshToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException(INVALID_TOKEN));
+        LocalDateTime now = LocalDateTime.now();
+
+        if (current.getRevokedAt() != null || current.getExpiresAt().isBefore(now)) {
+            throw new InvalidRefreshTokenException(INVALID_TOKEN);
+        }
+
+        User user = current.getUser();
+        if (!Boolean.TRUE.equals(user.getIsActive()) || !user.getSecurityStamp().equals(current.getSecurityStamp())) {
+            revokeFamily(current.getFamilyId(), now);
+            throw new InvalidRefreshTokenException(INVALID_TOKEN);
+        }
+
+        if (current.getRotatedAt() != null || refreshTokenRepository.markRotated(current.getId(), now) == 0) {
+            // A rotated token came back: either the client or someone holding a copy is replaying it
+            logger.warn("Refresh token reuse detected for user {}, revoking session", user.getId());
+            revokeFamily(current.getFamilyId(), now);
+            throw new InvalidRefreshTokenException(INVALID_TOKEN);
+        }
+
+        String rotated = store(user, current.getFamilyId(), current.getSecurityStamp());
+        return response(UserPrincipal.create(user), current.getFamilyId(), rotated);
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(sha256(refreshToken))
+                .ifPresent(token -> revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${jwt.refresh-cleanup.cron:0 30 3 * * ?}")
+    public int purgeExpiredTokens() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired refresh tokens", deleted);
+        }
+        return deleted;
+    }
+
+    private String store(User user, String familyId, int securityStamp) {
+        byte[] random = new byte[32];
+        secureRandom.nextBytes(random);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken entity = new RefreshToken();
+        entity.setUser(user);
+        entity.setFamilyId(familyId);
+        entity.setTokenHash(sha256(token));
+        entity.setSecurityStamp(securityStamp);
+        entity.setCreatedAt(now);
+        entity.setExpiresAt(now.plusNanos(refreshExpirationMs * 1_000_000));
+        refreshTokenRepository.save(entity);
+        return token;
+    }
+
+    private void revokeFamily(String familyId, LocalDateTime now) {
+        refreshTokenRepository.revokeFamily(familyId, now);
+        tokenRevocationService.revoked(familyId);
+    }
+
+    private JwtResponse response(UserPrincipal principal, String familyId, String refreshToken) {
+        String accessToken = jwtUtils.generateJwtToken(principal, familyId);
+        List<String> roles = principal.getAuthorities().stream()
+                .map(item -> item.getAuthority())
+                .toList();
+        return new JwtResponse(accessToken, refreshToken, principal.getId(), principal.getUsername(),
+                principal.getEmail(), roles);
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
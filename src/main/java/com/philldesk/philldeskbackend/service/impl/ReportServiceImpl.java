@@ -0,0 +1,128 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.dto.InventoryReportRowProjection;
+import com.philldesk.philldeskbackend.dto.SalesReportRowProjection;
+import com.philldesk.philldeskbackend.dto.SalesReportTotalsProjection;
+import com.philldesk.philldeskbackend.dto.UserActivityReportRowProjection;
+import com.philldesk.philldeskbackend.repository.BillRepository;
+import com.philldesk.philldeskbackend.repository.MedicineRepository;
+import com.philldesk.philldeskbackend.repository.UserRepository;
+import com.philldesk.philldeskbackend.service.BillAnalyticsService;
+import com.philldesk.philldeskbackend.service.PdfGenerationService;
+import com.philldesk.philldeskbackend.service.ReportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Builds report PDFs entirely on the server. Summary figures come from the analytics
+ * rollups and aggregate queries; table rows are read through database cursors and
+ * handed to the PDF writer as they arrive, so a report never holds its full dataset.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReportServiceImpl implements ReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportServiceImpl.class);
+    private static final DateTimeFormatter RANGE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+    private static final int EXPIRY_WARNING_DAYS = 30;
+
+    private final BillRepository billRepository;
+    private final MedicineRepository medicineRepository;
+    private final UserRepository userRepository;
+    private final BillAnalyticsService billAnalyticsService;
+    private final PdfGenerationService pdfGenerationService;
+
+    @Autowired
+    public ReportServiceImpl(BillRepository billRepository,
+                             MedicineRepository medicineRepository,
+                             UserRepository userRepository,
+                             BillAnalyticsService billAnalyticsService,
+                             PdfGenerationService pdfGenerationService) {
+        this.billRepository = billRepository;
+        this.medicineRepository = medicineRepository;
+        this.userRepository = userRepository;
+        this.billAnalyticsService = billAnalyticsService;
+        this.pdfGenerationService = pdfGenerationService;
+    }
+
+    @Override
+    public void writeReportPdf(ReportType reportType, LocalDate startDate, LocalDate endDate, OutputStream out) throws Exception {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        long startedAt = System.currentTimeMillis();
+        String dateRange = RANGE_FORMAT.format(startDate) + " to " + RANGE_FORMAT.format(endDate);
+
+        switch (reportType) {
+            case SALES -> writeSalesReport(startDate, endDate, dateRange, out);
+            case INVENTORY -> writeInventoryReport(dateRange, out);
+            case USER_ACTIVITY -> writeUserActivityReport(startDate, endDate, dateRange, out);
+        }
+
+        logger.info("Generated {} report for {} in {} ms", reportType.getPath(), dateRange, System.currentTimeMillis() - startedAt);
+    }
+
+    private void writeSalesReport(LocalDate startDate, LocalDate endDate, String dateRange, OutputStream out) throws Exception {
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.plusDays(1).atStartOfDay();
+
+        // Totals come from the same bills as the rows below, so the header adds up to the table
+        SalesReportTotalsProjection totals = billRepository.sumSalesReportTotals(from, to);
+        BigDecimal revenue = totals.getTotalAmount().setScale(2, RoundingMode.HALF_UP);
+        long orders = totals.getBillCount();
+        Map<String, Object> percentiles = billAnalyticsService.getOrderValuePercentiles(startDate, endDate);
+
+        Map<String, Object> summaryStats = new LinkedHashMap<>();
+        summaryStats.put("totalRevenue", revenue);
+        summaryStats.put("totalInvoices", orders);
+        summaryStats.put("averageOrderValue", orders > 0
+                ? revenue.divide(BigDecimal.valueOf(orders), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+        if (percentiles.containsKey("p50")) {
+            summaryStats.put("medianOrderValue", percentiles.get("p50"));
+            summaryStats.put("p90OrderValue", percentiles.get("p90"));
+        }
+        summaryStats.put("uniqueCustomers", billAnalyticsService.estimateUniqueCustomers(startDate, endDate));
+
+        try (Stream<SalesReportRowProjection> rows = billRepository.streamSalesReportRows(from, to)) {
+            pdfGenerationService.writeSalesReportPdf(dateRange, summaryStats, rows, out);
+        }
+    }
+
+    private void writeInventoryReport(String dateRange, OutputStream out) throws Exception {
+        Map<String, Object> summaryStats = new LinkedHashMap<>();
+        summaryStats.put("totalItems", medicineRepository.countActiveMedicines());
+        summaryStats.put("stockValue", medicineRepository.calculateStockValue());
+        summaryStats.put("lowStockItems", medicineRepository.countLowStockMedicines());
+        summaryStats.put("expiringItems", medicineRepository.countExpiringMedicines(LocalDate.now().plusDays(EXPIRY_WARNING_DAYS)));
+
+        // Stock is a point-in-time view; the period is shown for context only
+        try (Stream<InventoryReportRowProjection> rows = medicineRepository.streamInventoryReportRows()) {
+            pdfGenerationService.writeInventoryReportPdf(dateRange, summaryStats, rows, out);
+        }
+    }
+
+    private void writeUserActivityReport(LocalDate startDate, LocalDate endDate, String dateRange, OutputStream out) throws Exception {
+        Map<String, Object> summaryStats = new LinkedHashMap<>();
+        summaryStats.put("totalUsers", userRepository.count());
+        summaryStats.put("activeUsers", userRepository.countByIsActiveTrue());
+
+        try (Stream<UserActivityReportRowProjection> rows = userRepository.streamUserActivityReportRows(
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay())) {
+            pdfGenerationService.writeUserActivityReportPdf(dateRange, summaryStats, rows, out);
+        }
+    }
+}
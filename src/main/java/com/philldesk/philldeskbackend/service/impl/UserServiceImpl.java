@@ -1,12 +1,18 @@
 package com.philldesk.philldeskbackend.service.impl;
 
+import com.philldesk.philldeskbackend.dto.UserSummaryProjection;
 import com.philldesk.philldeskbackend.entity.User;
 import com.philldesk.philldeskbackend.entity.Role;
 import com.philldesk.philldeskbackend.repository.UserRepository;
 import com.philldesk.philldeskbackend.service.UserService;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -40,22 +46,34 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll(pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Window<UserSummaryProjection> scrollUsers(ScrollPosition position, int limit) {
+        return userRepository.findSummaryWindowBy(position, Sort.by("id"), Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserSummaryProjection> getUserSummaries(Pageable pageable) {
+        return userRepository.findSummaryPageBy(pageable);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+        return userRepository.findById(id).map(UserServiceImpl::withRole);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<User> getUserByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userRepository.findByUsername(username).map(UserServiceImpl::withRole);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userRepository.findByEmail(email).map(UserServiceImpl::withRole);
     }
 
     @Override
@@ -70,6 +88,18 @@ public class UserServiceImpl implements UserService {
         return userRepository.findByIsActiveTrue();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSummaryProjection> getUserSummariesByRole(Role.RoleName roleName) {
+        return userRepository.findSummariesByRoleName(roleName);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSummaryProjection> getActiveUserSummaries() {
+        return userRepository.findSummariesByIsActiveTrue();
+    }
+
     @Override
     public User saveUser(User user) {
         // Encrypt password before saving
@@ -149,4 +179,11 @@ public class UserServiceImpl implements UserService {
     public boolean isEmailAvailable(String email) {
         return !userRepository.existsByEmail(email);
     }
+
+    // A user assembled from the second-level cache skips the entity graph and carries a
+    // role proxy; initialize it from the roles region while the session is still open
+    private static User withRole(User user) {
+        Hibernate.initialize(user.getRole());
+        return user;
+    }
 }
@@ -0,0 +1,17 @@
+-- Medicine catalog version and delta sync
+--
+-- The catalog version is the latest medicines.updated_at or medicine_tombstones.deleted_at
+-- in epoch milliseconds. /api/medicines/changes?since=<version> returns the rows updated
+-- after it plus the ids deleted after it; tombstones are kept for catalog.tombstone-retention-days,
+-- older clients get a full resync.
+
+UPDATE medicines SET updated_at = created_at WHERE updated_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_medicines_updated_at ON medicines(updated_at);
+
+CREATE TABLE medicine_tombstones (
+    medicine_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_medicine_tombstones_deleted_at ON medicine_tombstones(deleted_at);
@@ -0,0 +1,17 @@
+-- Cache invalidation log for the polling bus (cache.invalidation.mode=polling)
+--
+-- Nodes append one row per invalidation and poll for rows with a higher id than the last
+-- one they saw. On PostgreSQL the bus uses LISTEN/NOTIFY instead and leaves this table
+-- empty. Rows are deleted once every node has had time to poll them.
+
+CREATE SEQUENCE cache_invalidations_id_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE cache_invalidations (
+    id BIGINT DEFAULT nextval('cache_invalidations_id_seq') PRIMARY KEY,
+    region VARCHAR(50) NOT NULL,
+    cache_key VARCHAR(100) NOT NULL,
+    origin VARCHAR(36) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_cache_invalidations_created_at ON cache_invalidations(created_at);
@@ -0,0 +1,19 @@
+-- Per-user unread notification counters
+--
+-- NotificationServiceImpl adjusts a user's row in the same transaction that inserts a
+-- notification or marks one read, so the unread-count endpoints read one row instead of
+-- counting the user's notifications. Every existing user gets a row here; new users get
+-- theirs with their first notification. A nightly reconcile corrects counters that
+-- drifted, e.g. when old notification partitions are dropped.
+
+CREATE TABLE user_notification_counters (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    unread_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO user_notification_counters (user_id, unread_count, updated_at)
+SELECT u.id, COUNT(n.id), CURRENT_TIMESTAMP
+FROM users u
+LEFT JOIN notifications n ON n.user_id = u.id AND n.is_read = false
+GROUP BY u.id;
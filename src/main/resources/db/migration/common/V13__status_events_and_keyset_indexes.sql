@@ -0,0 +1,37 @@
+-- Prescription status event log and keyset pagination indexes
+--
+-- These came with the entities after the pre-Flyway schema. Databases baselined at V1
+-- never ran V1, so they are created here; IF NOT EXISTS skips what a fresh install, a
+-- Hibernate ddl-auto=update run or the PostgreSQL partitioning (V6) already created.
+
+-- ==============================================
+-- PRESCRIPTION_STATUS_EVENTS
+-- ==============================================
+CREATE SEQUENCE IF NOT EXISTS prescription_status_events_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS prescription_status_events (
+    id BIGINT DEFAULT nextval('prescription_status_events_id_seq') PRIMARY KEY,
+    prescription_id BIGINT NOT NULL,
+    from_status VARCHAR(20),
+    to_status VARCHAR(20) NOT NULL,
+    pharmacist_id BIGINT,
+    occurred_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_prescription_status_events_occurred_at ON prescription_status_events(occurred_at);
+CREATE INDEX IF NOT EXISTS idx_prescription_status_events_prescription ON prescription_status_events(prescription_id);
+
+-- ==============================================
+-- KEYSET PAGINATION (sort key plus id)
+-- ==============================================
+CREATE INDEX IF NOT EXISTS idx_medicines_name_id ON medicines(name, id);
+
+CREATE INDEX IF NOT EXISTS idx_prescriptions_created_at_id ON prescriptions(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_prescriptions_customer_created_at_id ON prescriptions(customer_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_prescriptions_pharmacist_created_at_id ON prescriptions(pharmacist_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_prescriptions_status_created_at_id ON prescriptions(status, created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_bills_created_at_id ON bills(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_bills_customer_created_at_id ON bills(customer_id, created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_created_at_id ON notifications(created_at, id);
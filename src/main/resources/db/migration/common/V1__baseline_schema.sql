@@ -1,14 +1,17 @@
 -- PhillDesk Database Schema
--- This file contains the database schema for the PhillDesk Online Pharmacy Management System
-
--- Create Database (run this separately if needed)
--- CREATE DATABASE philldesk_db;
+-- Baseline for the PhillDesk Online Pharmacy Management System. Existing databases are
+-- baselined at this version (spring.flyway.baseline-on-migrate) and only run later scripts.
+--
+-- Ids come from one sequence per table; Hibernate reserves them in blocks of 50
+-- (pooled optimizer), so every increment must match the entities' allocationSize.
 
 -- ==============================================
 -- ROLES TABLE
 -- ==============================================
+CREATE SEQUENCE roles_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE roles (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('roles_id_seq') PRIMARY KEY,
     name VARCHAR(50) UNIQUE NOT NULL,
     description VARCHAR(500)
 );
@@ -22,8 +25,10 @@ INSERT INTO roles (name, description) VALUES
 -- ==============================================
 -- USERS TABLE
 -- ==============================================
+CREATE SEQUENCE users_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE users (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('users_id_seq') PRIMARY KEY,
     username VARCHAR(100) UNIQUE NOT NULL,
     email VARCHAR(150) UNIQUE NOT NULL,
     password VARCHAR(255) NOT NULL,
@@ -40,8 +45,10 @@ CREATE TABLE users (
 -- ==============================================
 -- MEDICINES TABLE
 -- ==============================================
+CREATE SEQUENCE medicines_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE medicines (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('medicines_id_seq') PRIMARY KEY,
     name VARCHAR(200) NOT NULL,
     generic_name VARCHAR(200),
     manufacturer VARCHAR(100),
@@ -58,14 +65,17 @@ CREATE TABLE medicines (
     is_prescription_required BOOLEAN NOT NULL DEFAULT FALSE,
     is_active BOOLEAN NOT NULL DEFAULT TRUE,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_medicines_name_strength_form_manufacturer UNIQUE (name, strength, dosage_form, manufacturer)
 );
 
 -- ==============================================
 -- PRESCRIPTIONS TABLE
 -- ==============================================
+CREATE SEQUENCE prescriptions_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE prescriptions (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('prescriptions_id_seq') PRIMARY KEY,
     prescription_number VARCHAR(50) UNIQUE NOT NULL,
     customer_id BIGINT NOT NULL REFERENCES users(id),
     pharmacist_id BIGINT REFERENCES users(id),
@@ -81,14 +91,16 @@ CREATE TABLE prescriptions (
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     approved_at TIMESTAMP,
-    CONSTRAINT chk_prescription_status CHECK (status IN ('PENDING', 'APPROVED', 'REJECTED', 'DISPENSED', 'COMPLETED', 'READY_FOR_PICKUP'))
+    CONSTRAINT chk_prescription_status CHECK (status IN ('PENDING', 'APPROVED', 'REJECTED', 'READY_FOR_PICKUP', 'DISPENSED', 'COMPLETED'))
 );
 
 -- ==============================================
 -- PRESCRIPTION_ITEMS TABLE
 -- ==============================================
+CREATE SEQUENCE prescription_items_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE prescription_items (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('prescription_items_id_seq') PRIMARY KEY,
     prescription_id BIGINT NOT NULL REFERENCES prescriptions(id) ON DELETE CASCADE,
     medicine_id BIGINT NOT NULL REFERENCES medicines(id),
     quantity INTEGER NOT NULL,
@@ -103,8 +115,10 @@ CREATE TABLE prescription_items (
 -- ==============================================
 -- BILLS TABLE
 -- ==============================================
+CREATE SEQUENCE bills_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE bills (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('bills_id_seq') PRIMARY KEY,
     bill_number VARCHAR(50) UNIQUE NOT NULL,
     prescription_id BIGINT REFERENCES prescriptions(id),
     customer_id BIGINT NOT NULL REFERENCES users(id),
@@ -115,19 +129,23 @@ CREATE TABLE bills (
     total_amount DECIMAL(10,2) NOT NULL DEFAULT 0.00,
     payment_status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
     payment_method VARCHAR(20),
+    payment_type VARCHAR(20) DEFAULT 'PAY_ON_PICKUP',
     notes VARCHAR(500),
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     paid_at TIMESTAMP,
     CONSTRAINT chk_payment_status CHECK (payment_status IN ('PENDING', 'PAID', 'PARTIALLY_PAID', 'CANCELLED')),
-    CONSTRAINT chk_payment_method CHECK (payment_method IN ('CASH', 'CARD','ONLINE', 'BANK_TRANSFER', 'OTHER'))
+    CONSTRAINT chk_payment_method CHECK (payment_method IN ('CASH', 'CARD', 'BANK_TRANSFER', 'ONLINE', 'OTHER')),
+    CONSTRAINT chk_payment_type CHECK (payment_type IN ('ONLINE', 'PAY_ON_PICKUP'))
 );
 
 -- ==============================================
 -- BILL_ITEMS TABLE
 -- ==============================================
+CREATE SEQUENCE bill_items_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE bill_items (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('bill_items_id_seq') PRIMARY KEY,
     bill_id BIGINT NOT NULL REFERENCES bills(id) ON DELETE CASCADE,
     medicine_id BIGINT NOT NULL REFERENCES medicines(id),
     quantity INTEGER NOT NULL,
@@ -137,11 +155,50 @@ CREATE TABLE bill_items (
     notes VARCHAR(200)
 );
 
+-- ==============================================
+-- SHIPPING_DETAILS TABLE
+-- ==============================================
+CREATE SEQUENCE shipping_details_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE shipping_details (
+    id BIGINT DEFAULT nextval('shipping_details_id_seq') PRIMARY KEY,
+    bill_id BIGINT UNIQUE NOT NULL REFERENCES bills(id),
+    recipient_name VARCHAR(100) NOT NULL,
+    contact_phone VARCHAR(20) NOT NULL,
+    alternate_phone VARCHAR(20),
+    email VARCHAR(100),
+    address_line1 VARCHAR(200) NOT NULL,
+    address_line2 VARCHAR(200),
+    city VARCHAR(50) NOT NULL,
+    state_province VARCHAR(50) NOT NULL,
+    postal_code VARCHAR(20) NOT NULL,
+    country VARCHAR(50) NOT NULL,
+    delivery_instructions TEXT,
+    preferred_delivery_time VARCHAR(100),
+    shipping_status VARCHAR(30) NOT NULL DEFAULT 'PENDING',
+    tracking_number VARCHAR(100),
+    tracking_url VARCHAR(255),
+    ordered_at TIMESTAMP NOT NULL,
+    processed_at TIMESTAMP,
+    shipped_at TIMESTAMP,
+    delivered_at TIMESTAMP,
+    cancelled_at TIMESTAMP,
+    delivery_notes TEXT,
+    cancellation_reason TEXT,
+    estimated_delivery_date TIMESTAMP,
+    actual_delivery_date TIMESTAMP,
+    delivery_fee DECIMAL(10,2),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
 -- ==============================================
 -- NOTIFICATIONS TABLE
 -- ==============================================
+CREATE SEQUENCE notifications_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE notifications (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('notifications_id_seq') PRIMARY KEY,
     user_id BIGINT NOT NULL REFERENCES users(id),
     title VARCHAR(200) NOT NULL,
     message VARCHAR(1000) NOT NULL,
@@ -181,25 +238,3 @@ CREATE INDEX idx_bills_created_at ON bills(created_at);
 CREATE INDEX idx_notifications_user_id ON notifications(user_id);
 CREATE INDEX idx_notifications_is_read ON notifications(is_read);
 CREATE INDEX idx_notifications_type ON notifications(notification_type);
-
--- ==============================================
--- SAMPLE DATA FOR TESTING
--- ==============================================
-
--- Sample Admin User (password should be hashed in real application)
-INSERT INTO users (username, email, password, first_name, last_name, phone, address, role_id) 
-VALUES ('admin', 'admin@philldesk.com', '$2a$10$example', 'System', 'Administrator', '+94771234567', 'Colombo, Sri Lanka', 1);
-
--- Sample Pharmacist
-INSERT INTO users (username, email, password, first_name, last_name, phone, address, role_id) 
-VALUES ('pharmacist1', 'pharmacist@philldesk.com', '$2a$10$example', 'Dr. John', 'Perera', '+94772345678', 'Kandy, Sri Lanka', 2);
-
--- Sample Customer
-INSERT INTO users (username, email, password, first_name, last_name, phone, address, role_id) 
-VALUES ('customer1', 'customer@example.com', '$2a$10$example', 'Nimal', 'Silva', '+94773456789', 'Galle, Sri Lanka', 3);
-
--- Sample Medicines
-INSERT INTO medicines (name, generic_name, manufacturer, category, dosage_form, strength, quantity, unit_price, cost_price, expiry_date, reorder_level, is_prescription_required) VALUES 
-('Panadol', 'Paracetamol', 'GSK', 'Analgesic', 'Tablet', '500mg', 100, 25.00, 20.00, '2025-12-31', 20, FALSE),
-('Amoxil', 'Amoxicillin', 'GSK', 'Antibiotic', 'Capsule', '250mg', 50, 15.50, 12.00, '2025-06-30', 15, TRUE),
-('Voltaren', 'Diclofenac', 'Novartis', 'Anti-inflammatory', 'Tablet', '50mg', 75, 35.00, 28.00, '2025-09-15', 25, TRUE);
@@ -0,0 +1,58 @@
+-- Composite indexes for the repository queries that filter on several columns.
+-- Single-column indexes that became a prefix of one of these are dropped, since
+-- they only add write cost. IF [NOT] EXISTS keeps this safe on baselined databases
+-- whose indexes came from the old schema.sql or from Hibernate.
+
+-- ==============================================
+-- BILLS
+-- ==============================================
+-- findExpiredPayOnPickupBills / countExpiredPayOnPickupBills: type and status equality, created_at range
+CREATE INDEX IF NOT EXISTS idx_bills_status_type_created_at ON bills(payment_status, payment_type, created_at);
+-- findByPaymentStatusSimple, findBillProjectionsByPaymentStatus, paid-bill fact streams
+CREATE INDEX IF NOT EXISTS idx_bills_status_created_at ON bills(payment_status, created_at);
+-- findByPharmacistId*: pharmacist's bills newest first
+CREATE INDEX IF NOT EXISTS idx_bills_pharmacist_created_at ON bills(pharmacist_id, created_at);
+-- streamPaidBillItemFactsSince: incremental read of bills paid since the last refresh
+CREATE INDEX IF NOT EXISTS idx_bills_status_paid_at ON bills(payment_status, paid_at);
+-- bills(customer_id, created_at) is served by idx_bills_customer_created_at_id
+DROP INDEX IF EXISTS idx_bills_customer_id;
+DROP INDEX IF EXISTS idx_bills_pharmacist_id;
+DROP INDEX IF EXISTS idx_bills_payment_status;
+DROP INDEX IF EXISTS idx_bills_created_at;
+
+-- ==============================================
+-- BILL_ITEMS / PRESCRIPTION_ITEMS
+-- ==============================================
+-- Batch loading of item collections (bill_id IN ...) and the foreign key checks on delete
+CREATE INDEX IF NOT EXISTS idx_bill_items_bill_id ON bill_items(bill_id);
+CREATE INDEX IF NOT EXISTS idx_bill_items_medicine_id ON bill_items(medicine_id);
+CREATE INDEX IF NOT EXISTS idx_prescription_items_prescription_id ON prescription_items(prescription_id, is_dispensed);
+CREATE INDEX IF NOT EXISTS idx_prescription_items_medicine_id ON prescription_items(medicine_id);
+
+-- ==============================================
+-- NOTIFICATIONS
+-- ==============================================
+-- Per-user lists, unread lists and unread counts, newest first
+CREATE INDEX IF NOT EXISTS idx_notifications_user_read_created_at ON notifications(user_id, is_read, created_at);
+-- findByTypeAndDateRange
+CREATE INDEX IF NOT EXISTS idx_notifications_type_created_at ON notifications(notification_type, created_at);
+-- findByReference
+CREATE INDEX IF NOT EXISTS idx_notifications_reference ON notifications(reference_id, reference_type);
+DROP INDEX IF EXISTS idx_notifications_user_id;
+DROP INDEX IF EXISTS idx_notifications_is_read;
+DROP INDEX IF EXISTS idx_notifications_type;
+
+-- ==============================================
+-- PRESCRIPTIONS
+-- ==============================================
+-- prescriptions(status, created_at) and (customer_id, created_at) are served by the
+-- keyset indexes idx_prescriptions_status_created_at_id / _customer_created_at_id
+DROP INDEX IF EXISTS idx_prescriptions_customer_id;
+DROP INDEX IF EXISTS idx_prescriptions_pharmacist_id;
+DROP INDEX IF EXISTS idx_prescriptions_status;
+DROP INDEX IF EXISTS idx_prescriptions_created_at;
+
+-- ==============================================
+-- MEDICINES
+-- ==============================================
+DROP INDEX IF EXISTS idx_medicines_name;
@@ -0,0 +1,11 @@
+-- Bill items get their own creation time so they can be range partitioned by month
+-- alongside their bill (see postgresql/V6). Existing items take the bill's timestamp.
+
+ALTER TABLE bill_items ADD COLUMN IF NOT EXISTS created_at TIMESTAMP;
+
+UPDATE bill_items SET created_at = (SELECT b.created_at FROM bills b WHERE b.id = bill_items.bill_id)
+WHERE created_at IS NULL;
+UPDATE bill_items SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+
+ALTER TABLE bill_items ALTER COLUMN created_at SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE bill_items ALTER COLUMN created_at SET NOT NULL;
@@ -0,0 +1,32 @@
+-- Cold archive for settled prescriptions and bills
+--
+-- ArchiveService moves completed/rejected prescriptions and paid/cancelled bills older
+-- than archive.horizon-months out of the hot tables. Each archived record keeps the
+-- columns the history endpoints look it up by, plus the API response it would have
+-- produced (PrescriptionResponseDTO / BillResponseDTO) as gzip-compressed JSON.
+
+CREATE TABLE archived_prescriptions (
+    id BIGINT PRIMARY KEY,
+    prescription_number VARCHAR(50) NOT NULL,
+    customer_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    payload BYTEA NOT NULL
+);
+
+CREATE INDEX idx_archived_prescriptions_customer_created_at ON archived_prescriptions(customer_id, created_at);
+
+CREATE TABLE archived_bills (
+    id BIGINT PRIMARY KEY,
+    bill_number VARCHAR(50) NOT NULL,
+    customer_id BIGINT NOT NULL,
+    prescription_id BIGINT,
+    payment_status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    payload BYTEA NOT NULL
+);
+
+CREATE INDEX idx_archived_bills_customer_created_at ON archived_bills(customer_id, created_at);
+CREATE INDEX idx_archived_bills_prescription_id ON archived_bills(prescription_id);
@@ -0,0 +1,4 @@
+-- Security stamp: a per-user counter carried in every issued token. It is bumped when the
+-- password, active flag or role changes, which invalidates the tokens issued before.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS security_stamp INTEGER NOT NULL DEFAULT 0;
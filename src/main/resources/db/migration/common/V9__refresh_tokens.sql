@@ -0,0 +1,27 @@
+-- Rotating refresh tokens
+--
+-- Access tokens are short-lived; a client keeps its session by trading a refresh token
+-- for a new access/refresh pair. Only the SHA-256 of a refresh token is stored. Every
+-- rotation adds a row to the same family (one family per sign-in) and marks the previous
+-- row rotated; presenting a rotated token again revokes the whole family, as does a
+-- change of the user's security stamp since the family was issued. Access tokens
+-- carry the family id, and TokenRevocationService rebuilds its Bloom filter from the
+-- families revoked within the access-token lifetime.
+
+CREATE SEQUENCE refresh_tokens_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE refresh_tokens (
+    id BIGINT DEFAULT nextval('refresh_tokens_id_seq') PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    family_id VARCHAR(36) NOT NULL,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    security_stamp INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    rotated_at TIMESTAMP,
+    revoked_at TIMESTAMP
+);
+
+CREATE INDEX idx_refresh_tokens_family_id ON refresh_tokens(family_id);
+CREATE INDEX idx_refresh_tokens_revoked_at ON refresh_tokens(revoked_at);
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens(expires_at);
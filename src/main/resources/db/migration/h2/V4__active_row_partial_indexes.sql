@@ -0,0 +1,8 @@
+-- H2 has no partial indexes; lead with the flag instead so the development database
+-- answers the same queries from an index as PostgreSQL does.
+
+CREATE INDEX IF NOT EXISTS idx_medicines_active_name_id ON medicines(is_active, name, id);
+CREATE INDEX IF NOT EXISTS idx_medicines_active_category ON medicines(is_active, category);
+CREATE INDEX IF NOT EXISTS idx_medicines_active_expiry_date ON medicines(is_active, expiry_date);
+CREATE INDEX IF NOT EXISTS idx_users_active_role_id ON users(is_active, role_id);
+CREATE INDEX IF NOT EXISTS idx_notifications_unread_user_created_at ON notifications(is_read, user_id, created_at);
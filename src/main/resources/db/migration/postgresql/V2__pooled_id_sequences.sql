@@ -0,0 +1,34 @@
+-- Pooled sequence identifiers for databases created before the Flyway baseline
+--
+-- Entities take ids from <table>_id_seq with allocationSize = 50 instead of IDENTITY,
+-- which lets Hibernate batch inserts. Tables created from the old schema.sql use
+-- BIGSERIAL, tables created by Hibernate use identity columns; both already own a
+-- <table>_id_seq sequence, so only the increment changes. Column defaults are kept,
+-- so plain SQL inserts still work and draw ids from blocks Hibernate never hands out.
+-- On a database created by V1 this is a no-op.
+
+DO $$
+DECLARE
+    tbl TEXT;
+    identity_column BOOLEAN;
+BEGIN
+    FOREACH tbl IN ARRAY ARRAY[
+        'roles', 'users', 'medicines', 'prescriptions', 'prescription_items',
+        'bills', 'bill_items', 'notifications', 'shipping_details', 'prescription_status_events'
+    ] LOOP
+        IF to_regclass(tbl) IS NULL THEN
+            CONTINUE;
+        END IF;
+
+        SELECT c.is_identity = 'YES' INTO identity_column
+        FROM information_schema.columns c
+        WHERE c.table_schema = current_schema() AND c.table_name = tbl AND c.column_name = 'id';
+
+        IF identity_column THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET INCREMENT BY 50', tbl);
+        ELSE
+            EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50',
+                           COALESCE(pg_get_serial_sequence(tbl, 'id'), quote_ident(tbl || '_id_seq')));
+        END IF;
+    END LOOP;
+END $$;
@@ -0,0 +1,13 @@
+-- Partial indexes for queries that only ever read active rows. Deactivated medicines
+-- and users stay in the tables for history but drop out of these indexes.
+
+-- Catalogue search, suggestions and available lists (ordered by name, id)
+CREATE INDEX IF NOT EXISTS idx_medicines_active_name_id ON medicines(name, id) WHERE is_active;
+-- findAllCategories and category filters
+CREATE INDEX IF NOT EXISTS idx_medicines_active_category ON medicines(category) WHERE is_active;
+-- findExpiringMedicines / findMedicinesExpiringBetween / countExpiringMedicines
+CREATE INDEX IF NOT EXISTS idx_medicines_active_expiry_date ON medicines(expiry_date) WHERE is_active;
+-- findActiveUsersByRole
+CREATE INDEX IF NOT EXISTS idx_users_active_role_id ON users(role_id) WHERE is_active;
+-- Unread notifications are a small, hot subset of the table
+CREATE INDEX IF NOT EXISTS idx_notifications_unread_user_created_at ON notifications(user_id, created_at) WHERE NOT is_read;
@@ -0,0 +1,160 @@
+-- Monthly range partitioning of bills, bill_items and notifications by created_at
+--
+-- Queries that filter on created_at (findByCreatedAtBetween, getTotalRevenueBetween,
+-- deleteOldReadNotifications, ...) only touch the months they ask for, and old months
+-- leave the live tables by detaching a partition instead of a bulk DELETE.
+--
+-- Partitioning changes a few guarantees:
+-- * The primary key is (id, created_at); ids still come from <table>_id_seq and stay unique.
+-- * A partitioned table cannot be the target of a foreign key, so bill_items.bill_id and
+--   shipping_details.bill_id lose theirs. Bill items and shipping details are written and
+--   removed through the Bill aggregate (cascade), which keeps them consistent.
+-- * bill_number cannot be unique across partitions. Bill numbers are derived from the
+--   creation time, so each bills partition gets its own unique index on bill_number.
+--
+-- Partitions are named <table>_pYYYY_MM. A DEFAULT partition catches rows outside the
+-- created months; ensure_monthly_partitions() moves them into a proper partition.
+-- PartitionMaintenanceService calls the two functions below on a schedule.
+
+CREATE SCHEMA IF NOT EXISTS archive;
+
+-- Create the partitions for every month from first_month up to months_ahead months past
+-- the current one. Returns the names of the partitions it created.
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(parent TEXT, first_month DATE, months_ahead INTEGER)
+RETURNS SETOF TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    month_start DATE := date_trunc('month', first_month)::DATE;
+    last_month DATE := (date_trunc('month', CURRENT_DATE) + make_interval(months => months_ahead))::DATE;
+    month_end DATE;
+    part TEXT;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        month_end := (month_start + INTERVAL '1 month')::DATE;
+        part := format('%s_p%s', parent, to_char(month_start, 'YYYY_MM'));
+
+        IF to_regclass(part) IS NULL THEN
+            -- Build the partition standalone, pull in any rows that landed in the default
+            -- partition for this month, then attach it; attaching fails if the default
+            -- partition still holds rows of the new range.
+            EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part, parent);
+            EXECUTE format('WITH moved AS (DELETE FROM %I WHERE created_at >= %L AND created_at < %L RETURNING *) '
+                           'INSERT INTO %I SELECT * FROM moved',
+                           parent || '_default', month_start, month_end, part);
+            EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                           parent, part, month_start, month_end);
+            IF parent = 'bills' THEN
+                EXECUTE format('CREATE UNIQUE INDEX %I ON %I (bill_number)', part || '_bill_number_key', part);
+            END IF;
+            RETURN NEXT part;
+        END IF;
+
+        month_start := month_end;
+    END LOOP;
+END $$;
+
+-- Detach every monthly partition that ends on or before cutoff and move it into the archive
+-- schema, where it stays queryable until it is exported or dropped. Returns the names of the
+-- archived partitions.
+CREATE OR REPLACE FUNCTION archive_monthly_partitions(parent TEXT, cutoff DATE)
+RETURNS SETOF TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    part TEXT;
+BEGIN
+    FOR part IN
+        SELECT child.relname
+        FROM pg_inherits i
+        JOIN pg_class child ON child.oid = i.inhrelid
+        WHERE i.inhparent = parent::regclass
+          AND child.relname ~ ('^' || parent || '_p[0-9]{4}_[0-9]{2}$')
+          AND (to_date(right(child.relname, 7), 'YYYY_MM') + INTERVAL '1 month')::DATE <= cutoff
+        ORDER BY child.relname
+    LOOP
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent, part);
+        EXECUTE format('ALTER TABLE %I SET SCHEMA archive', part);
+        RETURN NEXT part;
+    END LOOP;
+END $$;
+
+-- One-off conversion of an existing table: the rows are copied into a partitioned table of
+-- the same shape, with a partition for every month that has data.
+CREATE FUNCTION pg_temp.partition_by_month(tbl TEXT)
+RETURNS VOID
+LANGUAGE plpgsql AS $$
+DECLARE
+    legacy TEXT := tbl || '_unpartitioned';
+    seq TEXT := tbl || '_id_seq';
+    identity_column BOOLEAN;
+    next_id BIGINT;
+    first_month DATE;
+BEGIN
+    SELECT c.is_identity = 'YES' INTO identity_column
+    FROM information_schema.columns c
+    WHERE c.table_schema = current_schema() AND c.table_name = tbl AND c.column_name = 'id';
+
+    IF identity_column THEN
+        -- Tables created by Hibernate use identity columns, whose sequence is dropped with
+        -- the table; the replacement sequence continues past every id handed out so far.
+        EXECUTE format('SELECT GREATEST(COALESCE(MAX(id), 0), (SELECT last_value FROM %s)) + 100 FROM %I',
+                       pg_get_serial_sequence(tbl, 'id'), tbl)
+        INTO next_id;
+    ELSE
+        -- Keep the sequence alive when the old table is dropped
+        EXECUTE format('ALTER SEQUENCE %s OWNED BY NONE',
+                       COALESCE(pg_get_serial_sequence(tbl, 'id'), quote_ident(seq)));
+    END IF;
+
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', tbl, legacy);
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS) '
+                   'PARTITION BY RANGE (created_at)', tbl, legacy);
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', tbl || '_default', tbl);
+
+    EXECUTE format('SELECT MIN(created_at)::DATE FROM %I', legacy) INTO first_month;
+    PERFORM ensure_monthly_partitions(tbl, COALESCE(first_month, CURRENT_DATE), 3);
+
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I', tbl, legacy);
+    EXECUTE format('DROP TABLE %I CASCADE', legacy);
+    EXECUTE format('ALTER TABLE %I ADD PRIMARY KEY (id, created_at)', tbl);
+
+    IF identity_column THEN
+        EXECUTE format('CREATE SEQUENCE %I INCREMENT BY 50 START WITH %s', seq, next_id);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', tbl, seq);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN created_at SET DEFAULT CURRENT_TIMESTAMP', tbl);
+    END IF;
+END $$;
+
+SELECT pg_temp.partition_by_month('bills');
+SELECT pg_temp.partition_by_month('bill_items');
+SELECT pg_temp.partition_by_month('notifications');
+
+-- ==============================================
+-- FOREIGN KEYS (outgoing references are still allowed)
+-- ==============================================
+ALTER TABLE bills ADD CONSTRAINT fk_bills_customer FOREIGN KEY (customer_id) REFERENCES users(id);
+ALTER TABLE bills ADD CONSTRAINT fk_bills_pharmacist FOREIGN KEY (pharmacist_id) REFERENCES users(id);
+ALTER TABLE bills ADD CONSTRAINT fk_bills_prescription FOREIGN KEY (prescription_id) REFERENCES prescriptions(id);
+ALTER TABLE bill_items ADD CONSTRAINT fk_bill_items_medicine FOREIGN KEY (medicine_id) REFERENCES medicines(id);
+ALTER TABLE notifications ADD CONSTRAINT fk_notifications_user FOREIGN KEY (user_id) REFERENCES users(id);
+
+-- ==============================================
+-- INDEXES (created on the parent, inherited by every partition)
+-- ==============================================
+CREATE INDEX idx_bills_created_at_id ON bills(created_at, id);
+CREATE INDEX idx_bills_customer_created_at_id ON bills(customer_id, created_at, id);
+CREATE INDEX idx_bills_status_type_created_at ON bills(payment_status, payment_type, created_at);
+CREATE INDEX idx_bills_status_created_at ON bills(payment_status, created_at);
+CREATE INDEX idx_bills_pharmacist_created_at ON bills(pharmacist_id, created_at);
+CREATE INDEX idx_bills_status_paid_at ON bills(payment_status, paid_at);
+-- findByBillNumber and findByPrescription no longer have a unique or foreign key index to use
+CREATE INDEX idx_bills_bill_number ON bills(bill_number);
+CREATE INDEX idx_bills_prescription_id ON bills(prescription_id);
+
+CREATE INDEX idx_bill_items_bill_id ON bill_items(bill_id);
+CREATE INDEX idx_bill_items_medicine_id ON bill_items(medicine_id);
+
+CREATE INDEX idx_notifications_created_at_id ON notifications(created_at, id);
+CREATE INDEX idx_notifications_user_read_created_at ON notifications(user_id, is_read, created_at);
+CREATE INDEX idx_notifications_type_created_at ON notifications(notification_type, created_at);
+CREATE INDEX idx_notifications_reference ON notifications(reference_id, reference_type);
+CREATE INDEX idx_notifications_unread_user_created_at ON notifications(user_id, created_at) WHERE NOT is_read;
@@ -0,0 +1,100 @@
+package com.philldesk.philldeskbackend.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Removed bills are tombstoned until the store is compacted; every query has to agree
+ * on what is left before and after compaction.
+ */
+class BillFactStoreTest {
+
+    @Test
+    void removedBillIsLeftOutBeforeAndAfterCompaction() {
+        BillFactStore store = new BillFactStore();
+        append(store, 1, 10, 500);
+        append(store, 2, 10, 700);
+        append(store, 3, 11, 900);
+
+        assertEquals(10, store.removeBill(2).getAsInt());
+        assertFalse(store.containsBill(2));
+        assertEquals(1400, store.sumBillTotals(10, 11));
+        assertEquals(2, store.countBills(10, 11));
+        assertEquals(List.of(1L, 3L), billIds(store));
+
+        assertTrue(store.compact());
+        assertEquals(4, store.size());
+        assertEquals(1400, store.sumBillTotals(10, 11));
+        assertEquals(2, store.countBills(10, 11));
+        assertFalse(store.compact());
+    }
+
+    @Test
+    void billPaidAgainAfterRemovalCountsOnce() {
+        BillFactStore store = new BillFactStore();
+        append(store, 1, 10, 500);
+        store.removeBill(1);
+        append(store, 1, 12, 600);
+
+        assertEquals(600, store.sumBillTotals(10, 12));
+        assertEquals(1, store.countBills(10, 12));
+        assertEquals(List.of(1L), billIds(store));
+
+        store.compact();
+        assertEquals(600, store.sumBillTotals(12, 12));
+        assertEquals(12, store.removeBill(1).getAsInt());
+        assertEquals(0, store.sumBillTotals(10, 12));
+    }
+
+    @Test
+    void compactionRestoresDayOrder() {
+        BillFactStore store = new BillFactStore();
+        append(store, 1, 20, 100);
+        append(store, 2, 10, 200);
+        append(store, 3, 15, 300);
+
+        assertTrue(store.compact());
+        List<Integer> days = new ArrayList<>();
+        store.forEachBill(0, store.size(), (billId, day, pharmacistId, customerId, quantity, total) -> days.add(day));
+        assertEquals(List.of(10, 15, 20), days);
+        assertEquals(300, store.sumBillTotals(15, 15));
+    }
+
+    @Test
+    void snapshotLeavesOutRemovedBills(@TempDir Path dir) throws IOException {
+        BillFactStore store = new BillFactStore();
+        append(store, 1, 10, 500);
+        append(store, 2, 10, 700);
+        store.removeBill(1);
+        Path snapshot = dir.resolve("facts.bin");
+        store.writeSnapshot(snapshot, 0L);
+
+        BillFactStore restored = new BillFactStore();
+        restored.loadSnapshot(snapshot);
+        assertEquals(2, restored.size());
+        assertEquals(700, restored.sumBillTotals(10, 10));
+        assertFalse(restored.containsBill(1));
+        assertTrue(restored.containsBill(2));
+    }
+
+    private static void append(BillFactStore store, long billId, int day, long total) {
+        store.appendBill(billId, day, 7L, 8L, 0, total,
+                new long[] {100L, 101L}, new int[] {1, 2}, new long[] {total / 2, total - total / 2});
+    }
+
+    private static List<Long> billIds(BillFactStore store) {
+        List<Long> ids = new ArrayList<>();
+        store.forEachBillInDays(0, 100,
+                (billId, day, pharmacistId, customerId, quantity, total) -> ids.add(billId));
+        return ids;
+    }
+}
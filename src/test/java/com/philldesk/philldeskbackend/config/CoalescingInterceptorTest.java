@@ -0,0 +1,83 @@
+package com.philldesk.philldeskbackend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrent calls of a {@link Coalesced} method with equal arguments run it once and
+ * share its result; a call after that runs it again.
+ */
+class CoalescingInterceptorTest {
+
+    record Totals(long count) {
+    }
+
+    static class Counter {
+
+        final AtomicInteger executions = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Coalesced("Counter.totals")
+        public Totals totals(String key) throws InterruptedException {
+            executions.incrementAndGet();
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new Totals(executions.get());
+        }
+    }
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsRunTheMethodOnce() throws Exception {
+        CoalescingInterceptor interceptor = CoalescingConfig.coalescingInterceptor();
+        Counter target = new Counter();
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(CoalescingConfig.coalescingAdvisor(interceptor));
+        Counter counter = (Counter) factory.getProxy();
+
+        Future<Totals> first = executor.submit(() -> counter.totals("all"));
+        assertTrue(target.started.await(5, TimeUnit.SECONDS));
+        Future<Totals> second = executor.submit(() -> counter.totals("all"));
+        // Release the first call only once the second is waiting on it
+        long deadline = System.currentTimeMillis() + 5000;
+        while (shared(interceptor) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        target.release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, target.executions.get());
+        assertEquals(1L, shared(interceptor));
+
+        counter.totals("all");
+        assertEquals(2, target.executions.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long shared(CoalescingInterceptor interceptor) {
+        Map<String, Object> methods = (Map<String, Object>) interceptor.getStatistics().get("methods");
+        Map<String, Object> totals = (Map<String, Object>) methods.get("Counter.totals");
+        return totals != null ? (Long) totals.get("shared") : 0L;
+    }
+}
@@ -0,0 +1,130 @@
+package com.philldesk.philldeskbackend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routes transactions between two H2 databases, each of which names itself, and checks
+ * when a user is kept on the primary after a write.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final long READ_YOUR_WRITES_MS = 1000;
+
+    private final TransactionTemplate readWrite;
+    private final TransactionTemplate readOnly;
+    private final JdbcTemplate jdbcTemplate;
+
+    ReadWriteRoutingDataSourceTest() {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(READ_YOUR_WRITES_MS);
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, database("primary"),
+                ReadWriteRoutingDataSource.Route.REPLICA, database("replica")));
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionReadsFromReplica() {
+        signIn("reader");
+        assertEquals("replica", readOnly.execute(status -> servedBy()));
+        assertEquals("primary", readWrite.execute(status -> servedBy()));
+    }
+
+    @Test
+    void readWriteTransactionThatOnlyReadsDoesNotPinUser() {
+        signIn("browser");
+        readWrite.executeWithoutResult(status -> servedBy());
+
+        assertEquals("replica", readOnly.execute(status -> servedBy()));
+    }
+
+    @Test
+    void committedWriteKeepsOnlyItsUserOnPrimary() {
+        signIn("writer");
+        readWrite.executeWithoutResult(status -> write());
+        assertEquals("primary", readOnly.execute(status -> servedBy()));
+
+        signIn("someone-else");
+        assertEquals("replica", readOnly.execute(status -> servedBy()));
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinUser() {
+        signIn("undoer");
+        readWrite.executeWithoutResult(status -> {
+            write();
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", readOnly.execute(status -> servedBy()));
+    }
+
+    @Test
+    void windowStartsAtCommit() {
+        signIn("slow-writer");
+        readWrite.executeWithoutResult(status -> {
+            write();
+            // Outlasts the window, which would be over by the commit if it ran from the write
+            sleep(READ_YOUR_WRITES_MS + 500);
+        });
+
+        assertEquals("primary", readOnly.execute(status -> servedBy()));
+    }
+
+    private String servedBy() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private void write() {
+        jdbcTemplate.update("INSERT INTO writes (id) VALUES (?)", UUID.randomUUID().toString());
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        jdbc.execute("CREATE TABLE writes (id VARCHAR(36) PRIMARY KEY)");
+        return dataSource;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
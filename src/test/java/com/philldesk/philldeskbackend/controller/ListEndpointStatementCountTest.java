@@ -0,0 +1,163 @@
+package com.philldesk.philldeskbackend.controller;
+
+import com.philldesk.philldeskbackend.entity.Bill;
+import com.philldesk.philldeskbackend.entity.Prescription;
+import com.philldesk.philldeskbackend.entity.Role;
+import com.philldesk.philldeskbackend.entity.User;
+import com.philldesk.philldeskbackend.repository.BillRepository;
+import com.philldesk.philldeskbackend.repository.MedicineRepository;
+import com.philldesk.philldeskbackend.repository.PrescriptionRepository;
+import com.philldesk.philldeskbackend.repository.RoleRepository;
+import com.philldesk.philldeskbackend.repository.UserRepository;
+import com.philldesk.philldeskbackend.security.UserPrincipal;
+import com.philldesk.philldeskbackend.support.SampleData;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The bill and prescription list endpoints issue a fixed number of SQL statements
+ * however many rows a page holds, and render every row with the persistence context
+ * already closed (open-in-view is off in the test profile, as in production).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListEndpointStatementCountTest {
+
+    // Page query, count or window probe, and batched loads of the lazy collections
+    private static final long MAX_STATEMENTS_PER_PAGE = 6;
+
+    private static final int ROWS = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UserPrincipal admin;
+    private User customer;
+
+    @BeforeAll
+    void createBills() {
+        SampleData data = new SampleData(userRepository, roleRepository, medicineRepository,
+                prescriptionRepository, billRepository);
+        admin = UserPrincipal.create(data.user("count-admin", Role.RoleName.ADMIN));
+        User pharmacist = data.user("count-pharmacist", Role.RoleName.PHARMACIST);
+        for (int i = 0; i < ROWS; i++) {
+            customer = data.user("count-customer", Role.RoleName.CUSTOMER);
+            Prescription prescription = data.prescription(customer, pharmacist);
+            data.bill(prescription, Bill.PaymentStatus.PENDING, BigDecimal.ONE);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/bills?limit=%d",
+            "/api/bills/paged?size=%d",
+            "/api/prescriptions?limit=%d",
+            "/api/prescriptions/paged?size=%d"
+    })
+    void statementCountDoesNotGrowWithPageSize(String endpoint) throws Exception {
+        long small = statementsFor(endpoint.formatted(2));
+        long large = statementsFor(endpoint.formatted(ROWS));
+
+        assertEquals(small, large, endpoint + " issues a statement per row");
+        assertTrue(large <= MAX_STATEMENTS_PER_PAGE,
+                endpoint + " issued " + large + " statements (budget " + MAX_STATEMENTS_PER_PAGE + ")");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/bills?limit=5", "/api/bills/paged?size=5"})
+    void billRowsCarryPrescriptionNumbers(String endpoint) throws Exception {
+        String rows = endpoint.contains("paged") ? "$.content" : "$";
+        mockMvc.perform(get(endpoint).with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(rows + ".length()").value(5))
+                .andExpect(jsonPath(rows + "[0].prescriptionNumber").isNotEmpty());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/bills/status/PENDING", "/api/bills/pending", "/api/bills/customer/%d"})
+    void unpagedBillListsRenderItemsOutsideTheSession(String endpoint) throws Exception {
+        mockMvc.perform(get(endpoint.formatted(customer.getId())).with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].prescriptionNumber").isNotEmpty())
+                .andExpect(jsonPath("$[0].billItems.length()").value(2));
+    }
+
+    @Test
+    void billListFindersDoNotJoinItems() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            List<List<Bill>> lists = List.of(
+                    billRepository.findAll(),
+                    billRepository.findByPaymentStatus(Bill.PaymentStatus.PENDING),
+                    billRepository.findByCustomerIdOrderByCreatedAtDesc(customer.getId()),
+                    billRepository.findByCreatedAtBetween(LocalDateTime.now().minusDays(1), LocalDateTime.now()));
+            for (List<Bill> bills : lists) {
+                assertFalse(bills.isEmpty());
+                bills.forEach(bill -> assertFalse(Hibernate.isInitialized(bill.getBillItems()),
+                        "bill items were joined into a list query"));
+            }
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/analytics/overview", "/api/analytics/prescriptions", "/api/analytics/inventory",
+            "/api/pharmacist/manual-billing/stats", "/api/pharmacist/manual-billing/recent"})
+    void countEndpointsAnswerFromAggregates(String endpoint) throws Exception {
+        mockMvc.perform(get(endpoint).with(user(admin))).andExpect(status().isOk());
+    }
+
+    private long statementsFor(String uri) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+        mockMvc.perform(get(uri).with(user(admin))).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount() - before;
+    }
+}
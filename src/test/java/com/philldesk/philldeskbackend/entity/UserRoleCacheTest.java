@@ -0,0 +1,117 @@
+package com.philldesk.philldeskbackend.entity;
+
+import com.philldesk.philldeskbackend.repository.RoleRepository;
+import com.philldesk.philldeskbackend.repository.UserRepository;
+import com.philldesk.philldeskbackend.security.UserPrincipal;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ManyToOne;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Users served from the second-level cache must still carry their role once the
+ * persistence context is gone (open-in-view is off in the test profile), with the
+ * association itself left lazy.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserRoleCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User customer;
+    private UserPrincipal customerPrincipal;
+    private UserPrincipal adminPrincipal;
+
+    @BeforeEach
+    void createUsers() {
+        customer = userRepository.save(newUser("cache-customer", Role.RoleName.CUSTOMER));
+        User admin = userRepository.save(newUser("cache-admin", Role.RoleName.ADMIN));
+        customerPrincipal = UserPrincipal.create(customer);
+        adminPrincipal = UserPrincipal.create(admin);
+    }
+
+    @AfterEach
+    void deleteUsers() {
+        userRepository.deleteAll(userRepository.findAllById(List.of(customer.getId(), adminPrincipal.getId())));
+    }
+
+    @Test
+    void customerProfileCarriesRoleWhenUserComesFromCache() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long hitsBefore = statistics.getDomainDataRegionStatistics(CacheRegions.USERS).getHitCount();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/customer/profile").with(user(customerPrincipal)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.role").value("CUSTOMER"));
+        }
+
+        assertTrue(statistics.getDomainDataRegionStatistics(CacheRegions.USERS).getHitCount() > hitsBefore,
+                "second profile read should be served from the users region");
+    }
+
+    @Test
+    void customerProfileViewCarriesRole() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/customer/customer-profile").with(user(customerPrincipal)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.role.name").value("CUSTOMER"));
+        }
+    }
+
+    @Test
+    void userByIdSerializesFullRole() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/users/{id}", customer.getId()).with(user(adminPrincipal)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.role.name").value("CUSTOMER"));
+        }
+    }
+
+    @Test
+    void roleStaysLazy() throws Exception {
+        ManyToOne role = User.class.getDeclaredField("role").getAnnotation(ManyToOne.class);
+        assertEquals(FetchType.LAZY, role.fetch(), "the role is initialized by the service, not fetched eagerly");
+    }
+
+    private User newUser(String username, Role.RoleName roleName) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("not-a-real-hash");
+        user.setFirstName("Cache");
+        user.setLastName("Test");
+        user.setRole(roleRepository.findByName(roleName).orElseThrow());
+        return user;
+    }
+}
@@ -0,0 +1,273 @@
+package com.philldesk.philldeskbackend.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs every repository {@code @Query} against the migrated H2 schema (PostgreSQL mode),
+ * EXPLAINs the SQL it issues and fails on a full table scan of a table that the
+ * migrations index for these queries.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RepositoryQueryPlanTest {
+
+    // Tables that carry composite, keyset or partial indexes from the migrations
+    private static final Set<String> INDEXED_TABLES = Set.of(
+            "bills", "bill_items", "prescriptions", "prescription_items", "notifications",
+            "medicines", "users", "prescription_status_events", "refresh_tokens");
+
+    // Queries that read every row by design; the value says why
+    private static final Map<String, String> EXPECTED_SCANS = Map.of(
+            "BillRepository.findByPaymentMethod", "a handful of payment methods, too few to index",
+            "BillRepository.findByTotalAmountBetween", "ad-hoc amount filter on the admin screen",
+            "PrescriptionItemRepository.findByDispensedStatus", "two-valued flag across all items",
+            "PrescriptionRepository.countUrgent", "substring search in free-text notes",
+            "UserRepository.streamUserActivityReportRows", "report row for every user");
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\* PUBLIC\\.([A-Z_]+)\\.tableScan");
+
+    private static final List<String> recordedSql = new CopyOnWriteArrayList<>();
+    private static volatile boolean recording;
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        // Records the SQL of every statement prepared while a repository query runs
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return recording(super.getConnection());
+                        }
+                    };
+                }
+            };
+        }
+
+        private static Connection recording(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                        if (recording && method.getName().startsWith("prepare") && args[0] instanceof String sql) {
+                            recordedSql.add(sql);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        List<String> problems = new ArrayList<>();
+        int explained = 0;
+
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            Class<?> repositoryInterface = repositories.getRepositoryInformationFor(domainType)
+                    .orElseThrow().getRepositoryInterface();
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+
+            List<Method> methods = Stream.of(repositoryInterface.getDeclaredMethods())
+                    .filter(method -> method.isAnnotationPresent(Query.class))
+                    .sorted(Comparator.comparing(Method::getName))
+                    .toList();
+            for (Method method : methods) {
+                String name = repositoryInterface.getSimpleName() + "." + method.getName();
+                List<String> statements;
+                try {
+                    statements = recordStatements(repository, method);
+                } catch (RuntimeException e) {
+                    problems.add(name + " could not run: " + rootMessage(e));
+                    continue;
+                }
+                for (String sql : statements) {
+                    String plan = explain(sql);
+                    explained++;
+                    Matcher scan = TABLE_SCAN.matcher(plan);
+                    while (scan.find()) {
+                        String table = scan.group(1).toLowerCase(Locale.ROOT);
+                        if (INDEXED_TABLES.contains(table) && !EXPECTED_SCANS.containsKey(name)) {
+                            problems.add(name + " scans " + table + ":\n" + plan);
+                        }
+                    }
+                }
+            }
+        }
+
+        assertTrue(explained > 0, "no repository query was explained");
+        if (!problems.isEmpty()) {
+            fail(problems.size() + " repository queries scan indexed tables:\n\n" + String.join("\n\n", problems));
+        }
+    }
+
+    private List<String> recordStatements(Object repository, Method method) {
+        Object[] args = arguments(method);
+        recordedSql.clear();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                recording = true;
+                try {
+                    Object result = method.invoke(repository, args);
+                    if (result instanceof Stream<?> stream) {
+                        try (stream) {
+                            stream.forEach(row -> { });
+                        }
+                    }
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e.getCause() != null ? e.getCause() : e);
+                } finally {
+                    recording = false;
+                }
+            });
+        } catch (RuntimeException e) {
+            // Sample arguments may break a constraint; the statement was prepared all the same
+            if (recordedSql.isEmpty()) {
+                throw e;
+            }
+        }
+        return List.copyOf(recordedSql);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (var statement = connection.prepareStatement("EXPLAIN " + sql);
+                 var resultSet = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    private static Object[] arguments(Method method) {
+        Type[] types = method.getGenericParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            args[i] = sampleValue(types[i], method);
+        }
+        return args;
+    }
+
+    private static Object sampleValue(Type type, Method method) {
+        if (type instanceof ParameterizedType parameterized
+                && Collection.class.isAssignableFrom((Class<?>) parameterized.getRawType())) {
+            return List.of(sampleValue(parameterized.getActualTypeArguments()[0], method));
+        }
+        Class<?> raw = type instanceof ParameterizedType parameterized
+                ? (Class<?>) parameterized.getRawType() : (Class<?>) type;
+        if (raw == Long.class || raw == long.class) {
+            return 1L;
+        }
+        if (raw == Integer.class || raw == int.class) {
+            return 1;
+        }
+        if (raw == Boolean.class || raw == boolean.class) {
+            return true;
+        }
+        if (raw == String.class) {
+            return "x";
+        }
+        if (raw == BigDecimal.class) {
+            return BigDecimal.ONE;
+        }
+        if (raw == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (raw == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (raw == Instant.class) {
+            return Instant.now();
+        }
+        if (raw.isEnum()) {
+            return raw.getEnumConstants()[0];
+        }
+        if (raw == Pageable.class) {
+            return PageRequest.of(0, 10);
+        }
+        if (raw == Sort.class) {
+            return Sort.unsorted();
+        }
+        if (raw == Limit.class) {
+            return Limit.of(10);
+        }
+        if (raw == ScrollPosition.class) {
+            return ScrollPosition.keyset();
+        }
+        throw new IllegalArgumentException("No sample value for " + type + " in " + method);
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getClass().getSimpleName() + ": " + root.getMessage();
+    }
+}
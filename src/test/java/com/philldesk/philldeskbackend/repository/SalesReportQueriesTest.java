@@ -0,0 +1,81 @@
+package com.philldesk.philldeskbackend.repository;
+
+import com.philldesk.philldeskbackend.dto.SalesReportRowProjection;
+import com.philldesk.philldeskbackend.dto.SalesReportTotalsProjection;
+import com.philldesk.philldeskbackend.entity.Bill;
+import com.philldesk.philldeskbackend.entity.Role;
+import com.philldesk.philldeskbackend.entity.User;
+import com.philldesk.philldeskbackend.support.SampleData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The sales report prints its summary above rows streamed from a separate query; both
+ * have to cover the same bills.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class SalesReportQueriesTest {
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Test
+    void totalsMatchTheStreamedRows() {
+        SampleData data = new SampleData(userRepository, roleRepository, medicineRepository,
+                prescriptionRepository, billRepository);
+        User pharmacist = data.user("report-pharmacist", Role.RoleName.PHARMACIST);
+        User customer = data.user("report-customer", Role.RoleName.CUSTOMER);
+        data.bill(data.prescription(customer, pharmacist), Bill.PaymentStatus.PAID, new BigDecimal("3.10"));
+        data.bill(data.prescription(customer, pharmacist), Bill.PaymentStatus.PENDING, BigDecimal.ONE);
+        Bill unstamped = data.bill(data.prescription(customer, pharmacist), Bill.PaymentStatus.PAID, BigDecimal.ONE);
+        unstamped.setPaidAt(null);
+        billRepository.saveAndFlush(unstamped);
+
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+        List<BigDecimal> amounts;
+        try (Stream<SalesReportRowProjection> rows = billRepository.streamSalesReportRows(from, to)) {
+            amounts = rows.map(SalesReportRowProjection::getTotalAmount).toList();
+        }
+        SalesReportTotalsProjection totals = billRepository.sumSalesReportTotals(from, to);
+
+        assertTrue(amounts.size() >= 2);
+        assertEquals(amounts.size(), totals.getBillCount());
+        assertEquals(0, amounts.stream().reduce(BigDecimal.ZERO, BigDecimal::add).compareTo(totals.getTotalAmount()));
+    }
+
+    @Test
+    void emptyPeriodHasZeroTotals() {
+        LocalDateTime from = LocalDate.of(1990, 1, 1).atStartOfDay();
+        SalesReportTotalsProjection totals = billRepository.sumSalesReportTotals(from, from.plusDays(1));
+
+        assertEquals(0L, totals.getBillCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(totals.getTotalAmount()));
+    }
+}
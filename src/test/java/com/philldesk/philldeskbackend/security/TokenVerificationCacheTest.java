@@ -0,0 +1,185 @@
+package com.philldesk.philldeskbackend.security;
+
+import com.philldesk.philldeskbackend.entity.RefreshToken;
+import com.philldesk.philldeskbackend.entity.Role;
+import com.philldesk.philldeskbackend.entity.User;
+import com.philldesk.philldeskbackend.repository.BillRepository;
+import com.philldesk.philldeskbackend.repository.MedicineRepository;
+import com.philldesk.philldeskbackend.repository.PrescriptionRepository;
+import com.philldesk.philldeskbackend.repository.RefreshTokenRepository;
+import com.philldesk.philldeskbackend.repository.RoleRepository;
+import com.philldesk.philldeskbackend.repository.UserRepository;
+import com.philldesk.philldeskbackend.support.SampleData;
+import io.jsonwebtoken.Claims;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * A token already verified is answered from the verified-token cache, and one belonging
+ * to a session the revocation filter does not know is authenticated by AuthTokenFilter
+ * without a query. How much the cache saves is measured by TokenVerificationBenchmark
+ * (src/jmh/java), not here.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TokenVerificationCacheTest {
+
+    private static final int TOKENS = 50;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private AuthTokenFilter authTokenFilter;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User customer;
+    private UserPrincipal principal;
+
+    @BeforeAll
+    void createUser() {
+        SampleData data = new SampleData(userRepository, roleRepository, medicineRepository,
+                prescriptionRepository, billRepository);
+        customer = data.user("token-customer", Role.RoleName.CUSTOMER);
+        principal = UserPrincipal.create(customer);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void verifiedTokenCacheSkipsSignatureCheck() {
+        List<String> tokens = freshTokens(TOKENS);
+        List<Claims> firstPass = new ArrayList<>(TOKENS);
+        for (String token : tokens) {
+            firstPass.add(jwtUtils.parseValidClaims(token));
+        }
+
+        for (int i = 0; i < TOKENS; i++) {
+            // The cached path hands back the claims verified on first sight
+            assertSame(firstPass.get(i), jwtUtils.parseValidClaims(tokens.get(i)));
+        }
+    }
+
+    @Test
+    void filterAuthenticatesCachedTokenOfLiveSessionWithoutQueries() throws Exception {
+        List<String> tokens = freshTokens(TOKENS);
+        for (String token : tokens) {
+            assertNotNull(authenticate(token));
+        }
+
+        Statistics statistics = statistics();
+        long statementsBefore = statistics.getPrepareStatementCount();
+        for (String token : tokens) {
+            assertNotNull(authenticate(token));
+        }
+        // Claims, security stamp and the revocation filter miss are all answered in memory
+        assertEquals(0, statistics.getPrepareStatementCount() - statementsBefore);
+    }
+
+    @Test
+    void revokedSessionIsConfirmedOnceThenAnsweredFromMemory() throws Exception {
+        String sessionId = UUID.randomUUID().toString();
+        String token = jwtUtils.generateJwtToken(principal, sessionId);
+        assertNotNull(authenticate(token));
+
+        // Revoked by another instance: only the periodic rebuild brings it into the filter
+        refreshTokenRepository.save(revokedRefreshToken(sessionId));
+        tokenRevocationService.rebuild();
+
+        Statistics statistics = statistics();
+        long statementsBefore = statistics.getPrepareStatementCount();
+        assertNull(authenticate(token));
+        assertEquals(1, statistics.getPrepareStatementCount() - statementsBefore,
+                "a filter hit should be confirmed against refresh_tokens");
+
+        statementsBefore = statistics.getPrepareStatementCount();
+        for (int i = 0; i < TOKENS; i++) {
+            assertNull(authenticate(token));
+        }
+        assertEquals(0, statistics.getPrepareStatementCount() - statementsBefore);
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customer/profile");
+        request.addHeader("Authorization", "Bearer " + token);
+        authTokenFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    // Each token has its own session, so none of them is in the verified-token cache yet
+    private List<String> freshTokens(int count) {
+        List<String> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tokens.add(jwtUtils.generateJwtToken(principal, UUID.randomUUID().toString()));
+        }
+        return tokens;
+    }
+
+    private RefreshToken revokedRefreshToken(String familyId) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUser(customer);
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setTokenHash((familyId + familyId).replace("-", ""));
+        refreshToken.setSecurityStamp(principal.getSecurityStamp());
+        refreshToken.setCreatedAt(now);
+        refreshToken.setExpiresAt(now.plusDays(1));
+        refreshToken.setRevokedAt(now);
+        return refreshToken;
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
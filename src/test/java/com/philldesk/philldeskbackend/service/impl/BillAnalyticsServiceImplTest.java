@@ -0,0 +1,141 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.entity.Bill;
+import com.philldesk.philldeskbackend.entity.Role;
+import com.philldesk.philldeskbackend.entity.User;
+import com.philldesk.philldeskbackend.repository.BillRepository;
+import com.philldesk.philldeskbackend.repository.MedicineRepository;
+import com.philldesk.philldeskbackend.repository.PrescriptionRepository;
+import com.philldesk.philldeskbackend.repository.RoleRepository;
+import com.philldesk.philldeskbackend.repository.UserRepository;
+import com.philldesk.philldeskbackend.service.BillAnalyticsService;
+import com.philldesk.philldeskbackend.service.BillService;
+import com.philldesk.philldeskbackend.support.SampleData;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Revenue and order values from the fact store have to agree with the bills' own
+ * totals as bills are paid, cancelled and deleted. Other test classes share the
+ * database and the store, so revenue is compared before and after, and order values
+ * are read for a pharmacist of the test's own.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BillAnalyticsServiceImplTest {
+
+    private static final BigDecimal TAX = new BigDecimal("7.25");
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillAnalyticsService billAnalyticsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    private SampleData data;
+    private User customer;
+    private User pharmacist;
+
+    @BeforeAll
+    void createUsers() {
+        data = new SampleData(userRepository, roleRepository, medicineRepository,
+                prescriptionRepository, billRepository);
+        pharmacist = data.user("analytics-pharmacist", Role.RoleName.PHARMACIST);
+        customer = data.user("analytics-customer", Role.RoleName.CUSTOMER);
+    }
+
+    @Test
+    void paidBillCountsItsTotalIncludingTax() {
+        Bill bill = pendingBill();
+        BigDecimal before = todaysRevenue();
+
+        billService.markAsPaid(bill.getId(), Bill.PaymentMethod.CARD);
+
+        assertEquals(bill.getTotalAmount(), todaysRevenue().subtract(before));
+        assertEquals(bill.getSubtotal().add(TAX), bill.getTotalAmount());
+    }
+
+    @Test
+    void paidBillWithoutPaymentTimeCountsOnItsUpdateDay() {
+        Bill bill = pendingBill();
+        BigDecimal before = todaysRevenue();
+
+        bill.setPaymentStatus(Bill.PaymentStatus.PAID);
+        Bill saved = billService.updateBill(bill);
+
+        assertNull(saved.getPaidAt());
+        assertEquals(bill.getTotalAmount(), todaysRevenue().subtract(before));
+    }
+
+    @Test
+    void billThatLeavesPaidIsTakenOut() {
+        Bill cancelled = pendingBill();
+        Bill deleted = pendingBill();
+        BigDecimal before = todaysRevenue();
+
+        billService.markAsPaid(cancelled.getId(), Bill.PaymentMethod.CASH);
+        billService.markAsPaid(deleted.getId(), Bill.PaymentMethod.CASH);
+        assertEquals(cancelled.getTotalAmount().add(deleted.getTotalAmount()), todaysRevenue().subtract(before));
+
+        billService.updateStatus(cancelled.getId(), Bill.PaymentStatus.CANCELLED);
+        assertEquals(deleted.getTotalAmount(), todaysRevenue().subtract(before));
+
+        billService.deleteBill(deleted.getId());
+        assertEquals(0, todaysRevenue().compareTo(before));
+    }
+
+    @Test
+    void orderValuePercentilesUseBillTotals() {
+        User ownPharmacist = data.user("analytics-digest-pharmacist", Role.RoleName.PHARMACIST);
+        Bill bill = data.bill(data.prescription(customer, ownPharmacist), Bill.PaymentStatus.PENDING, TAX);
+        LocalDate today = LocalDate.now();
+
+        billService.markAsPaid(bill.getId(), Bill.PaymentMethod.CASH);
+
+        Map<String, Object> summary = billAnalyticsService
+                .getOrderValuePercentilesByPharmacist(today, today).get(ownPharmacist.getId());
+        assertEquals(1L, summary.get("count"));
+        assertEquals(0, bill.getTotalAmount().compareTo((BigDecimal) summary.get("p50")));
+
+        billService.updateStatus(bill.getId(), Bill.PaymentStatus.CANCELLED);
+        assertFalse(billAnalyticsService.getOrderValuePercentilesByPharmacist(today, today)
+                .containsKey(ownPharmacist.getId()));
+    }
+
+    private Bill pendingBill() {
+        return data.bill(data.prescription(customer, pharmacist), Bill.PaymentStatus.PENDING, TAX);
+    }
+
+    private BigDecimal todaysRevenue() {
+        LocalDate today = LocalDate.now();
+        return billAnalyticsService.getRevenue(today, today);
+    }
+}
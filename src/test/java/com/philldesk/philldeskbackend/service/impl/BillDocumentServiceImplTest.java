@@ -0,0 +1,101 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.entity.Bill;
+import com.philldesk.philldeskbackend.service.BillDocumentService.DocumentType;
+import com.philldesk.philldeskbackend.service.PdfGenerationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A cached document handed to one request has to stay readable while other requests
+ * evict it, and a cached file that disappears has to be rendered again.
+ */
+class BillDocumentServiceImplTest {
+
+    private static final int DOCUMENT_BYTES = 100;
+
+    @TempDir
+    Path cacheDir;
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @Test
+    void servedDocumentSurvivesEviction() throws Exception {
+        BillDocumentServiceImpl service = service(DOCUMENT_BYTES + DOCUMENT_BYTES / 2);
+        Bill first = bill(1L);
+        service.getDocument(first, DocumentType.BILL_PDF);
+
+        Resource served = service.getDocument(first, DocumentType.BILL_PDF);
+        // Only room for one document, so this evicts the first one's file
+        service.getDocument(bill(2L), DocumentType.BILL_PDF);
+
+        assertEquals(1, fileCount());
+        assertEquals(DOCUMENT_BYTES, served.contentLength());
+        assertArrayEquals(content(1L), served.getContentAsByteArray());
+    }
+
+    @Test
+    void missingFileIsRenderedAgain() throws Exception {
+        BillDocumentServiceImpl service = service(DOCUMENT_BYTES * 10);
+        Bill bill = bill(3L);
+        service.getDocument(bill, DocumentType.BILL_PDF);
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+
+        Resource document = service.getDocument(bill, DocumentType.BILL_PDF);
+
+        assertArrayEquals(content(3L), document.getContentAsByteArray());
+        assertEquals(2, renders.get());
+        assertEquals(1, fileCount());
+    }
+
+    private BillDocumentServiceImpl service(long maxBytes) throws Exception {
+        PdfGenerationService pdfs = new PdfGenerationServiceImpl() {
+            @Override
+            public byte[] generateBillPdf(Bill bill) {
+                renders.incrementAndGet();
+                return content(bill.getId());
+            }
+        };
+        BillDocumentServiceImpl service = new BillDocumentServiceImpl(pdfs, null);
+        ReflectionTestUtils.setField(service, "cacheDir", cacheDir.toString());
+        ReflectionTestUtils.setField(service, "maxBytes", maxBytes);
+        ReflectionTestUtils.setField(service, "templateVersion", "1");
+        service.init();
+        return service;
+    }
+
+    private long fileCount() throws Exception {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            return files.count();
+        }
+    }
+
+    private static Bill bill(long id) {
+        Bill bill = new Bill();
+        bill.setId(id);
+        bill.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return bill;
+    }
+
+    private static byte[] content(long billId) {
+        byte[] content = new byte[DOCUMENT_BYTES];
+        Arrays.fill(content, (byte) billId);
+        return content;
+    }
+}
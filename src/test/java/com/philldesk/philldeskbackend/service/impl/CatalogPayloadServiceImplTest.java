@@ -0,0 +1,88 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.philldesk.philldeskbackend.dto.CatalogPayload;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Requests for a stale catalog key share one build, and that build does not hold up
+ * requests for other keys.
+ */
+class CatalogPayloadServiceImplTest {
+
+    private CatalogPayloadServiceImpl service;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        service = new CatalogPayloadServiceImpl(new ObjectMapper());
+        ReflectionTestUtils.setField(service, "maxEntries", 16);
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentRequestsShareOneBuild() throws Exception {
+        AtomicInteger builds = new AtomicInteger();
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<CatalogPayload> first = executor.submit(() -> service.getPayload("medicines", 1, () -> {
+            builds.incrementAndGet();
+            building.countDown();
+            await(release);
+            return ResponseEntity.ok(List.of("aspirin"));
+        }));
+        assertTrue(building.await(5, TimeUnit.SECONDS));
+        Future<CatalogPayload> second = executor.submit(() -> service.getPayload("medicines", 1, () -> {
+            builds.incrementAndGet();
+            return ResponseEntity.ok(List.of("aspirin"));
+        }));
+
+        // Another key is built while the first build is still running
+        CatalogPayload other = service.getPayload("categories", 1, () -> ResponseEntity.ok(List.of("analgesic")));
+        assertEquals(1, other.catalogVersion());
+
+        release.countDown();
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    void newerVersionIsBuiltAgain() {
+        CatalogPayload first = service.getPayload("medicines", 1, () -> ResponseEntity.ok(List.of("aspirin")));
+        assertSame(first, service.getPayload("medicines", 1, () -> ResponseEntity.ok(List.of("ignored"))));
+
+        CatalogPayload second = service.getPayload("medicines", 2, () -> ResponseEntity.ok(List.of("ibuprofen")));
+        assertEquals(2, second.catalogVersion());
+        assertSame(second, service.getPayload("medicines", 1, () -> ResponseEntity.ok(List.of("ignored"))));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
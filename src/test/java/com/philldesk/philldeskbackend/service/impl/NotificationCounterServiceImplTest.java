@@ -0,0 +1,124 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.entity.Role;
+import com.philldesk.philldeskbackend.repository.BillRepository;
+import com.philldesk.philldeskbackend.repository.MedicineRepository;
+import com.philldesk.philldeskbackend.repository.PrescriptionRepository;
+import com.philldesk.philldeskbackend.repository.RoleRepository;
+import com.philldesk.philldeskbackend.repository.UserRepository;
+import com.philldesk.philldeskbackend.service.NotificationCounterService;
+import com.philldesk.philldeskbackend.support.SampleData;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.Ordered;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The cached unread count has to match the counter row after every committed change,
+ * including when a read loads the row between the commit and the counter service's own
+ * after-commit callback.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NotificationCounterServiceImplTest {
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    private SampleData data;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void setUp() {
+        data = new SampleData(userRepository, roleRepository, medicineRepository,
+                prescriptionRepository, billRepository);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void committedChangeReachesCachedCount() {
+        Long userId = data.user("counter-cached", Role.RoleName.CUSTOMER).getId();
+        assertEquals(0, notificationCounterService.getUnreadCount(userId));
+
+        adjust(userId, 3);
+        assertEquals(3, notificationCounterService.getUnreadCount(userId));
+
+        adjust(userId, -1);
+        assertEquals(2, notificationCounterService.getUnreadCount(userId));
+    }
+
+    @Test
+    void readBetweenCommitAndCallbackIsNotCountedTwice() {
+        Long userId = data.user("counter-interleaved", Role.RoleName.CUSTOMER).getId();
+        adjust(userId, 2);
+        AtomicLong readInBetween = new AtomicLong(-1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationCounterService.adjustUnreadCount(userId, 1);
+            // Runs after the commit but ahead of the counter service's callback, like a
+            // poll from another request that misses the cache at that moment
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCommit() {
+                    readInBetween.set(notificationCounterService.getUnreadCount(userId));
+                }
+            });
+        });
+
+        assertEquals(3, readInBetween.get());
+        assertEquals(3, notificationCounterService.getUnreadCount(userId));
+    }
+
+    @Test
+    void rolledBackChangeLeavesCountAlone() {
+        Long userId = data.user("counter-rollback", Role.RoleName.CUSTOMER).getId();
+        adjust(userId, 1);
+        assertEquals(1, notificationCounterService.getUnreadCount(userId));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationCounterService.adjustUnreadCount(userId, 5);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(1, notificationCounterService.getUnreadCount(userId));
+    }
+
+    private void adjust(Long userId, long delta) {
+        transactionTemplate.executeWithoutResult(status -> notificationCounterService.adjustUnreadCount(userId, delta));
+    }
+}
@@ -0,0 +1,123 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.entity.Bill;
+import com.philldesk.philldeskbackend.entity.Prescription;
+import com.philldesk.philldeskbackend.entity.Role;
+import com.philldesk.philldeskbackend.entity.User;
+import com.philldesk.philldeskbackend.repository.BillRepository;
+import com.philldesk.philldeskbackend.repository.MedicineRepository;
+import com.philldesk.philldeskbackend.repository.PrescriptionRepository;
+import com.philldesk.philldeskbackend.repository.RoleRepository;
+import com.philldesk.philldeskbackend.repository.UserRepository;
+import com.philldesk.philldeskbackend.service.ArchiveService;
+import com.philldesk.philldeskbackend.support.SampleData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bills leave the hot tables only through the archive job; partition maintenance keeps
+ * creating bill partitions but never detaches one, so a bill too old for the hot
+ * endpoints but not yet settled stays where they find it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PartitionMaintenanceServiceImplTest {
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Test
+    void onlyNotificationPartitionsAreDetached() {
+        RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate();
+        PartitionMaintenanceServiceImpl service = new PartitionMaintenanceServiceImpl(jdbc);
+        ReflectionTestUtils.setField(service, "monthsAhead", 3);
+        ReflectionTestUtils.setField(service, "notificationRetentionMonths", 12);
+
+        service.createUpcomingPartitions();
+        assertEquals(List.of("bills", "bill_items", "notifications"), jdbc.tablesCalledWith("ensure_monthly_partitions"));
+
+        service.archiveExpiredPartitions();
+        assertEquals(List.of("notifications"), jdbc.tablesCalledWith("archive_monthly_partitions"));
+    }
+
+    @Test
+    void oldBillsAreArchivedWhenSettledAndKeptWhenNot() {
+        SampleData data = new SampleData(userRepository, roleRepository, medicineRepository,
+                prescriptionRepository, billRepository);
+        User pharmacist = data.user("archive-pharmacist", Role.RoleName.PHARMACIST);
+        User customer = data.user("archive-customer", Role.RoleName.CUSTOMER);
+        Bill settled = data.bill(completedPrescription(data, customer, pharmacist), Bill.PaymentStatus.PAID, BigDecimal.ONE);
+        Bill pending = data.bill(completedPrescription(data, customer, pharmacist), Bill.PaymentStatus.PENDING, BigDecimal.ONE);
+        // Older than the archive horizon and than any bill retention the partitions once had
+        Timestamp longAgo = Timestamp.valueOf(LocalDateTime.now().minusYears(8));
+        for (Bill bill : List.of(settled, pending)) {
+            jdbcTemplate.update("UPDATE bills SET created_at = ? WHERE id = ?", longAgo, bill.getId());
+            jdbcTemplate.update("UPDATE prescriptions SET created_at = ? WHERE id = ?",
+                    longAgo, bill.getPrescription().getId());
+        }
+
+        archiveService.archiveSettledRecords();
+
+        assertFalse(billRepository.existsById(settled.getId()));
+        assertTrue(archiveService.getArchivedBill(settled.getId()).isPresent());
+        assertTrue(billRepository.existsById(pending.getId()));
+        assertTrue(archiveService.getArchivedBill(pending.getId()).isEmpty());
+    }
+
+    private Prescription completedPrescription(SampleData data, User customer, User pharmacist) {
+        Prescription prescription = data.prescription(customer, pharmacist);
+        prescription.setStatus(Prescription.PrescriptionStatus.COMPLETED);
+        return prescriptionRepository.save(prescription);
+    }
+
+    // Stands in for the PostgreSQL partition functions, which the H2 test database lacks
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+
+        private final List<String> calls = new ArrayList<>();
+
+        @Override
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            calls.add(sql + " " + args[0]);
+            return List.of();
+        }
+
+        List<String> tablesCalledWith(String function) {
+            return calls.stream()
+                    .filter(call -> call.contains(function + "("))
+                    .map(call -> call.substring(call.lastIndexOf(' ') + 1))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.philldesk.philldeskbackend.entity.Prescription;
+import com.philldesk.philldeskbackend.entity.PrescriptionStatusEvent;
+import com.philldesk.philldeskbackend.entity.Role;
+import com.philldesk.philldeskbackend.entity.User;
+import com.philldesk.philldeskbackend.repository.BillRepository;
+import com.philldesk.philldeskbackend.repository.MedicineRepository;
+import com.philldesk.philldeskbackend.repository.PrescriptionRepository;
+import com.philldesk.philldeskbackend.repository.PrescriptionStatusEventRepository;
+import com.philldesk.philldeskbackend.repository.RoleRepository;
+import com.philldesk.philldeskbackend.repository.UserRepository;
+import com.philldesk.philldeskbackend.service.PrescriptionWorkflowService;
+import com.philldesk.philldeskbackend.support.SampleData;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Workflow counters are folded in from the shared event log, so transitions recorded by
+ * another instance count the same as this instance's own, each exactly once. Every test
+ * attributes its events to a pharmacist of its own.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PrescriptionWorkflowServiceImplTest {
+
+    @Autowired
+    private PrescriptionWorkflowService prescriptionWorkflowService;
+
+    @Autowired
+    private PrescriptionStatusEventRepository eventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    private SampleData data;
+    private User customer;
+
+    @BeforeAll
+    void createCustomer() {
+        data = new SampleData(userRepository, roleRepository, medicineRepository,
+                prescriptionRepository, billRepository);
+        customer = data.user("workflow-customer", Role.RoleName.CUSTOMER);
+    }
+
+    @Test
+    void ownTransitionIsCountedOnce() {
+        User pharmacist = data.user("workflow-own", Role.RoleName.PHARMACIST);
+        Prescription prescription = data.prescription(customer, pharmacist);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                prescriptionWorkflowService.recordTransition(prescription, Prescription.PrescriptionStatus.PENDING));
+
+        assertEquals(1L, approvedToday(pharmacist));
+        assertEquals(1L, approvedToday(pharmacist));
+    }
+
+    @Test
+    void transitionOfAnotherInstanceIsCounted() {
+        User pharmacist = data.user("workflow-remote", Role.RoleName.PHARMACIST);
+        assertEquals(0L, approvedToday(pharmacist));
+
+        // Written straight to the log, as another instance would
+        eventRepository.save(approval(pharmacist, LocalDateTime.now()));
+
+        assertEquals(1L, approvedToday(pharmacist));
+        assertEquals(1L, approvedToday(pharmacist));
+    }
+
+    @Test
+    void transitionCommittedAfterANewerOneIsCounted() {
+        User pharmacist = data.user("workflow-late", Role.RoleName.PHARMACIST);
+        LocalDateTime now = LocalDateTime.now();
+        eventRepository.save(approval(pharmacist, now));
+        assertEquals(1L, approvedToday(pharmacist));
+
+        // Stamped before the event already folded in, committed after it
+        eventRepository.save(approval(pharmacist, now.minusSeconds(1)));
+
+        assertEquals(2L, approvedToday(pharmacist));
+    }
+
+    private PrescriptionStatusEvent approval(User pharmacist, LocalDateTime occurredAt) {
+        PrescriptionStatusEvent event = new PrescriptionStatusEvent();
+        event.setPrescriptionId(data.prescription(customer, pharmacist).getId());
+        event.setFromStatus(Prescription.PrescriptionStatus.PENDING);
+        event.setToStatus(Prescription.PrescriptionStatus.APPROVED);
+        event.setPharmacistId(pharmacist.getId());
+        event.setOccurredAt(occurredAt);
+        return event;
+    }
+
+    private Object approvedToday(User pharmacist) {
+        LocalDate today = LocalDate.now();
+        Map<String, Object> stats = prescriptionWorkflowService.getPharmacistProductivity(today, today)
+                .get(pharmacist.getId());
+        return stats != null ? stats.get("approved") : 0L;
+    }
+}
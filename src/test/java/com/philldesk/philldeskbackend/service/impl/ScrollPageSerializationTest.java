@@ -0,0 +1,122 @@
+package com.philldesk.philldeskbackend.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.philldesk.philldeskbackend.dto.BillResponseDTO;
+import com.philldesk.philldeskbackend.dto.PageResponse;
+import com.philldesk.philldeskbackend.dto.PrescriptionResponseDTO;
+import com.philldesk.philldeskbackend.entity.Bill;
+import com.philldesk.philldeskbackend.entity.Prescription;
+import com.philldesk.philldeskbackend.entity.Role;
+import com.philldesk.philldeskbackend.entity.User;
+import com.philldesk.philldeskbackend.repository.BillRepository;
+import com.philldesk.philldeskbackend.repository.MedicineRepository;
+import com.philldesk.philldeskbackend.repository.PrescriptionRepository;
+import com.philldesk.philldeskbackend.repository.RoleRepository;
+import com.philldesk.philldeskbackend.repository.UserRepository;
+import com.philldesk.philldeskbackend.service.BillService;
+import com.philldesk.philldeskbackend.service.PrescriptionService;
+import com.philldesk.philldeskbackend.support.SampleData;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A keyset page returned by the services is rendered after their transaction has
+ * ended, so everything the response DTOs read must already be loaded.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ScrollPageSerializationTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private PrescriptionService prescriptionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    private User customer;
+
+    @BeforeAll
+    void createBills() {
+        SampleData data = new SampleData(userRepository, roleRepository, medicineRepository,
+                prescriptionRepository, billRepository);
+        User pharmacist = data.user("scroll-pharmacist", Role.RoleName.PHARMACIST);
+        customer = data.user("scroll-customer", Role.RoleName.CUSTOMER);
+        for (int i = 0; i < PAGE_SIZE * 2; i++) {
+            data.bill(data.prescription(customer, pharmacist), Bill.PaymentStatus.PENDING, BigDecimal.ONE);
+        }
+    }
+
+    @Test
+    void billScrollPagesSerializeOutsideTheSession() throws Exception {
+        KeysetScrollPosition first = ScrollPosition.keyset();
+        Window<Bill> page = billService.scrollBills(first, PAGE_SIZE);
+        assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+
+        JsonNode json = serialize(PageResponse.from(page.map(BillResponseDTO::fromEntity), first));
+        assertRows(json, "prescriptionNumber");
+        assertTrue(json.path("nextCursor").isTextual(), "first page should offer a cursor");
+
+        Window<Bill> own = billService.scrollBillsByCustomerId(customer.getId(), first, PAGE_SIZE);
+        assertRows(serialize(PageResponse.from(own.map(BillResponseDTO::fromEntity), first)), "prescriptionNumber");
+    }
+
+    @Test
+    void prescriptionScrollPagesSerializeOutsideTheSession() throws Exception {
+        KeysetScrollPosition first = ScrollPosition.keyset();
+        Window<Prescription> page = prescriptionService.scrollPrescriptions(first, PAGE_SIZE);
+        assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+
+        assertRows(serialize(PageResponse.from(page.map(PrescriptionResponseDTO::fromEntity), first)), "customerName");
+
+        Window<Prescription> own = prescriptionService.scrollPrescriptionsByCustomerId(customer.getId(), first, PAGE_SIZE);
+        assertRows(serialize(PageResponse.from(own.map(PrescriptionResponseDTO::fromEntity), first)), "customerName");
+    }
+
+    private JsonNode serialize(Object response) throws Exception {
+        return objectMapper.readTree(objectMapper.writeValueAsString(response));
+    }
+
+    private static void assertRows(JsonNode json, String field) {
+        JsonNode rows = json.path("content");
+        assertEquals(PAGE_SIZE, rows.size());
+        for (JsonNode row : rows) {
+            assertTrue(row.path(field).isTextual(), field + " missing from " + row);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.philldesk.philldeskbackend.support;
+
+import com.philldesk.philldeskbackend.entity.Bill;
+import com.philldesk.philldeskbackend.entity.BillItem;
+import com.philldesk.philldeskbackend.entity.Medicine;
+import com.philldesk.philldeskbackend.entity.Prescription;
+import com.philldesk.philldeskbackend.entity.Role;
+import com.philldesk.philldeskbackend.entity.User;
+import com.philldesk.philldeskbackend.repository.BillRepository;
+import com.philldesk.philldeskbackend.repository.MedicineRepository;
+import com.philldesk.philldeskbackend.repository.PrescriptionRepository;
+import com.philldesk.philldeskbackend.repository.RoleRepository;
+import com.philldesk.philldeskbackend.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Builds users, prescriptions and bills for integration tests against the migrated
+ * H2 database. Names carry a random suffix so that test classes sharing the database
+ * do not collide.
+ */
+public final class SampleData {
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final MedicineRepository medicineRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final BillRepository billRepository;
+
+    public SampleData(UserRepository userRepository, RoleRepository roleRepository,
+                      MedicineRepository medicineRepository, PrescriptionRepository prescriptionRepository,
+                      BillRepository billRepository) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.medicineRepository = medicineRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.billRepository = billRepository;
+    }
+
+    public User user(String prefix, Role.RoleName roleName) {
+        String username = prefix + "-" + suffix();
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("not-a-real-hash");
+        user.setFirstName("Test");
+        user.setLastName(roleName.name());
+        user.setRole(roleRepository.findByName(roleName).orElseThrow());
+        return userRepository.save(user);
+    }
+
+    public Prescription prescription(User customer, User pharmacist) {
+        Prescription prescription = new Prescription();
+        prescription.setPrescriptionNumber("RX-" + suffix());
+        prescription.setCustomer(customer);
+        prescription.setPharmacist(pharmacist);
+        prescription.setDoctorName("Dr. Test");
+        prescription.setStatus(Prescription.PrescriptionStatus.APPROVED);
+        return prescriptionRepository.save(prescription);
+    }
+
+    /**
+     * A bill for the prescription with one line per sample medicine, priced at the
+     * medicines' unit price, with the given tax on top.
+     */
+    public Bill bill(Prescription prescription, Bill.PaymentStatus status, BigDecimal tax) {
+        Bill bill = new Bill();
+        bill.setBillNumber("BILL-" + suffix());
+        bill.setPrescription(prescription);
+        bill.setCustomer(prescription.getCustomer());
+        bill.setPharmacist(prescription.getPharmacist());
+        bill.setPaymentStatus(status);
+        bill.setPaymentMethod(Bill.PaymentMethod.CASH);
+        if (status == Bill.PaymentStatus.PAID) {
+            bill.setPaidAt(LocalDateTime.now());
+        }
+
+        Set<BillItem> items = new HashSet<>();
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (Medicine medicine : medicines()) {
+            BillItem item = new BillItem();
+            item.setBill(bill);
+            item.setMedicine(medicine);
+            item.setQuantity(1);
+            item.setUnitPrice(medicine.getUnitPrice());
+            item.setTotalPrice(medicine.getUnitPrice());
+            items.add(item);
+            subtotal = subtotal.add(medicine.getUnitPrice());
+        }
+        bill.setBillItems(items);
+        bill.setSubtotal(subtotal);
+        bill.setTax(tax);
+        return billRepository.save(bill);
+    }
+
+    private List<Medicine> medicines() {
+        return medicineRepository.findAll().stream().limit(2).toList();
+    }
+
+    private static String suffix() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}